@@ -0,0 +1,27 @@
+package com.darkmatterservers.eclipsebot.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Swaps System.out for a discarding stream so LoggerService output doesn't flood the JMH console.
+ * Formatting and encoding still happen; only the terminal write is skipped.
+ */
+public final class Quiet {
+
+    private static PrintStream original;
+
+    private Quiet() {}
+
+    public static synchronized void on() {
+        if (original != null) return;
+        original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream(), false));
+    }
+
+    public static synchronized void off() {
+        if (original == null) return;
+        System.setOut(original);
+        original = null;
+    }
+}
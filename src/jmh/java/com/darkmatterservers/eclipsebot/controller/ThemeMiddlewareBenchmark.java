@@ -0,0 +1,52 @@
+package com.darkmatterservers.eclipsebot.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThemeMiddleware.wrap (String) vs render (pre-encoded UTF-8 shell) for a typical status-sized body,
+ * plus serving a prerendered StaticPage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThemeMiddlewareBenchmark {
+
+    private static final String BODY = """
+        <h2>📊 Bot Status</h2>
+        <ul>
+          <li><strong>App Status:</strong> ✅ Online</li>
+          <li><strong>Discord Connection:</strong> CONNECTED</li>
+          <li><strong>Bot Name:</strong> EclipseBot</li>
+          <li><strong>Bot ID:</strong> 123456789012345678</li>
+        </ul>
+        <a href="/">Back to home</a>
+        """;
+
+    private static final StaticPage STATIC = ThemeMiddleware.prerender("Bot Status", BODY);
+    private static final String CURRENT_ETAG = STATIC.serve(null, "gzip").getHeaders().getETag();
+
+    @Benchmark
+    public String wrap() {
+        return ThemeMiddleware.wrap("Bot Status", BODY);
+    }
+
+    @Benchmark
+    public byte[] render() {
+        return ThemeMiddleware.render("Bot Status", BODY);
+    }
+
+    @Benchmark
+    public Object serveStaticGzip() {
+        return STATIC.serve(null, "gzip, deflate, br");
+    }
+
+    @Benchmark
+    public Object serveStaticNotModified() {
+        return STATIC.serve(CURRENT_ETAG, "gzip");
+    }
+}
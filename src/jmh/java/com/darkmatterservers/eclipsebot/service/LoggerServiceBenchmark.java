@@ -0,0 +1,51 @@
+package com.darkmatterservers.eclipsebot.service;
+
+import com.darkmatterservers.eclipsebot.bench.Quiet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoggerService.info (console path, no Discord mirror) and the masking helper used by the mirror.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerServiceBenchmark {
+
+    private LoggerService logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Quiet.on();
+        logger = new LoggerService(null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Quiet.off();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.info("[DebugListener] button id=next user=123456789012345678", "com.darkmatterservers.eclipsebot.service.discord.DebugListener");
+    }
+
+    @Benchmark
+    public String maskSensitiveSource() {
+        return LoggerService.maskIfSensitive("discord.token", "Updated config: discord.token = abcdefghijklmnop");
+    }
+
+    @Benchmark
+    public String maskSensitiveMessage() {
+        return LoggerService.maskIfSensitive("YamlService", "📝 Updated config: discord.token = abcdefghijklmnop");
+    }
+
+    @Benchmark
+    public String maskPlain() {
+        return LoggerService.maskIfSensitive("DebugListener", "[DebugListener] button id=next user=123456789012345678");
+    }
+}
@@ -0,0 +1,69 @@
+package com.darkmatterservers.eclipsebot.service.config;
+
+import com.darkmatterservers.eclipsebot.bench.Quiet;
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YamlService.deepMerge with the InitYaml defaults against a populated config, as ConfigMigrator runs it
+ * on the slow path (boots with an up-to-date stamp skip it).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigMigratorBenchmark {
+
+    @Param({"10", "200"})
+    public int guilds;
+
+    private YamlService yamlService;
+    private Map<String, Object> defaults;
+    private Map<String, Object> existing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Quiet.on();
+        yamlService = new YamlService(new LoggerService(null));
+        defaults = new LinkedHashMap<>();
+        defaults.put("discord", new LinkedHashMap<>(Map.of("token", "your-token-here", "botId", "your-bot-id-here")));
+        defaults.put("bootstrapped", false);
+        defaults.put("guildId", "your-guild-id-here");
+        defaults.put("adminId", "your-admin-id-here");
+        defaults.put("portRange", new LinkedHashMap<>(Map.of("start", 5000, "end", 5100)));
+        defaults.put("fqdn", "example.com");
+        defaults.put("consoleChannelId", "");
+        defaults.put("logsChannelId", "");
+        defaults.put("waitingRoomChannelId", "");
+
+        existing = new LinkedHashMap<>();
+        existing.put("discord", new LinkedHashMap<>(Map.of("token", "real-token", "botId", "123", "adminId", "456")));
+        existing.put("bootstrapped", true);
+        Map<String, Object> guildMap = new LinkedHashMap<>();
+        for (int i = 0; i < guilds; i++) {
+            guildMap.put(String.valueOf(900_000_000_000_000_000L + i), new LinkedHashMap<>(Map.of(
+                    "guildName", "Guild " + i,
+                    "modsRole", "Mods",
+                    "playersRole", "Players",
+                    "adminCategory", "Admin Panel"
+            )));
+        }
+        existing.put("guilds", guildMap);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Quiet.off();
+    }
+
+    @Benchmark
+    public Map<String, Object> deepMerge() {
+        return yamlService.deepMerge(defaults, existing);
+    }
+}
@@ -0,0 +1,71 @@
+package com.darkmatterservers.eclipsebot.service.config;
+
+import com.darkmatterservers.eclipsebot.bench.Quiet;
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * YamlService get/set/save against a config.yaml in the benchmark working directory
+ * (build/jmh-work when run through the Gradle "jmh" task).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YamlServiceBenchmark {
+
+    @Param({"10", "200"})
+    public int guilds;
+
+    private YamlService yamlService;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Quiet.on();
+        yamlService = new YamlService(new LoggerService(null));
+        yamlService.set("discord.token", "bench-token-value-0123456789");
+        yamlService.set("discord.botId", "123456789012345678");
+        for (int i = 0; i < guilds; i++) {
+            Map<String, Object> guild = new LinkedHashMap<>();
+            guild.put("guildId", String.valueOf(900_000_000_000_000_000L + i));
+            guild.put("guildName", "Guild " + i);
+            guild.put("modsRole", "Mods");
+            guild.put("playersRole", "Players");
+            guild.put("adminCategory", "Admin Panel");
+            yamlService.put("guilds." + (900_000_000_000_000_000L + i), guild);
+        }
+        yamlService.save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Quiet.off();
+    }
+
+    @Benchmark
+    public String getShallow() {
+        return yamlService.getString("discord.token");
+    }
+
+    @Benchmark
+    public Object getDeep() {
+        return yamlService.get("guilds.900000000000000000.modsRole");
+    }
+
+    @Benchmark
+    public void set() {
+        yamlService.set("bench.counter", counter++);
+    }
+
+    @Benchmark
+    public void save() {
+        yamlService.save();
+    }
+}
@@ -0,0 +1,70 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.builder.Buttons;
+import com.darkmatterservers.chain.Page;
+import com.darkmatterservers.chain.PagedChain;
+import com.darkmatterservers.eclipsebot.bench.Quiet;
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import com.darkmatterservers.eclipsebot.sim.FakeDiscord;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Bytes button handling end-to-end (route -> ack -> render -> edit) against the offline
+ * FakeDiscord in inline mode (REST actions complete synchronously). Measures our overhead, not Discord's.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BytesBenchmark {
+
+    private static final long USER_ID = 100_000_000_000_000_000L;
+
+    private FakeDiscord fake;
+    private Bytes bytes;
+    private ButtonInteractionEvent next;
+    private ButtonInteractionEvent back;
+    private boolean forward;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Quiet.on();
+        fake = new FakeDiscord(FakeDiscord.Config.inline());
+        AtomicReference<JDA> jdaRef = new AtomicReference<>(fake.jda());
+        OutboundScheduler outbound = new OutboundScheduler(null, null);
+        bytes = new Bytes(jdaRef, new LoggerService(null), new InteractionTracer(), new PrivateChannelCache(jdaRef, outbound), outbound,
+                StatelessChainCodec.withKey(new byte[32]));
+
+        PagedChain chain = new PagedChain.Builder()
+                .chainId("Bench")
+                .addPage(new Page("First", "first page").withButton(3, Buttons.next()))
+                .addPage(new Page("Second", "second page").withButton(0, Buttons.back()).withButton(3, Buttons.next()))
+                .addPage(new Page("Third", "third page").withButton(0, Buttons.back()))
+                .wireNavigation(Buttons.ID_BACK, Buttons.ID_NEXT, Buttons.ID_DONE)
+                .build();
+
+        bytes.startChannelPagedChain(String.valueOf(USER_ID), fake.channel(USER_ID), chain);
+        next = fake.button(USER_ID, Buttons.ID_NEXT);
+        back = fake.button(USER_ID, Buttons.ID_BACK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fake.close();
+        Quiet.off();
+    }
+
+    @Benchmark
+    public void buttonClick() {
+        bytes.handleButtonInteraction(forward ? next : back);
+        forward = !forward;
+    }
+}
@@ -0,0 +1,49 @@
+package com.darkmatterservers.eclipsebot.service.discord.chains;
+
+import com.darkmatterservers.builder.PageRenderer;
+import com.darkmatterservers.chain.PagedChain;
+import com.darkmatterservers.context.ComponentContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageRenderer.render for each MasterGuildSetup page, with realistic dropdown sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MasterGuildSetupRenderBenchmark {
+
+    @Param({"0", "1", "2", "3"})
+    public int page;
+
+    private PagedChain chain;
+    private ComponentContext ctx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> names = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            names.add("Guild " + i);
+            ids.add(String.valueOf(900_000_000_000_000_000L + i));
+            categories.add("Category " + i);
+        }
+        MasterGuildSetup setup = new MasterGuildSetup(null, null, null, null, null, null, null, null);
+        chain = setup.buildChain(names, ids, List.of(), categories);
+        ctx = new ComponentContext("1000");
+        ctx.put(MasterGuildSetup.ID_DD_SERVER + ".selected", "Guild 3");
+    }
+
+    @Benchmark
+    public PageRenderer.Rendered render() {
+        return PageRenderer.render(chain.chainId(), page, chain.totalPages(), chain.page(page), ctx);
+    }
+}
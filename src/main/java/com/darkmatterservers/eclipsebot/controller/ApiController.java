@@ -0,0 +1,140 @@
+package com.darkmatterservers.eclipsebot.controller;
+
+import com.darkmatterservers.eclipsebot.service.archipelago.ArchipelagoService;
+import com.darkmatterservers.eclipsebot.service.archipelago.WarmRoomPool;
+import com.darkmatterservers.eclipsebot.service.discord.AdaptiveConcurrencyLimiter;
+import com.darkmatterservers.eclipsebot.service.discord.Bytes;
+import com.darkmatterservers.eclipsebot.service.discord.ChainRouter;
+import com.darkmatterservers.eclipsebot.service.discord.DiscordService;
+import com.darkmatterservers.eclipsebot.service.discord.DiscordStatusFeed;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
+import com.darkmatterservers.eclipsebot.service.discord.RateLimitTelemetry;
+import net.dv8tion.jda.api.JDA;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Operational JSON under /api/* for dashboards and scripts: bot state, rooms, outbound lanes,
+ * rate limits and chain routes.
+ * <p>
+ * Read-only snapshots of in-memory stats; nothing here logs. Probes live in HealthController.
+ */
+@RestController
+public class ApiController {
+
+    private final DiscordService discordService;
+    private final DiscordStatusFeed statusFeed;
+    private final ArchipelagoService archipelagoService;
+    private final OutboundScheduler outbound;
+    private final RateLimitTelemetry rateLimits;
+    private final AdaptiveConcurrencyLimiter bulkLimiter;
+    private final Bytes bytes;
+
+    public ApiController(DiscordService discordService, DiscordStatusFeed statusFeed, ArchipelagoService archipelagoService,
+                         OutboundScheduler outbound, RateLimitTelemetry rateLimits, AdaptiveConcurrencyLimiter bulkLimiter,
+                         Bytes bytes) {
+        this.discordService = discordService;
+        this.statusFeed = statusFeed;
+        this.archipelagoService = archipelagoService;
+        this.outbound = outbound;
+        this.rateLimits = rateLimits;
+        this.bulkLimiter = bulkLimiter;
+        this.bytes = bytes;
+    }
+
+    /** Structured bot state for dashboards and scripts. */
+    @GetMapping(value = "/api/status", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StatusResponse status() {
+        JDA jda = discordService.getJDA();
+        String botName = null;
+        String botId = null;
+        if (jda != null) {
+            try {
+                botName = jda.getSelfUser().getName();
+                botId = jda.getSelfUser().getId();
+            } catch (Exception ignored) {
+                // not logged in yet
+            }
+        }
+        return new StatusResponse(
+                discordService.isReady(),
+                discordService.isRunning(),
+                statusFeed.latestState().name().toLowerCase(Locale.ROOT),
+                statusFeed.latestReason(),
+                jda != null ? jda.getStatus().name() : null,
+                botName,
+                botId,
+                jda != null ? jda.getGatewayPing() : -1,
+                jda != null ? jda.getGuildCache().size() : 0,
+                ManagementFactory.getRuntimeMXBean().getUptime()
+        );
+    }
+
+    public record StatusResponse(boolean ready,
+                                 boolean running,
+                                 String state,
+                                 String reason,
+                                 String connection,
+                                 String botName,
+                                 String botId,
+                                 long gatewayPingMs,
+                                 long guilds,
+                                 long uptimeMs) {}
+
+    /** Hosted rooms, port pool usage and warm pool metrics (hit/miss, time-to-room). */
+    @GetMapping(value = "/api/rooms", produces = MediaType.APPLICATION_JSON_VALUE)
+    public RoomsResponse rooms() {
+        List<RoomView> rooms = archipelagoService.getRooms().stream()
+                .map(r -> new RoomView(r.id(), r.name(), r.ownerId(), r.port(), archipelagoService.address(r),
+                        r.state().name().toLowerCase(), r.expiresAtMs()))
+                .toList();
+        return new RoomsResponse(
+                archipelagoService.runnerName(),
+                archipelagoService.capacity(),
+                archipelagoService.freePorts(),
+                archipelagoService.warmPoolStats(),
+                rooms
+        );
+    }
+
+    public record RoomsResponse(String runner,
+                                int portCapacity,
+                                int freePorts,
+                                WarmRoomPool.Stats warmPool,
+                                List<RoomView> rooms) {}
+
+    public record RoomView(long id,
+                           String name,
+                           String ownerId,
+                           int port,
+                           String address,
+                           String state,
+                           long expiresAtMs) {}
+
+    /** Outbound REST lanes: caps, backlog, drops and queue-time percentiles per priority class. */
+    @GetMapping(value = "/api/outbound", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<OutboundScheduler.LaneStats> outbound() {
+        return outbound.stats();
+    }
+
+    /** Discord REST rate limits per route (bucket headers, 429s) and the bulk limiter's current concurrency. */
+    @GetMapping(value = "/api/ratelimits", produces = MediaType.APPLICATION_JSON_VALUE)
+    public RateLimitsResponse rateLimits() {
+        return new RateLimitsResponse(rateLimits.totals(), bulkLimiter.stats(), rateLimits.snapshot());
+    }
+
+    public record RateLimitsResponse(RateLimitTelemetry.Totals totals,
+                                     AdaptiveConcurrencyLimiter.Stats bulk,
+                                     List<RateLimitTelemetry.RouteView> routes) {}
+
+    /** Per-chain interaction handlers: invocations, errors and latency. */
+    @GetMapping(value = "/api/routes", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<ChainRouter.HandlerStats> routes() {
+        return bytes.routeStats();
+    }
+}
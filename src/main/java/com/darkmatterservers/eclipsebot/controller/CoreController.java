@@ -3,46 +3,139 @@ package com.darkmatterservers.eclipsebot.controller;
 import com.darkmatterservers.eclipsebot.service.LoggerService;
 import com.darkmatterservers.eclipsebot.service.config.YamlService;
 import com.darkmatterservers.eclipsebot.service.discord.DiscordService;
+import com.darkmatterservers.eclipsebot.service.discord.DiscordStatusFeed;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer.Stage;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer.TraceView;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.SelfUser;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Controller
 public class CoreController {
 
+    // ===== Static pages (rendered, gzipped and ETag'd once) =====
+
+    private static final StaticPage HOME_PAGE = ThemeMiddleware.prerender("Welcome to EclipseBot", """
+            <h1>🌌 EclipseBot Control Panel</h1>
+            <p>Welcome! Use the links below to interact:</p>
+            <ul>
+              <li><a href="/ding">Ping Bot</a></li>
+              <li><a href="/status">Check Status</a></li>
+              <li><a href="/traces">Interaction Traces</a></li>
+              <li><a href="/setup">Setup Discord Bot</a></li>
+            </ul>
+        """);
+
+    private static final StaticPage SETUP_FORM_PAGE = ThemeMiddleware.prerender("EclipseBot Setup", """
+            <h2>🔧 Setup EclipseBot</h2>
+            <form method="POST" action="/setup">
+              <label for="token">Discord Token:</label><br>
+              <input type="text" id="token" name="token" required><br><br>
+
+              <label for="botId">Bot ID:</label><br>
+              <input type="text" id="botId" name="botId" required><br><br>
+
+              <label for="adminId">Admin Discord ID:</label><br>
+              <input type="text" id="adminId" name="adminId" required><br><br>
+
+              <button type="submit">Save and Restart Bot</button>
+            </form>
+        """);
+
+    private static final StaticPage SETUP_WAITING_PAGE = ThemeMiddleware.prerender("Waiting for Bot", """
+            <h2>♻️ Restarting DiscordService...</h2>
+            <p>Please wait while the bot restarts.</p>
+            <p>You will be redirected once it is back online.</p>
+
+            <p><strong>Status:</strong> <span id="state">waiting…</span></p>
+
+            <script>
+              // Pushed by /status/stream; EventSource reconnects on its own if the server restarts
+              const label = document.getElementById("state");
+              const stream = new EventSource("/status/stream");
+              stream.addEventListener("status", (e) => {
+                const s = JSON.parse(e.data);
+                label.textContent = s.state + (s.status ? " (" + s.status + ", " + s.progress + "%)" : "")
+                    + (s.reason ? " — " + s.reason : "");
+                if (s.state === "ready") {
+                  stream.close();
+                  window.location.href = "/status";
+                }
+              });
+            </script>
+        """);
+
     private final LoggerService logger;
     private final DiscordService discordService;
     private final YamlService yamlService;
+    private final InteractionTracer tracer;
+    private final DiscordStatusFeed statusFeed;
 
-    public CoreController(LoggerService logger, DiscordService discordService, YamlService yamlService) {
+    // Live rate-limit table on /status: polls /api/ratelimits (ApiController) every two seconds
+    private static final String RATE_LIMIT_PANEL = """
+            <h3>🚦 Discord Rate Limits</h3>
+            <p id="rl-totals">loading…</p>
+            <table id="rl-table"><thead><tr><th>Route</th><th>Bucket</th><th>Remaining</th><th>Reset (ms)</th>
+              <th>Requests</th><th>429s</th><th>Last retry-after (ms)</th><th>Scope</th></tr></thead><tbody></tbody></table>
+            <script>
+              const rlBody = document.querySelector("#rl-table tbody");
+              const rlTotals = document.getElementById("rl-totals");
+              const cell = (row, v) => { const td = row.insertCell(); td.textContent = v === null || v < 0 ? "–" : v; };
+              async function refreshRateLimits() {
+                try {
+                  const r = await (await fetch("/api/ratelimits", { cache: "no-store" })).json();
+                  rlTotals.textContent = r.totals.requests + " requests, " + r.totals.rateLimited + " rate limited ("
+                      + r.totals.globalRateLimited + " global) · bulk concurrency " + r.bulk.limit.toFixed(1)
+                      + " (" + r.bulk.inFlight + " running, " + r.bulk.queued + " waiting)";
+                  rlBody.replaceChildren();
+                  for (const x of r.routes) {
+                    const row = rlBody.insertRow();
+                    [x.route, x.bucket, x.limit < 0 ? null : x.remaining + "/" + x.limit, x.resetInMs,
+                     x.requests, x.rateLimited, x.rateLimited ? x.lastRetryAfterMs : null, x.lastScope]
+                        .forEach(v => cell(row, v));
+                  }
+                } catch (e) {
+                  rlTotals.textContent = "unavailable";
+                }
+              }
+              refreshRateLimits();
+              setInterval(refreshRateLimits, 2000);
+            </script>
+            """;
+
+    // Clients reconnect automatically after this and immediately get the latest state again
+    private static final long STATUS_STREAM_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    public CoreController(LoggerService logger, DiscordService discordService, YamlService yamlService,
+                          InteractionTracer tracer, DiscordStatusFeed statusFeed) {
         this.logger = logger;
         this.discordService = discordService;
         this.yamlService = yamlService;
+        this.tracer = tracer;
+        this.statusFeed = statusFeed;
     }
 
     @GetMapping(value = "/", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseBody
-    public String root() {
+    public ResponseEntity<byte[]> root(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         logger.info("🌐 GET / requested — responding with homepage");
-
-        return ThemeMiddleware.wrap("Welcome to EclipseBot", """
-            <h1>🌌 EclipseBot Control Panel</h1>
-            <p>Welcome! Use the links below to interact:</p>
-            <ul>
-              <li><a href="/ding">Ping Bot</a></li>
-              <li><a href="/status">Check Status</a></li>
-              <li><a href="/setup">Setup Discord Bot</a></li>
-            </ul>
-        """);
+        return HOME_PAGE.serve(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping(value = "/ding", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseBody
-    public String ding() {
+    public ResponseEntity<byte[]> ding() {
         logger.info("🔄 GET /ding requested — checking bot status");
 
         String botName = "Unavailable";
@@ -69,12 +162,11 @@ public class CoreController {
         <a href="/">Back to home</a>
         """.formatted(botName, botId);
 
-        return ThemeMiddleware.wrap("Ding Response", statusMessage);
+        return ThemeMiddleware.page("Ding Response", statusMessage);
     }
 
     @GetMapping(value = "/status", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseBody
-    public String status() {
+    public ResponseEntity<byte[]> status() {
         logger.info("📈 GET /status requested — returning service status");
 
         boolean isOnline = discordService.isRunning();
@@ -103,30 +195,48 @@ public class CoreController {
           <li><strong>Bot Name:</strong> %s</li>
           <li><strong>Bot ID:</strong> %s</li>
         </ul>
-        <a href="/">Back to home</a>
-        """.formatted(statusLabel, connectionStatus, botName, botId);
+        """.formatted(statusLabel, connectionStatus, botName, botId) + RATE_LIMIT_PANEL + "<a href=\"/\">Back to home</a>";
 
-        return ThemeMiddleware.wrap("Bot Status", html);
+        return ThemeMiddleware.page("Bot Status", html);
     }
 
-    @GetMapping(value = "/setup", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseBody
-    public String setupForm() {
-        return ThemeMiddleware.wrap("EclipseBot Setup", """
-            <h2>🔧 Setup EclipseBot</h2>
-            <form method="POST" action="/setup">
-              <label for="token">Discord Token:</label><br>
-              <input type="text" id="token" name="token" required><br><br>
+    /** Server-Sent Events: one "status" event per Discord connection transition (compact JSON). */
+    @GetMapping(value = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter statusStream() {
+        SseEmitter emitter = new SseEmitter(STATUS_STREAM_TIMEOUT_MS);
+        Consumer<String> subscriber = json -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(json, MediaType.APPLICATION_JSON));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // feed drops this subscriber
+            }
+        };
+        emitter.onCompletion(() -> statusFeed.unsubscribe(subscriber));
+        emitter.onTimeout(() -> statusFeed.unsubscribe(subscriber));
+        emitter.onError(err -> statusFeed.unsubscribe(subscriber));
+        statusFeed.subscribe(subscriber);
+        return emitter;
+    }
 
-              <label for="botId">Bot ID:</label><br>
-              <input type="text" id="botId" name="botId" required><br><br>
+    @GetMapping(value = "/traces", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> traces() {
+        String html = """
+        <h2>⏱️ Interaction Traces</h2>
+        <p>Per-stage timings in milliseconds (monotonic clock). Gateway lag is wall-clock.</p>
+        <h3>🐢 Slowest</h3>
+        %s
+        <h3>🕒 Recent</h3>
+        %s
+        <a href="/">Back to home</a>
+        """.formatted(traceTable(tracer.slowest(10)), traceTable(tracer.recent(50)));
 
-              <label for="adminId">Admin Discord ID:</label><br>
-              <input type="text" id="adminId" name="adminId" required><br><br>
+        return ThemeMiddleware.page("Interaction Traces", html);
+    }
 
-              <button type="submit">Save and Restart Bot</button>
-            </form>
-        """);
+    @GetMapping(value = "/setup", produces = MediaType.TEXT_HTML_VALUE)
+    public ResponseEntity<byte[]> setupForm(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return SETUP_FORM_PAGE.serve(ifNoneMatch, acceptEncoding);
     }
 
     @PostMapping("/setup")
@@ -150,29 +260,38 @@ public class CoreController {
     }
 
     @GetMapping(value = "/setup/waiting", produces = MediaType.TEXT_HTML_VALUE)
-    @ResponseBody
-    public String setupWaiting() {
-        return ThemeMiddleware.wrap("Waiting for Bot", """
-            <h2>♻️ Restarting DiscordService...</h2>
-            <p>Please wait while the bot restarts.</p>
-            <p>You will be redirected once it is back online.</p>
+    public ResponseEntity<byte[]> setupWaiting(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return SETUP_WAITING_PAGE.serve(ifNoneMatch, acceptEncoding);
+    }
 
-            <script>
-              async function poll() {
-                try {
-                  const response = await fetch("/status");
-                  const text = await response.text();
-                  if (text.includes("✅ Online")) {
-                    window.location.href = "/status";
-                  } else {
-                    setTimeout(poll, 2000);
-                  }
-                } catch {
-                  setTimeout(poll, 2000);
-                }
-              }
-              poll();
-            </script>
-        """);
+    // ===== helpers =====
+
+    private static String traceTable(List<TraceView> traces) {
+        if (traces.isEmpty()) return "<p>No traces recorded yet.</p>";
+
+        StringBuilder sb = new StringBuilder("<table><tr><th>#</th><th>Kind</th><th>Component</th><th>Gateway</th>");
+        for (Stage stage : Stage.values()) sb.append("<th>").append(stage.name()).append("</th>");
+        sb.append("<th>Total</th></tr>");
+
+        for (TraceView t : traces) {
+            sb.append("<tr><td>").append(t.traceId())
+                    .append("</td><td>").append(t.kind())
+                    .append("</td><td>").append(escape(t.componentId()))
+                    .append("</td><td>").append(t.gatewayMs() >= 0 ? t.gatewayMs() : "–")
+                    .append("</td>");
+            for (Stage stage : Stage.values()) sb.append("<td>").append(millis(t.stage(stage))).append("</td>");
+            sb.append("<td><strong>").append(t.complete() ? millis(t.totalNanos()) : "…").append("</strong></td></tr>");
+        }
+        return sb.append("</table>").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private static String escape(String s) {
+        if (s == null) return "";
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.darkmatterservers.eclipsebot.controller;
+
+import com.darkmatterservers.eclipsebot.service.discord.DiscordService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Liveness and readiness probes.
+ * <p>
+ * Unlike CoreController these never log: Docker/k8s call them every few seconds and a log line
+ * could be mirrored to Discord. Probe bodies are precomputed, so a probe costs no rendering.
+ */
+@RestController
+public class HealthController {
+
+    private static final byte[] LIVE      = "{\"live\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] READY     = "{\"ready\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NOT_READY = "{\"ready\":false}".getBytes(StandardCharsets.UTF_8);
+
+    private final DiscordService discordService;
+
+    public HealthController(DiscordService discordService) {
+        this.discordService = discordService;
+    }
+
+    /** Process is up and serving HTTP. Used by the Dockerfile HEALTHCHECK. */
+    @GetMapping(value = "/health/live", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> live() {
+        return probe(HttpStatus.OK, LIVE);
+    }
+
+    /** Discord is logged in and the gateway is CONNECTED; 503 otherwise (including setup mode). */
+    @GetMapping(value = "/health/ready", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> ready() {
+        return discordService.isReady()
+                ? probe(HttpStatus.OK, READY)
+                : probe(HttpStatus.SERVICE_UNAVAILABLE, NOT_READY);
+    }
+
+    // ===== helpers =====
+
+    private static ResponseEntity<byte[]> probe(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+}
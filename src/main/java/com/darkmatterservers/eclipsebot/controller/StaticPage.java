@@ -0,0 +1,125 @@
+package com.darkmatterservers.eclipsebot.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A page whose bytes never change for the life of the process.
+ * <p>
+ * Built once at startup:
+ *  - identity and gzip bodies (UTF-8)
+ *  - a strong ETag per encoding
+ * Served with Cache-Control + ETag; a matching If-None-Match gets an empty 304.
+ */
+public final class StaticPage {
+
+    private static final CacheControl CACHE = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final String etag;
+    private final String gzipEtag;
+
+    private StaticPage(byte[] identity) {
+        this.identity = identity;
+        this.gzip = gzip(identity);
+        String hash = sha256(identity).substring(0, 16);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gz\"";
+    }
+
+    public static StaticPage of(byte[] html) {
+        return new StaticPage(html);
+    }
+
+    /**
+     * @param ifNoneMatch    the request's If-None-Match header (nullable)
+     * @param acceptEncoding the request's Accept-Encoding header (nullable)
+     */
+    public ResponseEntity<byte[]> serve(String ifNoneMatch, String acceptEncoding) {
+        boolean useGzip = acceptsGzip(acceptEncoding);
+        String tag = useGzip ? gzipEtag : etag;
+
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tag)
+                    .cacheControl(CACHE)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(ThemeMiddleware.HTML_UTF8)
+                .eTag(tag)
+                .cacheControl(CACHE)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (useGzip) {
+            // Content-Encoding already set, so the container won't compress it a second time
+            return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+        }
+        return ok.body(identity);
+    }
+
+    // ===== helpers =====
+
+    /** Either variant's tag counts: proxies and the container may have re-encoded the body. */
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag) || c.equals(gzipEtag)) return true;
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] coding = part.trim().split(";");
+            if (!coding[0].trim().equals("gzip")) continue;
+            for (int i = 1; i < coding.length; i++) {
+                String param = coding[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] in) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(in.length / 3 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+            gz.write(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    private static String sha256(byte[] in) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(in));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
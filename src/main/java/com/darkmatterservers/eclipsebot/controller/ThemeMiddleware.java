@@ -1,6 +1,9 @@
 package com.darkmatterservers.eclipsebot.controller;
 
 import org.jetbrains.annotations.NotNull;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
@@ -8,21 +11,23 @@ import org.springframework.web.servlet.ModelAndView;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.nio.charset.StandardCharsets;
+
 /**
  * Middleware for injecting a consistent dark mode theme for HTML views.
  */
 @Component
 public class ThemeMiddleware implements HandlerInterceptor {
 
-    public static String wrap(String title, String content) {
-        return """
+    // Template pieces: PREFIX + title + HEAD + content + SUFFIX (built once, reused for every page)
+    private static final String PREFIX = """
         <html lang="en">
           <head>
             <meta charset="UTF-8">
             <meta name="viewport" content="width=device-width, initial-scale=1.0">
-        """ +
-                "<title>" + title + "</title>" +
-                """
+        """ + "<title>";
+
+    private static final String HEAD = "</title>" + """
                     <style>
                       body {
                         font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
@@ -56,13 +61,64 @@ public class ThemeMiddleware implements HandlerInterceptor {
                       h1, h2, h3 {
                         color: #90caf9;
                       }
+                      table {
+                        border-collapse: collapse;
+                        margin-bottom: 1rem;
+                      }
+                      th, td {
+                        border: 1px solid #333;
+                        padding: 4px 8px;
+                        text-align: left;
+                      }
                     </style>
                   </head>
                   <body>
-                """ + content + """
+                """;
+
+    private static final String SUFFIX = """
           </body>
         </html>
         """;
+
+    private static final byte[] PREFIX_BYTES = PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEAD_BYTES   = HEAD.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX_BYTES = SUFFIX.getBytes(StandardCharsets.UTF_8);
+
+    /** Content type used for every themed page. */
+    public static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    public static String wrap(String title, String content) {
+        return PREFIX + title + HEAD + content + SUFFIX;
+    }
+
+    /**
+     * Same page as {@link #wrap}, straight to UTF-8: only the title and content are encoded per call,
+     * the theme shell is copied from pre-encoded bytes.
+     */
+    public static byte[] render(String title, String content) {
+        byte[] t = title.getBytes(StandardCharsets.UTF_8);
+        byte[] c = content.getBytes(StandardCharsets.UTF_8);
+        byte[] out = new byte[PREFIX_BYTES.length + t.length + HEAD_BYTES.length + c.length + SUFFIX_BYTES.length];
+        int pos = 0;
+        System.arraycopy(PREFIX_BYTES, 0, out, pos, PREFIX_BYTES.length); pos += PREFIX_BYTES.length;
+        System.arraycopy(t, 0, out, pos, t.length);                       pos += t.length;
+        System.arraycopy(HEAD_BYTES, 0, out, pos, HEAD_BYTES.length);     pos += HEAD_BYTES.length;
+        System.arraycopy(c, 0, out, pos, c.length);                       pos += c.length;
+        System.arraycopy(SUFFIX_BYTES, 0, out, pos, SUFFIX_BYTES.length);
+        return out;
+    }
+
+    /** Fully static themed page: rendered, gzipped and ETag'd once; see {@link StaticPage}. */
+    public static StaticPage prerender(String title, String content) {
+        return StaticPage.of(render(title, content));
+    }
+
+    /** Dynamic themed page: never cached, compressed by the container when the client accepts gzip. */
+    public static ResponseEntity<byte[]> page(String title, String content) {
+        return ResponseEntity.ok()
+                .contentType(HTML_UTF8)
+                .cacheControl(CacheControl.noStore())
+                .body(render(title, content));
     }
 
     @Override
@@ -1,39 +1,34 @@
 package com.darkmatterservers.eclipsebot.service;
 
+import com.darkmatterservers.eclipsebot.service.config.ConfigMigrator;
 import com.darkmatterservers.eclipsebot.service.config.YamlService;
-import com.darkmatterservers.eclipsebot.service.config.builders.InitYaml;
 import com.darkmatterservers.eclipsebot.service.discord.DiscordService;
 import com.darkmatterservers.eclipsebot.service.discord.MessagingService;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.util.LinkedHashMap;
-import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 @SuppressWarnings("unused")
 @Service
 public class CoreService {
 
     private final LoggerService logger;
-    private final InitYaml initYaml;
+    private final ConfigMigrator configMigrator;
     private final YamlService yamlService;
     private final DiscordService discordService;
     private final MessagingService messagingService;
 
-    private static final String CONFIG_PATH = "config.yaml";
-
     // Keeps the JVM alive, even if Discord fails to log in
     private final CountDownLatch keepAlive = new CountDownLatch(1);
 
     public CoreService(
             LoggerService logger,
-            InitYaml initYaml,
+            ConfigMigrator configMigrator,
             YamlService yamlService,
             DiscordService discordService,
             MessagingService messagingService
     ) {
         this.logger = logger;
-        this.initYaml = initYaml;
+        this.configMigrator = configMigrator;
         this.yamlService = yamlService;
         this.discordService = discordService;
         this.messagingService = messagingService;
@@ -42,7 +37,7 @@ public class CoreService {
     public void start() {
         logger.info("🚀 Starting CoreService...", String.valueOf(getClass()));
 
-        ensureConfigMerged();
+        configMigrator.migrate();
 
         // Validate minimal Discord config presence
         String token = yamlService.getString("discord.token");
@@ -79,50 +74,6 @@ public class CoreService {
         }
     }
 
-    private void ensureConfigMerged() {
-        File configFile = new File(CONFIG_PATH);
-        boolean configMissingOrEmpty = !configFile.exists() || configFile.length() == 0;
-
-        logger.info("🧩 InitYaml: Building merged config map...", String.valueOf(getClass()));
-
-        Map<String, Object> existingConfig = yamlService.getFullConfig();
-        Map<String, Object> defaultConfig = initYaml.getDefaultConfig();
-        Map<String, Object> mergedConfig = deepMerge(defaultConfig, existingConfig);
-
-        if (configMissingOrEmpty) {
-            logger.warn("🛠 config.yaml not found or empty — creating from defaults", String.valueOf(getClass()));
-            yamlService.saveToFile(CONFIG_PATH, mergedConfig);
-            logger.info("📄 config.yaml created/updated from defaults.", String.valueOf(getClass()));
-        } else {
-            logger.info("📁 config.yaml found — ensuring all required fields are present", String.valueOf(getClass()));
-            yamlService.saveToFile(CONFIG_PATH, mergedConfig);
-            logger.info("💾 Saved YAML config to " + CONFIG_PATH, String.valueOf(getClass()));
-        }
-    }
-
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> deepMerge(Map<String, Object> defaults, Map<String, Object> existing) {
-        Map<String, Object> merged = new LinkedHashMap<>(defaults);
-
-        if (existing == null) return merged;
-
-        for (Map.Entry<String, Object> entry : existing.entrySet()) {
-            String key = entry.getKey();
-            Object existingValue = entry.getValue();
-            Object defaultValue = merged.get(key);
-
-            if (existingValue instanceof Map && defaultValue instanceof Map) {
-                merged.put(
-                        key,
-                        deepMerge((Map<String, Object>) defaultValue, (Map<String, Object>) existingValue)
-                );
-            } else {
-                merged.put(key, existingValue);
-            }
-        }
-        return merged;
-    }
-
     /** Blocks forever to keep the JVM alive (paired with EclipseBotApplication @PostConstruct). */
     public void blockIndefinitely() {
         try {
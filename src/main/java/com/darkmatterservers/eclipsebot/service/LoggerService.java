@@ -1,6 +1,7 @@
 package com.darkmatterservers.eclipsebot.service;
 
 import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
 import jakarta.annotation.PostConstruct;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
@@ -12,6 +13,7 @@ import java.time.Instant;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * LoggerService handles structured logging for both console and Discord (via log channel).
@@ -21,6 +23,8 @@ import java.util.Set;
  *  - Masks sensitive values (token/secret/password/key) when mirrored to console/Discord
  *  - Hardened Discord mirroring (null checks, error handling, non-blocking)
  *  - Supports configurable channel key: "discord.logChannelId" (falls back to "logChannelId")
+ *  - Mirrored lines go out on the {@link OutboundScheduler}'s background lane once it has registered
+ *    itself, so a chatty log can't delay user-facing requests (stale lines are dropped)
  *  - Helper formatters + convenience overloads
  */
 @Service
@@ -28,6 +32,7 @@ public class LoggerService {
 
     private final YamlService yamlService;
     private volatile JDA jda;
+    private volatile OutboundScheduler outbound;
 
     // Keys that should be masked when logged
     private static final Set<String> SENSITIVE_KEYS = Set.of(
@@ -47,6 +52,10 @@ public class LoggerService {
         this.jda = jda;
     }
 
+    public void setOutbound(OutboundScheduler outbound) {
+        this.outbound = outbound;
+    }
+
     // ================= INFO =================
     public void info(String msg, String source) {
         log("INFO", msg, source, null);
@@ -109,10 +118,14 @@ public class LoggerService {
                 masked
         );
         try {
-            channel.sendMessage(payload).queue(
-                    ok -> {},
-                    err -> System.err.println("[LoggerService] Discord mirror failed: " + err)
-            );
+            OutboundScheduler scheduler = this.outbound;
+            Consumer<Throwable> onError = err -> {
+                if (!(err instanceof OutboundScheduler.StaleRequestException)) {
+                    System.err.println("[LoggerService] Discord mirror failed: " + err);
+                }
+            };
+            if (scheduler != null) scheduler.submit(OutboundScheduler.Lane.BACKGROUND, channel.sendMessage(payload), ok -> {}, onError);
+            else channel.sendMessage(payload).queue(ok -> {}, onError);
         } catch (Throwable th) {
             System.err.println("[LoggerService] Discord mirror threw: " + th);
         }
@@ -131,8 +144,11 @@ public class LoggerService {
     /**
      * Masks values for likely-secret updates. If the *source* looks like a config write for a key
      * that contains a sensitive term (token/secret/password/key), the message will be masked.
+     * <p>
+     * Visible for testing: only reached through the Discord mirror, so LoggerServiceBenchmark (same package)
+     * calls it directly. Not part of the service's API.
      */
-    private static String maskIfSensitive(String source, String msg) {
+    static String maskIfSensitive(String source, String msg) {
         if (msg == null) return null;
         String src = source != null ? source.toLowerCase(Locale.ROOT) : "";
         boolean looksSensitive = SENSITIVE_KEYS.stream().anyMatch(src::contains);
@@ -1,4 +1,336 @@
 package com.darkmatterservers.eclipsebot.service.archipelago;
 
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Room orchestrator for hosted multiworld rooms.
+ * <p>
+ * Responsibilities:
+ *  - Lease a port per room from the configured "portRange" ({@link PortAllocator})
+ *  - Drive the room lifecycle: create → start → stop, plus TTL expiry ({@link RoomState})
+ *  - Sweep periodically: expire rooms past their TTL, detect crashed rooms via the runner,
+ *    renew leases of live rooms and reclaim leases nobody renewed
+ * <p>
+ * Config (read on first use, after config.yaml is loaded):
+ *  - portRange.start / portRange.end, fqdn
+ *  - archipelago.runner         which {@link RoomRunner} bean launches rooms ("none" = lease ports only)
+ *  - archipelago.roomTtlMinutes default lifetime of a room
+ *  - archipelago.leaseSeconds   port lease TTL; the sweeper runs every third of it
+ *  - archipelago.probePorts     skip ports that something outside the bot still has bound
+ *  - archipelago.warmPool.*     minIdle / highWater / idleMinutes of the pre-started pool ({@link WarmRoomPool})
+ */
+@Service
 public class ArchipelagoService {
+
+    private final LoggerService logger;
+    private final YamlService yamlService;
+    private final List<RoomRunner> runners;
+    private final int webPort;
+
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong roomIds = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile PortAllocator ports;
+    private volatile RoomRunner runner;
+    private volatile String fqdn;
+    private volatile long roomTtlMs;
+    private volatile long leaseNanos;
+    private volatile WarmRoomPool warmPool;
+    private ScheduledExecutorService sweeper;
+
+    public ArchipelagoService(LoggerService logger,
+                              @Lazy YamlService yamlService,
+                              List<RoomRunner> runners,
+                              @Value("${server.port:5000}") int webPort) {
+        this.logger = logger;
+        this.yamlService = yamlService;
+        this.runners = runners;
+        this.webPort = webPort;
+    }
+
+    // ========================= Lifecycle =========================
+
+    /** Leases a port and registers a new room in CREATED state. */
+    public Room createRoom(String ownerId, String name) {
+        return createRoom(ownerId, name, roomTtlMs());
+    }
+
+    public Room createRoom(String ownerId, String name, long ttlMs) {
+        PortAllocator pool = ports();
+        long id = roomIds.incrementAndGet();
+        String holder = "room-" + id;
+
+        int port = pool.allocate(holder, leaseNanos);
+        if (port < 0) {
+            throw new IllegalStateException("No free ports in " + pool.firstPort() + "-" + pool.lastPort());
+        }
+
+        long now = System.currentTimeMillis();
+        Room room = new Room(id, name, ownerId, port, now, now + ttlMs);
+        rooms.put(id, room);
+        version.incrementAndGet();
+        logger.info("🏠 Room created: " + room + " owner=" + ownerId, getClass().getName());
+        return room;
+    }
+
+    /**
+     * Create + start in one call, served from the warm pool when possible.
+     * On a pool miss the room is cold-started here (and the pool grows for the next burst).
+     * Either way the server runs as {@link Room#serverName}; {@code name} is the display name only.
+     */
+    public Room openRoom(String ownerId, String name) {
+        long t0 = System.nanoTime();
+        ports();
+        Room room = warmPool.take();
+        if (room != null) {
+            room.assign(ownerId, name);
+            room.extendTo(System.currentTimeMillis() + roomTtlMs);
+            version.incrementAndGet();
+            logger.info("🔥 Warm room handed out: " + room + " owner=" + ownerId, getClass().getName());
+        } else {
+            room = startRoom(createRoom(ownerId, name).id());
+        }
+        if (room.state() == RoomState.RUNNING) warmPool.recordTimeToRoom(System.nanoTime() - t0);
+        return room;
+    }
+
+    /** Launches the room through the configured runner; a start failure ends the room as FAILED. */
+    public Room startRoom(long roomId) {
+        Room room = requireRoom(roomId);
+        if (!room.transition(RoomState.CREATED, RoomState.STARTING)) {
+            throw new IllegalStateException("Room " + roomId + " cannot start from " + room.state());
+        }
+
+        RoomRunner r = runner();
+        try {
+            if (r != null) r.start(room);
+            if (room.transition(RoomState.STARTING, RoomState.RUNNING)) {
+                logger.info("▶️ Room running: " + room + " at " + address(room), getClass().getName());
+            }
+        } catch (Exception e) {
+            logger.error("❌ Room " + roomId + " failed to start: " + e.getMessage(), getClass().getName(), e);
+            finish(room, RoomState.FAILED, "start failed: " + e.getMessage());
+        }
+        return room;
+    }
+
+    /** Stops the room and releases its port. Returns false if the room is unknown or already ended. */
+    public boolean stopRoom(long roomId) {
+        Room room = rooms.get(roomId);
+        if (room == null) return false;
+        RoomState cur = room.state();
+        if (cur.isTerminal() || !room.transition(cur, RoomState.STOPPING)) return false;
+        return finish(room, RoomState.STOPPED, null);
+    }
+
+    /** Pushes the room's expiry out to {@code ttlMs} from now. */
+    public boolean extendRoom(long roomId, long ttlMs) {
+        Room room = rooms.get(roomId);
+        if (room == null || room.state().isTerminal()) return false;
+        room.extendTo(System.currentTimeMillis() + ttlMs);
+        return true;
+    }
+
+    // ========================= Lookup =========================
+
+    public Room getRoom(long roomId) {
+        return rooms.get(roomId);
+    }
+
+    public Collection<Room> getRooms() {
+        return List.copyOf(rooms.values());
+    }
+
+    /** Bumped whenever a room is added, claimed or removed; lets callers cache derived indexes. */
+    public long version() {
+        return version.get();
+    }
+
+    /** Recent server output of a room (null if unknown or the runner doesn't capture output). */
+    public ConsoleBuffer console(long roomId) {
+        Room room = rooms.get(roomId);
+        RoomRunner r = runner();
+        return (room != null && r != null) ? r.console(room) : null;
+    }
+
+    /** Public connection string for players: fqdn:port. */
+    public String address(Room room) {
+        ports(); // make sure config has been read
+        return fqdn + ":" + room.port();
+    }
+
+    public int freePorts() {
+        return ports().freeCount();
+    }
+
+    public int capacity() {
+        return ports().capacity();
+    }
+
+    /** Name of the active runner ("none" when only leasing ports). */
+    public String runnerName() {
+        RoomRunner r = runner();
+        return r != null ? r.name() : "none";
+    }
+
+    public WarmRoomPool.Stats warmPoolStats() {
+        ports();
+        return warmPool.stats();
+    }
+
+    // ========================= Sweeper =========================
+
+    /**
+     * One maintenance pass; runs on the sweeper thread every leaseSeconds/3.
+     * Package-private so tests can drive it directly.
+     */
+    void sweep() {
+        PortAllocator pool = ports();
+        RoomRunner r = runner();
+        long now = System.currentTimeMillis();
+
+        for (Room room : rooms.values()) {
+            RoomState state = room.state();
+            if (state.isTerminal()) continue;
+
+            if (now >= room.expiresAtMs()) {
+                logger.info("⌛ Room expired: " + room, getClass().getName());
+                finish(room, RoomState.EXPIRED, null);
+            } else if (state == RoomState.RUNNING && r != null && !r.isAlive(room)) {
+                logger.warn("💥 Room crashed: " + room, getClass().getName());
+                finish(room, RoomState.FAILED, "server process exited");
+            } else if (!pool.renew(room.port(), room.leaseHolder(), leaseNanos)) {
+                // Someone reclaimed our port already; the room can't keep it safely
+                logger.warn("⚠️ Lost port lease for " + room, getClass().getName());
+                finish(room, RoomState.FAILED, "port lease lost");
+            }
+        }
+        pool.renew(webPort, "web-panel", leaseNanos);
+
+        for (PortAllocator.Lease lease : pool.reclaimExpired()) {
+            logger.warn("♻️ Reclaimed port " + lease.port() + " from " + lease.holder(), getClass().getName());
+        }
+        warmPool.reap();
+    }
+
+    // ========================= Internals =========================
+
+    private boolean finish(Room room, RoomState terminal, String reason) {
+        if (!room.end(terminal, reason)) return false;
+        RoomRunner r = runner();
+        if (r != null) {
+            try {
+                r.stop(room);
+            } catch (RuntimeException e) {
+                logger.error("Runner failed to stop " + room + ": " + e.getMessage(), getClass().getName(), e);
+            }
+        }
+        ports.release(room.port(), room.leaseHolder());
+        rooms.remove(room.id(), room);
+        version.incrementAndGet();
+        logger.info("⏹ Room ended: " + room + (reason != null ? " (" + reason + ")" : ""), getClass().getName());
+        return true;
+    }
+
+    private Room requireRoom(long roomId) {
+        Room room = rooms.get(roomId);
+        if (room == null) throw new IllegalArgumentException("Unknown room " + roomId);
+        return room;
+    }
+
+    private long roomTtlMs() {
+        ports();
+        return roomTtlMs;
+    }
+
+    private RoomRunner runner() {
+        ports();
+        return runner;
+    }
+
+    /** Reads config and builds the pool on first use (config.yaml is loaded after the context starts). */
+    private PortAllocator ports() {
+        PortAllocator p = ports;
+        if (p != null) return p;
+        synchronized (this) {
+            if (ports != null) return ports;
+
+            int start = yamlService.getInt("portRange.start", 5000);
+            int end = yamlService.getInt("portRange.end", 5100);
+            String host = yamlService.getString("fqdn");
+            fqdn = (host == null || host.isBlank()) ? "localhost" : host;
+            roomTtlMs = TimeUnit.MINUTES.toMillis(yamlService.getLong("archipelago.roomTtlMinutes", 240));
+            long leaseSeconds = Math.max(3, yamlService.getLong("archipelago.leaseSeconds", 90));
+            leaseNanos = TimeUnit.SECONDS.toNanos(leaseSeconds);
+            runner = selectRunner(yamlService.getString("archipelago.runner"));
+
+            p = new PortAllocator(start, end, yamlService.getBoolean("archipelago.probePorts", true));
+            // The web panel shares the range by default (server.port=5000); never hand it out
+            if (webPort >= start && webPort <= end) p.reserve(webPort, "web-panel", leaseNanos);
+
+            ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "archipelago-sweeper");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1, leaseSeconds / 3);
+            s.scheduleWithFixedDelay(this::safeSweep, period, period, TimeUnit.SECONDS);
+            sweeper = s;
+
+            int minIdle = yamlService.getInt("archipelago.warmPool.minIdle", 0);
+            warmPool = new WarmRoomPool(this, minIdle,
+                    yamlService.getInt("archipelago.warmPool.highWater", minIdle * 2),
+                    TimeUnit.MINUTES.toNanos(yamlService.getLong("archipelago.warmPool.idleMinutes", 15)));
+
+            logger.info("✅ ArchipelagoService ready: ports " + start + "-" + end + " (" + p.freeCount() + " free), runner="
+                    + (runner != null ? runner.name() : "none") + ", warm pool=" + minIdle, getClass().getName());
+            ports = p;
+            warmPool.refill();
+            return p;
+        }
+    }
+
+    private RoomRunner selectRunner(String name) {
+        if (name == null || name.isBlank() || "none".equalsIgnoreCase(name)) return null;
+        for (RoomRunner r : runners) {
+            if (r.name().equalsIgnoreCase(name)) return r;
+        }
+        List<String> known = new ArrayList<>();
+        runners.forEach(r -> known.add(r.name()));
+        logger.warn("⚠️ Unknown archipelago.runner '" + name + "' (available: " + known + ") — leasing ports only", getClass().getName());
+        return null;
+    }
+
+    private void safeSweep() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            logger.error("Archipelago sweep failed: " + e.getMessage(), getClass().getName(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ports == null) return;
+        logger.info("🛑 ArchipelagoService shutting down (" + rooms.size() + " rooms)", getClass().getName());
+        if (sweeper != null) sweeper.shutdownNow();
+        warmPool.drain();
+        for (Room room : rooms.values()) finish(room, RoomState.STOPPED, "bot shutting down");
+    }
 }
@@ -0,0 +1,49 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring of a room's most recent console lines.
+ * <p>
+ * Every line gets a monotonically increasing sequence number, so readers keep a cursor
+ * and ask for {@link #since} it; when the writer laps a slow reader the oldest lines are
+ * simply gone (the reader sees a gap in sequence numbers, never a stall of the writer).
+ */
+public final class ConsoleBuffer {
+
+    public enum Stream { STDOUT, STDERR, SYSTEM }
+
+    public record Line(long seq, Stream stream, long timestampMs, String text) {}
+
+    private final Line[] ring;
+    private long nextSeq = 1;
+
+    public ConsoleBuffer(int capacity) {
+        this.ring = new Line[Math.max(16, capacity)];
+    }
+
+    public synchronized long append(Stream stream, String text) {
+        long seq = nextSeq++;
+        ring[(int) (seq % ring.length)] = new Line(seq, stream, System.currentTimeMillis(), text);
+        return seq;
+    }
+
+    /** Lines with sequence number greater than {@code afterSeq}, oldest first, at most {@code max}. */
+    public synchronized List<Line> since(long afterSeq, int max) {
+        long first = Math.max(afterSeq + 1, nextSeq - ring.length);
+        long last = Math.min(nextSeq - 1, first + max - 1);
+        List<Line> out = new ArrayList<>((int) Math.max(0, last - first + 1));
+        for (long s = first; s <= last; s++) out.add(ring[(int) (s % ring.length)]);
+        return out;
+    }
+
+    /** Sequence number of the newest line (0 if empty). */
+    public synchronized long lastSeq() {
+        return nextSeq - 1;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+}
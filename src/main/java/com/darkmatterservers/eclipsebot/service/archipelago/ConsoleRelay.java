@@ -0,0 +1,304 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Relays room output to Discord.
+ * <p>
+ * Routing:
+ *  - server stdout/stderr of every claimed room → {@code consoleChannelId}
+ *  - room lifecycle (started / ended) and runner notices → {@code logsChannelId} (falls back to the console channel)
+ * <p>
+ * One relay thread ticks every {@code archipelago.relay.tickMs}:
+ *  - reads each room's {@link ConsoleBuffer} from a cursor; the supervisor thread only ever appends to
+ *    that ring, so a slow relay can't stall a server or the bot (lapped lines become a "skipped" marker)
+ *  - takes at most {@code maxLinesPerRoom} lines per room per tick so one chatty room can't starve the rest
+ *  - batches lines per channel into messages under Discord's 2000-character limit, sent when a message
+ *    is full or the oldest pending line is {@code flushMs} old
+ *  - spends a per-channel token bucket ({@code messagesPer5s}) for every send; while the bucket is empty
+ *    lines wait in a bounded outbox that drops the oldest lines first
+ *  - sends go out on the {@link OutboundScheduler}'s background lane, behind anything user-facing
+ */
+@Component
+public class ConsoleRelay {
+
+    private static final long TOKEN_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /** The relay's own failures: console only. LoggerService may mirror to Discord and feed back into this loop. */
+    private static final Logger LOCAL_LOG = LoggerFactory.getLogger(ConsoleRelay.class);
+
+    private final LoggerService logger;
+    private final YamlService yamlService;
+    private final ArchipelagoService archipelagoService;
+    private final AtomicReference<JDA> jdaRef;
+    private final OutboundScheduler outbound;
+
+    // Relay-thread state only (no locking needed)
+    private final Map<Long, Tail> tails = new HashMap<>();
+    private final Map<String, Outbox> outboxes = new HashMap<>();
+
+    private ScheduledExecutorService relayThread;
+    private long flushNanos;
+    private int maxLinesPerRoom;
+    private int maxPendingLines;
+    private int messagesPer5s;
+
+    public ConsoleRelay(LoggerService logger,
+                        @Lazy YamlService yamlService,
+                        ArchipelagoService archipelagoService,
+                        AtomicReference<JDA> jdaRef,
+                        OutboundScheduler outbound) {
+        this.logger = logger;
+        this.yamlService = yamlService;
+        this.archipelagoService = archipelagoService;
+        this.jdaRef = jdaRef;
+        this.outbound = outbound;
+    }
+
+    @PostConstruct
+    public void onInit() {
+        flushNanos = TimeUnit.MILLISECONDS.toNanos(yamlService.getLong("archipelago.relay.flushMs", 2_000));
+        maxLinesPerRoom = yamlService.getInt("archipelago.relay.maxLinesPerRoom", 50);
+        maxPendingLines = yamlService.getInt("archipelago.relay.maxPendingLines", 500);
+        messagesPer5s = yamlService.getInt("archipelago.relay.messagesPer5s", 4);
+        long tickMs = Math.max(50, yamlService.getLong("archipelago.relay.tickMs", 250));
+
+        relayThread = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "room-console-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        relayThread.scheduleWithFixedDelay(this::safeTick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        logger.info("✅ ConsoleRelay initialized", getClass().getName());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (relayThread != null) relayThread.shutdownNow();
+    }
+
+    // ========================= Relay loop =========================
+
+    private void safeTick() {
+        try {
+            tick(System.nanoTime());
+        } catch (RuntimeException e) {
+            LOCAL_LOG.error("Relay tick failed", e);
+        }
+    }
+
+    private void tick(long now) {
+        String consoleChannel = yamlService.getString("consoleChannelId");
+        String logsChannel = yamlService.getString("logsChannelId");
+        if (isBlank(logsChannel)) logsChannel = consoleChannel;
+
+        for (Room room : archipelagoService.getRooms()) {
+            if (!tails.containsKey(room.id())) tails.put(room.id(), new Tail(room));
+        }
+
+        for (Iterator<Tail> it = tails.values().iterator(); it.hasNext(); ) {
+            Tail tail = it.next();
+            Room room = tail.room;
+            boolean warm = WarmRoomPool.OWNER.equals(room.ownerId());
+
+            if (tail.console == null) tail.console = archipelagoService.console(room.id());
+            if (tail.console != null) {
+                pump(tail, warm ? null : outbox(consoleChannel), warm);
+            }
+
+            if (!warm && !tail.announced && room.state() == RoomState.RUNNING) {
+                tail.announced = true;
+                offer(logsChannel, "🟢 " + label(room) + " is up at " + archipelagoService.address(room), now);
+            }
+            if (room.state().isTerminal()) {
+                if (tail.console != null && !warm) pump(tail, outbox(consoleChannel), false);
+                if (!warm || room.failureReason() != null) {
+                    offer(logsChannel, "🔴 " + label(room) + " " + room.state().name().toLowerCase(Locale.ROOT)
+                            + (room.failureReason() != null ? ": " + room.failureReason() : ""), now);
+                }
+                it.remove();
+            }
+        }
+
+        JDA jda = jdaRef.get();
+        for (Outbox box : outboxes.values()) {
+            String message;
+            while ((message = box.nextMessage(now)) != null) send(jda, box.channelId, message);
+        }
+    }
+
+    /** Moves new console lines of one room into the outbox (or just advances the cursor for warm rooms). */
+    private void pump(Tail tail, Outbox box, boolean skip) {
+        long newest = tail.console.lastSeq();
+        if (newest <= tail.cursor) return;
+        if (skip || box == null) {
+            tail.cursor = newest;
+            return;
+        }
+        long now = System.nanoTime();
+        long expected = tail.cursor + 1;
+        for (ConsoleBuffer.Line line : tail.console.since(tail.cursor, maxLinesPerRoom)) {
+            if (line.seq() > expected) {
+                box.offer("[" + label(tail.room) + "] … " + (line.seq() - expected) + " lines skipped", now);
+            }
+            String prefix = line.stream() == ConsoleBuffer.Stream.STDERR ? "] ! " : "] ";
+            box.offer("[" + label(tail.room) + prefix + line.text(), now);
+            expected = line.seq() + 1;
+            tail.cursor = line.seq();
+        }
+    }
+
+    private void offer(String channelId, String line, long now) {
+        Outbox box = outbox(channelId);
+        if (box != null) box.offer(line, now);
+    }
+
+    private Outbox outbox(String channelId) {
+        if (isBlank(channelId)) return null;
+        return outboxes.computeIfAbsent(channelId,
+                id -> new Outbox(id, maxPendingLines, flushNanos, messagesPer5s, TOKEN_WINDOW_NANOS));
+    }
+
+    private void send(JDA jda, String channelId, String message) {
+        if (jda == null) return; // not logged in (setup mode): nothing to send to
+        MessageChannel channel = jda.getChannelById(MessageChannel.class, channelId);
+        if (channel == null) return;
+        outbound.submit(OutboundScheduler.Lane.BACKGROUND, channel.sendMessage(message),
+                ok -> {},
+                err -> LOCAL_LOG.warn("Send to channel {} failed: {}", channelId, err.getMessage())
+        );
+    }
+
+    private static String label(Room room) {
+        return room.name() + "#" + room.id();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static final class Tail {
+        final Room room;
+        ConsoleBuffer console;
+        long cursor;
+        boolean announced;
+
+        Tail(Room room) {
+            this.room = room;
+        }
+    }
+
+    // ========================= Per-channel batching =========================
+
+    /**
+     * Pending lines for one channel plus its send budget. Not thread-safe: owned by the relay thread.
+     */
+    static final class Outbox {
+        static final int MESSAGE_LIMIT = 2000;
+        private static final String FENCE_OPEN = "```\n";
+        private static final String FENCE_CLOSE = "```";
+        /** Room left for lines once the code fence is accounted for. */
+        static final int BODY_LIMIT = MESSAGE_LIMIT - FENCE_OPEN.length() - FENCE_CLOSE.length();
+
+        final String channelId;
+        private final ArrayDeque<String> pending = new ArrayDeque<>();
+        private final ArrayDeque<Long> pendingSince = new ArrayDeque<>();
+        private final int maxPending;
+        private final long flushNanos;
+        private final int tokensPerWindow;
+        private final long windowNanos;
+
+        private int pendingChars;
+        private long dropped;
+        private long droppedTotal;
+        private double tokens;
+        private long lastRefillNanos;
+
+        Outbox(String channelId, int maxPending, long flushNanos, int tokensPerWindow, long windowNanos) {
+            this.channelId = channelId;
+            this.maxPending = Math.max(1, maxPending);
+            this.flushNanos = flushNanos;
+            this.tokensPerWindow = Math.max(1, tokensPerWindow);
+            this.windowNanos = windowNanos;
+            this.tokens = this.tokensPerWindow;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        void offer(String line, long now) {
+            String safe = line.replace("```", "`\u200b``"); // keep lines from closing the code fence
+            if (safe.length() + 1 > BODY_LIMIT) safe = safe.substring(0, BODY_LIMIT - 2) + "…";
+            while (pending.size() >= maxPending) {
+                pendingChars -= pending.pollFirst().length() + 1;
+                pendingSince.pollFirst();
+                dropped++;
+                droppedTotal++;
+            }
+            pending.addLast(safe);
+            pendingSince.addLast(now);
+            pendingChars += safe.length() + 1;
+        }
+
+        /**
+         * Next message to send, or null if nothing is due (not full and not old enough) or the
+         * channel is out of tokens.
+         */
+        String nextMessage(long now) {
+            if (pending.isEmpty()) return null;
+            boolean full = pendingChars >= BODY_LIMIT;
+            boolean due = now - pendingSince.peekFirst() >= flushNanos;
+            if (!full && !due) return null;
+
+            refill(now);
+            if (tokens < 1) return null;
+            tokens -= 1;
+
+            StringBuilder sb = new StringBuilder(MESSAGE_LIMIT).append(FENCE_OPEN);
+            if (dropped > 0) {
+                sb.append("… ").append(dropped).append(" lines dropped (relay overloaded)\n");
+                dropped = 0;
+            }
+            while (!pending.isEmpty() && sb.length() + pending.peekFirst().length() + 1 + FENCE_CLOSE.length() <= MESSAGE_LIMIT) {
+                String line = pending.pollFirst();
+                pendingSince.pollFirst();
+                pendingChars -= line.length() + 1;
+                sb.append(line).append('\n');
+            }
+            return sb.append(FENCE_CLOSE).toString();
+        }
+
+        long droppedTotal() {
+            return droppedTotal;
+        }
+
+        int pendingLines() {
+            return pending.size();
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed <= 0) return;
+            tokens = Math.min(tokensPerWindow, tokens + (double) elapsed * tokensPerWindow / windowNanos);
+            lastRefillNanos = now;
+        }
+    }
+}
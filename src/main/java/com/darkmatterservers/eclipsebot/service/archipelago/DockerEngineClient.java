@@ -0,0 +1,408 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.URLEncoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Minimal Docker Engine API client over the daemon's Unix socket (no client library).
+ * <p>
+ * Transport:
+ *  - HTTP/1.1 over a {@link SocketChannel} connected to a {@link UnixDomainSocketAddress}
+ *  - keep-alive connections are pooled and reused. A pooled connection the daemon has closed while
+ *    idle is noticed before anything is sent and replaced by a fresh one. A failure on a reused
+ *    connection is retried once on a fresh one only if no request bytes were written yet, or if the
+ *    request is a GET or DELETE: a POST the daemon may already have acted on (create, start) is never
+ *    sent twice
+ *  - reads go through a per-connection selector, so a stuck daemon surfaces as a timeout
+ *  - Content-Length and chunked bodies are supported; JSON goes through Jackson
+ * <p>
+ * Only the handful of container calls the room runner needs are exposed.
+ */
+public class DockerEngineClient implements AutoCloseable {
+
+    /** Non-2xx answer from the daemon (message taken from its JSON error body). */
+    public static class DockerException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        public DockerException(int status, String message) {
+            super("Docker API " + status + ": " + message);
+            this.status = status;
+        }
+
+        public int status() {
+            return status;
+        }
+    }
+
+    public record Response(int status, Map<String, String> headers, byte[] body) {
+        public String text() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    /** The parts of GET /containers/{id}/json the runner cares about. */
+    public record ContainerState(String id, boolean running, String status, int exitCode) {}
+
+    /** Container spec for {@link #createContainer}. */
+    public record ContainerSpec(String name, String image, List<String> cmd, Map<String, String> labels,
+                                int hostPort, int containerPort, long memoryBytes, long nanoCpus) {}
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final UnixDomainSocketAddress address;
+    private final long timeoutMs;
+    private final BlockingQueue<Connection> idle;
+
+    public DockerEngineClient(Path socket, int maxIdleConnections, long timeoutMs) {
+        this.address = UnixDomainSocketAddress.of(socket);
+        this.timeoutMs = timeoutMs;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdleConnections));
+    }
+
+    // ========================= Container API =========================
+
+    public boolean ping() {
+        try {
+            return request("GET", "/_ping", null).status() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** POST /containers/create; returns the new container ID. */
+    public String createContainer(ContainerSpec spec) throws IOException {
+        String portKey = spec.containerPort() + "/tcp";
+
+        Map<String, Object> hostConfig = new LinkedHashMap<>();
+        hostConfig.put("PortBindings", Map.of(portKey, List.of(Map.of("HostPort", String.valueOf(spec.hostPort())))));
+        hostConfig.put("RestartPolicy", Map.of("Name", "no")); // the supervisor decides, not the daemon
+        if (spec.memoryBytes() > 0) hostConfig.put("Memory", spec.memoryBytes());
+        if (spec.nanoCpus() > 0) hostConfig.put("NanoCpus", spec.nanoCpus());
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("Image", spec.image());
+        if (spec.cmd() != null && !spec.cmd().isEmpty()) body.put("Cmd", spec.cmd());
+        body.put("Labels", spec.labels());
+        body.put("ExposedPorts", Map.of(portKey, Map.of()));
+        body.put("HostConfig", hostConfig);
+
+        Response r = expect(request("POST", "/containers/create?name=" + encode(spec.name()), body), 201);
+        return JSON.readTree(r.body()).path("Id").asText();
+    }
+
+    public void startContainer(String id) throws IOException {
+        expect(request("POST", "/containers/" + encode(id) + "/start", null), 204, 304);
+    }
+
+    public void stopContainer(String id, int timeoutSeconds) throws IOException {
+        expect(request("POST", "/containers/" + encode(id) + "/stop?t=" + timeoutSeconds, null), 204, 304, 404);
+    }
+
+    public void removeContainer(String id) throws IOException {
+        expect(request("DELETE", "/containers/" + encode(id) + "?force=true&v=true", null), 204, 404);
+    }
+
+    /** GET /containers/{id}/json; null if the container doesn't exist. */
+    public ContainerState inspectContainer(String id) throws IOException {
+        Response r = expect(request("GET", "/containers/" + encode(id) + "/json", null), 200, 404);
+        if (r.status() == 404) return null;
+        JsonNode state = JSON.readTree(r.body()).path("State");
+        return new ContainerState(id, state.path("Running").asBoolean(false),
+                state.path("Status").asText(""), state.path("ExitCode").asInt(0));
+    }
+
+    /** IDs of all containers (running or not) carrying {@code label}. */
+    public List<String> listContainerIds(String label) throws IOException {
+        String filters = JSON.writeValueAsString(Map.of("label", List.of(label)));
+        Response r = expect(request("GET", "/containers/json?all=true&filters=" + encode(filters), null), 200);
+        List<String> ids = new ArrayList<>();
+        for (JsonNode c : JSON.readTree(r.body())) ids.add(c.path("Id").asText());
+        return ids;
+    }
+
+    /**
+     * Non-following log fetch with timestamps; frames are demultiplexed into lines.
+     * Each line is prefixed by its RFC 3339 timestamp and a space, as the daemon sends it.
+     *
+     * @param sinceEpochSeconds only lines at or after this second (0 = all)
+     */
+    public List<LogLine> logs(String id, long sinceEpochSeconds) throws IOException {
+        Response r = expect(request("GET", "/containers/" + encode(id)
+                + "/logs?stdout=true&stderr=true&timestamps=true&since=" + sinceEpochSeconds, null), 200);
+        return demux(r.body());
+    }
+
+    public record LogLine(boolean stderr, String text) {}
+
+    // ========================= HTTP =========================
+
+    /** Sends one request; {@code jsonBody} (if any) is serialized with Jackson. */
+    public Response request(String method, String path, Object jsonBody) throws IOException {
+        byte[] body = jsonBody == null ? null : JSON.writeValueAsBytes(jsonBody);
+        byte[] head = requestHead(method, path, body);
+
+        Connection pooled;
+        while ((pooled = idle.poll()) != null && pooled.closedByPeer()) pooled.close();
+        if (pooled != null) {
+            try {
+                return exchange(pooled, head, body);
+            } catch (IOException e) {
+                // exchange() already closed it. Only resend what can't have taken effect twice
+                if (e instanceof SocketTimeoutException) throw e;
+                if (pooled.bytesWritten() > 0 && !idempotent(method)) throw e;
+            }
+        }
+        return exchange(open(), head, body);
+    }
+
+    private static boolean idempotent(String method) {
+        return "GET".equals(method) || "DELETE".equals(method);
+    }
+
+    private Response exchange(Connection c, byte[] head, byte[] body) throws IOException {
+        boolean ok = false;
+        try {
+            c.beginRequest();
+            c.write(head);
+            if (body != null) c.write(body);
+            Response r = c.readResponse();
+            ok = true;
+            boolean keepAlive = !"close".equalsIgnoreCase(r.headers().get("connection"));
+            if (!keepAlive || !idle.offer(c)) c.close();
+            return r;
+        } finally {
+            if (!ok) c.close();
+        }
+    }
+
+    private Connection open() throws IOException {
+        SocketChannel ch = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            ch.connect(address);
+            ch.configureBlocking(false);
+            return new Connection(ch, timeoutMs);
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private static byte[] requestHead(String method, String path, byte[] body) {
+        StringBuilder sb = new StringBuilder(128)
+                .append(method).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append("Host: docker\r\n")
+                .append("User-Agent: EclipseBot\r\n")
+                .append("Connection: keep-alive\r\n");
+        if (body != null) {
+            sb.append("Content-Type: application/json\r\n");
+            sb.append("Content-Length: ").append(body.length).append("\r\n");
+        } else if (!"GET".equals(method)) {
+            sb.append("Content-Length: 0\r\n");
+        }
+        return sb.append("\r\n").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static Response expect(Response r, int... accepted) throws DockerException {
+        for (int s : accepted) if (r.status() == s) return r;
+        String message = r.text();
+        try {
+            JsonNode n = JSON.readTree(r.body());
+            if (n.hasNonNull("message")) message = n.get("message").asText();
+        } catch (IOException ignored) {
+            // plain-text error body
+        }
+        throw new DockerException(r.status(), message);
+    }
+
+    /** Splits the multiplexed log stream: [stream, 0, 0, 0, size(4, big endian)] + payload per frame. */
+    static List<LogLine> demux(byte[] raw) {
+        List<LogLine> out = new ArrayList<>();
+        int pos = 0;
+        while (pos + 8 <= raw.length) {
+            boolean stderr = raw[pos] == 2;
+            int size = ((raw[pos + 4] & 0xff) << 24) | ((raw[pos + 5] & 0xff) << 16)
+                    | ((raw[pos + 6] & 0xff) << 8) | (raw[pos + 7] & 0xff);
+            pos += 8;
+            int end = Math.min(raw.length, pos + size);
+            for (String line : new String(raw, pos, end - pos, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isEmpty()) out.add(new LogLine(stderr, line));
+            }
+            pos = end;
+        }
+        return out;
+    }
+
+    private static String encode(String s) {
+        return URLEncoder.encode(s, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        Connection c;
+        while ((c = idle.poll()) != null) c.close();
+    }
+
+    // ========================= Connection =========================
+
+    /** One keep-alive HTTP connection with a small read buffer. */
+    private static final class Connection {
+        private final SocketChannel ch;
+        private final Selector selector;
+        private final long timeoutMs;
+        private final ByteBuffer in = ByteBuffer.allocate(16 * 1024).flip();
+        private long written;
+
+        Connection(SocketChannel ch, long timeoutMs) throws IOException {
+            this.ch = ch;
+            this.timeoutMs = timeoutMs;
+            this.selector = Selector.open();
+            ch.register(selector, 0);
+        }
+
+        void write(byte[] data) throws IOException {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            while (buf.hasRemaining()) {
+                int n = ch.write(buf);
+                written += n;
+                if (n == 0) await(SelectionKey.OP_WRITE);
+            }
+        }
+
+        void beginRequest() {
+            written = 0;
+        }
+
+        /** Bytes of the current request sent so far. */
+        long bytesWritten() {
+            return written;
+        }
+
+        /** An idle connection with EOF (or stray bytes) pending must not carry another request. */
+        boolean closedByPeer() {
+            if (in.hasRemaining()) return true;
+            in.clear();
+            try {
+                return ch.read(in) != 0; // non-blocking: 0 means nothing pending, as expected
+            } catch (IOException e) {
+                return true;
+            } finally {
+                in.flip();
+            }
+        }
+
+        Response readResponse() throws IOException {
+            String statusLine = readLine();
+            String[] parts = statusLine.split(" ", 3);
+            if (parts.length < 2 || !parts[0].startsWith("HTTP/")) throw new IOException("Bad status line: " + statusLine);
+            int status = Integer.parseInt(parts[1]);
+
+            Map<String, String> headers = new HashMap<>();
+            for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+
+            byte[] body;
+            if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+                ByteArrayOutputStream acc = new ByteArrayOutputStream();
+                while (true) {
+                    String sizeLine = readLine();
+                    int semi = sizeLine.indexOf(';');
+                    int size = Integer.parseInt((semi >= 0 ? sizeLine.substring(0, semi) : sizeLine).trim(), 16);
+                    if (size == 0) break;
+                    acc.write(readBytes(size));
+                    readLine(); // CRLF after the chunk
+                }
+                while (!readLine().isEmpty()) { /* trailers */ }
+                body = acc.toByteArray();
+            } else if (headers.containsKey("content-length")) {
+                body = readBytes(Integer.parseInt(headers.get("content-length")));
+            } else if (status == 204 || status == 304 || status / 100 == 1) {
+                body = new byte[0];
+            } else {
+                throw new IOException("Response without length (status " + status + ")");
+            }
+            if (parts[0].equals("HTTP/1.0")) headers.putIfAbsent("connection", "close");
+            return new Response(status, headers, body);
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                if (!in.hasRemaining()) fill();
+                byte b = in.get();
+                if (b == '\n') {
+                    int len = sb.length();
+                    if (len > 0 && sb.charAt(len - 1) == '\r') sb.setLength(len - 1);
+                    return sb.toString();
+                }
+                sb.append((char) b);
+            }
+        }
+
+        private byte[] readBytes(int n) throws IOException {
+            byte[] out = new byte[n];
+            int off = 0;
+            while (off < n) {
+                if (!in.hasRemaining()) fill();
+                int k = Math.min(in.remaining(), n - off);
+                in.get(out, off, k);
+                off += k;
+            }
+            return out;
+        }
+
+        private void fill() throws IOException {
+            in.clear();
+            try {
+                while (true) {
+                    int n = ch.read(in);
+                    if (n < 0) throw new EOFException("Docker daemon closed the connection");
+                    if (n > 0) return;
+                    await(SelectionKey.OP_READ);
+                }
+            } finally {
+                in.flip();
+            }
+        }
+
+        private void await(int op) throws IOException {
+            SelectionKey key = ch.keyFor(selector);
+            key.interestOps(op);
+            try {
+                if (selector.select(timeoutMs) == 0) throw new SocketTimeoutException("Docker API timed out after " + timeoutMs + " ms");
+            } finally {
+                selector.selectedKeys().clear();
+                key.interestOps(0);
+            }
+        }
+
+        void close() {
+            try { selector.close(); } catch (IOException ignored) {}
+            try { ch.close(); } catch (IOException ignored) {}
+        }
+    }
+}
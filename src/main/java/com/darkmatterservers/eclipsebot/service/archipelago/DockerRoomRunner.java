@@ -0,0 +1,270 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RoomRunner} that hosts each room in a container via the mounted Docker socket
+ * ({@code archipelago.runner: docker}).
+ * <p>
+ * Per room: create a container labelled {@value #ROOM_LABEL} with the room's port published
+ * to the server's container port, start it, and remove it on stop. Liveness comes from
+ * container inspect. Output is polled from the logs endpoint into the room's {@link ConsoleBuffer}
+ * by one background thread for all rooms.
+ * <p>
+ * Rooms live only in memory, so containers still carrying the label when the runner first
+ * starts belong to a previous (crashed) bot run and are removed.
+ * <p>
+ * Config (archipelago.docker.*): socket, image, containerPort, command (with {port}, {roomId},
+ * {name} placeholders; {name} is {@link Room#serverName}), memoryMb, cpus, logPollSeconds, consoleLines.
+ */
+@Component
+public class DockerRoomRunner implements RoomRunner {
+
+    public static final String ROOM_LABEL = "eclipsebot.room";
+
+    /** Daemon socket, server image and per-container limits; read from archipelago.docker.* when the first room starts. */
+    public record Settings(Path socket, String image, int containerPort, List<String> command,
+                           long memoryMb, double cpus, long logPollSeconds, int consoleLines) {}
+
+    private static final int STOP_TIMEOUT_SECONDS = 5;
+
+    private final LoggerService logger;
+    private final YamlService yamlService;
+    private final Map<Long, Tracked> containers = new ConcurrentHashMap<>();
+
+    private volatile Settings settings;
+    private volatile DockerEngineClient client;
+    private ScheduledExecutorService logPoller;
+
+    public DockerRoomRunner(LoggerService logger, @Lazy YamlService yamlService) {
+        this.logger = logger;
+        this.yamlService = yamlService;
+    }
+
+    /** Runner with fixed settings instead of archipelago.docker.*, e.g. against another daemon socket. */
+    public static DockerRoomRunner withSettings(LoggerService logger, Settings settings) {
+        DockerRoomRunner runner = new DockerRoomRunner(logger, null);
+        runner.settings = settings;
+        return runner;
+    }
+
+    @Override
+    public String name() {
+        return "docker";
+    }
+
+    // ========================= RoomRunner =========================
+
+    @Override
+    public void start(Room room) throws IOException {
+        DockerEngineClient docker = client();
+        Settings s = settings;
+
+        List<String> cmd = s.command().stream()
+                .map(arg -> arg.replace("{port}", String.valueOf(s.containerPort()))
+                        .replace("{roomId}", String.valueOf(room.id()))
+                        .replace("{name}", room.serverName()))
+                .toList();
+        DockerEngineClient.ContainerSpec spec = new DockerEngineClient.ContainerSpec(
+                "eclipsebot-room-" + room.id(), s.image(), cmd,
+                Map.of(ROOM_LABEL, String.valueOf(room.id())),
+                room.port(), s.containerPort(),
+                s.memoryMb() << 20, (long) (s.cpus() * 1_000_000_000L));
+
+        String id;
+        try {
+            id = docker.createContainer(spec);
+        } catch (DockerEngineClient.DockerException e) {
+            if (e.status() != 409) throw e;
+            // Name taken by a leftover container with the same room ID; replace it
+            docker.removeContainer(spec.name());
+            id = docker.createContainer(spec);
+        }
+
+        try {
+            docker.startContainer(id);
+        } catch (IOException e) {
+            safeRemove(docker, id);
+            throw e;
+        }
+
+        Tracked t = new Tracked(id, new ConsoleBuffer(s.consoleLines()));
+        t.console.append(ConsoleBuffer.Stream.SYSTEM, "Started container " + shortId(id) + " on port " + room.port());
+        containers.put(room.id(), t);
+        logger.info("🐳 Room " + room.id() + " container " + shortId(id) + " started (port " + room.port() + ")", getClass().getName());
+    }
+
+    @Override
+    public void stop(Room room) {
+        Tracked t = containers.remove(room.id());
+        if (t == null) return;
+        DockerEngineClient docker = client;
+        try {
+            docker.stopContainer(t.containerId, STOP_TIMEOUT_SECONDS);
+        } catch (IOException e) {
+            logger.warn("Stopping container " + shortId(t.containerId) + " failed: " + e.getMessage(), getClass().getName());
+        }
+        pollLogs(t);
+        safeRemove(docker, t.containerId);
+        t.console.append(ConsoleBuffer.Stream.SYSTEM, "Container removed");
+    }
+
+    @Override
+    public boolean isAlive(Room room) {
+        Tracked t = containers.get(room.id());
+        if (t == null) return false;
+        try {
+            DockerEngineClient.ContainerState state = client.inspectContainer(t.containerId);
+            return state != null && state.running();
+        } catch (IOException e) {
+            // A daemon hiccup is not a room crash; the next sweep asks again
+            logger.warn("Inspect of " + shortId(t.containerId) + " failed: " + e.getMessage(), getClass().getName());
+            return true;
+        }
+    }
+
+    @Override
+    public ConsoleBuffer console(Room room) {
+        Tracked t = containers.get(room.id());
+        return t != null ? t.console : null;
+    }
+
+    // ========================= Logs =========================
+
+    private void pollAll() {
+        for (Tracked t : containers.values()) pollLogs(t);
+    }
+
+    private void pollLogs(Tracked t) {
+        synchronized (t) {
+            try {
+                for (DockerEngineClient.LogLine line : client.logs(t.containerId, t.sinceSeconds)) {
+                    String text = line.text();
+                    int space = text.indexOf(' ');
+                    Instant ts = space > 0 ? parseTimestamp(text.substring(0, space)) : null;
+                    // "since" has second granularity: skip what we already saw in that second
+                    if (ts != null) {
+                        if (t.lastTimestamp != null && !ts.isAfter(t.lastTimestamp)) continue;
+                        t.lastTimestamp = ts;
+                    }
+                    t.console.append(line.stderr() ? ConsoleBuffer.Stream.STDERR : ConsoleBuffer.Stream.STDOUT,
+                            space > 0 ? text.substring(space + 1) : text);
+                }
+                t.sinceSeconds = Math.max(t.sinceSeconds, System.currentTimeMillis() / 1000 - 1);
+            } catch (IOException e) {
+                // transient; next poll retries from the same point
+            }
+        }
+    }
+
+    // ========================= Setup =========================
+
+    private DockerEngineClient client() {
+        DockerEngineClient c = client;
+        if (c != null) return c;
+        synchronized (this) {
+            if (client != null) return client;
+            Settings s = settings();
+            c = new DockerEngineClient(s.socket(), 4, 30_000);
+
+            try {
+                List<String> orphans = c.listContainerIds(ROOM_LABEL);
+                for (String id : orphans) safeRemove(c, id);
+                if (!orphans.isEmpty()) {
+                    logger.warn("♻️ Removed " + orphans.size() + " room container(s) left over from a previous run", getClass().getName());
+                }
+            } catch (IOException e) {
+                logger.warn("⚠️ Docker daemon not reachable at " + s.socket() + ": " + e.getMessage(), getClass().getName());
+            }
+
+            ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "room-docker-logs");
+                t.setDaemon(true);
+                return t;
+            });
+            long period = Math.max(1, s.logPollSeconds());
+            poller.scheduleWithFixedDelay(this::pollAll, period, period, TimeUnit.SECONDS);
+            logPoller = poller;
+
+            client = c;
+            return c;
+        }
+    }
+
+    private Settings settings() {
+        Settings s = settings;
+        if (s != null) return s;
+        Object rawCmd = yamlService.get("archipelago.docker.command");
+        List<String> cmd = rawCmd instanceof List<?> list ? list.stream().map(String::valueOf).toList()
+                : rawCmd instanceof String str && !str.isBlank() ? Arrays.asList(str.trim().split("\\s+"))
+                : List.of();
+        String socket = yamlService.getString("archipelago.docker.socket");
+        String image = yamlService.getString("archipelago.docker.image");
+        s = new Settings(
+                Path.of(socket == null || socket.isBlank() ? "/var/run/docker.sock" : socket),
+                image == null || image.isBlank() ? "archipelago-server:latest" : image,
+                yamlService.getInt("archipelago.docker.containerPort", 38281),
+                cmd,
+                yamlService.getLong("archipelago.docker.memoryMb", 0),
+                yamlService.getDouble("archipelago.docker.cpus", 0),
+                yamlService.getLong("archipelago.docker.logPollSeconds", 2),
+                yamlService.getInt("archipelago.docker.consoleLines", 500));
+        settings = s;
+        return s;
+    }
+
+    private void safeRemove(DockerEngineClient docker, String id) {
+        try {
+            docker.removeContainer(id);
+        } catch (IOException e) {
+            logger.warn("Removing container " + shortId(id) + " failed: " + e.getMessage(), getClass().getName());
+        }
+    }
+
+    private static Instant parseTimestamp(String s) {
+        try {
+            return Instant.parse(s);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String shortId(String id) {
+        return id.length() > 12 ? id.substring(0, 12) : id;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (client == null) return;
+        if (logPoller != null) logPoller.shutdownNow();
+        client.close();
+    }
+
+    private static final class Tracked {
+        final String containerId;
+        final ConsoleBuffer console;
+        long sinceSeconds;
+        Instant lastTimestamp;
+
+        Tracked(String containerId, ConsoleBuffer console) {
+            this.containerId = containerId;
+            this.console = console;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free port pool over an inclusive range (the "portRange" config block).
+ * <p>
+ * Layout:
+ *  - one bit per port in an AtomicLongArray (1 = taken); claim/release are single CAS operations
+ *  - a rotating word hint so concurrent allocators start on different words
+ *  - a free counter so "pool exhausted" is answered without scanning
+ *  - a lease per port (holder + deadline) in an AtomicReferenceArray, indexed by port offset
+ * <p>
+ * Finding a free port is a trailing-zeros lookup on the first word that isn't full, so a scan
+ * touches at most range/64 words (two for the default 5000–5100).
+ * <p>
+ * Crash handling: leases carry a deadline. Whoever owns a port renews it while the room is alive;
+ * {@link #reclaimExpired} frees ports whose holder stopped renewing (crashed room, lost runner).
+ * Ports still bound by a process from a previous bot run are skipped and quarantined
+ * when {@code probeBind} is on.
+ */
+public class PortAllocator {
+
+    /** Who holds a port and until when (System.nanoTime based). */
+    public record Lease(int port, String holder, long deadlineNanos) {}
+
+    public static final String QUARANTINE_HOLDER = "<bound-externally>";
+    private static final long QUARANTINE_RECHECK_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final int firstPort;
+    private final int size;
+    private final AtomicLongArray bits;
+    private final AtomicReferenceArray<Lease> leases;
+    private final AtomicInteger free;
+    private final AtomicInteger hint = new AtomicInteger();
+    private final boolean probeBind;
+
+    public PortAllocator(int firstPort, int lastPort, boolean probeBind) {
+        if (firstPort <= 0 || lastPort > 65535 || lastPort < firstPort) {
+            throw new IllegalArgumentException("Invalid port range " + firstPort + "-" + lastPort);
+        }
+        this.firstPort = firstPort;
+        this.size = lastPort - firstPort + 1;
+        this.bits = new AtomicLongArray((size + 63) >>> 6);
+        this.leases = new AtomicReferenceArray<>(size);
+        this.free = new AtomicInteger(size);
+        this.probeBind = probeBind;
+
+        // Bits past the end of the range are permanently "taken"
+        int tail = size & 63;
+        if (tail != 0) bits.set(bits.length() - 1, -1L << tail);
+    }
+
+    // ---------------------------------------------------------------------
+    // Allocation
+    // ---------------------------------------------------------------------
+
+    /**
+     * Claims any free port for {@code holder} with the given lease TTL.
+     *
+     * @return the port, or -1 if the range is exhausted
+     */
+    public int allocate(String holder, long ttlNanos) {
+        while (free.get() > 0) {
+            int words = bits.length();
+            int start = Math.floorMod(hint.getAndIncrement(), words);
+            boolean sawFree = false;
+
+            for (int n = 0; n < words; n++) {
+                int w = (start + n) % words;
+                long word = bits.get(w);
+                while (word != -1L) {
+                    sawFree = true;
+                    int bit = Long.numberOfTrailingZeros(~word);
+                    long claimed = word | (1L << bit);
+                    if (bits.compareAndSet(w, word, claimed)) {
+                        free.decrementAndGet();
+                        int port = firstPort + (w << 6) + bit;
+                        if (probeBind && !isBindable(port)) {
+                            // Still held by something outside our control (e.g. a room from before a crash)
+                            leases.set(port - firstPort, new Lease(port, QUARANTINE_HOLDER, System.nanoTime() + QUARANTINE_RECHECK_NANOS));
+                            word = bits.get(w);
+                            continue;
+                        }
+                        leases.set(port - firstPort, new Lease(port, holder, System.nanoTime() + ttlNanos));
+                        return port;
+                    }
+                    word = bits.get(w); // lost the race; re-read this word
+                }
+            }
+            if (!sawFree) return -1;
+        }
+        return -1;
+    }
+
+    /** Claims a specific port (e.g. re-adopting a running container). */
+    public boolean reserve(int port, String holder, long ttlNanos) {
+        int off = offset(port);
+        if (off < 0) return false;
+        int w = off >>> 6;
+        long mask = 1L << (off & 63);
+        while (true) {
+            long word = bits.get(w);
+            if ((word & mask) != 0) return false;
+            if (bits.compareAndSet(w, word, word | mask)) {
+                free.decrementAndGet();
+                leases.set(off, new Lease(port, holder, System.nanoTime() + ttlNanos));
+                return true;
+            }
+        }
+    }
+
+    /** Returns the port to the pool. Only the current holder may release (null holder = force). */
+    public boolean release(int port, String holder) {
+        int off = offset(port);
+        if (off < 0) return false;
+        Lease lease = leases.get(off);
+        if (holder != null && (lease == null || !holder.equals(lease.holder()))) return false;
+        if (!leases.compareAndSet(off, lease, null)) return false;
+
+        int w = off >>> 6;
+        long mask = 1L << (off & 63);
+        while (true) {
+            long word = bits.get(w);
+            if ((word & mask) == 0) return false;
+            if (bits.compareAndSet(w, word, word & ~mask)) {
+                free.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /** Extends the lease if {@code holder} still owns the port. */
+    public boolean renew(int port, String holder, long ttlNanos) {
+        int off = offset(port);
+        if (off < 0) return false;
+        Lease lease = leases.get(off);
+        if (lease == null || !lease.holder().equals(holder)) return false;
+        return leases.compareAndSet(off, lease, new Lease(port, holder, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Frees every port whose lease deadline passed. Quarantined ports are re-probed and
+     * freed only once nothing is bound to them any more.
+     *
+     * @return the leases that were reclaimed (holders other than the quarantine marker)
+     */
+    public List<Lease> reclaimExpired() {
+        long now = System.nanoTime();
+        List<Lease> reclaimed = new ArrayList<>();
+        for (int off = 0; off < size; off++) {
+            Lease lease = leases.get(off);
+            if (lease == null || now - lease.deadlineNanos() < 0) continue;
+            if (QUARANTINE_HOLDER.equals(lease.holder()) && probeBind && !isBindable(lease.port())) {
+                leases.compareAndSet(off, lease, new Lease(lease.port(), QUARANTINE_HOLDER, now + QUARANTINE_RECHECK_NANOS));
+                continue;
+            }
+            if (release(lease.port(), lease.holder()) && !QUARANTINE_HOLDER.equals(lease.holder())) {
+                reclaimed.add(lease);
+            }
+        }
+        return reclaimed;
+    }
+
+    // ---------------------------------------------------------------------
+    // Introspection
+    // ---------------------------------------------------------------------
+
+    public Lease lease(int port) {
+        int off = offset(port);
+        return off < 0 ? null : leases.get(off);
+    }
+
+    public boolean isTaken(int port) {
+        int off = offset(port);
+        return off >= 0 && (bits.get(off >>> 6) & (1L << (off & 63))) != 0;
+    }
+
+    public int freeCount() {
+        return free.get();
+    }
+
+    public int capacity() {
+        return size;
+    }
+
+    public int firstPort() {
+        return firstPort;
+    }
+
+    public int lastPort() {
+        return firstPort + size - 1;
+    }
+
+    // ===== helpers =====
+
+    private int offset(int port) {
+        int off = port - firstPort;
+        return (off < 0 || off >= size) ? -1 : off;
+    }
+
+    private static boolean isBindable(int port) {
+        try (ServerSocket s = new ServerSocket()) {
+            s.setReuseAddress(true);
+            s.bind(new InetSocketAddress(port));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
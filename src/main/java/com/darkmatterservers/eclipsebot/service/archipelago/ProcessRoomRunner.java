@@ -0,0 +1,466 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link RoomRunner} that launches each room's server as a local child process
+ * ({@code archipelago.runner: process}).
+ * <p>
+ * One supervisor thread serves every room:
+ *  - pumps stdout/stderr by reading only what {@link InputStream#available()} reports, so no read ever
+ *    blocks and no thread is parked per stream; lines land in the room's {@link ConsoleBuffer}
+ *  - notices exited processes and restarts them with exponential backoff; after too many
+ *    restarts the room is reported dead and the ArchipelagoService sweeper fails it
+ * <p>
+ * Limits:
+ *  - memory: when {@code prlimit} is on the PATH the command is wrapped with an address-space limit;
+ *    elsewhere it is logged as not enforced
+ *  - CPU: a throttle, not a budget. Each room gets its own cgroup v2 group under {@code cgroupDir} with
+ *    {@code cpu.max} set to {@code cpus} cores, and the server's pid is moved into it right after launch.
+ *    {@code cgroupDir} must be a delegated cgroup with the cpu controller enabled in its
+ *    {@code cgroup.subtree_control}; without one the limit is logged as not enforced. (RLIMIT_CPU is not
+ *    used: it kills a server once its total CPU time runs out, and the supervisor would keep restarting it.)
+ * <p>
+ * Config (archipelago.process.*):
+ *  - command        list (or space-separated string) with {port}, {roomId}, {name}, {dataDir} placeholders;
+ *                   {name} is {@link Room#serverName}, not the display name (a warm room starts before it has one)
+ *  - workDir        parent directory for per-room data dirs
+ *  - consoleLines   ring size per room
+ *  - maxRestarts    restarts allowed before giving up (the count resets after 5 stable minutes)
+ *  - memoryMb / cpus  per-room limits (0 = unlimited); cpus is in cores, e.g. 0.5
+ *  - cgroupDir      delegated cgroup v2 directory for the CPU limit (empty = none)
+ */
+@Component
+public class ProcessRoomRunner implements RoomRunner {
+
+    /** Resolved runner settings; the Spring constructor reads them from config.yaml on first use. */
+    public record Settings(List<String> command, Path workDir, int consoleLines, int maxRestarts,
+                           long backoffMinMs, long backoffMaxMs, long memoryMb, double cpus, Path cgroupDir) {}
+
+    private static final int MAX_LINE = 4096;
+    private static final int READ_CHUNK = 8192;
+    private static final long STOP_GRACE_MS = 5_000;
+    private static final long STABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long CPU_PERIOD_MICROS = 100_000;
+
+    private final LoggerService logger;
+    private final YamlService yamlService;
+    private final Map<Long, Supervised> supervised = new ConcurrentHashMap<>();
+
+    private volatile Settings settings;
+    private volatile Thread pumpThread;
+    private volatile boolean running = true;
+    private volatile Boolean prlimitAvailable;
+    private volatile boolean cpuLimitWarned;
+
+    public ProcessRoomRunner(LoggerService logger, @Lazy YamlService yamlService) {
+        this.logger = logger;
+        this.yamlService = yamlService;
+    }
+
+    /** Tests and tools: fixed settings, no config.yaml. */
+    public static ProcessRoomRunner withSettings(LoggerService logger, Settings settings) {
+        ProcessRoomRunner runner = new ProcessRoomRunner(logger, null);
+        runner.settings = settings;
+        return runner;
+    }
+
+    @Override
+    public String name() {
+        return "process";
+    }
+
+    // ========================= RoomRunner =========================
+
+    @Override
+    public void start(Room room) throws IOException {
+        Settings s = settings();
+        if (s.command().isEmpty()) {
+            throw new IllegalStateException("archipelago.process.command is not configured");
+        }
+
+        Path dataDir = s.workDir().resolve("room-" + room.id());
+        Files.createDirectories(dataDir);
+
+        List<String> command = new ArrayList<>(s.command().size() + 4);
+        for (String arg : s.command()) {
+            command.add(arg.replace("{port}", String.valueOf(room.port()))
+                    .replace("{roomId}", String.valueOf(room.id()))
+                    .replace("{name}", room.serverName())
+                    .replace("{dataDir}", dataDir.toString()));
+        }
+        command = withLimits(command, s);
+
+        Supervised sup = new Supervised(room, command, dataDir, cpuGroup(room, s), new ConsoleBuffer(s.consoleLines()));
+        synchronized (sup) {
+            launch(sup); // a failure here propagates: the room never started
+        }
+        supervised.put(room.id(), sup);
+        ensurePump();
+    }
+
+    @Override
+    public void stop(Room room) {
+        Supervised sup = supervised.remove(room.id());
+        if (sup == null) return;
+
+        Process p;
+        synchronized (sup) {
+            sup.stopping = true;
+            p = sup.process;
+        }
+        if (p == null) {
+            removeCpuGroup(sup);
+            return;
+        }
+
+        p.destroy();
+        try {
+            if (!p.waitFor(STOP_GRACE_MS, TimeUnit.MILLISECONDS)) {
+                sup.console.append(ConsoleBuffer.Stream.SYSTEM, "Server did not stop in time; killing");
+                p.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            p.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        sup.drain();
+        removeCpuGroup(sup);
+        sup.console.append(ConsoleBuffer.Stream.SYSTEM, "Server stopped");
+    }
+
+    @Override
+    public boolean isAlive(Room room) {
+        Supervised sup = supervised.get(room.id());
+        return sup != null && !sup.dead;
+    }
+
+    @Override
+    public ConsoleBuffer console(Room room) {
+        Supervised sup = supervised.get(room.id());
+        return sup != null ? sup.console : null;
+    }
+
+    /** Number of restarts the room has had since its last stable run (-1 if unknown). */
+    public int restarts(long roomId) {
+        Supervised sup = supervised.get(roomId);
+        return sup != null ? sup.restarts : -1;
+    }
+
+    /** PID of the room's current process (-1 if not running). */
+    public long pid(long roomId) {
+        Supervised sup = supervised.get(roomId);
+        Process p = sup != null ? sup.process : null;
+        return p != null && p.isAlive() ? p.pid() : -1;
+    }
+
+    // ========================= Supervisor loop =========================
+
+    private void ensurePump() {
+        if (pumpThread != null) return;
+        synchronized (this) {
+            if (pumpThread != null) return;
+            Thread t = new Thread(this::pumpLoop, "room-supervisor");
+            t.setDaemon(true);
+            t.start();
+            pumpThread = t;
+        }
+    }
+
+    private void pumpLoop() {
+        while (running) {
+            boolean progress = false;
+            long now = System.nanoTime();
+            for (Supervised sup : supervised.values()) {
+                try {
+                    progress |= sup.pump();
+                    superviseExit(sup, now);
+                } catch (RuntimeException e) {
+                    logger.error("Supervisor error for room " + sup.room.id() + ": " + e.getMessage(), getClass().getName(), e);
+                }
+            }
+            if (!progress) LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void superviseExit(Supervised sup, long now) {
+        synchronized (sup) {
+            if (sup.stopping || sup.dead) return;
+            Process p = sup.process;
+
+            if (p != null) {
+                if (p.isAlive()) {
+                    if (sup.restarts > 0 && now - sup.startedAtNanos > STABLE_NANOS) sup.restarts = 0;
+                    return;
+                }
+                sup.drain();
+                sup.process = null;
+                Settings s = settings();
+                if (sup.restarts >= s.maxRestarts()) {
+                    sup.dead = true;
+                    sup.console.append(ConsoleBuffer.Stream.SYSTEM, "Server exited with " + p.exitValue() + "; giving up after " + sup.restarts + " restarts");
+                    logger.error("💀 Room " + sup.room.id() + " keeps crashing; not restarting again", getClass().getName());
+                    return;
+                }
+                long delayMs = Math.min(s.backoffMaxMs(), s.backoffMinMs() << Math.min(sup.restarts, 20));
+                sup.restartAtNanos = now + TimeUnit.MILLISECONDS.toNanos(delayMs);
+                sup.console.append(ConsoleBuffer.Stream.SYSTEM, "Server exited with " + p.exitValue() + "; restarting in " + delayMs + " ms");
+                logger.warn("⚠️ Room " + sup.room.id() + " server exited (" + p.exitValue() + "); restart in " + delayMs + " ms", getClass().getName());
+                return;
+            }
+
+            if (now - sup.restartAtNanos >= 0) {
+                sup.restarts++;
+                try {
+                    launch(sup);
+                } catch (IOException e) {
+                    // Counts as another crash; the next pass schedules the next attempt
+                    sup.console.append(ConsoleBuffer.Stream.SYSTEM, "Restart failed: " + e.getMessage());
+                    sup.restartAtNanos = now + TimeUnit.MILLISECONDS.toNanos(settings().backoffMaxMs());
+                    if (sup.restarts >= settings().maxRestarts()) sup.dead = true;
+                }
+            }
+        }
+    }
+
+    /** Starts (or restarts) the process; caller holds the Supervised monitor. */
+    private void launch(Supervised sup) throws IOException {
+        ProcessBuilder pb = new ProcessBuilder(sup.command)
+                .directory(sup.dataDir.toFile())
+                .redirectInput(ProcessBuilder.Redirect.PIPE);
+        Process p = pb.start();
+        p.getOutputStream().close(); // servers here take no stdin; don't leave a pipe open
+        sup.process = p;
+        sup.out = new Pipe(p.getInputStream(), ConsoleBuffer.Stream.STDOUT);
+        sup.err = new Pipe(p.getErrorStream(), ConsoleBuffer.Stream.STDERR);
+        sup.startedAtNanos = System.nanoTime();
+        joinCpuGroup(sup, p);
+        sup.console.append(ConsoleBuffer.Stream.SYSTEM, "Started pid " + p.pid() + " on port " + sup.room.port());
+        logger.info("🚀 Room " + sup.room.id() + " server started (pid " + p.pid() + ", port " + sup.room.port() + ")", getClass().getName());
+    }
+
+    // ========================= Limits =========================
+
+    private List<String> withLimits(List<String> command, Settings s) {
+        if (s.memoryMb() <= 0) return command;
+        if (!prlimitAvailable()) {
+            logger.warn("⚠️ prlimit not found — per-room memory limits are not enforced", getClass().getName());
+            return command;
+        }
+        List<String> wrapped = new ArrayList<>(command.size() + 3);
+        wrapped.add("prlimit");
+        wrapped.add("--as=" + (s.memoryMb() << 20));
+        wrapped.add("--");
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    /** Creates the room's cgroup with its {@code cpu.max}; null when there is no CPU limit to apply. */
+    private Path cpuGroup(Room room, Settings s) {
+        if (s.cpus() <= 0) return null;
+        if (s.cgroupDir() == null || !Files.isDirectory(s.cgroupDir())) {
+            if (!cpuLimitWarned) {
+                cpuLimitWarned = true;
+                logger.warn("⚠️ archipelago.process.cgroupDir is not set or missing — per-room CPU limits are not enforced", getClass().getName());
+            }
+            return null;
+        }
+        Path group = s.cgroupDir().resolve("room-" + room.id());
+        long quota = Math.max(1_000, Math.round(s.cpus() * CPU_PERIOD_MICROS));
+        try {
+            Files.createDirectories(group);
+            Files.writeString(group.resolve("cpu.max"), quota + " " + CPU_PERIOD_MICROS);
+            return group;
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not set up " + group + " (" + e.getMessage() + ") — room " + room.id()
+                    + " runs without a CPU limit", getClass().getName());
+            return null;
+        }
+    }
+
+    /** Moves a freshly launched server into its cgroup; its own children inherit the group. */
+    private void joinCpuGroup(Supervised sup, Process p) {
+        if (sup.cpuGroup == null) return;
+        try {
+            Files.writeString(sup.cpuGroup.resolve("cgroup.procs"), String.valueOf(p.pid()));
+        } catch (IOException e) {
+            sup.console.append(ConsoleBuffer.Stream.SYSTEM, "CPU limit not applied: " + e.getMessage());
+            logger.warn("⚠️ Could not move room " + sup.room.id() + " into " + sup.cpuGroup + ": " + e.getMessage(), getClass().getName());
+        }
+    }
+
+    /** An empty cgroup is removed with a plain rmdir; it stays behind (harmlessly) if that fails. */
+    private static void removeCpuGroup(Supervised sup) {
+        if (sup.cpuGroup == null) return;
+        try {
+            Files.deleteIfExists(sup.cpuGroup);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private boolean prlimitAvailable() {
+        Boolean v = prlimitAvailable;
+        if (v == null) {
+            v = false;
+            String path = System.getenv("PATH");
+            if (path != null) {
+                for (String dir : path.split(File.pathSeparator)) {
+                    if (Files.isExecutable(Path.of(dir, "prlimit"))) { v = true; break; }
+                }
+            }
+            prlimitAvailable = v;
+        }
+        return v;
+    }
+
+    // ========================= Config =========================
+
+    private Settings settings() {
+        Settings s = settings;
+        if (s != null) return s;
+        synchronized (this) {
+            if (settings == null) {
+                settings = new Settings(
+                        commandFromConfig(yamlService.get("archipelago.process.command")),
+                        Path.of(orDefault(yamlService.getString("archipelago.process.workDir"), "rooms")).toAbsolutePath(),
+                        yamlService.getInt("archipelago.process.consoleLines", 500),
+                        yamlService.getInt("archipelago.process.maxRestarts", 5),
+                        1_000,
+                        60_000,
+                        yamlService.getLong("archipelago.process.memoryMb", 0),
+                        yamlService.getDouble("archipelago.process.cpus", 0),
+                        cgroupDir(yamlService.getString("archipelago.process.cgroupDir"))
+                );
+            }
+            return settings;
+        }
+    }
+
+    private static List<String> commandFromConfig(Object raw) {
+        if (raw instanceof List<?> list) return list.stream().map(String::valueOf).toList();
+        if (raw instanceof String str && !str.isBlank()) return Arrays.asList(str.trim().split("\\s+"));
+        return List.of();
+    }
+
+    private static Path cgroupDir(String raw) {
+        return raw == null || raw.isBlank() ? null : Path.of(raw.trim());
+    }
+
+    private static String orDefault(String v, String def) {
+        return (v == null || v.isBlank()) ? def : v;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Supervised sup : supervised.values()) stop(sup.room);
+    }
+
+    // ========================= Per-room state =========================
+
+    private static final class Supervised {
+        final Room room;
+        final List<String> command;
+        final Path dataDir;
+        final Path cpuGroup;
+        final ConsoleBuffer console;
+
+        volatile Process process;
+        volatile Pipe out;
+        volatile Pipe err;
+        volatile boolean stopping;
+        volatile boolean dead;
+        int restarts;
+        long startedAtNanos;
+        long restartAtNanos;
+
+        Supervised(Room room, List<String> command, Path dataDir, Path cpuGroup, ConsoleBuffer console) {
+            this.room = room;
+            this.command = command;
+            this.dataDir = dataDir;
+            this.cpuGroup = cpuGroup;
+            this.console = console;
+        }
+
+        synchronized boolean pump() {
+            Pipe o = out, e = err;
+            boolean progress = false;
+            if (o != null) progress |= o.pump(console);
+            if (e != null) progress |= e.pump(console);
+            return progress;
+        }
+
+        /** Reads whatever is left after exit and flushes partial lines. */
+        synchronized void drain() {
+            while (pump()) { /* keep reading while data is available */ }
+            Pipe o = out, e = err;
+            if (o != null) o.flush(console);
+            if (e != null) e.flush(console);
+        }
+    }
+
+    /** Line assembler over one process stream; only ever reads bytes that are already available. */
+    private static final class Pipe {
+        private final InputStream in;
+        private final ConsoleBuffer.Stream stream;
+        private final byte[] chunk = new byte[READ_CHUNK];
+        private final byte[] line = new byte[MAX_LINE];
+        private int len;
+        private boolean closed;
+
+        Pipe(InputStream in, ConsoleBuffer.Stream stream) {
+            this.in = in;
+            this.stream = stream;
+        }
+
+        boolean pump(ConsoleBuffer console) {
+            if (closed) return false;
+            try {
+                int avail = in.available();
+                if (avail <= 0) return false;
+                int n = in.read(chunk, 0, Math.min(avail, chunk.length));
+                if (n < 0) { closed = true; return false; }
+                for (int i = 0; i < n; i++) {
+                    byte b = chunk[i];
+                    if (b == '\n') {
+                        emit(console);
+                    } else if (b != '\r' && len < MAX_LINE) {
+                        line[len++] = b; // over-long lines are truncated
+                    }
+                }
+                return n > 0;
+            } catch (IOException e) {
+                closed = true; // stream closed under us (process gone)
+                return false;
+            }
+        }
+
+        void flush(ConsoleBuffer console) {
+            if (len > 0) emit(console);
+        }
+
+        private void emit(ConsoleBuffer console) {
+            console.append(stream, new String(line, 0, len, StandardCharsets.UTF_8));
+            len = 0;
+        }
+    }
+}
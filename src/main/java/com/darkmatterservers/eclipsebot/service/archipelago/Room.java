@@ -0,0 +1,83 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A hosted multiworld room: identity, owner, leased port and lifecycle state.
+ * State changes go through {@link #transition} (CAS), so concurrent stop/expire/crash
+ * handling can't both win.
+ */
+public final class Room {
+
+    private final long id;
+    private volatile String name;
+    private volatile String ownerId;
+    private final int port;
+    private final long createdAtMs;
+    private volatile long expiresAtMs;
+    private volatile String failureReason;
+    private final AtomicReference<RoomState> state = new AtomicReference<>(RoomState.CREATED);
+
+    Room(long id, String name, String ownerId, int port, long createdAtMs, long expiresAtMs) {
+        this.id = id;
+        this.name = name;
+        this.ownerId = ownerId;
+        this.port = port;
+        this.createdAtMs = createdAtMs;
+        this.expiresAtMs = expiresAtMs;
+    }
+
+    public long id() { return id; }
+    public String name() { return name; }
+    public String ownerId() { return ownerId; }
+    public int port() { return port; }
+    public long createdAtMs() { return createdAtMs; }
+    public long expiresAtMs() { return expiresAtMs; }
+    public String failureReason() { return failureReason; }
+    public RoomState state() { return state.get(); }
+
+    /**
+     * Name the server itself is started with (the runners' {@code {name}} placeholder): {@code room-<id>},
+     * fixed for the room's lifetime. It never follows {@link #name}, because a warm room's server is already
+     * running under a placeholder when {@link #assign} gives it its real name.
+     */
+    public String serverName() {
+        return "room-" + id;
+    }
+
+    /** Port lease holder name used with {@link PortAllocator}. */
+    public String leaseHolder() {
+        return "room-" + id;
+    }
+
+    boolean transition(RoomState from, RoomState to) {
+        return state.compareAndSet(from, to);
+    }
+
+    /** Moves any non-terminal state to {@code to}; returns false if the room already ended. */
+    boolean end(RoomState to, String reason) {
+        while (true) {
+            RoomState cur = state.get();
+            if (cur.isTerminal()) return false;
+            if (state.compareAndSet(cur, to)) {
+                if (reason != null) failureReason = reason;
+                return true;
+            }
+        }
+    }
+
+    /** Hands a pre-started (warm) room to its real owner; the running server keeps its {@link #serverName}. */
+    void assign(String ownerId, String name) {
+        this.ownerId = ownerId;
+        this.name = name;
+    }
+
+    void extendTo(long expiresAtMs) {
+        this.expiresAtMs = expiresAtMs;
+    }
+
+    @Override
+    public String toString() {
+        return "Room[" + id + " '" + name + "' port=" + port + " " + state.get() + "]";
+    }
+}
@@ -0,0 +1,26 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+/**
+ * Launches and supervises the server process behind a {@link Room}.
+ * Implementations are Spring beans; {@link ArchipelagoService} picks one by
+ * {@link #name()} using the {@code archipelago.runner} config key.
+ */
+public interface RoomRunner {
+
+    /** Config name of this runner (e.g. "process", "docker"). */
+    String name();
+
+    /** Starts the room's server bound to {@link Room#port()}. Throwing marks the room FAILED. */
+    void start(Room room) throws Exception;
+
+    /** Stops the room's server; must be idempotent and must not throw. */
+    void stop(Room room);
+
+    /** Liveness check used by the sweeper; a dead RUNNING room is treated as crashed. */
+    boolean isAlive(Room room);
+
+    /** Recent server output for the room, or null if this runner doesn't capture it. */
+    default ConsoleBuffer console(Room room) {
+        return null;
+    }
+}
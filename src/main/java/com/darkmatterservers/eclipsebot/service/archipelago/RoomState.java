@@ -0,0 +1,23 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+/**
+ * Lifecycle of a hosted room.
+ * <pre>
+ * CREATED → STARTING → RUNNING → STOPPING → STOPPED
+ *     any live state → EXPIRED (TTL reached) / FAILED (start error, crash, lost lease)
+ * </pre>
+ * Terminal states release the room's port.
+ */
+public enum RoomState {
+    CREATED,
+    STARTING,
+    RUNNING,
+    STOPPING,
+    STOPPED,
+    EXPIRED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == STOPPED || this == EXPIRED || this == FAILED;
+    }
+}
@@ -0,0 +1,170 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.darkmatterservers.eclipsebot.service.trace.LatencyHistogram;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of pre-started, unclaimed rooms so "open a room" doesn't pay for a cold server start.
+ * <p>
+ * Sizing:
+ *  - {@code minIdle} rooms are kept started and bound to their ports at all times
+ *  - every miss raises the refill target by one, up to {@code highWater} (bursts warm the pool up)
+ *  - the sweeper calls {@link #reap}: anything above {@code highWater} goes immediately, and rooms idle
+ *    longer than {@code idleTtlNanos} are stopped while the pool is above {@code minIdle} (the target decays)
+ * <p>
+ * Refills run on one background thread; {@link #take} never waits for a start.
+ * Warm rooms belong to {@link #OWNER} until claimed and are excluded from TTL expiry.
+ * Claiming sets the owner and display name only; the server was started with {@link Room#serverName},
+ * which doesn't depend on either, so a claimed room looks the same to its server as a cold-started one.
+ */
+public final class WarmRoomPool {
+
+    static final String OWNER = "warm-pool";
+
+    /** Immutable counters for the status API. */
+    public record Stats(int minIdle, int highWater, int target, int idle, int starting,
+                        long hits, long misses, long reaped, long startFailures,
+                        long timeToRoomP50Ms, long timeToRoomP95Ms, long timeToRoomMaxMs) {}
+
+    private record Idle(Room room, long sinceNanos) {}
+
+    private final ArchipelagoService service;
+    private final int minIdle;
+    private final int highWater;
+    private final long idleTtlNanos;
+
+    private final ConcurrentLinkedDeque<Idle> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger starting = new AtomicInteger();
+    private final AtomicInteger target;
+    private final AtomicBoolean refillQueued = new AtomicBoolean();
+    private final ExecutorService refiller;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reaped = new LongAdder();
+    private final LongAdder startFailures = new LongAdder();
+    private final LatencyHistogram timeToRoom = new LatencyHistogram();
+
+    WarmRoomPool(ArchipelagoService service, int minIdle, int highWater, long idleTtlNanos) {
+        this.service = service;
+        this.minIdle = Math.max(0, minIdle);
+        this.highWater = Math.max(this.minIdle, highWater);
+        this.idleTtlNanos = idleTtlNanos;
+        this.target = new AtomicInteger(this.minIdle);
+        this.refiller = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "room-warm-pool");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    boolean enabled() {
+        return highWater > 0;
+    }
+
+    /** Hands out a started room, or null on a miss (the caller cold-starts; the pool grows). */
+    Room take() {
+        if (!enabled()) return null;
+        Idle entry;
+        while ((entry = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            if (entry.room().state() == RoomState.RUNNING) {
+                hits.increment();
+                refill();
+                return entry.room();
+            }
+            // crashed or expired while idle; the sweeper already ended it
+        }
+        misses.increment();
+        target.updateAndGet(t -> Math.min(highWater, t + 1));
+        refill();
+        return null;
+    }
+
+    void recordTimeToRoom(long nanos) {
+        timeToRoom.record(nanos);
+    }
+
+    /** Queues a background refill up to the current target (no-op if one is already queued). */
+    void refill() {
+        if (!enabled() || !refillQueued.compareAndSet(false, true)) return;
+        refiller.execute(() -> {
+            refillQueued.set(false);
+            while (idleCount.get() + starting.get() < target.get() && service.freePorts() > 0) {
+                starting.incrementAndGet();
+                try {
+                    Room room = service.createRoom(OWNER, "warm", Long.MAX_VALUE / 4);
+                    service.startRoom(room.id());
+                    if (room.state() != RoomState.RUNNING) {
+                        startFailures.increment();
+                        return; // runner is failing; the next sweep tries again
+                    }
+                    idle.addLast(new Idle(room, System.nanoTime()));
+                    idleCount.incrementAndGet();
+                } catch (RuntimeException e) {
+                    startFailures.increment();
+                    return;
+                } finally {
+                    starting.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    /** Sweeper hook: trims the pool and tops it back up. */
+    void reap() {
+        if (!enabled()) return;
+        long now = System.nanoTime();
+
+        while (idleCount.get() > highWater) {
+            Idle oldest = idle.pollFirst();
+            if (oldest == null) break;
+            idleCount.decrementAndGet();
+            discard(oldest.room());
+        }
+
+        for (Iterator<Idle> it = idle.iterator(); it.hasNext(); ) {
+            Idle entry = it.next();
+            if (entry.room().state() != RoomState.RUNNING) {
+                if (idle.removeFirstOccurrence(entry)) idleCount.decrementAndGet();
+                continue;
+            }
+            if (idleCount.get() <= minIdle) break;
+            if (now - entry.sinceNanos() > idleTtlNanos && idle.removeFirstOccurrence(entry)) {
+                idleCount.decrementAndGet();
+                target.updateAndGet(t -> Math.max(minIdle, t - 1));
+                discard(entry.room());
+            }
+        }
+        refill();
+    }
+
+    private void discard(Room room) {
+        reaped.increment();
+        service.stopRoom(room.id());
+    }
+
+    Stats stats() {
+        return new Stats(minIdle, highWater, target.get(), idleCount.get(), starting.get(),
+                hits.sum(), misses.sum(), reaped.sum(), startFailures.sum(),
+                timeToRoom.percentileMs(0.50), timeToRoom.percentileMs(0.95), timeToRoom.maxMs());
+    }
+
+    /** Stops every idle room (shutdown). */
+    void drain() {
+        refiller.shutdownNow();
+        Idle entry;
+        while ((entry = idle.pollFirst()) != null) {
+            idleCount.decrementAndGet();
+            service.stopRoom(entry.room().id());
+        }
+    }
+}
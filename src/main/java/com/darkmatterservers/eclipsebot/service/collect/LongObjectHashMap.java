@@ -0,0 +1,248 @@
+package com.darkmatterservers.eclipsebot.service.collect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * {@code long → V} open-addressing hash map for snowflake-keyed state (users, guilds, rooms).
+ * <p>
+ * Compared to {@code HashMap<Long, V>} / {@code HashMap<String, V>} there is no boxed key, no string and
+ * no entry node per mapping: keys sit in a {@code long[]}, values in a parallel {@code Object[]}.
+ *  - linear probing over a power-of-two table, at most 2/3 full; keys are scrambled first, since the
+ *    low bits of a snowflake (worker/sequence) are poorly spread
+ *  - removal shifts the following cluster back, so there are no tombstones and lookups never slow down
+ *    after churn
+ *  - key {@code 0} (never a snowflake, but a valid room ID) is held outside the table
+ *  - null values are not stored: {@code put(k, null)} removes {@code k}
+ * <p>
+ * Not thread-safe: callers guard it themselves. Shared registries stay {@code ConcurrentHashMap<Long, V>},
+ * whose reads take no lock.
+ */
+public final class LongObjectHashMap<V> {
+
+    /** {@code computeIfPresent} callback without boxing the key. */
+    @FunctionalInterface
+    public interface Remapping<V> {
+        V apply(long key, V value);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;      // table entries, without the zero key
+    private int maxFill;
+    private V zeroValue;   // non-null when key 0 is present
+
+    public LongObjectHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /** {@code expected}: number of mappings to hold without resizing. */
+    public LongObjectHashMap(int expected) {
+        allocate(tableSizeFor(expected));
+    }
+
+    /** Scrambles a key (64-bit golden-ratio multiply); also used to pick stripes. */
+    static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    // ---------------------------------------------------------------------
+    // Lookups
+    // ---------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) return zeroValue;
+        int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    public V getOrDefault(long key, V defaultValue) {
+        V v = get(key);
+        return v != null ? v : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public int size() {
+        return size + (zeroValue != null ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // ---------------------------------------------------------------------
+    // Updates
+    // ---------------------------------------------------------------------
+
+    /** Maps {@code key} to {@code value} and returns the previous value (a null value removes the key). */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) return remove(key);
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = value;
+            return previous;
+        }
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > maxFill) rehash(keys.length * 2);
+        return null;
+    }
+
+    public V putIfAbsent(long key, V value) {
+        V current = get(key);
+        return current != null ? current : put(key, value);
+    }
+
+    /** Maps {@code key} to {@code fn(key)} when absent; a null result maps nothing. */
+    public V computeIfAbsent(long key, LongFunction<? extends V> fn) {
+        V current = get(key);
+        if (current != null) return current;
+        V created = fn.apply(key);
+        if (created != null) put(key, created);
+        return created;
+    }
+
+    /** Replaces the value of a present key with {@code fn(key, value)}; a null result removes the key. */
+    public V computeIfPresent(long key, Remapping<V> fn) {
+        V current = get(key);
+        if (current == null) return null;
+        V updated = fn.apply(key, current);
+        put(key, updated);
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            zeroValue = null;
+            return previous;
+        }
+        int i = indexOf(key);
+        if (i < 0) return null;
+        V previous = (V) values[i];
+        deleteAt(i);
+        return previous;
+    }
+
+    /** Removes {@code key} only while it maps to {@code value} (identity or equals). */
+    public boolean remove(long key, Object value) {
+        V current = get(key);
+        if (current == null || (current != value && !current.equals(value))) return false;
+        remove(key);
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        zeroValue = null;
+    }
+
+    // ---------------------------------------------------------------------
+    // Iteration
+    // ---------------------------------------------------------------------
+
+    /** Calls {@code action} for every mapping; the map must not be modified meanwhile. */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (zeroValue != null) action.accept(0, zeroValue);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    /** Snapshot of the values, in no particular order. */
+    public List<V> values() {
+        List<V> out = new ArrayList<>(size());
+        forEach((k, v) -> out.add(v));
+        return out;
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    private int slot(long key) {
+        return (int) mix(key) & mask;
+    }
+
+    private int indexOf(long key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Backward-shift deletion: moves later members of the cluster into the hole where their probe allows. */
+    private void deleteAt(int hole) {
+        size--;
+        int i = hole;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) break;
+            int home = slot(keys[i]);
+            // the entry at i may move to the hole only if its home isn't cyclically within (hole, i]
+            boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+            if (movable) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        values[hole] = null;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = slot(oldKeys[j]);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        maxFill = capacity * 2 / 3;
+    }
+
+    private static int tableSizeFor(int expected) {
+        long needed = Math.max(MIN_CAPACITY, (long) Math.max(0, expected) * 3 / 2 + 1);
+        if (needed > 1 << 30) throw new IllegalArgumentException("too many entries: " + expected);
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+}
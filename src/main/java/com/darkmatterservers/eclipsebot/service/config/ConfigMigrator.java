@@ -0,0 +1,209 @@
+package com.darkmatterservers.eclipsebot.service.config;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.builders.InitYaml;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Brings config.yaml up to the current schema at boot, replacing the unconditional merge-and-rewrite.
+ * <p>
+ *  - the file carries a top-level {@code schemaVersion}; files without one predate it and have the
+ *    {@link #BASE_VERSION} layout
+ *  - {@link #MIGRATIONS} are applied in order from the stored version up to {@link #CURRENT_VERSION},
+ *    then missing keys are filled from the {@link InitYaml} defaults (existing values always win)
+ *  - the file is only written when that actually changed something
+ *  - after a check, a stamp (schema version, defaults fingerprint, SHA-256 of the file) goes to
+ *    {@code config.yaml.migrated}; when the next boot finds the same stamp, merge and write are skipped.
+ *    Editing the file or changing the defaults invalidates the stamp, so the check runs once more.
+ *    For config.yaml the hash is the one {@link YamlService} computed while loading, not a second read
+ *  - a file from a newer build (higher schemaVersion) is left untouched
+ * <p>
+ * To change the layout of existing configs, append a {@link Migration}; steps must be idempotent and only
+ * touch the keys they move. New keys with defaults only need an InitYaml entry.
+ */
+@Component
+public class ConfigMigrator {
+
+    public static final String VERSION_KEY = "schemaVersion";
+    static final Path CONFIG_PATH = Path.of("config.yaml");
+
+    /** One schema step: brings a config at {@code version - 1} to {@code version}, in place. */
+    public record Migration(int version, String description, Consumer<Map<String, Object>> apply) {}
+
+    /** Layout of every config.yaml written before schema versions existed. */
+    public static final int BASE_VERSION = 1;
+
+    /** Ordered; the entry at index i migrates to version {@link #BASE_VERSION} + i + 1. None yet. */
+    static final List<Migration> MIGRATIONS = List.of();
+
+    public static final int CURRENT_VERSION = BASE_VERSION + MIGRATIONS.size();
+
+    public enum Outcome {
+        /** Stamp matched: nothing was merged or written. */
+        CURRENT,
+        /** Checked; the file already had everything, only the stamp was refreshed. */
+        VERIFIED,
+        /** Migrated and/or filled with defaults, then written. */
+        WRITTEN,
+        /** Newer schema or a failed write; the file was left as is. */
+        SKIPPED
+    }
+
+    private final LoggerService logger;
+    private final YamlService yamlService;
+    private final InitYaml initYaml;
+
+    public ConfigMigrator(LoggerService logger, YamlService yamlService, InitYaml initYaml) {
+        this.logger = logger;
+        this.yamlService = yamlService;
+        this.initYaml = initYaml;
+    }
+
+    /** Migrates config.yaml in the working directory against the loaded config. */
+    public Outcome migrate() {
+        return migrate(CONFIG_PATH, yamlService.getFullConfig(), initYaml.getDefaultConfig());
+    }
+
+    /** Package-private for tests: {@code current} is the parsed content of {@code file} (empty if missing). */
+    Outcome migrate(Path file, Map<String, Object> current, Map<String, Object> defaults) {
+        return migrate(file, current, defaults, MIGRATIONS);
+    }
+
+    /** Same, with {@code migrations} in place of {@link #MIGRATIONS} (tests exercise the steps with their own). */
+    Outcome migrate(Path file, Map<String, Object> current, Map<String, Object> defaults, List<Migration> migrations) {
+        int target = BASE_VERSION + migrations.size();
+        String defaultsHash = sha256(defaults.toString().getBytes(StandardCharsets.UTF_8));
+        Path stampFile = stampFile(file);
+
+        String fileHash = fileHash(file);
+        if (fileHash != null && stamp(target, defaultsHash, fileHash).equals(readStamp(stampFile))) {
+            logger.info("✅ config.yaml is current (schema v" + target + ") — skipping merge", getClass().getName());
+            return Outcome.CURRENT;
+        }
+
+        int from = storedVersion(current);
+        if (from > target) {
+            logger.warn("⚠️ config.yaml has schema v" + from + ", newer than this build (v" + target
+                    + ") — leaving it untouched", getClass().getName());
+            return Outcome.SKIPPED;
+        }
+
+        Map<String, Object> working = deepCopy(current);
+        for (Migration m : migrations) {
+            if (m.version() <= from) continue;
+            m.apply().accept(working);
+            logger.info("🧩 config.yaml migrated to v" + m.version() + ": " + m.description(), getClass().getName());
+        }
+
+        Map<String, Object> migrated = new LinkedHashMap<>();
+        migrated.put(VERSION_KEY, target);
+        yamlService.deepMerge(defaults, working).forEach((k, v) -> {
+            if (!VERSION_KEY.equals(k)) migrated.put(k, v);
+        });
+
+        if (migrated.equals(current)) {
+            logger.info("✅ config.yaml has all required fields — no write needed", getClass().getName());
+            writeStamp(stampFile, stamp(target, defaultsHash, fileHash != null ? fileHash : sha256(new byte[0])));
+            return Outcome.VERIFIED;
+        }
+
+        if (fileHash == null) {
+            logger.warn("🛠 config.yaml not found or empty — creating from defaults", getClass().getName());
+        }
+        if (!yamlService.saveToFile(file.toString(), migrated)) return Outcome.SKIPPED;
+        if (file.equals(CONFIG_PATH)) yamlService.replaceConfig(migrated);
+
+        String written = fileHash(file);
+        if (written != null) writeStamp(stampFile, stamp(target, defaultsHash, written));
+        return Outcome.WRITTEN;
+    }
+
+    // ---------------------------------------------------------------------
+    // Helpers
+    // ---------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deepCopy(Map<String, Object> source) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        if (source == null) return copy;
+        source.forEach((k, v) -> copy.put(k, v instanceof Map<?, ?> m ? deepCopy((Map<String, Object>) m)
+                : v instanceof List<?> l ? new ArrayList<>(l) : v));
+        return copy;
+    }
+
+    private static int storedVersion(Map<String, Object> config) {
+        Object v = config == null ? null : config.get(VERSION_KEY);
+        if (v instanceof Number n) return n.intValue();
+        if (v instanceof String s) {
+            try { return Integer.parseInt(s.trim()); } catch (NumberFormatException ignored) {}
+        }
+        return BASE_VERSION;
+    }
+
+    // ---------------------------------------------------------------------
+    // Stamp
+    // ---------------------------------------------------------------------
+
+    static Path stampFile(Path config) {
+        return config.resolveSibling(config.getFileName() + ".migrated");
+    }
+
+    private static String stamp(int version, String defaultsHash, String fileHash) {
+        return "v" + version + " defaults=" + defaultsHash + " sha256=" + fileHash;
+    }
+
+    private static String readStamp(Path stampFile) {
+        try {
+            return Files.exists(stampFile) ? Files.readString(stampFile, StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeStamp(Path stampFile, String stamp) {
+        try {
+            Files.writeString(stampFile, stamp + "\n", StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            // Only costs a full check on the next boot
+            logger.warn("⚠️ Could not write " + stampFile + ": " + e.getMessage(), getClass().getName());
+        }
+    }
+
+    /**
+     * SHA-256 (hex) of {@code file}, or null if it's missing or empty. For config.yaml, YamlService's hash
+     * from loading (or from the save just made) is reused while the file's size and mtime still match.
+     */
+    private String fileHash(Path file) {
+        if (file.equals(CONFIG_PATH)) {
+            String loaded = yamlService.configSha256();
+            if (loaded != null) return loaded;
+        }
+        try {
+            byte[] bytes = Files.exists(file) ? Files.readAllBytes(file) : null;
+            return bytes != null && bytes.length > 0 ? sha256(bytes) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
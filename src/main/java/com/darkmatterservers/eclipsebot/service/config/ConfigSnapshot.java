@@ -0,0 +1,248 @@
+package com.darkmatterservers.eclipsebot.service.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-parsed binary copy of a YAML config ({@code config.yaml.snap}), so boots can skip SnakeYAML.
+ * <p>
+ * Layout (big-endian):
+ * <pre>magic "ECS1" | yaml size (long) | yaml mtime millis (long) | yaml SHA-256 (32 bytes) | tree</pre>
+ *  - the tree is tagged values: maps and lists (count + entries), strings (length + UTF-8), int, long,
+ *    double, boolean, null, big integers (as strings). Maps come back as LinkedHashMap in file order and
+ *    lists as ArrayList, the same mutable shapes SnakeYAML produces
+ *  - a snapshot is used only if the YAML file still has the recorded size, mtime and hash; anything else
+ *    (including a truncated or foreign snapshot) reads as stale and the caller parses the YAML
+ *  - trees with other values (YAML timestamps, binary, sets) are not snapshotted; {@link #encode} returns null
+ */
+final class ConfigSnapshot {
+
+    private static final int MAGIC = 0x45435331; // "ECS1"
+    private static final int HASH_BYTES = 32;
+
+    private static final byte NULL = 0, MAP = 1, LIST = 2, STRING = 3, INT = 4, LONG = 5, DOUBLE = 6,
+            TRUE = 7, FALSE = 8, BIG_INTEGER = 9;
+
+    private ConfigSnapshot() {}
+
+    /**
+     * What a snapshot records about its YAML file. YamlService keeps the one of the file it loaded, so
+     * ConfigMigrator can stamp config.yaml without reading and hashing it a second time.
+     */
+    record YamlFile(long size, long mtimeMillis, byte[] sha256) {
+        static YamlFile of(byte[] content, long mtimeMillis) {
+            return new YamlFile(content.length, mtimeMillis, ConfigSnapshot.sha256(content));
+        }
+
+        /** Size and mtime still match: a stat, no read. */
+        boolean unchanged(Path file) {
+            try {
+                return Files.size(file) == size && Files.getLastModifiedTime(file).toMillis() == mtimeMillis;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    /** A decoded snapshot and the YAML file it was verified against. */
+    record Loaded(Map<String, Object> tree, YamlFile yaml) {}
+
+    static Path pathFor(Path yamlFile) {
+        return yamlFile.resolveSibling(yamlFile.getFileName() + ".snap");
+    }
+
+    /**
+     * The tree of {@code yamlFile} from its snapshot, or null if there is none or it's stale.
+     * The snapshot is read into a heap buffer (no mapping is left holding the file, so it can be replaced
+     * on any OS) and decoded in one pass.
+     */
+    static Loaded read(Path yamlFile) {
+        Path snapshot = pathFor(yamlFile);
+        try (FileChannel ch = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long length = ch.size();
+            if (length < 4 + 8 + 8 + HASH_BYTES + 1 || length > Integer.MAX_VALUE) return null;
+            ByteBuffer buf = ByteBuffer.allocate((int) length);
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) return null; // shrank while reading
+            }
+            buf.flip();
+
+            if (buf.getInt() != MAGIC) return null;
+            YamlFile recorded = new YamlFile(buf.getLong(), buf.getLong(), new byte[HASH_BYTES]);
+            buf.get(recorded.sha256());
+
+            // Cheap stat first; hash only when size and mtime match
+            if (!recorded.unchanged(yamlFile)) return null;
+            if (!Arrays.equals(recorded.sha256(), sha256(Files.readAllBytes(yamlFile)))) return null;
+
+            return readValue(buf) instanceof Map<?, ?> tree && !buf.hasRemaining() ? new Loaded(cast(tree), recorded) : null;
+        } catch (IOException | RuntimeException e) {
+            // Missing, unreadable or malformed: parse the YAML instead
+            return null;
+        }
+    }
+
+    /**
+     * Encodes {@code tree} as the snapshot of {@code yaml}; null if the tree holds a value type the
+     * format doesn't cover.
+     */
+    static byte[] encode(Map<String, Object> tree, YamlFile yaml) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.clamp(yaml.size(), 256, 1 << 20));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeLong(yaml.size());
+            out.writeLong(yaml.mtimeMillis());
+            out.write(yaml.sha256());
+            if (!writeValue(out, tree)) return null;
+        } catch (IOException e) {
+            return null; // in-memory stream; not expected
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Atomically replaces the snapshot of {@code yamlFile} with {@code snapshot}. */
+    static void write(Path yamlFile, byte[] snapshot) throws IOException {
+        Path target = pathFor(yamlFile);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tmp, snapshot);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Removes a snapshot that no longer matches its YAML file. */
+    static void delete(Path yamlFile) {
+        try {
+            Files.deleteIfExists(pathFor(yamlFile));
+        } catch (IOException ignored) {
+            // A stale snapshot is rejected on read anyway
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Encoding
+    // ---------------------------------------------------------------------
+
+    private static boolean writeValue(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case String s -> {
+                out.writeByte(STRING);
+                writeString(out, s);
+            }
+            case Integer i -> {
+                out.writeByte(INT);
+                out.writeInt(i);
+            }
+            case Long l -> {
+                out.writeByte(LONG);
+                out.writeLong(l);
+            }
+            case Double d -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(d);
+            }
+            case Boolean b -> out.writeByte(b ? TRUE : FALSE);
+            case BigInteger big -> {
+                out.writeByte(BIG_INTEGER);
+                writeString(out, big.toString());
+            }
+            case Map<?, ?> map -> {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> e : map.entrySet()) {
+                    if (!writeValue(out, e.getKey()) || !writeValue(out, e.getValue())) return false;
+                }
+            }
+            case List<?> list -> {
+                out.writeByte(LIST);
+                out.writeInt(list.size());
+                for (Object item : list) {
+                    if (!writeValue(out, item)) return false;
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    // ---------------------------------------------------------------------
+    // Decoding
+    // ---------------------------------------------------------------------
+
+    private static Object readValue(ByteBuffer buf) {
+        byte tag = buf.get();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> readString(buf);
+            case INT -> buf.getInt();
+            case LONG -> buf.getLong();
+            case DOUBLE -> buf.getDouble();
+            case TRUE -> Boolean.TRUE;
+            case FALSE -> Boolean.FALSE;
+            case BIG_INTEGER -> new BigInteger(readString(buf));
+            case MAP -> {
+                int n = count(buf);
+                Map<Object, Object> map = new LinkedHashMap<>(Math.max(4, (int) (n / 0.75f) + 1));
+                for (int i = 0; i < n; i++) map.put(readValue(buf), readValue(buf));
+                yield map;
+            }
+            case LIST -> {
+                int n = count(buf);
+                List<Object> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) list.add(readValue(buf));
+                yield list;
+            }
+            default -> throw new IllegalStateException("unknown snapshot tag " + tag);
+        };
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] utf8 = new byte[count(buf)];
+        buf.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** A length that fits in what's left of the buffer (every element takes at least one byte). */
+    private static int count(ByteBuffer buf) {
+        int n = buf.getInt();
+        if (n < 0 || n > buf.remaining()) throw new BufferUnderflowException();
+        return n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Map<?, ?> tree) {
+        return (Map<String, Object>) tree;
+    }
+
+    static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
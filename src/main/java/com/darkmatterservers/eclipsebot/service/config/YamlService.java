@@ -14,6 +14,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Robust YAML config service for reading/writing config.yaml.
@@ -21,6 +23,8 @@ import java.util.*;
  * - Defensive casting and deep-set helpers
  * - Optional typed getters (String, Boolean, Int, Long)
  * - Atomic save to avoid partial writes
+ * - Boots from a pre-parsed binary snapshot (config.yaml.snap, see ConfigSnapshot) when it still matches
+ *   the YAML; saves refresh it in the background
  */
 @Service
 public class YamlService {
@@ -30,6 +34,18 @@ public class YamlService {
     private final LoggerService logger;
     private final Yaml yaml;
     private Map<String, Object> configMap = new LinkedHashMap<>();
+    private volatile LoadTiming lastLoad;
+    private volatile ConfigSnapshot.YamlFile loadedFile; // config.yaml as last loaded or saved
+
+    /** Snapshot writes stay off the caller's thread; the snapshot is only an optimization. */
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "config-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Duration of a config load and whether it came from the binary snapshot or the YAML parse. */
+    public record LoadTiming(String source, long micros) {}
 
     public YamlService(@Lazy LoggerService logger) {
         this.logger = logger;
@@ -50,17 +66,32 @@ public class YamlService {
     // -------------------- Loading / Saving --------------------
 
     public synchronized void load() {
-        File file = new File(CONFIG_FILE);
-        if (!file.exists()) {
+        long start = System.nanoTime();
+        Path path = Path.of(CONFIG_FILE);
+        if (!Files.exists(path)) {
             logger.warn("⚠️ config.yaml not found. Starting with empty config.", getClass().getName());
             configMap = new LinkedHashMap<>();
+            loadedFile = null;
+            return;
+        }
+
+        ConfigSnapshot.Loaded snapshot = ConfigSnapshot.read(path);
+        if (snapshot != null) {
+            configMap = snapshot.tree();
+            loadedFile = snapshot.yaml();
+            recordLoad("snapshot", start);
             return;
         }
-        try (InputStream in = new FileInputStream(file)) {
-            Object data = yaml.load(in);
+
+        try {
+            long mtime = Files.getLastModifiedTime(path).toMillis();
+            byte[] bytes = Files.readAllBytes(path);
+            loadedFile = ConfigSnapshot.YamlFile.of(bytes, mtime);
+            Object data = yaml.load(new String(bytes, StandardCharsets.UTF_8));
             if (data instanceof Map<?, ?> loaded) {
                 configMap = castToStringObjectMap(loaded);
-                logger.info("📄 Loaded config.yaml successfully.", getClass().getName());
+                recordLoad("yaml", start);
+                writeSnapshotLater(path, configMap, loadedFile);
             } else {
                 logger.warn("⚠️ config.yaml loaded but format is invalid; starting empty.", getClass().getName());
                 configMap = new LinkedHashMap<>();
@@ -68,6 +99,7 @@ public class YamlService {
         } catch (IOException e) {
             logger.error("❌ Failed to load config.yaml: " + e.getMessage(), getClass().getName());
             configMap = new LinkedHashMap<>();
+            loadedFile = null;
         }
     }
 
@@ -75,22 +107,79 @@ public class YamlService {
         saveToFile(CONFIG_FILE, configMap);
     }
 
-    /** Write atomically to avoid truncated files. */
-    public synchronized void saveToFile(String filePath, Map<String, Object> data) {
+    /** Write atomically to avoid truncated files; false if the file was left unchanged. */
+    public synchronized boolean saveToFile(String filePath, Map<String, Object> data) {
         Path path = Path.of(filePath);
         Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
-        try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
-            yaml.dump(data, w);
+        byte[] bytes = yaml.dump(data).getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.write(tmp, bytes);
         } catch (IOException e) {
             logger.error("❌ Failed to write temp YAML: " + e.getMessage(), getClass().getName());
-            return;
+            return false;
         }
         try {
             Files.move(tmp, path, java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
             logger.info("✅ Saved YAML config to " + filePath, getClass().getName());
         } catch (IOException e) {
             logger.error("❌ Failed to finalize YAML save: " + e.getMessage(), getClass().getName());
+            return false;
+        }
+        if (path.equals(Path.of(CONFIG_FILE))) {
+            try {
+                loadedFile = ConfigSnapshot.YamlFile.of(bytes, Files.getLastModifiedTime(path).toMillis());
+                writeSnapshotLater(path, data, loadedFile);
+            } catch (IOException e) {
+                // The old snapshot no longer matches and is ignored; the next load parses the YAML
+                loadedFile = null;
+            }
         }
+        return true;
+    }
+
+    /** Swaps in a config that was just written to config.yaml (ConfigMigrator), sparing a reload. */
+    synchronized void replaceConfig(Map<String, Object> config) {
+        configMap = config;
+    }
+
+    /**
+     * SHA-256 (hex) of config.yaml as last loaded or saved, or null if there was none or the file's size or
+     * mtime changed since. Saves ConfigMigrator a second read and hash of the same file at boot.
+     */
+    String configSha256() {
+        ConfigSnapshot.YamlFile file = loadedFile;
+        return file != null && file.size() > 0 && file.unchanged(Path.of(CONFIG_FILE))
+                ? HexFormat.of().formatHex(file.sha256()) : null;
+    }
+
+    /** How the last {@link #load()} got the config ("snapshot" or "yaml") and how long it took. */
+    public LoadTiming lastLoad() {
+        return lastLoad;
+    }
+
+    private void recordLoad(String source, long startNanos) {
+        lastLoad = new LoadTiming(source, (System.nanoTime() - startNanos) / 1_000);
+        logger.info(String.format("📄 Loaded config.yaml from %s in %.1f ms.", source, lastLoad.micros() / 1000.0),
+                getClass().getName());
+    }
+
+    /**
+     * Encodes the snapshot of a just-read or just-written file now (callers hold the lock, so the tree
+     * can't change underneath) and writes it on the background thread, in save order.
+     */
+    private void writeSnapshotLater(Path path, Map<String, Object> data, ConfigSnapshot.YamlFile yamlFile) {
+        byte[] snapshot = ConfigSnapshot.encode(data, yamlFile);
+        snapshotWriter.execute(() -> {
+            if (snapshot == null) {
+                ConfigSnapshot.delete(path);
+                return;
+            }
+            try {
+                ConfigSnapshot.write(path, snapshot);
+            } catch (IOException e) {
+                logger.warn("⚠️ Failed to write config snapshot: " + e.getMessage(), getClass().getName());
+            }
+        });
     }
 
     // -------------------- Getters --------------------
@@ -143,6 +232,20 @@ public class YamlService {
         return def;
     }
 
+    /** Blank or missing gives {@code def}; a value that isn't a number is logged and also gives {@code def}. */
+    public double getDouble(String path, double def) {
+        Object v = get(path);
+        if (v instanceof Number n) return n.doubleValue();
+        if (v instanceof String s && !s.isBlank()) {
+            try {
+                return Double.parseDouble(s.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("⚠️ " + path + " is not a number (\"" + s + "\") — using " + def, getClass().getName());
+            }
+        }
+        return def;
+    }
+
     // -------------------- Mutators --------------------
 
     public synchronized void set(String path, Object value) {
@@ -1,32 +1,21 @@
 package com.darkmatterservers.eclipsebot.service.config.builders;
 
-import com.darkmatterservers.eclipsebot.service.LoggerService;
-import com.darkmatterservers.eclipsebot.service.config.YamlService;
 import org.springframework.stereotype.Component;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Provides the base structure for config.yaml during initial setup.
+ * Provides the base structure for config.yaml; ConfigMigrator fills missing keys from it.
  */
 @Component
 public class InitYaml {
 
-    private final LoggerService logger;
-    private final YamlService yamlService;
-
-    public InitYaml(LoggerService logger, YamlService yamlService) {
-        this.logger = logger;
-        this.yamlService = yamlService;
-    }
-
     /**
-     * Builds the default config structure merged with existing fields.
+     * Builds the default config structure (a fresh map per call; not merged with the current config).
      */
     public Map<String, Object> getDefaultConfig() {
-        logger.info("🛠 InitYaml: Building merged config map...");
-
         Map<String, Object> defaults = new LinkedHashMap<>();
 
         // Discord block
@@ -49,16 +38,91 @@ public class InitYaml {
         // Server FQDN
         defaults.put("fqdn", "example.com");
 
+        // Room hosting (ArchipelagoService)
+        Map<String, Object> archipelago = new LinkedHashMap<>();
+        archipelago.put("runner", "none");
+        archipelago.put("roomTtlMinutes", 240);
+        archipelago.put("leaseSeconds", 90);
+        archipelago.put("probePorts", true);
+
+        Map<String, Object> warmPool = new LinkedHashMap<>();
+        warmPool.put("minIdle", 0);
+        warmPool.put("highWater", 0);
+        warmPool.put("idleMinutes", 15);
+        archipelago.put("warmPool", warmPool);
+
+        Map<String, Object> relay = new LinkedHashMap<>();
+        relay.put("flushMs", 2000);
+        relay.put("messagesPer5s", 4);
+        relay.put("maxLinesPerRoom", 50);
+        relay.put("maxPendingLines", 500);
+        archipelago.put("relay", relay);
+
+        Map<String, Object> process = new LinkedHashMap<>();
+        process.put("command", List.of("ArchipelagoServer", "--host", "0.0.0.0", "--port", "{port}"));
+        process.put("workDir", "rooms");
+        process.put("consoleLines", 500);
+        process.put("maxRestarts", 5);
+        process.put("memoryMb", 0);
+        process.put("cpus", 0);
+        process.put("cgroupDir", "");
+        archipelago.put("process", process);
+
+        Map<String, Object> docker = new LinkedHashMap<>();
+        docker.put("socket", "/var/run/docker.sock");
+        docker.put("image", "archipelago-server:latest");
+        docker.put("containerPort", 38281);
+        docker.put("command", List.of());
+        docker.put("memoryMb", 0);
+        docker.put("cpus", 0);
+        archipelago.put("docker", docker);
+        defaults.put("archipelago", archipelago);
+
+        // Setup wizard (bulk mode progress message refresh)
+        Map<String, Object> setup = new LinkedHashMap<>();
+        setup.put("progressMs", 1500);
+        defaults.put("setup", setup);
+
+        // Bulk REST work: adaptive (AIMD) concurrency, cut back on 429s
+        Map<String, Object> bulk = new LinkedHashMap<>();
+        bulk.put("initial", 4);
+        bulk.put("min", 1);
+        bulk.put("max", 16);
+        bulk.put("decreasePercent", 50);
+        bulk.put("cooldownMs", 1000);
+        Map<String, Object> ratelimit = new LinkedHashMap<>();
+        ratelimit.put("bulk", bulk);
+        defaults.put("ratelimit", ratelimit);
+
+        // Outbound REST lanes (highest priority first); dm/background only send below maxInFlight - interaction.reserved
+        // overall. maxInFlight 0 = no lane cap, dropAfterMs 0 = never drop
+        Map<String, Object> outbound = new LinkedHashMap<>();
+        outbound.put("maxInFlight", 20);
+        String[] lanes = {"interaction", "render", "dm", "background"};
+        int[] laneMaxInFlight = {0, 0, 10, 2};
+        int[] laneDropAfterMs = {3000, 0, 0, 10000};
+        for (int i = 0; i < lanes.length; i++) {
+            Map<String, Object> lane = new LinkedHashMap<>();
+            lane.put("maxInFlight", laneMaxInFlight[i]);
+            lane.put("dropAfterMs", laneDropAfterMs[i]);
+            if (i == 0) lane.put("reserved", 5); // of maxInFlight, never taken by dm/background
+            outbound.put(lanes[i], lane);
+        }
+        defaults.put("outbound", outbound);
+
+        // Stateless paged chains: HMAC key for component IDs (base64, 16+ bytes; same value on every node).
+        // Empty = random per process, so stateless menus expire on restart
+        Map<String, Object> stateless = new LinkedHashMap<>();
+        stateless.put("secret", "");
+        Map<String, Object> chains = new LinkedHashMap<>();
+        chains.put("stateless", stateless);
+        defaults.put("chains", chains);
+
         // Channel IDs
         defaults.put("consoleChannelId", "");
         defaults.put("logsChannelId", "");
         defaults.put("waitingRoomChannelId", "");
 
-        // Merge with the current config to avoid overwriting real values
-        Map<String, Object> current = yamlService.getFullConfig();
-        Map<String, Object> merged = yamlService.deepMerge(defaults, current);
-
-        logger.info("✅ Merged default config with existing values.");
-        return merged;
+        return defaults;
     }
 }
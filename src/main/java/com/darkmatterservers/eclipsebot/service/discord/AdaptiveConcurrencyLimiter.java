@@ -0,0 +1,170 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * AIMD concurrency limit for bulk REST work (eligibility scans, bulk guild setup).
+ * <p>
+ * Tasks are async ({@code CompletableFuture}-returning); at most {@code floor(limit)} run at once and
+ * the rest wait in FIFO order:
+ *  - additive increase: every successful task adds {@code 1/limit}, i.e. about +1 per round of tasks,
+ *    up to {@code ratelimit.bulk.max}
+ *  - multiplicative decrease: a 429 reported by {@link RateLimitTelemetry} (from any caller, not just
+ *    bulk work) cuts the limit to {@code ratelimit.bulk.decreasePercent} of its value, at most once per
+ *    {@code ratelimit.bulk.cooldownMs} so one burst of 429s counts once; never below {@code ratelimit.bulk.min}
+ *  - 429s with the "shared" scope are ignored: Discord doesn't count them against the bot
+ * <p>
+ * Bulk work therefore ramps up while Discord keeps answering and backs off as soon as anything gets
+ * limited, instead of running at a fixed, guessed concurrency.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    /** Diagnostics; {@code limit} is the current (fractional) concurrency limit. */
+    public record Stats(double limit, int inFlight, int queued, long completed, long decreases) {}
+
+    private final YamlService yamlService;
+    private final RateLimitTelemetry telemetry;
+    private final Object lock = new Object();
+    private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    // guarded by lock
+    private double limit = 4;
+    private double minLimit = 1;
+    private double maxLimit = 16;
+    private double decreaseFactor = 0.5;
+    private long cooldownNanos = TimeUnit.SECONDS.toNanos(1);
+    private long lastDecreaseNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    private int inFlight;
+    private long completed;
+    private long decreases;
+    private volatile boolean configured;
+
+    public AdaptiveConcurrencyLimiter(@Lazy YamlService yamlService, RateLimitTelemetry telemetry) {
+        this.yamlService = yamlService;
+        this.telemetry = telemetry;
+    }
+
+    /** Subscribes to 429s; outside the constructor so the listener never sees a half-built limiter. */
+    @PostConstruct
+    public void init() {
+        if (telemetry != null) telemetry.onRateLimited(this::onRateLimited);
+    }
+
+    /** Tests and tools: fixed bounds, no config lookups, not attached to telemetry. */
+    public static AdaptiveConcurrencyLimiter withLimits(double initial, double min, double max, long cooldownMs) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(null, null);
+        limiter.minLimit = Math.max(1, min);
+        limiter.maxLimit = Math.max(limiter.minLimit, max);
+        limiter.limit = clamp(initial, limiter.minLimit, limiter.maxLimit);
+        limiter.cooldownNanos = TimeUnit.MILLISECONDS.toNanos(cooldownMs);
+        limiter.configured = true;
+        return limiter;
+    }
+
+    // ---------------------------------------------------------------------
+    // Public API
+    // ---------------------------------------------------------------------
+
+    /** Runs {@code task} once a slot is free; the returned future mirrors the task's. */
+    public <T> CompletableFuture<T> submit(Supplier<? extends CompletableFuture<T>> task) {
+        configure();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> running;
+            try {
+                running = task.get();
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+            running.whenComplete((value, err) -> {
+                release(err == null);
+                if (err == null) result.complete(value);
+                else result.completeExceptionally(err);
+            });
+        };
+        synchronized (lock) {
+            pending.addLast(start);
+        }
+        drain();
+        return result;
+    }
+
+    /** Rate-limit signal (normally from {@link RateLimitTelemetry}). */
+    void onRateLimited(RateLimitTelemetry.RateLimitHit hit) {
+        if ("shared".equalsIgnoreCase(hit.scope())) return;
+        configure();
+        synchronized (lock) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos < cooldownNanos) return;
+            lastDecreaseNanos = now;
+            limit = clamp(limit * decreaseFactor, minLimit, maxLimit);
+            decreases++;
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lock) {
+            return new Stats(limit, inFlight, pending.size(), completed, decreases);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    /** Starts waiting tasks while under the limit; re-entrant calls become extra loop passes. */
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) return;
+        do {
+            List<Runnable> start = new ArrayList<>();
+            synchronized (lock) {
+                while (!pending.isEmpty() && inFlight < (int) limit) {
+                    start.add(pending.pollFirst());
+                    inFlight++;
+                }
+            }
+            for (Runnable r : start) r.run();
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    private void release(boolean success) {
+        synchronized (lock) {
+            inFlight--;
+            completed++;
+            if (success) limit = clamp(limit + 1.0 / limit, minLimit, maxLimit);
+        }
+        drain();
+    }
+
+    private void configure() {
+        if (configured) return;
+        synchronized (lock) {
+            if (configured) return;
+            if (yamlService != null) {
+                minLimit = Math.max(1, yamlService.getInt("ratelimit.bulk.min", 1));
+                maxLimit = Math.max(minLimit, yamlService.getInt("ratelimit.bulk.max", 16));
+                limit = clamp(yamlService.getInt("ratelimit.bulk.initial", 4), minLimit, maxLimit);
+                decreaseFactor = clamp(yamlService.getInt("ratelimit.bulk.decreasePercent", 50), 10, 90) / 100.0;
+                cooldownNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, yamlService.getLong("ratelimit.bulk.cooldownMs", 1_000)));
+            }
+            configured = true;
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,72 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.components.selections.SelectOption;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds the guilds an admin may run the setup wizard for: the bot is present and the admin is the
+ * owner or has ADMINISTRATOR.
+ * <p>
+ * Owners are recognized from the cached guild. Every other guild needs a member fetch
+ * ({@code retrieveMemberById}). Those fetches run in parallel through the
+ * {@link AdaptiveConcurrencyLimiter}, so the scan goes as fast as Discord allows but doesn't burst into
+ * 429s. Results keep JDA's guild order. A guild whose fetch fails or is still pending after
+ * {@link #SCAN_TIMEOUT_SECONDS} is treated as not eligible.
+ */
+@Component
+public class AdminGuildScanner {
+
+    static final long SCAN_TIMEOUT_SECONDS = 30;
+
+    private final AtomicReference<JDA> jdaRef;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public AdminGuildScanner(AtomicReference<JDA> jdaRef, AdaptiveConcurrencyLimiter limiter) {
+        this.jdaRef = jdaRef;
+        this.limiter = limiter;
+    }
+
+    /** Eligible guilds as select options (label = name, value = ID). Blocks until the scan is done. */
+    public List<SelectOption> eligibleGuilds(String adminId) {
+        JDA jda = jdaRef.get();
+        if (jda == null || adminId == null || adminId.isBlank()) return List.of();
+
+        List<Guild> guilds = jda.getGuilds();
+        List<CompletableFuture<Boolean>> checks = new ArrayList<>(guilds.size());
+        for (Guild guild : guilds) {
+            if (adminId.equals(guild.getOwnerId())) {
+                checks.add(CompletableFuture.completedFuture(true));
+                continue;
+            }
+            checks.add(limiter.submit(() -> guild.retrieveMemberById(adminId).submit())
+                    .thenApply(m -> m != null && (m.isOwner() || m.hasPermission(Permission.ADMINISTRATOR)))
+                    .exceptionally(err -> false)); // not a member, missing intent, ...
+        }
+
+        try {
+            CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new))
+                    .orTimeout(SCAN_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof TimeoutException)) throw e;
+            // fall through: unfinished checks count as "not eligible"
+        }
+
+        List<SelectOption> out = new ArrayList<>();
+        for (int i = 0; i < guilds.size(); i++) {
+            if (checks.get(i).getNow(false)) out.add(SelectOption.of(guilds.get(i).getName(), guilds.get(i).getId()));
+        }
+        return out;
+    }
+}
@@ -6,21 +6,35 @@ import com.darkmatterservers.chain.PagedChain;
 import com.darkmatterservers.chain.PagedChain.Keys;
 import com.darkmatterservers.context.ComponentContext;
 import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer.Stage;
 import com.darkmatterservers.router.InteractionRouter;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.interactions.components.ActionRow;
+import net.dv8tion.jda.api.interactions.components.ItemComponent;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
+import net.dv8tion.jda.api.interactions.components.selections.StringSelectMenu;
+import net.dv8tion.jda.api.requests.RestAction;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Bytes: EclipseBot bridge around the EclipseBytes paged chain system.
@@ -30,6 +44,19 @@ import java.util.concurrent.atomic.AtomicReference;
  *  - Handle dropdown/button interactions -> route -> re-render the current page
  *  - Keep a single message per session and edit it in-place
  *  - Support dropdown UX flags (selected highlighting and optional auto-next)
+ *  - Report per-stage timings (route / render / ack / edit) to the InteractionTracer
+ *  - Reach DMs through the {@link PrivateChannelCache} (one REST call per DM once a user's channel is known)
+ *  - Send through the {@link OutboundScheduler}: acks on the interaction lane, page sends/edits on the
+ *    render lane, plain DMs on the DM lane
+ *  - Route clicks through the chain's own {@link ChainRouter} when it has one (components go out as
+ *    {@code namespace:id}); chains without one still use EclipseBytes' global InteractionRouter
+ *  - Optional stateless chains: page index and a compact state travel in signed component IDs
+ *    ({@link StatelessChainCodec}); a click rebuilds a throwaway context from the event, and the page
+ *    edit doubles as the interaction ack. No session is stored, so memory doesn't grow with users and
+ *    any node holding the secret can serve the click
+ *  - Keep sessions small: the page index and total pages are primitives on the session, a pick is stored
+ *    once ({@code "interactionValue"}, plus the dropdown's {@code "<id>.selected"} highlight under a shared
+ *    key), and the JDA event is never put into the context, so a session doesn't hold it between clicks
  */
 @SuppressWarnings("unused")
 @Component
@@ -38,15 +65,43 @@ public class Bytes {
     private static final String PLACEHOLDER_PREFIX = "noop.";           // any id starting with this is a placeholder
     private static final String PLACEHOLDER_ID     = "noop.placeholder"; // common convenience id
 
+    /** Context key of a stateless chain's compact state (a string, encoded into every component ID). */
+    public static final String STATELESS_STATE_KEY = "state";
+
+    /** Context key of the future behind {@link #completionShown}. */
+    private static final String COMPLETION_SHOWN_KEY = "bytes.completionShown";
+
+    /** Context key of the picked dropdown value, read through {@link ComponentContext#interactionValue()}. */
+    private static final String INTERACTION_VALUE_KEY = "interactionValue";
+
+    /** componentId -> "componentId.selected", shared by all sessions (capped; misses just build the key) */
+    private static final int MAX_SELECTED_KEYS = 4_096;
+    private static final Map<String, String> SELECTED_KEYS = new ConcurrentHashMap<>();
+
     private final AtomicReference<JDA> jdaRef;
     private final LoggerService logger;
+    private final InteractionTracer tracer;
+    private final PrivateChannelCache dmChannels;
+    private final OutboundScheduler outbound;
+    private final StatelessChainCodec statelessCodec;
+
+    /** chainId -> stateless chain (one entry per chain definition, not per user) */
+    private final Map<String, StatelessChain> statelessChains = new ConcurrentHashMap<>();
+
+    /** namespace -> router of every chain started so far (handler stats) */
+    private final Map<String, ChainRouter> routers = new ConcurrentHashMap<>();
 
     /** userId -> active session */
-    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
 
-    public Bytes(AtomicReference<JDA> jdaRef, LoggerService logger) {
+    public Bytes(AtomicReference<JDA> jdaRef, LoggerService logger, InteractionTracer tracer,
+                 PrivateChannelCache dmChannels, OutboundScheduler outbound, StatelessChainCodec statelessCodec) {
         this.jdaRef = jdaRef;
         this.logger = logger;
+        this.tracer = tracer;
+        this.dmChannels = dmChannels;
+        this.outbound = outbound;
+        this.statelessCodec = statelessCodec;
     }
 
     @PostConstruct
@@ -57,8 +112,7 @@ public class Bytes {
     @PreDestroy
     public void shutdown() {
         sessions.clear();
-        InteractionRouter.clear();
-        logger.info("🧹 Cleaned up EclipseBytes handlers & sessions", getClass().getName());
+        logger.info("🧹 Cleaned up EclipseBytes sessions", getClass().getName());
     }
 
     // ---------------------------------------------------------------------
@@ -67,31 +121,83 @@ public class Bytes {
 
     /** Start a paged chain in the user's DMs. */
     public void startDmPagedChain(String userId, PagedChain chain) {
+        startDmPagedChain(userId, chain, null, null);
+    }
+
+    /**
+     * Start a paged chain in the user's DMs, routed through {@code router} (null = global router).
+     * {@code init} (optional) seeds the new session's context before the first render.
+     */
+    public void startDmPagedChain(String userId, PagedChain chain, ChainRouter router, Consumer<ComponentContext> init) {
         JDA jda = jdaRef.get();
         if (validateJdaAndUser(jda, userId)) return;
+        long uid = snowflake(userId);
+        if (uid == 0) return;
 
-        ComponentContext ctx = new ComponentContext(userId);
-        ctx.put(Keys.PAGE_INDEX, 0);
-        ctx.put(Keys.TOTAL_PAGES, chain.totalPages());
-
-        Session session = new Session(chain, ctx);
-        sessions.put(userId, session);
+        Session session = newSession(userId, chain, router, init);
+        sessions.put(uid, session);
 
-        jda.retrieveUserById(userId).queue(user ->
-                user.openPrivateChannel().queue(channel -> renderCurrentPage(session, channel))
-        );
+        dmChannels.channel(uid, Lane.RENDER).whenComplete((channel, err) -> {
+            if (err != null) logger.warn("⚠️ Could not open DM with " + userId + ": " + err.getMessage(), getClass().getName());
+            else renderCurrentPage(session, channel, InteractionTracer.NO_TRACE);
+        });
     }
 
     /** Start a paged chain in any message channel (guild text, thread, etc.). */
     public void startChannelPagedChain(String userId, MessageChannel channel, PagedChain chain) {
-        ComponentContext ctx = new ComponentContext(userId);
-        ctx.put(Keys.PAGE_INDEX, 0);
-        ctx.put(Keys.TOTAL_PAGES, chain.totalPages());
+        startChannelPagedChain(userId, channel, chain, null, null);
+    }
+
+    /** Same as {@link #startDmPagedChain(String, PagedChain, ChainRouter, Consumer)}, in any message channel. */
+    public void startChannelPagedChain(String userId, MessageChannel channel, PagedChain chain,
+                                       ChainRouter router, Consumer<ComponentContext> init) {
+        long uid = snowflake(userId);
+        if (uid == 0) return;
 
-        Session session = new Session(chain, ctx);
-        sessions.put(userId, session);
+        Session session = newSession(userId, chain, router, init);
+        sessions.put(uid, session);
+
+        renderCurrentPage(session, channel, InteractionTracer.NO_TRACE);
+    }
 
-        renderCurrentPage(session, channel);
+    /**
+     * Makes {@code chain} answerable in stateless mode. Register chains at startup, so clicks on menus
+     * sent before a restart (or by another node) find them. The chain must not depend on the user.
+     */
+    public void registerStatelessChain(PagedChain chain, ChainRouter router) {
+        statelessChains.put(chain.chainId(), new StatelessChain(chain, router));
+        if (router != null) registerRouter(router);
+    }
+
+    /**
+     * Start a stateless chain in {@code channel}: nothing is kept server-side. {@code state} is the chain's
+     * compact state ({@link #STATELESS_STATE_KEY}); handlers read and replace it. It must keep every
+     * component ID within Discord's 100 chars ({@link StatelessChainCodec}).
+     */
+    public void startStatelessChain(String userId, MessageChannel channel, PagedChain chain, ChainRouter router,
+                                    String state) {
+        registerStatelessChain(chain, router);
+        ComponentContext ctx = newContext(userId, chain.totalPages());
+        ctx.put(STATELESS_STATE_KEY, state);
+
+        List<ActionRow> rows;
+        PageRenderer.Rendered rendered = PageRenderer.render(chain.chainId(), 0, chain.totalPages(), chain.page(0), ctx);
+        try {
+            String s = ctx.getString(STATELESS_STATE_KEY);
+            rows = rewriteIds(rendered.rows(), id -> statelessCodec.encode(userId, chain.chainId(), id, 0, s));
+        } catch (IllegalArgumentException e) {
+            logger.error("❌ Cannot start stateless chain " + chain.chainId() + ": " + e.getMessage(), getClass().getName(), e);
+            return;
+        }
+        outbound.submit(Lane.RENDER, channel.sendMessageEmbeds(rendered.embed()).setComponents(rows), ok -> {},
+                err -> logger.warn("⚠️ Failed to send page: " + err.getMessage(), getClass().getName()));
+    }
+
+    /** Handler stats of every per-chain router in use. */
+    public List<ChainRouter.HandlerStats> routeStats() {
+        List<ChainRouter.HandlerStats> out = new ArrayList<>();
+        for (ChainRouter router : routers.values()) out.addAll(router.stats());
+        return out;
     }
 
     // ---------------------------------------------------------------------
@@ -102,12 +208,55 @@ public class Bytes {
         JDA jda = jdaRef.get();
         if (validateJdaAndUser(jda, userId)) return;
 
-        jda.retrieveUserById(userId).queue(user ->
-                user.openPrivateChannel().queue(channel -> {
-                    channel.sendMessage(content).queue();
-                    logger.info("✅ Sent DM to " + user.getAsTag(), getClass().getName());
-                })
-        );
+        dmChannels.send(userId, Lane.DM, channel -> channel.sendMessage(content),
+                ok -> logger.info("✅ Sent DM to " + userId, getClass().getName()),
+                err -> logger.warn("⚠️ DM to " + userId + " failed: " + err.getMessage(), getClass().getName()));
+    }
+
+    /**
+     * Replaces the session message of a (possibly finished) chain with {@code embed}, without components.
+     * For background work started from a chain that reports into the same message (e.g. bulk setup progress).
+     * <p>
+     * Goes out on the RENDER lane, which may run several edits at once, so callers that edit repeatedly
+     * wait for the returned future (completed when Discord answered, either way) before the next edit.
+     * To land after the chain's own "✅ Setup complete!" edit, start from {@link #completionShown}.
+     */
+    public CompletableFuture<Void> editSessionMessage(ComponentContext ctx, MessageEmbed embed) {
+        JDA jda = jdaRef.get();
+        String msgId = ctx.getString(Keys.MESSAGE_ID);
+        String channelId = ctx.getString(Keys.CHANNEL_ID);
+        if (jda == null || msgId == null || channelId == null) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> answered = new CompletableFuture<>();
+        Consumer<Throwable> failed = err -> {
+            answered.complete(null);
+            logger.warn("⚠️ Failed to update session message: " + err.getMessage(), getClass().getName());
+        };
+        MessageChannel channel = jda.getChannelById(MessageChannel.class, channelId);
+        if (channel != null) {
+            outbound.submit(Lane.RENDER, channel.editMessageEmbedsById(msgId, embed).setComponents(),
+                    ok -> answered.complete(null), failed);
+            return answered;
+        }
+        // DM channel not in JDA's cache: go through ours
+        dmChannels.send(ctx.userId(), Lane.RENDER, dm -> dm.editMessageEmbedsById(msgId, embed).setComponents(),
+                ok -> answered.complete(null), failed);
+        return answered;
+    }
+
+    /**
+     * Completes once the chain's "✅ Setup complete!" edit (or fallback message) has been answered by Discord,
+     * successfully or not. Background work that reports into the session message waits for it, otherwise
+     * its first edit can be overtaken and overwritten by the completion edit.
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Void> completionShown(ComponentContext ctx) {
+        synchronized (ctx) {
+            if (ctx.get(COMPLETION_SHOWN_KEY) instanceof CompletableFuture<?> shown) return (CompletableFuture<Void>) shown;
+            CompletableFuture<Void> shown = new CompletableFuture<>();
+            ctx.put(COMPLETION_SHOWN_KEY, shown);
+            return shown;
+        }
     }
 
     // ---------------------------------------------------------------------
@@ -115,48 +264,68 @@ public class Bytes {
     // ---------------------------------------------------------------------
 
     public void handleDropdownInteraction(StringSelectInteractionEvent event) {
+        handleDropdownInteraction(event, InteractionTracer.NO_TRACE);
+    }
+
+    /** Same as {@link #handleDropdownInteraction(StringSelectInteractionEvent)}, reporting stages to the given trace. */
+    public void handleDropdownInteraction(StringSelectInteractionEvent event, long traceId) {
         if (event == null) return;
+        if (StatelessChainCodec.isStateless(event.getComponentId())) {
+            handleStatelessInteraction(event, event.getValues().isEmpty() ? null : event.getValues().getFirst(), traceId);
+            return;
+        }
 
-        String userId = event.getUser().getId();
+        long userId = event.getUser().getIdLong();
         Session session = sessions.get(userId);
         if (session == null) {
-            event.deferEdit().queue();
+            acknowledge(event.deferEdit(), traceId);
+            tracer.finish(traceId);
             return; // no active session for this user
         }
 
         try {
-            String componentId = event.getComponentId();
+            String componentId = localId(session.router, event.getComponentId());
             String selected = event.getValues().isEmpty() ? null : event.getValues().getFirst();
 
-            ComponentContext ctx = session.ctx();
-            ctx.put("value", selected);            // legacy-friendly
-            ctx.put("interactionValue", selected); // modern-friendly
-            ctx.put(componentId + ".selected", selected); // keep it highlighted in the renderer
-            ctx.put("rawEvent", event);
+            if (componentId != null) { // null: a component of another chain's (older) message
+                ComponentContext ctx = session.ctx;
+                putSelection(ctx, componentId, selected, traceId);
 
-            // Route to handler first (handlers may update context further)
-            InteractionRouter.handle(componentId, ctx);
+                // Route to handler first (handlers may update context further)
+                route(session.router, componentId, ctx, traceId);
 
-            // Optional auto-next behavior if the flag is set ("<id>.autoNext" = true)
-            if (PagedChain.isAutoNext(ctx, componentId)) {
-                PagedChain.advancePage(ctx, +1);
+                // Optional auto-next behavior if the flag is set ("<id>.autoNext" = true)
+                if (PagedChain.isAutoNext(ctx, componentId)) {
+                    PagedChain.advancePage(ctx, +1);
+                }
+                session.takePageIndex();
             }
 
-            event.deferEdit().queue();
+            acknowledge(event.deferEdit(), traceId);
         } catch (Throwable t) {
             logger.error("[Bytes] Dropdown handler error: " + t.getMessage(), getClass().getName(), t);
         }
 
-        renderPostInteraction(userId, event.getChannel()); // MessageChannelUnion implements MessageChannel
+        renderPostInteraction(userId, event.getChannel(), traceId); // MessageChannelUnion implements MessageChannel
     }
 
     public void handleButtonInteraction(ButtonInteractionEvent event) {
+        handleButtonInteraction(event, InteractionTracer.NO_TRACE);
+    }
+
+    /** Same as {@link #handleButtonInteraction(ButtonInteractionEvent)}, reporting stages to the given trace. */
+    public void handleButtonInteraction(ButtonInteractionEvent event, long traceId) {
         if (event == null) return;
+        if (StatelessChainCodec.isStateless(event.getComponentId())) {
+            handleStatelessInteraction(event, null, traceId);
+            return;
+        }
 
-        String userId = event.getUser().getId();
+        long userId = event.getUser().getIdLong();
         Session session = sessions.get(userId);
         if (session == null) {
-            event.deferEdit().queue();
+            acknowledge(event.deferEdit(), traceId);
+            tracer.finish(traceId);
             return; // no active session
         }
 
@@ -165,101 +334,286 @@ public class Bytes {
 
             // Placeholder / No-op buttons: reply ephemerally and do not mutate state
             if (componentId.equals(PLACEHOLDER_ID) || componentId.startsWith(PLACEHOLDER_PREFIX)) {
-                event.reply("Not a real button.").setEphemeral(true).queue();
+                acknowledge(event.reply("Not a real button.").setEphemeral(true), traceId);
                 // still re-render in case something else changed via context
-                renderPostInteraction(userId, event.getChannel());
+                renderPostInteraction(userId, event.getChannel(), traceId);
                 return;
             }
 
-            ComponentContext ctx = session.ctx();
-            ctx.put("buttonId", componentId);
-            ctx.put("rawEvent", event);
-
-            InteractionRouter.handle(componentId, ctx);
-            event.deferEdit().queue();
+            componentId = localId(session.router, componentId);
+            if (componentId != null) {
+                putButton(session.ctx, componentId, traceId);
+                route(session.router, componentId, session.ctx, traceId);
+                session.takePageIndex();
+            }
+            acknowledge(event.deferEdit(), traceId);
         } catch (Throwable t) {
             logger.error("[Bytes] Button handler error: " + t.getMessage(), getClass().getName(), t);
         }
 
-        renderPostInteraction(userId, event.getChannel());
+        renderPostInteraction(userId, event.getChannel(), traceId);
+    }
+
+    // ---------------------------------------------------------------------
+    // Stateless chains
+    // ---------------------------------------------------------------------
+
+    /** {@code selected}: the picked value for dropdowns, null for buttons. */
+    private void handleStatelessInteraction(GenericComponentInteractionCreateEvent event, String selected, long traceId) {
+        String userId = event.getUser().getId();
+        StatelessChainCodec.Decoded decoded = statelessCodec.decode(userId, event.getComponentId());
+        StatelessChain stateless = decoded != null ? statelessChains.get(decoded.chainId()) : null;
+        if (stateless == null) {
+            acknowledge(event.reply("This menu has expired.").setEphemeral(true), traceId);
+            tracer.finish(traceId);
+            return; // forged, signed with another key, or a chain this node doesn't know
+        }
+
+        PagedChain chain = stateless.chain();
+        String componentId = decoded.componentId();
+        ComponentContext ctx = newContext(userId, chain.totalPages());
+        ctx.put(Keys.PAGE_INDEX, decoded.pageIndex());
+        ctx.put(Keys.MESSAGE_ID, event.getMessageId());
+        ctx.put(Keys.CHANNEL_ID, event.getChannel().getId());
+        ctx.put(STATELESS_STATE_KEY, decoded.state());
+        try {
+            if (event instanceof StringSelectInteractionEvent) putSelection(ctx, componentId, selected, traceId);
+            else putButton(ctx, componentId, traceId);
+            route(stateless.router(), componentId, ctx, traceId);
+            if (event instanceof StringSelectInteractionEvent && PagedChain.isAutoNext(ctx, componentId)) {
+                PagedChain.advancePage(ctx, +1);
+            }
+        } catch (Throwable t) {
+            logger.error("[Bytes] Stateless handler error: " + t.getMessage(), getClass().getName(), t);
+        }
+
+        // the page edit is the acknowledgement: one REST call per click
+        long renderStart = System.nanoTime();
+        RestAction<?> edit;
+        boolean completing = ctx.isComplete();
+        if (completing) {
+            PageRenderer.Rendered done = PageRenderer.render(
+                    "✅ Setup complete!", 0, 1, new Page("Setup complete!", null), ctx);
+            edit = event.editMessageEmbeds(done.embed()).setComponents();
+        } else {
+            int idx = chain.clampIndex(ctx.get(Keys.PAGE_INDEX) instanceof Integer i ? i : decoded.pageIndex());
+            PageRenderer.Rendered rendered = PageRenderer.render(chain.chainId(), idx, chain.totalPages(), chain.page(idx), ctx);
+            String state = ctx.getString(STATELESS_STATE_KEY);
+            try {
+                edit = event.editMessageEmbeds(rendered.embed()).setComponents(rewriteIds(rendered.rows(),
+                        id -> statelessCodec.encode(userId, chain.chainId(), id, idx, state)));
+            } catch (IllegalArgumentException e) {
+                logger.error("❌ Stateless state of " + chain.chainId() + " no longer fits: " + e.getMessage(), getClass().getName(), e);
+                edit = event.deferEdit();
+            }
+        }
+        tracer.record(traceId, Stage.RENDER, System.nanoTime() - renderStart);
+        long editStart = System.nanoTime();
+        outbound.submit(Lane.INTERACTION, edit, ok -> {
+            finishEdit(traceId, editStart);
+            if (completing) completionShown(ctx).complete(null);
+        }, err -> {
+            finishEdit(traceId, editStart);
+            if (completing) completionShown(ctx).complete(null);
+            logger.warn("⚠️ Failed to update stateless page: " + err.getMessage(), getClass().getName());
+        });
+    }
+
+    /** Rewrites the rendered components' IDs with {@code wireId} (placeholders and link buttons stay). */
+    private static List<ActionRow> rewriteIds(List<ActionRow> rows, UnaryOperator<String> wireId) {
+        List<ActionRow> out = new ArrayList<>(rows.size());
+        for (ActionRow row : rows) {
+            List<ItemComponent> components = new ArrayList<>(row.getComponents().size());
+            for (ItemComponent c : row.getComponents()) {
+                if (c instanceof Button b && b.getId() != null && !b.getId().startsWith(PLACEHOLDER_PREFIX)) {
+                    components.add(b.withId(wireId.apply(b.getId())));
+                } else if (c instanceof StringSelectMenu m) {
+                    components.add(m.createCopy().setId(wireId.apply(m.getId())).build());
+                } else {
+                    components.add(c);
+                }
+            }
+            out.add(ActionRow.of(components));
+        }
+        return out;
     }
 
     // ---------------------------------------------------------------------
     // Internals
     // ---------------------------------------------------------------------
 
-    private void renderPostInteraction(String userId, MessageChannel channel) {
+    private Session newSession(String userId, PagedChain chain, ChainRouter router, Consumer<ComponentContext> init) {
+        ComponentContext ctx = newContext(userId, chain.totalPages());
+        if (init != null) init.accept(ctx);
+        if (router != null) registerRouter(router);
+        Session session = new Session(chain, router, ctx);
+        session.takePageIndex(); // init may have picked a start page
+        return session;
+    }
+
+    private void registerRouter(ChainRouter router) {
+        ChainRouter previous = routers.put(router.namespace(), router);
+        if (previous != null && previous != router) {
+            logger.warn("⚠️ Chain namespace '" + router.namespace() + "' registered by two routers; stats show the newest",
+                    getClass().getName());
+        }
+    }
+
+    /** Bare component ID of a wire ID; null if it belongs to another chain's namespace. */
+    private static String localId(ChainRouter router, String customId) {
+        return router != null ? router.localId(customId) : customId;
+    }
+
+    /** Runs the component's handler: the chain's own router, else the global one. */
+    private void route(ChainRouter router, String componentId, ComponentContext ctx, long traceId) {
+        long routeStart = System.nanoTime();
+        if (router != null) router.dispatch(componentId, ctx);
+        else InteractionRouter.handle(componentId, ctx);
+        tracer.record(traceId, Stage.ROUTE, System.nanoTime() - routeStart);
+    }
+
+    private static ComponentContext newContext(String userId, int totalPages) {
+        ComponentContext ctx = new ComponentContext(userId);
+        ctx.put(Keys.PAGE_INDEX, 0);
+        ctx.put(Keys.TOTAL_PAGES, totalPages);
+        return ctx;
+    }
+
+    /** A dropdown pick: its value, and the same value as the dropdown's highlight in the renderer. */
+    private static void putSelection(ComponentContext ctx, String componentId, String selected, long traceId) {
+        ctx.put(INTERACTION_VALUE_KEY, selected);
+        ctx.put(selectedKey(componentId), selected);
+        ctx.put(InteractionTracer.CTX_KEY, traceId);
+    }
+
+    private static void putButton(ComponentContext ctx, String componentId, long traceId) {
+        ctx.put("buttonId", componentId);
+        ctx.put(InteractionTracer.CTX_KEY, traceId);
+    }
+
+    /** {@code "<componentId>.selected"}, without building a new string on every pick. */
+    private static String selectedKey(String componentId) {
+        String key = SELECTED_KEYS.get(componentId);
+        if (key != null) return key;
+        key = componentId + ".selected";
+        if (SELECTED_KEYS.size() < MAX_SELECTED_KEYS) SELECTED_KEYS.putIfAbsent(componentId, key);
+        return key;
+    }
+
+    /** Queues an interaction acknowledgement and records its round-trip (queue time included) as the ACK stage. */
+    private void acknowledge(RestAction<?> ack, long traceId) {
+        long ackStart = System.nanoTime();
+        outbound.submit(Lane.INTERACTION, ack,
+                ok -> tracer.record(traceId, Stage.ACK, System.nanoTime() - ackStart),
+                err -> tracer.record(traceId, Stage.ACK, System.nanoTime() - ackStart)
+        );
+    }
+
+    private void renderPostInteraction(long userId, MessageChannel channel, long traceId) {
         Session session = sessions.get(userId);
-        if (session == null) return;
+        if (session == null) {
+            tracer.finish(traceId);
+            return;
+        }
 
-        if (session.ctx().isComplete()) {
+        if (session.ctx.isComplete()) {
+            CompletableFuture<Void> shown = completionShown(session.ctx);
             // try to edit the existing message to a final state if we have it
-            String msgId = session.ctx().getString(Keys.MESSAGE_ID);
+            String msgId = session.ctx.getString(Keys.MESSAGE_ID);
             if (msgId != null) {
+                long renderStart = System.nanoTime();
                 PageRenderer.Rendered done = PageRenderer.render(
-                        "✅ Setup complete!", 0, 1, new Page("Setup complete!", null), session.ctx());
-                channel.editMessageEmbedsById(msgId, done.embed())
-                        .setComponents() // clear components
-                        .queue(
-                                ok -> logger.info("✅ Marked setup complete (edited in place).", getClass().getName()),
-                                err -> channel.sendMessage("✅ Setup complete!").queue()
-                        );
+                        "✅ Setup complete!", 0, 1, new Page("Setup complete!", null), session.ctx);
+                tracer.record(traceId, Stage.RENDER, System.nanoTime() - renderStart);
+                long editStart = System.nanoTime();
+                outbound.submit(Lane.RENDER,
+                        channel.editMessageEmbedsById(msgId, done.embed()).setComponents(), // clear components
+                        ok -> {
+                            finishEdit(traceId, editStart);
+                            shown.complete(null);
+                            logger.info("✅ Marked setup complete (edited in place).", getClass().getName());
+                        },
+                        err -> {
+                            finishEdit(traceId, editStart);
+                            outbound.submit(Lane.RENDER, channel.sendMessage("✅ Setup complete!"),
+                                    ok -> shown.complete(null), e -> shown.complete(null));
+                        }
+                );
             } else {
-                channel.sendMessage("✅ Setup complete!").queue();
+                outbound.submit(Lane.RENDER, channel.sendMessage("✅ Setup complete!"),
+                        ok -> shown.complete(null), e -> shown.complete(null));
+                tracer.finish(traceId);
             }
-            sessions.remove(userId);
+            sessions.remove(userId, session);
             return;
         }
 
-        renderCurrentPage(session, channel);
+        renderCurrentPage(session, channel, traceId);
     }
 
-    private void renderCurrentPage(Session session, MessageChannel channel) {
-        PagedChain chain = session.chain();
-        ComponentContext ctx = session.ctx();
-
-        int total = chain.totalPages();
-        ctx.put(Keys.TOTAL_PAGES, total);
+    private void finishEdit(long traceId, long editStart) {
+        tracer.record(traceId, Stage.EDIT, System.nanoTime() - editStart);
+        tracer.finish(traceId);
+    }
 
-        Object rawIdx = ctx.getOrDefault(Keys.PAGE_INDEX, 0);
-        int idx = (rawIdx instanceof Number) ? ((Number) rawIdx).intValue() : 0;
-        idx = chain.clampIndex(idx);
-        ctx.put(Keys.PAGE_INDEX, idx);
+    private void renderCurrentPage(Session session, MessageChannel channel, long traceId) {
+        PagedChain chain = session.chain;
+        ComponentContext ctx = session.ctx;
+        int idx = session.pageIndex;
 
         Page page = chain.page(idx);
-        PageRenderer.Rendered rendered = PageRenderer.render(chain.chainId(), idx, total, page, ctx);
+        long renderStart = System.nanoTime();
+        PageRenderer.Rendered rendered = PageRenderer.render(chain.chainId(), idx, session.totalPages, page, ctx);
+        ChainRouter router = session.router;
+        ActionRow[] rows = (router != null ? rewriteIds(rendered.rows(), router::qualify) : rendered.rows())
+                .toArray(ActionRow[]::new);
+        tracer.record(traceId, Stage.RENDER, System.nanoTime() - renderStart);
 
         // If we already sent a message for this session, EDIT it in place
         String existingMessageId = ctx.getString(Keys.MESSAGE_ID);
         String existingChannelId = ctx.getString(Keys.CHANNEL_ID);
 
+        long editStart = System.nanoTime();
         if (existingMessageId != null && existingChannelId != null && existingChannelId.equals(channel.getId())) {
-            channel.editMessageEmbedsById(existingMessageId, rendered.embed())
-                    .setComponents(rendered.rows().toArray(ActionRow[]::new))
-                    .queue(
-                            ok -> {},
-                            err -> {
-                                // If the original message was deleted (or can't be edited), send a new one and update IDs
-                                sendFreshAndRemember(ctx, channel, rendered);
-                            }
-                    );
+            outbound.submit(Lane.RENDER,
+                    channel.editMessageEmbedsById(existingMessageId, rendered.embed()).setComponents(rows),
+                    ok -> finishEdit(traceId, editStart),
+                    err -> {
+                        // If the original message was deleted (or can't be edited), send a new one and update IDs
+                        sendFreshAndRemember(ctx, channel, rendered.embed(), rows, traceId, editStart);
+                    }
+            );
             return;
         }
 
         // First render (or channel changed): send and remember ids
-        sendFreshAndRemember(ctx, channel, rendered);
+        sendFreshAndRemember(ctx, channel, rendered.embed(), rows, traceId, editStart);
     }
 
-    private void sendFreshAndRemember(ComponentContext ctx, MessageChannel channel, PageRenderer.Rendered rendered) {
-        channel.sendMessageEmbeds(rendered.embed())
-                .setComponents(rendered.rows().toArray(ActionRow[]::new))
-                .queue(
-                        (Message msg) -> {
-                            ctx.put(Keys.MESSAGE_ID, msg.getId());
-                            ctx.put(Keys.CHANNEL_ID, channel.getId());
-                        },
-                        err -> logger.warn("⚠️ Failed to send page: " + err.getMessage(), getClass().getName())
-                );
+    private void sendFreshAndRemember(ComponentContext ctx, MessageChannel channel, MessageEmbed embed, ActionRow[] rows,
+                                      long traceId, long editStart) {
+        outbound.submit(Lane.RENDER,
+                channel.sendMessageEmbeds(embed).setComponents(rows),
+                (Message msg) -> {
+                    ctx.put(Keys.MESSAGE_ID, msg.getId());
+                    ctx.put(Keys.CHANNEL_ID, channel.getId());
+                    finishEdit(traceId, editStart);
+                },
+                err -> {
+                    finishEdit(traceId, editStart);
+                    logger.warn("⚠️ Failed to send page: " + err.getMessage(), getClass().getName());
+                }
+        );
+    }
+
+    /** Parses a user ID once, where it enters the session store; 0 (and a warning) if it isn't a snowflake. */
+    private long snowflake(String userId) {
+        try {
+            return Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            logger.warn("❌ Cannot start chain — invalid userId: " + userId, getClass().getName());
+            return 0;
+        }
     }
 
     private boolean validateJdaAndUser(JDA jda, String userId) {
@@ -274,13 +628,38 @@ public class Bytes {
         return false;
     }
 
-    private record Session(PagedChain chain, ComponentContext ctx) {
-        public Session {
-            Objects.requireNonNull(chain, "chain");
-            Objects.requireNonNull(ctx, "ctx");
+    /**
+     * One user's chain; {@code router} is null for chains wired through the global InteractionRouter.
+     * <p>
+     * The page index lives here as a primitive. Navigation handlers (EclipseBytes' {@code advancePage}
+     * included) move pages through {@link Keys#PAGE_INDEX} in the context, so that entry is their view of it:
+     * {@link #takePageIndex} reads it back after each dispatch and only writes it again when it had to clamp.
+     * Driven by one interaction at a time, like the context itself.
+     */
+    private static final class Session {
+        final PagedChain chain;
+        final ChainRouter router;
+        final ComponentContext ctx;
+        final int totalPages;
+        int pageIndex;
+
+        Session(PagedChain chain, ChainRouter router, ComponentContext ctx) {
+            this.chain = Objects.requireNonNull(chain, "chain");
+            this.router = router;
+            this.ctx = Objects.requireNonNull(ctx, "ctx");
+            this.totalPages = chain.totalPages();
+        }
+
+        void takePageIndex() {
+            Object raw = ctx.get(Keys.PAGE_INDEX);
+            int idx = chain.clampIndex(raw instanceof Integer i ? i : pageIndex);
+            if (!(raw instanceof Integer i) || i != idx) ctx.put(Keys.PAGE_INDEX, idx);
+            pageIndex = idx;
         }
     }
 
+    private record StatelessChain(PagedChain chain, ChainRouter router) {}
+
     // Kept for parity with previous API
     public static String format(String header, String body) {
         return "**" + header + "**\n" + body;
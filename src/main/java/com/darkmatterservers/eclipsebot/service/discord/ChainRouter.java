@@ -0,0 +1,184 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.chain.PagedChain;
+import com.darkmatterservers.context.ComponentContext;
+import com.darkmatterservers.eclipsebot.service.trace.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Per-chain interaction routing, replacing EclipseBytes' global {@code InteractionRouter} for chains that
+ * use it.
+ * <p>
+ *  - handlers live in an immutable table built once per chain definition; two chains can use the same
+ *    component IDs ("next", "done") without replacing each other's handlers
+ *  - on the wire, components carry {@code namespace:componentId} ({@link #qualify}); {@link #resolve}
+ *    accepts that form and the bare ID (messages sent before namespacing) with a single map lookup,
+ *    and rejects IDs qualified with another chain's namespace
+ *  - every handler counts invocations and errors and records its latency ({@link #stats})
+ * <p>
+ * Routers are shared by all sessions of a chain, so handlers must keep per-user state in the context.
+ */
+public final class ChainRouter {
+
+    public static final char SEPARATOR = ':';
+
+    /** Diagnostics of one handler. */
+    public record HandlerStats(String namespace, String componentId, long invocations, long errors,
+                               long p50Micros, long p99Micros, double maxMs) {}
+
+    /** One routed component: its bare ID and handler. */
+    public static final class Route {
+        private final String componentId;
+        private final Consumer<ComponentContext> handler;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private Route(String componentId, Consumer<ComponentContext> handler) {
+            this.componentId = componentId;
+            this.handler = handler;
+        }
+
+        public String componentId() {
+            return componentId;
+        }
+
+        /** Runs the handler; exceptions are counted and rethrown to the caller. */
+        public void invoke(ComponentContext ctx) {
+            long start = System.nanoTime();
+            invocations.increment();
+            try {
+                handler.accept(ctx);
+            } catch (RuntimeException | Error e) {
+                errors.increment();
+                throw e;
+            } finally {
+                latency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private final String namespace;
+    private final List<Route> routes;
+    private final Map<String, Route> byId;         // bare and qualified IDs
+    private final Map<String, String> qualified;   // bare -> qualified
+
+    private ChainRouter(String namespace, List<Route> routes) {
+        this.namespace = namespace;
+        this.routes = List.copyOf(routes);
+        Map<String, Route> ids = new HashMap<>(routes.size() * 4);
+        Map<String, String> q = new HashMap<>(routes.size() * 2);
+        for (Route r : routes) {
+            String full = namespace + SEPARATOR + r.componentId;
+            ids.put(r.componentId, r);
+            ids.put(full, r);
+            q.put(r.componentId, full);
+        }
+        this.byId = Map.copyOf(ids);
+        this.qualified = Map.copyOf(q);
+    }
+
+    public static Builder builder(String namespace) {
+        return new Builder(namespace);
+    }
+
+    public String namespace() {
+        return namespace;
+    }
+
+    // ---------------------------------------------------------------------
+    // Decoding
+    // ---------------------------------------------------------------------
+
+    /** The route for a wire ID ({@code namespace:id} or bare {@code id}), or null if this chain doesn't handle it. */
+    public Route resolve(String customId) {
+        return customId == null ? null : byId.get(customId);
+    }
+
+    /**
+     * The bare component ID of a wire ID, whether routed or not: strips this chain's namespace, keeps bare
+     * IDs, and returns null for another chain's qualified ID.
+     */
+    public String localId(String customId) {
+        if (customId == null) return null;
+        Route route = byId.get(customId);
+        if (route != null) return route.componentId;
+        int sep = customId.indexOf(SEPARATOR);
+        if (sep < 0) return customId;
+        return sep == namespace.length() && customId.startsWith(namespace) ? customId.substring(sep + 1) : null;
+    }
+
+    /** The wire ID for {@code componentId} (precomputed for routed components). */
+    public String qualify(String componentId) {
+        String q = qualified.get(componentId);
+        return q != null ? q : namespace + SEPARATOR + componentId;
+    }
+
+    /** Resolves and invokes; false if no handler matched. */
+    public boolean dispatch(String customId, ComponentContext ctx) {
+        Route route = resolve(customId);
+        if (route == null) return false;
+        route.invoke(ctx);
+        return true;
+    }
+
+    public List<HandlerStats> stats() {
+        List<HandlerStats> out = new ArrayList<>(routes.size());
+        for (Route r : routes) {
+            out.add(new HandlerStats(namespace, r.componentId, r.invocations.sum(), r.errors.sum(),
+                    r.latency.percentileMicros(0.50), r.latency.percentileMicros(0.99), r.latency.maxMs()));
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------------------
+    // Builder
+    // ---------------------------------------------------------------------
+
+    public static final class Builder {
+        private final String namespace;
+        private final Map<String, Route> routes = new LinkedHashMap<>();
+
+        private Builder(String namespace) {
+            this.namespace = checkId(namespace);
+        }
+
+        /** Routes {@code componentId} to {@code handler}; each ID may be routed once. */
+        public Builder on(String componentId, Consumer<ComponentContext> handler) {
+            String id = checkId(componentId);
+            if (routes.putIfAbsent(id, new Route(id, handler)) != null) {
+                throw new IllegalStateException("component '" + id + "' already routed in chain '" + namespace + "'");
+            }
+            return this;
+        }
+
+        /** Back / next / done, as EclipseBytes' {@code wireNavigation} does for the global router. */
+        public Builder navigation(String backId, String nextId, String doneId) {
+            return navigation(backId, nextId).on(doneId, ComponentContext::complete);
+        }
+
+        /** Back / next only, for chains with their own done handler. */
+        public Builder navigation(String backId, String nextId) {
+            on(backId, ctx -> PagedChain.advancePage(ctx, -1));
+            return on(nextId, ctx -> PagedChain.advancePage(ctx, +1));
+        }
+
+        public ChainRouter build() {
+            return new ChainRouter(namespace, new ArrayList<>(routes.values()));
+        }
+
+        private static String checkId(String id) {
+            if (id == null || id.isBlank() || id.indexOf(SEPARATOR) >= 0) {
+                throw new IllegalArgumentException("invalid routing ID: '" + id + "'");
+            }
+            return id;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.darkmatterservers.eclipsebot.service.discord;
 
 import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import net.dv8tion.jda.api.events.interaction.component.GenericComponentInteractionCreateEvent;
 import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.TimeUtil;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Component;
 
@@ -12,15 +15,19 @@ public class DebugListener extends ListenerAdapter {
 
     private final Bytes bytes;
     private final LoggerService logger;
+    private final InteractionTracer tracer;
 
-    public DebugListener(Bytes bytes, LoggerService logger) {
+    public DebugListener(Bytes bytes, LoggerService logger, InteractionTracer tracer) {
         this.bytes = bytes;
         this.logger = logger;
+        this.tracer = tracer;
     }
 
     @Override
     public void onStringSelectInteraction(@NotNull StringSelectInteractionEvent event) {
         if (event.getUser().isBot()) return;
+        long traceId = beginTrace("dropdown", event);
+        long entered = System.nanoTime();
 
         logger.info(
                 "[DebugListener] dropdown id=" + event.getComponentId()
@@ -30,12 +37,15 @@ public class DebugListener extends ListenerAdapter {
         );
 
         // hand off to the new paged system
-        bytes.handleDropdownInteraction(event);
+        tracer.record(traceId, InteractionTracer.Stage.DISPATCH, System.nanoTime() - entered);
+        bytes.handleDropdownInteraction(event, traceId);
     }
 
     @Override
     public void onButtonInteraction(@NotNull ButtonInteractionEvent event) {
         if (event.getUser().isBot()) return;
+        long traceId = beginTrace("button", event);
+        long entered = System.nanoTime();
 
         logger.info(
                 "[DebugListener] button id=" + event.getComponentId()
@@ -44,6 +54,14 @@ public class DebugListener extends ListenerAdapter {
         );
 
         // hand off to the new paged system
-        bytes.handleButtonInteraction(event);
+        tracer.record(traceId, InteractionTracer.Stage.DISPATCH, System.nanoTime() - entered);
+        bytes.handleButtonInteraction(event, traceId);
+    }
+
+    /** Gateway lag is wall-clock (Discord's snowflake timestamp vs. ours); every later stage is monotonic. */
+    private long beginTrace(String kind, GenericComponentInteractionCreateEvent event) {
+        long createdMs = (event.getIdLong() >>> TimeUtil.TIMESTAMP_OFFSET) + TimeUtil.DISCORD_EPOCH;
+        long gatewayMs = Math.max(-1L, System.currentTimeMillis() - createdMs);
+        return tracer.begin(kind, event.getComponentId(), event.getUser().getIdLong(), gatewayMs);
     }
 }
@@ -12,10 +12,14 @@ import net.dv8tion.jda.api.hooks.EventListener;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -26,6 +30,8 @@ import java.util.concurrent.atomic.AtomicReference;
  *  - Minimal intents for DM/guild messaging and on-demand member checks
  *  - Registers all Spring-managed listeners
  *  - Greets the configured admin on successful connect
+ *  - Publishes lifecycle transitions to the DiscordStatusFeed (web panel live status)
+ *  - Records REST rate-limit headers through {@link RateLimitTelemetry} (an interceptor on JDA's HTTP client)
  */
 @Service
 public class DiscordService {
@@ -34,6 +40,8 @@ public class DiscordService {
     private final YamlService yamlService;
     private final MessagingService messagingService;
     private final AtomicReference<JDA> jdaRef;
+    private final DiscordStatusFeed statusFeed;
+    private final RateLimitTelemetry rateLimits;
 
     // All JDA listeners discovered via Spring (e.g., command listeners, interaction routers, etc.)
     private final List<EventListener> jdaListeners;
@@ -51,12 +59,16 @@ public class DiscordService {
             YamlService yamlService,
             MessagingService messagingService,
             AtomicReference<JDA> jdaRef,
+            DiscordStatusFeed statusFeed,
+            RateLimitTelemetry rateLimits,
             List<EventListener> jdaListeners
     ) {
         this.logger = logger;
         this.yamlService = yamlService;
         this.messagingService = messagingService;
         this.jdaRef = jdaRef;
+        this.statusFeed = statusFeed;
+        this.rateLimits = rateLimits;
         this.jdaListeners = jdaListeners;
         reloadCredsFromYaml();
     }
@@ -81,11 +93,13 @@ public class DiscordService {
                 || botId == null || botId.isBlank() || "your-bot-id-here".equalsIgnoreCase(botId)) {
             logger.warn("⚠️ Discord token or botId missing/placeholder — continuing in setup mode.", getClass().getName());
             running = false;
+            statusFeed.setupRequired();
             return false;
         }
 
         try {
             logger.info("🤖 Attempting Discord login with bot ID: " + botId, getClass().getName());
+            statusFeed.connecting();
 
             // Intents for our flows:
             //  - DIRECT_MESSAGES for DM wizard
@@ -113,6 +127,7 @@ public class DiscordService {
                     )
                     .setMemberCachePolicy(MemberCachePolicy.NONE)
                     .setActivity(Activity.watching(presence))
+                    .setHttpClientBuilder(httpClientBuilder())
                     .setAutoReconnect(true);
 
             // Register every Spring-managed EventListener
@@ -134,17 +149,20 @@ public class DiscordService {
                 logger.error("❌ Startup interrupted while connecting to Discord.", getClass().getName(), ie);
                 shutdownQuietly(jda);
                 running = false;
+                statusFeed.failed("Startup interrupted");
                 return false;
             } catch (Exception e) {
                 logger.error("🔥 Error while waiting for Discord readiness: " + e.getMessage(), getClass().getName(), e);
                 shutdownQuietly(jda);
                 running = false;
+                statusFeed.failed(e.getMessage());
                 return false;
             }
 
             // Success
             jdaRef.set(jda);
             running = true;
+            statusFeed.ready(jda);
             logger.success("✅ Discord bot is online as " + jda.getSelfUser().getAsTag(), getClass().getName());
 
             // Optional: greet configured admin on successful connect
@@ -160,8 +178,10 @@ public class DiscordService {
 
         } catch (InvalidTokenException e) {
             logger.error("❌ Invalid Discord token — startup failed.", getClass().getName(), e);
+            statusFeed.failed("Invalid Discord token");
         } catch (Exception e) {
             logger.error("🔥 Unexpected error during Discord startup: " + e.getMessage(), getClass().getName(), e);
+            statusFeed.failed(e.getMessage());
         }
 
         running = false;
@@ -175,6 +195,7 @@ public class DiscordService {
             logger.info("🛑 Shutting down Discord bot...", getClass().getName());
             shutdownQuietly(jda);
         }
+        statusFeed.stopped();
         try {
             messagingService.shutdown();
         } catch (Exception e) {
@@ -199,6 +220,20 @@ public class DiscordService {
         start();
     }
 
+    /**
+     * JDA's HTTP client plus the 429 telemetry. The pool and dispatcher repeat what JDA 5.6.1 sets up in
+     * its own (internal) default builder: 5 idle connections kept 10 s, up to 25 requests per host.
+     * Re-check them when bumping JDA.
+     */
+    private OkHttpClient.Builder httpClientBuilder() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(25);
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(5, 10, TimeUnit.SECONDS))
+                .dispatcher(dispatcher)
+                .addInterceptor(rateLimits);
+    }
+
     @PreDestroy
     public void onShutdown() {
         stop();
@@ -208,6 +243,12 @@ public class DiscordService {
         return jdaRef.get();
     }
 
+    /** Logged in and the gateway is CONNECTED; false in setup mode. */
+    public boolean isReady() {
+        JDA jda = jdaRef.get();
+        return running && jda != null && jda.getStatus() == JDA.Status.CONNECTED;
+    }
+
     // ===== helpers =====
 
     private void shutdownQuietly(JDA jda) {
@@ -0,0 +1,176 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.StatusChangeEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Push feed of Discord connection state for the web panel (/status/stream).
+ * <p>
+ * Sources:
+ *  - JDA StatusChangeEvent (this is a Spring-managed listener, so DiscordService registers it)
+ *  - DiscordService lifecycle calls: connecting / ready / failed / stopped / setup
+ * <p>
+ * Every transition is encoded once as compact JSON and fanned out to subscribers;
+ * the latest event is kept so new subscribers are up to date immediately.
+ * <p>
+ *  - once READY is published, gateway events from the login sequence (up to CONNECTED) are ignored:
+ *    JDA can deliver its CONNECTED event after DiscordService announced READY, and the waiting page only
+ *    redirects on "ready". A real reconnect starts with DISCONNECTED / ATTEMPTING_TO_RECONNECT, which
+ *    leave READY first
+ *  - sends run on a single feed thread, in publish order, so a slow SSE client never blocks JDA's
+ *    event thread or DiscordService
+ */
+@Component
+public class DiscordStatusFeed extends ListenerAdapter {
+
+    public enum State { SETUP, CONNECTING, READY, FAILED, STOPPED }
+
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile String latest = encode(State.STOPPED, null, JDA.ShardInfo.SINGLE, null);
+    private volatile State latestState = State.STOPPED;
+    private volatile String latestReason;
+
+    private final ExecutorService fanOut = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "discord-status-feed");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ---------------------------------------------------------------------
+    // Publishing
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void onStatusChange(@NotNull StatusChangeEvent event) {
+        JDA.Status status = event.getNewStatus();
+        State state = switch (status) {
+            case CONNECTED -> State.CONNECTING;   // "ready" is announced by DiscordService once awaitReady returns
+            case FAILED_TO_LOGIN -> State.FAILED;
+            case SHUTTING_DOWN, SHUTDOWN -> State.STOPPED;
+            default -> State.CONNECTING;
+        };
+        synchronized (this) {
+            if (latestState == State.READY && status.ordinal() <= JDA.Status.CONNECTED.ordinal()) return;
+            publish(state, status, event.getJDA().getShardInfo(), null);
+        }
+    }
+
+    public void connecting() {
+        publish(State.CONNECTING, JDA.Status.INITIALIZING, JDA.ShardInfo.SINGLE, null);
+    }
+
+    public void ready(JDA jda) {
+        publish(State.READY, jda.getStatus(), jda.getShardInfo(), null);
+    }
+
+    public void failed(String reason) {
+        publish(State.FAILED, null, JDA.ShardInfo.SINGLE, reason);
+    }
+
+    public void stopped() {
+        publish(State.STOPPED, null, JDA.ShardInfo.SINGLE, null);
+    }
+
+    public void setupRequired() {
+        publish(State.SETUP, null, JDA.ShardInfo.SINGLE, "Discord token or botId missing");
+    }
+
+    private synchronized void publish(State state, JDA.Status status, JDA.ShardInfo shard, String reason) {
+        String json = encode(state, status, shard, reason);
+        latest = json;
+        latestState = state;
+        latestReason = reason;
+        fanOut.execute(() -> {
+            for (Consumer<String> s : subscribers) deliver(s, json);
+        });
+    }
+
+    private void deliver(Consumer<String> subscriber, String json) {
+        try {
+            subscriber.accept(json);
+        } catch (RuntimeException e) {
+            subscribers.remove(subscriber); // a dead SSE connection must not affect the others
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Subscribing
+    // ---------------------------------------------------------------------
+
+    /** Registers a subscriber and hands it the latest event first (on the feed thread, like every send). */
+    public synchronized void subscribe(Consumer<String> subscriber) {
+        subscribers.add(subscriber);
+        String json = latest;
+        fanOut.execute(() -> deliver(subscriber, json));
+    }
+
+    public void unsubscribe(Consumer<String> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    public String latest() {
+        return latest;
+    }
+
+    public State latestState() {
+        return latestState;
+    }
+
+    /** Failure / setup reason of the latest transition, if any. */
+    public String latestReason() {
+        return latestReason;
+    }
+
+    // ===== helpers =====
+
+    /**
+     * {"state":"connecting","status":"IDENTIFYING_SESSION","progress":57,"shard":"0/1","reason":null,"ts":...}
+     * progress is the login sequence position (INITIALIZING..CONNECTED) as a percentage.
+     */
+    private static String encode(State state, JDA.Status status, JDA.ShardInfo shardInfo, String reason) {
+        JDA.ShardInfo shard = shardInfo != null ? shardInfo : JDA.ShardInfo.SINGLE;
+        int progress = switch (state) {
+            case READY -> 100;
+            case CONNECTING -> status != null && status.ordinal() <= JDA.Status.CONNECTED.ordinal()
+                    ? status.ordinal() * 100 / JDA.Status.CONNECTED.ordinal()
+                    : 0;
+            default -> 0;
+        };
+        return "{\"state\":\"" + state.name().toLowerCase(Locale.ROOT) + "\""
+                + ",\"status\":" + (status != null ? "\"" + status.name() + "\"" : "null")
+                + ",\"progress\":" + progress
+                + ",\"shard\":\"" + shard.getShardId() + "/" + shard.getShardTotal() + "\""
+                + ",\"reason\":" + (reason != null ? "\"" + escape(reason) + "\"" : "null")
+                + ",\"ts\":" + System.currentTimeMillis()
+                + "}";
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,363 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.collect.LongObjectHashMap;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.Category;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdatePositionEvent;
+import net.dv8tion.jda.api.events.guild.GuildJoinEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.role.RoleCreateEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePositionEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Per-guild name index of roles (non-managed) and categories for the setup wizard.
+ * <p>
+ * Each guild gets two {@link NameIndex}es, built from the JDA cache on first use and then kept
+ * current from role/channel create, delete, rename and move events (this is a Spring-managed
+ * listener, so DiscordService registers it). GuildReady/GuildJoin drop the index so it is rebuilt
+ * from a fresh cache; GuildLeave forgets it.
+ * <p>
+ * Queries never touch {@code guild.getRoles()}/{@code getCategories()}:
+ *  - {@link #search}: case-insensitive prefix matches first, then substring matches (3+ chars, via trigrams)
+ *  - {@link #window}: a slice of the names in Discord's display order, for paged select menus
+ *  - {@link #find}: case-insensitive exact name lookup
+ * <p>
+ * The build runs inside the map's per-key compute, so an event racing a lazy build is either part
+ * of the snapshot or applied right after it.
+ */
+@Component
+public class GuildEntityIndex extends ListenerAdapter {
+
+    public enum Kind { ROLE, CATEGORY }
+
+    /** One indexed role or category. */
+    public record Entry(long id, String name) {}
+
+    private final AtomicReference<JDA> jdaRef;
+    private final Map<Long, GuildIndex> guilds = new ConcurrentHashMap<>();
+
+    public GuildEntityIndex(AtomicReference<JDA> jdaRef) {
+        this.jdaRef = jdaRef;
+    }
+
+    // ---------------------------------------------------------------------
+    // Queries
+    // ---------------------------------------------------------------------
+
+    /** Up to {@code limit} entries matching {@code query}; a blank query returns the first window. */
+    public List<Entry> search(long guildId, Kind kind, String query, int limit) {
+        NameIndex idx = index(guildId, kind);
+        return idx == null ? List.of() : idx.search(query, limit);
+    }
+
+    /** Entries {@code [offset, offset + limit)} in display order. */
+    public List<Entry> window(long guildId, Kind kind, int offset, int limit) {
+        NameIndex idx = index(guildId, kind);
+        return idx == null ? List.of() : idx.window(offset, limit);
+    }
+
+    /** All names in display order. */
+    public List<String> names(long guildId, Kind kind) {
+        NameIndex idx = index(guildId, kind);
+        return idx == null ? List.of() : idx.names();
+    }
+
+    public int count(long guildId, Kind kind) {
+        NameIndex idx = index(guildId, kind);
+        return idx == null ? 0 : idx.size();
+    }
+
+    /** Case-insensitive exact match (any one of them on duplicates), or null. */
+    public Entry find(long guildId, Kind kind, String name) {
+        NameIndex idx = index(guildId, kind);
+        return idx == null ? null : idx.find(name);
+    }
+
+    // ---------------------------------------------------------------------
+    // Direct updates (callers that just created something; the event follows and is idempotent)
+    // ---------------------------------------------------------------------
+
+    public void put(Role role) {
+        if (role.isManaged()) return;
+        withIndex(role.getGuild().getIdLong(), g -> g.roles.put(role.getIdLong(), role.getName(), roleRank(role)));
+    }
+
+    public void put(Category category) {
+        withIndex(category.getGuild().getIdLong(), g -> g.categories.put(category.getIdLong(), category.getName(), category.getPositionRaw()));
+    }
+
+    public void invalidate(long guildId) {
+        guilds.remove(guildId);
+    }
+
+    // ---------------------------------------------------------------------
+    // Events
+    // ---------------------------------------------------------------------
+
+    @Override
+    public void onGuildReady(@NotNull GuildReadyEvent event) {
+        invalidate(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onGuildJoin(@NotNull GuildJoinEvent event) {
+        invalidate(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onGuildLeave(@NotNull GuildLeaveEvent event) {
+        invalidate(event.getGuild().getIdLong());
+    }
+
+    @Override
+    public void onRoleCreate(@NotNull RoleCreateEvent event) {
+        put(event.getRole());
+    }
+
+    @Override
+    public void onRoleDelete(@NotNull RoleDeleteEvent event) {
+        withIndex(event.getGuild().getIdLong(), g -> g.roles.remove(event.getRole().getIdLong()));
+    }
+
+    @Override
+    public void onRoleUpdateName(@NotNull RoleUpdateNameEvent event) {
+        put(event.getRole());
+    }
+
+    @Override
+    public void onRoleUpdatePosition(@NotNull RoleUpdatePositionEvent event) {
+        put(event.getRole());
+    }
+
+    @Override
+    public void onChannelCreate(@NotNull ChannelCreateEvent event) {
+        if (event.getChannelType() == ChannelType.CATEGORY) put(event.getChannel().asCategory());
+    }
+
+    @Override
+    public void onChannelDelete(@NotNull ChannelDeleteEvent event) {
+        if (event.getChannelType() != ChannelType.CATEGORY) return;
+        withIndex(event.getGuild().getIdLong(), g -> g.categories.remove(event.getChannel().getIdLong()));
+    }
+
+    @Override
+    public void onChannelUpdateName(@NotNull ChannelUpdateNameEvent event) {
+        if (event.getChannelType() == ChannelType.CATEGORY) put(event.getChannel().asCategory());
+    }
+
+    @Override
+    public void onChannelUpdatePosition(@NotNull ChannelUpdatePositionEvent event) {
+        if (event.getChannelType() == ChannelType.CATEGORY) put(event.getChannel().asCategory());
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    private record GuildIndex(NameIndex roles, NameIndex categories) {
+        NameIndex of(Kind kind) {
+            return kind == Kind.ROLE ? roles : categories;
+        }
+    }
+
+    private NameIndex index(long guildId, Kind kind) {
+        GuildIndex g = guilds.computeIfAbsent(guildId, this::build);
+        return g == null ? null : g.of(kind);
+    }
+
+    /** Applies an update only to an index that exists (or is being built); absent ones are built lazily later. */
+    private void withIndex(long guildId, Consumer<GuildIndex> update) {
+        guilds.computeIfPresent(guildId, (id, g) -> {
+            update.accept(g);
+            return g;
+        });
+    }
+
+    private GuildIndex build(long guildId) {
+        JDA jda = jdaRef.get();
+        Guild guild = jda != null ? jda.getGuildById(guildId) : null;
+        if (guild == null) return null;
+        NameIndex roles = new NameIndex(true);
+        for (Role r : guild.getRoles()) {
+            if (!r.isManaged()) roles.put(r.getIdLong(), r.getName(), roleRank(r));
+        }
+        NameIndex categories = new NameIndex(false);
+        for (Category c : guild.getCategories()) categories.put(c.getIdLong(), c.getName(), c.getPositionRaw());
+        return new GuildIndex(roles, categories);
+    }
+
+    /** Raw position: {@code Role.getPosition()} walks the whole role cache on every call. */
+    private static int roleRank(Role role) {
+        return role.getPositionRaw();
+    }
+
+    static String fold(String s) {
+        return s.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Names of one kind in one guild. Writes come from the gateway thread, reads from handlers;
+     * every operation is short, so a plain monitor is enough.
+     * <p>
+     * Structures:
+     *  - {@code byKey}: sorted by {@code fold(name) + '\0' + id}; prefix search is a tailMap walk
+     *  - {@code trigrams}: folded 3-char substring → IDs; a substring query intersects its trigrams'
+     *    posting sets (smallest first) and verifies the candidates
+     *  - {@code ordered}: display order (roles highest first, categories top to bottom), rebuilt lazily after changes
+     */
+    static final class NameIndex {
+        private record Node(long id, String name, String folded, int position) {
+            String key() {
+                return key(folded, id);
+            }
+
+            static String key(String folded, long id) {
+                return folded + '\0' + id;
+            }
+        }
+
+        private final Comparator<Node> displayOrder;
+        private final LongObjectHashMap<Node> byId = new LongObjectHashMap<>();
+        private final TreeMap<String, Node> byKey = new TreeMap<>();
+        private final Map<String, Set<Long>> trigrams = new HashMap<>();
+        private List<Entry> ordered; // null = stale
+
+        /** @param descending true for roles (higher position first), false for categories */
+        NameIndex(boolean descending) {
+            Comparator<Node> byPosition = Comparator.comparingInt(Node::position);
+            this.displayOrder = (descending ? byPosition.reversed() : byPosition).thenComparingLong(Node::id);
+        }
+
+        synchronized void put(long id, String name, int position) {
+            Node old = byId.get(id);
+            if (old != null && old.name().equals(name) && old.position() == position) return;
+            if (old != null) unlink(old);
+            Node node = new Node(id, name, fold(name), position);
+            byId.put(id, node);
+            byKey.put(node.key(), node);
+            for (String t : trigramsOf(node.folded())) trigrams.computeIfAbsent(t, k -> new HashSet<>()).add(id);
+            ordered = null;
+        }
+
+        synchronized void remove(long id) {
+            Node old = byId.remove(id);
+            if (old == null) return;
+            unlink(old);
+            ordered = null;
+        }
+
+        private void unlink(Node node) {
+            byKey.remove(node.key());
+            for (String t : trigramsOf(node.folded())) {
+                Set<Long> ids = trigrams.get(t);
+                if (ids != null && ids.remove(node.id()) && ids.isEmpty()) trigrams.remove(t);
+            }
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+
+        synchronized Entry find(String name) {
+            if (name == null) return null;
+            String prefix = fold(name) + '\0';
+            Map.Entry<String, Node> e = byKey.ceilingEntry(prefix);
+            return e != null && e.getKey().startsWith(prefix) ? entry(e.getValue()) : null;
+        }
+
+        synchronized List<Entry> window(int offset, int limit) {
+            List<Entry> all = ordered();
+            int from = Math.max(0, Math.min(offset, all.size()));
+            int to = (int) Math.min(all.size(), (long) from + Math.max(0, limit));
+            return List.copyOf(all.subList(from, to));
+        }
+
+        synchronized List<String> names() {
+            return ordered().stream().map(Entry::name).toList();
+        }
+
+        synchronized List<Entry> search(String query, int limit) {
+            String q = query == null ? "" : fold(query.strip());
+            if (q.isEmpty()) return window(0, limit);
+            if (limit <= 0) return List.of();
+
+            List<Entry> out = new ArrayList<>(Math.min(limit, 32));
+            Set<Long> seen = new HashSet<>();
+            for (Map.Entry<String, Node> e : byKey.tailMap(q, true).entrySet()) {
+                if (!e.getKey().startsWith(q) || out.size() >= limit) break;
+                out.add(entry(e.getValue()));
+                seen.add(e.getValue().id());
+            }
+            if (out.size() >= limit || q.length() < 3) return out;
+
+            List<Node> contained = new ArrayList<>();
+            for (long id : candidates(q)) {
+                Node n = byId.get(id);
+                if (!seen.contains(id) && n.folded().contains(q)) contained.add(n);
+            }
+            contained.sort(Comparator.comparing(Node::folded).thenComparingLong(Node::id));
+            for (Node n : contained) {
+                if (out.size() >= limit) break;
+                out.add(entry(n));
+            }
+            return out;
+        }
+
+        /** IDs containing every trigram of {@code q}; a superset of the true matches. */
+        private Set<Long> candidates(String q) {
+            List<Set<Long>> postings = new ArrayList<>();
+            for (String t : trigramsOf(q)) {
+                Set<Long> ids = trigrams.get(t);
+                if (ids == null) return Set.of();
+                postings.add(ids);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            Set<Long> result = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !result.isEmpty(); i++) result.retainAll(postings.get(i));
+            return result;
+        }
+
+        private List<Entry> ordered() {
+            if (ordered == null) {
+                ordered = byId.values().stream().sorted(displayOrder).map(NameIndex::entry).toList();
+            }
+            return ordered;
+        }
+
+        private static Entry entry(Node n) {
+            return new Entry(n.id(), n.name());
+        }
+
+        private static Set<String> trigramsOf(String folded) {
+            if (folded.length() < 3) return Set.of();
+            Set<String> out = new HashSet<>();
+            for (int i = 0; i + 3 <= folded.length(); i++) out.add(folded.substring(i, i + 3));
+            return out;
+        }
+    }
+}
@@ -6,8 +6,6 @@ import com.darkmatterservers.eclipsebot.service.discord.chains.MasterGuildSetup;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.Permission;
-import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
@@ -17,7 +15,6 @@ import net.dv8tion.jda.api.interactions.components.selections.SelectOption;
 import net.dv8tion.jda.api.interactions.components.selections.StringSelectMenu;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -34,19 +31,28 @@ public class MessagingService {
     private final AtomicReference<JDA> jdaRef;
     private final Bytes bytes;                       // Paged-chain runtime (handles edit-in-place)
     private final MasterGuildSetup masterGuildSetup; // The Setup wizard chain
+    private final PrivateChannelCache dmChannels;    // userId -> DM channel
+    private final OutboundScheduler outbound;        // prioritized REST sends
+    private final AdminGuildScanner scanner;         // eligible guilds for the wizard
 
     public MessagingService(
             LoggerService logger,
             YamlService yamlService,
             AtomicReference<JDA> jdaRef,
             Bytes bytes,
-            MasterGuildSetup masterGuildSetup
+            MasterGuildSetup masterGuildSetup,
+            PrivateChannelCache dmChannels,
+            OutboundScheduler outbound,
+            AdminGuildScanner scanner
     ) {
         this.logger = logger;
         this.yamlService = yamlService;
         this.jdaRef = jdaRef;
         this.bytes = bytes;
         this.masterGuildSetup = masterGuildSetup;
+        this.dmChannels = dmChannels;
+        this.outbound = outbound;
+        this.scanner = scanner;
     }
 
     @PostConstruct
@@ -84,7 +90,7 @@ public class MessagingService {
             return;
         }
 
-        var options = getEligibleGuildOptions(jda, adminId);
+        var options = scanner.eligibleGuilds(adminId);
         logger.info("Eligible guild options found=" + options.size(), getClass().getName());
 
         if (options.isEmpty()) {
@@ -154,51 +160,15 @@ public class MessagingService {
                 .addOptions(options)
                 .build();
 
-        jda.retrieveUserById(userId).queue(user ->
-                user.openPrivateChannel().queue(channel ->
-                        channel.sendMessage(message)
-                                .setComponents(ActionRow.of(menu))
-                                .queue(
-                                        ok -> logger.info("✅ Sent dropdown to " + user.getAsTag(), getClass().getName()),
-                                        err -> logger.error("❌ Failed to send dropdown: " + err.getMessage(), getClass().getName())
-                                )
-                )
+        dmChannels.send(userId, OutboundScheduler.Lane.DM,
+                channel -> channel.sendMessage(message).setComponents(ActionRow.of(menu)),
+                ok -> logger.info("✅ Sent dropdown to " + userId, getClass().getName()),
+                err -> logger.error("❌ Failed to send dropdown: " + err.getMessage(), getClass().getName())
         );
     }
 
     // ========================= Internal helpers =========================
 
-    /**
-     * Build a list of guild options (label=name, value=id) where the given admin is
-     * the **owner** or has **ADMINISTRATOR** permissions — AND the bot is in that guild.
-     * We try to avoid heavy caching:
-     *  1) Include guilds where ownerId == adminId (cheap check).
-     *  2) Attempt a REST fetch for the member to check ADMINISTRATOR (requires GUILD_MEMBERS intent).
-     */
-    private List<SelectOption> getEligibleGuildOptions(JDA jda, String adminId) {
-        List<SelectOption> out = new ArrayList<>();
-
-        jda.getGuilds().forEach(guild -> {
-            // Owner shortcut
-            if (adminId.equals(guild.getOwnerId())) {
-                out.add(SelectOption.of(guild.getName(), guild.getId()));
-                return;
-            }
-
-            // Best-effort member fetch (blocking once at startup is OK)
-            try {
-                Member m = guild.retrieveMemberById(adminId).complete();
-                if (m != null && (m.isOwner() || m.hasPermission(Permission.ADMINISTRATOR))) {
-                    out.add(SelectOption.of(guild.getName(), guild.getId()));
-                }
-            } catch (Exception ignored) {
-                // If we can't fetch (no perms/intent/user missing), just skip this guild
-            }
-        });
-
-        return out;
-    }
-
     /** Optional: simple logger for regular messages. */
     public void trackIncomingMessage(MessageReceivedEvent event) {
         var msg = event.getMessage();
@@ -221,9 +191,9 @@ public class MessagingService {
         logger.info(summary, getClass().getName());
     }
 
-    /** Convenience send-to-channel if needed elsewhere. */
+    /** Convenience send-to-channel if needed elsewhere (background lane: may be dropped when stale). */
     public void sendToChannel(MessageChannel channel, String content) {
         if (channel == null) return;
-        channel.sendMessage(content).queue();
+        outbound.submit(OutboundScheduler.Lane.BACKGROUND, channel.sendMessage(content));
     }
 }
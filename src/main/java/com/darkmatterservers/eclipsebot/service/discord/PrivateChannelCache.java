@@ -0,0 +1,213 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.ErrorResponse;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * userId → DM channel cache, so a DM costs one REST call (the send) instead of three
+ * ({@code retrieveUserById}, {@code openPrivateChannel}, send).
+ * <p>
+ * Rules:
+ *  - a miss resolves with {@code openPrivateChannelById} (no user fetch); concurrent misses for the same
+ *    user share that one request
+ *  - bounded LRU ({@code maxEntries}) with a TTL; Discord keeps a user's DM channel ID stable, so the TTL
+ *    only bounds how long a wrong entry could live
+ *  - {@link #send}: if a cached channel is rejected as unknown, the entry is dropped, the channel is
+ *    resolved again and the action retried once
+ *  - every request (resolve and send) goes through the {@link OutboundScheduler} lane chosen by the caller
+ */
+@Component
+public class PrivateChannelCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+    static final long DEFAULT_TTL_NANOS = TimeUnit.HOURS.toNanos(6);
+
+    /** Counters for diagnostics and tests. */
+    public record Stats(int size, long hits, long misses, long resolves, long joined, long staleRetries) {}
+
+    private record Cached(PrivateChannel channel, long expiresAtNanos) {}
+
+    private final AtomicReference<JDA> jdaRef;
+    private final OutboundScheduler outbound;
+    private final Map<Long, CompletableFuture<PrivateChannel>> inflight = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Long, Cached> lru = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Cached> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder resolves = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+    private final LongAdder staleRetries = new LongAdder();
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+    private long ttlNanos = DEFAULT_TTL_NANOS;
+
+    public PrivateChannelCache(AtomicReference<JDA> jdaRef, OutboundScheduler outbound) {
+        this.jdaRef = jdaRef;
+        this.outbound = outbound;
+    }
+
+    /** Tests and tools: custom bounds. */
+    public static PrivateChannelCache withLimits(AtomicReference<JDA> jdaRef, OutboundScheduler outbound,
+                                                 int maxEntries, long ttlNanos) {
+        PrivateChannelCache cache = new PrivateChannelCache(jdaRef, outbound);
+        cache.maxEntries = Math.max(1, maxEntries);
+        cache.ttlNanos = ttlNanos;
+        return cache;
+    }
+
+    // ---------------------------------------------------------------------
+    // Public API
+    // ---------------------------------------------------------------------
+
+    /** The user's DM channel: completed immediately on a hit, otherwise after one (shared) resolve. */
+    public CompletableFuture<PrivateChannel> channel(String userId, Lane lane) {
+        return channel(Long.parseLong(userId), lane);
+    }
+
+    /** Same as {@link #channel(String, Lane)} for an already parsed ID. */
+    public CompletableFuture<PrivateChannel> channel(long userId, Lane lane) {
+        PrivateChannel cached = cached(userId);
+        return cached != null ? CompletableFuture.completedFuture(cached) : resolve(userId, lane);
+    }
+
+    /**
+     * Runs {@code action} against the user's DM channel and queues it. Null callbacks fall back to
+     * JDA's defaults, as with {@link RestAction#queue}.
+     */
+    public <T> void send(String userId, Lane lane,
+                         Function<PrivateChannel, ? extends RestAction<T>> action,
+                         Consumer<? super T> success,
+                         Consumer<? super Throwable> failure) {
+        Consumer<? super Throwable> fail = failure != null ? failure : RestAction.getDefaultFailure();
+        long uid;
+        try {
+            uid = Long.parseLong(userId);
+        } catch (NumberFormatException e) {
+            fail.accept(e);
+            return;
+        }
+
+        PrivateChannel cached = cached(uid);
+        if (cached == null) {
+            sendAfterResolve(uid, lane, action, success, fail);
+            return;
+        }
+        outbound.submit(lane, action.apply(cached), success, err -> {
+            if (!isUnknownChannel(err)) {
+                fail.accept(err);
+                return;
+            }
+            staleRetries.increment();
+            invalidate(uid);
+            sendAfterResolve(uid, lane, action, success, fail);
+        });
+    }
+
+    public void invalidate(String userId) {
+        invalidate(Long.parseLong(userId));
+    }
+
+    public Stats stats() {
+        int size;
+        synchronized (lru) {
+            size = lru.size();
+        }
+        return new Stats(size, hits.sum(), misses.sum(), resolves.sum(), joined.sum(), staleRetries.sum());
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    private <T> void sendAfterResolve(long uid, Lane lane, Function<PrivateChannel, ? extends RestAction<T>> action,
+                                      Consumer<? super T> success, Consumer<? super Throwable> fail) {
+        resolve(uid, lane).whenComplete((channel, err) -> {
+            if (err != null) fail.accept(err instanceof CompletionException && err.getCause() != null ? err.getCause() : err);
+            else outbound.submit(lane, action.apply(channel), success, fail);
+        });
+    }
+
+    private PrivateChannel cached(long uid) {
+        synchronized (lru) {
+            Cached c = lru.get(uid);
+            if (c != null && c.expiresAtNanos() - System.nanoTime() > 0) {
+                hits.increment();
+                return c.channel();
+            }
+            if (c != null) lru.remove(uid);
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void remember(long uid, PrivateChannel channel) {
+        synchronized (lru) {
+            lru.put(uid, new Cached(channel, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    private void invalidate(long uid) {
+        synchronized (lru) {
+            lru.remove(uid);
+        }
+    }
+
+    private CompletableFuture<PrivateChannel> resolve(long uid, Lane lane) {
+        CompletableFuture<PrivateChannel> mine = new CompletableFuture<>();
+        CompletableFuture<PrivateChannel> running = inflight.putIfAbsent(uid, mine);
+        if (running != null) {
+            joined.increment();
+            return running;
+        }
+
+        JDA jda = jdaRef.get();
+        if (jda == null) {
+            inflight.remove(uid, mine);
+            mine.completeExceptionally(new IllegalStateException("JDA not available"));
+            return mine;
+        }
+
+        resolves.increment();
+        try {
+            outbound.submit(lane, jda.openPrivateChannelById(uid),
+                    channel -> {
+                        remember(uid, channel); // cache first: later callers hit it instead of joining
+                        inflight.remove(uid, mine);
+                        mine.complete(channel);
+                    },
+                    err -> {
+                        inflight.remove(uid, mine);
+                        mine.completeExceptionally(err);
+                    });
+        } catch (RuntimeException e) {
+            inflight.remove(uid, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    private static boolean isUnknownChannel(Throwable err) {
+        return err instanceof ErrorResponseException e && e.getErrorResponse() == ErrorResponse.UNKNOWN_CHANNEL;
+    }
+}
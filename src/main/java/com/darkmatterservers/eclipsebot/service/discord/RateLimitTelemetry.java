@@ -0,0 +1,198 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Live view of Discord's REST rate limits, fed by an OkHttp interceptor on JDA's HTTP client.
+ * <p>
+ * Every API response updates the row of its route template ({@code POST channels/{id}/messages}):
+ *  - bucket hash, limit, remaining and reset time from the {@code X-RateLimit-*} headers
+ *  - request and 429 counts, the last {@code Retry-After} and its scope (user / global / shared)
+ * <p>
+ * IDs, interaction/webhook tokens and emojis are folded into placeholders, so the table has one row per
+ * endpoint rather than per channel (and is capped at {@link #MAX_ROUTES} anyway). 429s are also pushed to
+ * listeners such as the {@link AdaptiveConcurrencyLimiter}.
+ */
+@Component
+public class RateLimitTelemetry implements Interceptor {
+
+    static final int MAX_ROUTES = 256;
+    static final String OVERFLOW_ROUTE = "(other)";
+
+    /** One 429 as seen on the wire; {@code scope} is Discord's X-RateLimit-Scope (null if absent). */
+    public record RateLimitHit(String route, boolean global, String scope, long retryAfterMs) {}
+
+    /** Snapshot of one route; {@code resetInMs} is relative to the snapshot time. */
+    public record RouteView(String route, String bucket, int limit, int remaining, long resetInMs,
+                            long requests, long rateLimited, long lastRetryAfterMs, String lastScope) {}
+
+    public record Totals(long requests, long rateLimited, long globalRateLimited) {}
+
+    private static final class Row {
+        final LongAdder requests = new LongAdder();
+        final LongAdder rateLimited = new LongAdder();
+        volatile String bucket;
+        volatile int limit = -1;
+        volatile int remaining = -1;
+        volatile long resetAtMs;
+        volatile long lastRetryAfterMs;
+        volatile String lastScope;
+    }
+
+    private final Map<String, Row> routes = new ConcurrentHashMap<>();
+    private final List<Consumer<RateLimitHit>> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder globalRateLimited = new LongAdder();
+
+    // ---------------------------------------------------------------------
+    // Interceptor (OkHttp dispatcher threads)
+    // ---------------------------------------------------------------------
+
+    @NotNull
+    @Override
+    public Response intercept(@NotNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+        String path = request.url().encodedPath();
+        if (path.startsWith("/api/")) observe(request.method(), path, response.code(), response::header);
+        return response;
+    }
+
+    /** Records one response; {@code headers} looks up a response header (null if absent). */
+    void observe(String method, String path, int status, Function<String, String> headers) {
+        String route = route(method, path);
+        Row row = row(route);
+        long now = System.currentTimeMillis();
+        requests.increment();
+        row.requests.increment();
+
+        String bucket = headers.apply("X-RateLimit-Bucket");
+        if (bucket != null) {
+            row.bucket = bucket;
+            row.limit = parseInt(headers.apply("X-RateLimit-Limit"), row.limit);
+            row.remaining = parseInt(headers.apply("X-RateLimit-Remaining"), row.remaining);
+            long resetAfterMs = parseSecondsAsMs(headers.apply("X-RateLimit-Reset-After"), -1);
+            if (resetAfterMs >= 0) row.resetAtMs = now + resetAfterMs;
+        }
+        if (status != 429) return;
+
+        boolean global = "true".equalsIgnoreCase(headers.apply("X-RateLimit-Global"));
+        String scope = headers.apply("X-RateLimit-Scope");
+        long retryAfterMs = parseSecondsAsMs(headers.apply("Retry-After"), 0);
+        rateLimited.increment();
+        if (global) globalRateLimited.increment();
+        row.rateLimited.increment();
+        row.lastRetryAfterMs = retryAfterMs;
+        row.lastScope = scope != null ? scope : (global ? "global" : null);
+
+        RateLimitHit hit = new RateLimitHit(route, global, row.lastScope, retryAfterMs);
+        for (Consumer<RateLimitHit> listener : listeners) {
+            try {
+                listener.accept(hit);
+            } catch (RuntimeException ignored) {
+                // a broken listener must not fail the HTTP call
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Public API
+    // ---------------------------------------------------------------------
+
+    public void onRateLimited(Consumer<RateLimitHit> listener) {
+        listeners.add(listener);
+    }
+
+    public Totals totals() {
+        return new Totals(requests.sum(), rateLimited.sum(), globalRateLimited.sum());
+    }
+
+    /** All routes, most rate-limited first, then busiest. */
+    public List<RouteView> snapshot() {
+        long now = System.currentTimeMillis();
+        return routes.entrySet().stream()
+                .map(e -> {
+                    Row r = e.getValue();
+                    return new RouteView(e.getKey(), r.bucket, r.limit, r.remaining, Math.max(0, r.resetAtMs - now),
+                            r.requests.sum(), r.rateLimited.sum(), r.lastRetryAfterMs, r.lastScope);
+                })
+                .sorted(Comparator.comparingLong(RouteView::rateLimited).reversed()
+                        .thenComparing(Comparator.comparingLong(RouteView::requests).reversed()))
+                .toList();
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    private Row row(String route) {
+        Row row = routes.get(route);
+        if (row != null) return row;
+        if (routes.size() >= MAX_ROUTES) return routes.computeIfAbsent(OVERFLOW_ROUTE, k -> new Row());
+        return routes.computeIfAbsent(route, k -> new Row());
+    }
+
+    /** {@code /api/v10/channels/123/messages/456} → {@code PATCH channels/{id}/messages/{id}}. */
+    static String route(String method, String path) {
+        String[] parts = path.split("/");
+        StringBuilder sb = new StringBuilder(method).append(' ');
+        int start = 2; // "", "api"
+        if (parts.length > start && parts[start].matches("v\\d+")) start++;
+        String previous = "";
+        String beforePrevious = "";
+        for (int i = start; i < parts.length; i++) {
+            String part = parts[i];
+            if (part.isEmpty()) continue;
+            String out;
+            if (isSnowflake(part)) out = "{id}";
+            else if (previous.equals("{id}") && (beforePrevious.equals("interactions") || beforePrevious.equals("webhooks"))) out = "{token}";
+            else if (previous.equals("reactions")) out = "{emoji}";
+            else out = part;
+            if (sb.charAt(sb.length() - 1) != ' ') sb.append('/');
+            sb.append(out);
+            beforePrevious = previous;
+            previous = out;
+        }
+        return sb.toString();
+    }
+
+    private static boolean isSnowflake(String s) {
+        if (s.length() < 5 || s.length() > 20) return false;
+        for (int i = 0; i < s.length(); i++) if (s.charAt(i) < '0' || s.charAt(i) > '9') return false;
+        return true;
+    }
+
+    private static int parseInt(String value, int fallback) {
+        if (value == null) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /** Discord sends fractional seconds ("1.337"). */
+    private static long parseSecondsAsMs(String value, long fallback) {
+        if (value == null) return fallback;
+        try {
+            return Math.round(Double.parseDouble(value.trim()) * 1_000);
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
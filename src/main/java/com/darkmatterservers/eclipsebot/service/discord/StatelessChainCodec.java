@@ -0,0 +1,165 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Encodes the state of a stateless paged chain into component custom IDs, and back.
+ * <p>
+ * Layout (at most {@link #MAX_CUSTOM_ID} chars, Discord's limit):
+ * <pre>~1|chainId|componentId|page|state|mac</pre>
+ *  - {@code page} in base 36, {@code state} a compact, chain-defined string (may be empty)
+ *  - {@code mac}: HMAC-SHA256 over the user ID and all fields, first {@link #MAC_BYTES} bytes, base64url.
+ *    Binding the user means a custom ID copied into someone else's interaction (e.g. a public channel)
+ *    does not verify
+ *  - fields must not contain {@code '|'}; {@link #encode} rejects such values and IDs over the limit
+ * <p>
+ * The key is {@code chains.stateless.secret} (base64, shared by every node that serves the same
+ * chains). Without it a random key is generated per process, so stateless menus still work but stop
+ * verifying after a restart.
+ */
+@Component
+public class StatelessChainCodec {
+
+    public static final String PREFIX = "~1|";
+    static final int MAX_CUSTOM_ID = 100;
+    static final int MAC_BYTES = 8;
+    private static final char SEP = '|';
+
+    /** One verified custom ID. */
+    public record Decoded(String chainId, String componentId, int pageIndex, String state) {}
+
+    private final YamlService yamlService;
+    private final LoggerService logger;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+    private volatile SecretKeySpec key;
+
+    public StatelessChainCodec(@Lazy YamlService yamlService, LoggerService logger) {
+        this.yamlService = yamlService;
+        this.logger = logger;
+    }
+
+    /** Tests and tools: fixed key, no config lookups. */
+    public static StatelessChainCodec withKey(byte[] secret) {
+        StatelessChainCodec codec = new StatelessChainCodec(null, null);
+        codec.key = new SecretKeySpec(secret.clone(), "HmacSHA256");
+        return codec;
+    }
+
+    public static boolean isStateless(String customId) {
+        return customId != null && customId.startsWith(PREFIX);
+    }
+
+    /**
+     * The custom ID for {@code componentId} on page {@code pageIndex} of {@code chainId}, for {@code userId}.
+     *
+     * @throws IllegalArgumentException if a field contains {@code '|'} or the result exceeds 100 chars
+     */
+    public String encode(String userId, String chainId, String componentId, int pageIndex, String state) {
+        String s = state == null ? "" : state;
+        if (invalid(chainId) || invalid(componentId) || invalid(s) || pageIndex < 0) {
+            throw new IllegalArgumentException("invalid stateless field for " + componentId);
+        }
+        StringBuilder sb = new StringBuilder(MAX_CUSTOM_ID)
+                .append(PREFIX).append(chainId).append(SEP).append(componentId).append(SEP)
+                .append(Integer.toString(pageIndex, 36)).append(SEP).append(s).append(SEP);
+        sb.append(Base64.getUrlEncoder().withoutPadding().encodeToString(mac(userId, sb)));
+        if (sb.length() > MAX_CUSTOM_ID) {
+            throw new IllegalArgumentException("stateless custom ID too long (" + sb.length() + " chars) for " + componentId);
+        }
+        return sb.toString();
+    }
+
+    /** The verified state, or null if {@code customId} isn't stateless, is malformed or fails the MAC for {@code userId}. */
+    public Decoded decode(String userId, String customId) {
+        if (!isStateless(customId)) return null;
+        int macStart = customId.lastIndexOf(SEP) + 1;
+        if (macStart <= PREFIX.length()) return null;
+        String[] fields = customId.substring(PREFIX.length(), macStart - 1).split("\\|", -1);
+        if (fields.length != 4) return null;
+
+        byte[] expected = mac(userId, customId.subSequence(0, macStart));
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(customId.substring(macStart));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(expected, actual)) return null;
+
+        try {
+            return new Decoded(fields[0], fields[1], Integer.parseInt(fields[2], 36), fields[3]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------
+
+    private byte[] mac(String userId, CharSequence signed) {
+        Mac mac = macs.get();
+        mac.update((userId == null ? "" : userId).getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) SEP);
+        mac.update(signed.toString().getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(mac.doFinal(), MAC_BYTES);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key());
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private SecretKeySpec key() {
+        SecretKeySpec k = key;
+        if (k != null) return k;
+        synchronized (this) {
+            if (key != null) return key;
+            String configured = yamlService != null ? yamlService.getString("chains.stateless.secret") : null;
+            byte[] secret = null;
+            if (configured != null && !configured.isBlank()) {
+                try {
+                    secret = Base64.getDecoder().decode(configured.trim());
+                } catch (IllegalArgumentException e) {
+                    secret = null;
+                }
+                if (secret == null || secret.length < 16) {
+                    warn("⚠️ chains.stateless.secret must be base64 of 16+ bytes; using a per-process key");
+                }
+            } else {
+                warn("⚠️ chains.stateless.secret not set; stateless menus won't survive a restart");
+            }
+            if (secret == null || secret.length < 16) {
+                secret = new byte[32];
+                new SecureRandom().nextBytes(secret);
+            }
+            key = new SecretKeySpec(secret, "HmacSHA256");
+            return key;
+        }
+    }
+
+    private void warn(String message) {
+        if (logger != null) logger.warn(message, getClass().getName());
+    }
+
+    private static boolean invalid(String field) {
+        return field == null || field.indexOf(SEP) >= 0;
+    }
+}
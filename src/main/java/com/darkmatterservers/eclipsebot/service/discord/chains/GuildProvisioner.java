@@ -0,0 +1,286 @@
+package com.darkmatterservers.eclipsebot.service.discord.chains;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.AdaptiveConcurrencyLimiter;
+import com.darkmatterservers.eclipsebot.service.discord.GuildEntityIndex;
+import jakarta.annotation.PreDestroy;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.concrete.Category;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Bulk mode of the setup wizard: applies one role/category template to many guilds.
+ * <p>
+ * Pipeline:
+ *  - guilds are provisioned through the {@link AdaptiveConcurrencyLimiter}: concurrency grows while
+ *    Discord keeps answering and is cut back on the first 429
+ *  - per guild: ensure Mods role → ensure Players role → ensure admin category, chained through
+ *    {@code RestAction.submit()} so no thread blocks on Discord; existing ones are found through
+ *    {@link GuildEntityIndex}. JDA's requester honours the per-route buckets
+ *  - progress is published at most every {@code setup.progressMs}, and never before the {@code shownAfter}
+ *    stage passed to {@link #provision} (the wizard's own "complete" edit) has finished, so that edit can't
+ *    overwrite a report. Only one report is in flight at a time; while one is, newer snapshots replace
+ *    each other and the newest goes out when Discord answers, so the final report is always the last
+ *  - once every guild has finished, all successful guilds are written to config with a single save
+ */
+@Service
+public class GuildProvisioner {
+
+    /** Names to apply to every guild (created when missing). */
+    public record Template(String modsRole, String playersRole, String adminCategory) {}
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    /** Per-guild state; {@code detail} is the failure reason or the applied names. */
+    public record GuildStatus(String guildId, String guildName, Status status, String detail) {}
+
+    /** Snapshot handed to the progress callback. */
+    public record Progress(List<GuildStatus> guilds, boolean finished) {
+        public long count(Status status) {
+            return guilds.stream().filter(g -> g.status() == status).count();
+        }
+    }
+
+    private final LoggerService logger;
+    private final YamlService yamlService;
+    private final AtomicReference<JDA> jdaRef;
+    private final GuildEntityIndex entities;
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    /** How long reports wait for {@code shownAfter} at most (it is a UI nicety, not worth losing reports over). */
+    private static final long SHOWN_AFTER_TIMEOUT_MS = 15_000;
+
+    private final ScheduledExecutorService progressThread = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "setup-bulk-progress");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public GuildProvisioner(LoggerService logger,
+                            @Lazy YamlService yamlService,
+                            AtomicReference<JDA> jdaRef,
+                            GuildEntityIndex entities,
+                            AdaptiveConcurrencyLimiter limiter) {
+        this.logger = logger;
+        this.yamlService = yamlService;
+        this.jdaRef = jdaRef;
+        this.entities = entities;
+        this.limiter = limiter;
+    }
+
+    /**
+     * Starts provisioning {@code guilds} (ID → name, in display order). The returned future completes
+     * with the final statuses after the config has been saved.
+     *
+     * @param shownAfter no report is published before this stage completes (normally or not)
+     * @param onProgress publishes one report; the returned stage completes when it has been delivered
+     */
+    public CompletableFuture<List<GuildStatus>> provision(Map<String, String> guilds, Template template,
+                                                          CompletionStage<?> shownAfter,
+                                                          Function<Progress, ? extends CompletionStage<?>> onProgress) {
+        long progressMs = Math.max(250, yamlService.getLong("setup.progressMs", 1_500));
+        Job job = new Job(guilds, template, onProgress);
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        shownAfter.whenComplete((ignored, err) -> gate.complete(null));
+        gate.completeOnTimeout(null, SHOWN_AFTER_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .thenRun(() -> progressThread.execute(job::delivered));
+        job.ticker = progressThread.scheduleWithFixedDelay(job::publishIfChanged, progressMs, progressMs, TimeUnit.MILLISECONDS);
+        logger.info("🏗️ Bulk setup started for " + guilds.size() + " guilds (concurrency limit "
+                + (int) limiter.stats().limit() + ", adaptive)", getClass().getName());
+        for (int i = 0; i < job.size; i++) job.start(i);
+        if (job.size == 0) progressThread.execute(job::finish);
+        return job.result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        progressThread.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------------
+    // One bulk run
+    // ---------------------------------------------------------------------
+
+    private final class Job {
+        final int size;
+        final String[] ids;
+        final String[] names;
+        final Template template;
+        final Function<Progress, ? extends CompletionStage<?>> onProgress;
+        final AtomicReferenceArray<GuildStatus> statuses;
+        final Template[] applied; // written by the guild's pipeline, read after `remaining` hits zero
+        final AtomicInteger remaining;
+        final CompletableFuture<List<GuildStatus>> result = new CompletableFuture<>();
+        volatile boolean changed;
+        ScheduledFuture<?> ticker;
+        // Progress thread only. Starts "in flight": the wizard's completion edit goes first
+        boolean reportInFlight = true;
+        Progress nextReport;
+
+        Job(Map<String, String> guilds, Template template, Function<Progress, ? extends CompletionStage<?>> onProgress) {
+            this.size = guilds.size();
+            this.ids = guilds.keySet().toArray(String[]::new);
+            this.names = guilds.values().toArray(String[]::new);
+            this.template = template;
+            this.onProgress = onProgress;
+            this.statuses = new AtomicReferenceArray<>(size);
+            this.applied = new Template[size];
+            this.remaining = new AtomicInteger(size);
+            for (int i = 0; i < size; i++) statuses.set(i, new GuildStatus(ids[i], names[i], Status.QUEUED, null));
+        }
+
+        void start(int i) {
+            limiter.submit(() -> {
+                update(i, Status.RUNNING, null);
+                return provisionOne(i);
+            }).whenComplete((names, err) -> {
+                if (err == null) {
+                    applied[i] = names;
+                    update(i, Status.DONE, names.modsRole() + " / " + names.playersRole() + " / " + names.adminCategory());
+                } else {
+                    update(i, Status.FAILED, reason(err));
+                }
+                if (remaining.decrementAndGet() == 0) progressThread.execute(this::finish);
+            });
+        }
+
+        private CompletableFuture<Template> provisionOne(int i) {
+            try {
+                JDA jda = jdaRef.get();
+                Guild guild = jda != null ? jda.getGuildById(ids[i]) : null;
+                if (guild == null) return CompletableFuture.failedFuture(new IllegalStateException("bot is not in this guild"));
+                return ensureRole(guild, template.modsRole())
+                        .thenCompose(mods -> ensureRole(guild, template.playersRole())
+                                .thenCompose(players -> ensureCategory(guild, template.adminCategory())
+                                        .thenApply(cat -> new Template(mods.getName(), players.getName(), cat.getName()))));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e); // e.g. missing permissions are thrown before the request
+            }
+        }
+
+        private void update(int i, Status status, String detail) {
+            statuses.set(i, new GuildStatus(ids[i], names[i], status, detail));
+            changed = true;
+        }
+
+        private Progress snapshot(boolean finished) {
+            List<GuildStatus> out = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) out.add(statuses.get(i));
+            return new Progress(out, finished);
+        }
+
+        /** Progress thread only. */
+        void publishIfChanged() {
+            if (!changed || result.isDone()) return;
+            changed = false;
+            publish(snapshot(false));
+        }
+
+        /** Progress thread only: one config write for the whole run, then the final report. */
+        void finish() {
+            if (ticker != null) ticker.cancel(false);
+            Progress last = snapshot(true);
+            try {
+                persist();
+            } catch (RuntimeException e) {
+                logger.error("❌ Bulk setup could not save config: " + e.getMessage(), getClass().getName(), e);
+            }
+            publish(last);
+            logger.success("✅ Bulk setup finished: " + last.count(Status.DONE) + " configured, "
+                    + last.count(Status.FAILED) + " failed", getClass().getName());
+            result.complete(last.guilds());
+        }
+
+        private void persist() {
+            Map<String, Object> updates = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                Template t = applied[i];
+                if (t == null) continue;
+                String base = "guilds." + ids[i] + ".";
+                updates.put(base + "guildId", ids[i]);
+                updates.put(base + "guildName", names[i]);
+                updates.put(base + "modsRole", t.modsRole());
+                updates.put(base + "playersRole", t.playersRole());
+                updates.put(base + "adminCategory", t.adminCategory());
+            }
+            if (updates.isEmpty()) return;
+            yamlService.setMultiple(updates);
+            yamlService.save();
+        }
+
+        /** Progress thread only: sends {@code progress} now, or holds it (replacing an older one) until the report in flight lands. */
+        private void publish(Progress progress) {
+            if (reportInFlight) {
+                nextReport = progress;
+                return;
+            }
+            CompletionStage<?> sent;
+            try {
+                sent = onProgress.apply(progress);
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Bulk setup progress update failed: " + e.getMessage(), getClass().getName());
+                return;
+            }
+            if (sent == null) return;
+            reportInFlight = true;
+            sent.whenComplete((ignored, err) -> progressThread.execute(this::delivered));
+        }
+
+        /** Progress thread only: the previous report (or the wizard's completion edit) has landed. */
+        void delivered() {
+            reportInFlight = false;
+            Progress next = nextReport;
+            nextReport = null;
+            if (next != null) publish(next);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Async ensure helpers (index first, create when missing)
+    // ---------------------------------------------------------------------
+
+    private CompletableFuture<Role> ensureRole(Guild guild, String name) {
+        GuildEntityIndex.Entry known = entities.find(guild.getIdLong(), GuildEntityIndex.Kind.ROLE, name);
+        Role existing = known != null ? guild.getRoleById(known.id()) : null;
+        if (existing != null) return CompletableFuture.completedFuture(existing);
+        return guild.createRole().setName(name).submit().thenApply(role -> {
+            entities.put(role);
+            return role;
+        });
+    }
+
+    private CompletableFuture<Category> ensureCategory(Guild guild, String name) {
+        GuildEntityIndex.Entry known = entities.find(guild.getIdLong(), GuildEntityIndex.Kind.CATEGORY, name);
+        Category existing = known != null ? guild.getCategoryById(known.id()) : null;
+        if (existing != null) return CompletableFuture.completedFuture(existing);
+        return guild.createCategory(name).submit().thenApply(category -> {
+            entities.put(category);
+            return category;
+        });
+    }
+
+    private static String reason(Throwable err) {
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
@@ -8,11 +8,15 @@ import com.darkmatterservers.chain.PagedChain.Keys;
 import com.darkmatterservers.context.ComponentContext;
 import com.darkmatterservers.eclipsebot.service.LoggerService;
 import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.AdminGuildScanner;
 import com.darkmatterservers.eclipsebot.service.discord.Bytes;
+import com.darkmatterservers.eclipsebot.service.discord.ChainRouter;
+import com.darkmatterservers.eclipsebot.service.discord.GuildEntityIndex;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.Guild;
-import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.channel.concrete.Category;
 import net.dv8tion.jda.api.interactions.components.buttons.ButtonStyle;
@@ -22,7 +26,6 @@ import org.springframework.stereotype.Component;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 /**
  * MasterGuildSetup — PagedChain version with dynamic roles/categories & JS-flow parity.
@@ -36,14 +39,28 @@ import java.util.stream.Collectors;
  * Dropdown behavior:
  *  - Options can be overridden at runtime via ctx key "<id>.options" (handled via Dropdowns.overrideOptions).
  *  - Selected item is highlighted via ctx key "<id>.selected".
+ *  - Every list goes through an {@link OptionWindow} kept in ctx ("<id>.window" / "<id>.windowPage"):
+ *    lists over 25 entries are shown a page at a time with previous/next entries, and picks map back
+ *    to guild/role/category IDs through its label index.
  *  - We auto-advance on server select AND role select to reduce friction.
  * <p>
+ * Role and category names come from {@link GuildEntityIndex} (kept current from gateway events),
+ * so handlers never rescan the guild.
+ * <p>
+ * Bulk mode ("Select many" on page 2): server picks toggle a ✅-marked set instead of advancing, the
+ * Create buttons only name the template, and Done hands every selected guild to {@link GuildProvisioner},
+ * which reports live progress into this wizard's message and saves all guilds in one write.
+ * <p>
  * On Done: configuration is saved to YAML.
+ * <p>
+ * Handlers sit in one {@link ChainRouter} (namespace {@link #ROUTES}) built with the bean and shared by all
+ * sessions; the per-user guild list reaches them through the session's "<id>.window" key.
  */
 @Component
 public class MasterGuildSetup {
 
     public static final String CHAIN_TITLE = "Setup Wizard";
+    public static final String ROUTES = "setup";
 
     // Component IDs (buttons / dropdowns)
     public static final String ID_DD_SERVER        = "MasterServerPick";
@@ -53,20 +70,46 @@ public class MasterGuildSetup {
     public static final String ID_DD_ROLES         = "RolePicker";
     public static final String ID_DD_CATEGORY      = "CategoryPicker";
     public static final String ID_BTN_CREATE_PANEL = "CreateAdminPanel";
+    public static final String ID_BTN_BULK         = "BulkSetupToggle";
+
+    // Per-dropdown ctx key suffixes for the option windows
+    private static final String WINDOW      = ".window";
+    private static final String WINDOW_PAGE = ".windowPage";
+    private static final String PICKED      = ".picked";
+    private static final String MARKED      = ".marked";
+    private static final String MARK        = "✅ ";
+
+    // Bulk mode ctx keys
+    private static final String BULK        = "bulk";
+    private static final String BULK_GUILDS = "bulkGuilds";
 
     private final Bytes bytes;
     private final YamlService yamlService;
     private final LoggerService logger;
     private final AtomicReference<JDA> jdaRef;
+    private final InteractionTracer tracer;
+    private final GuildEntityIndex entities;
+    private final GuildProvisioner provisioner;
+    private final AdminGuildScanner scanner;
+    private final ChainRouter router;
 
     public MasterGuildSetup(Bytes bytes,
                             @Lazy YamlService yamlService,
                             LoggerService logger,
-                            AtomicReference<JDA> jdaRef) {
+                            AtomicReference<JDA> jdaRef,
+                            InteractionTracer tracer,
+                            GuildEntityIndex entities,
+                            GuildProvisioner provisioner,
+                            AdminGuildScanner scanner) {
         this.bytes = bytes;
         this.yamlService = yamlService;
         this.logger = logger;
         this.jdaRef = jdaRef;
+        this.tracer = tracer;
+        this.entities = entities;
+        this.provisioner = provisioner;
+        this.scanner = scanner;
+        this.router = buildRouter();
     }
 
     // -------------------------- Public API --------------------------
@@ -77,7 +120,7 @@ public class MasterGuildSetup {
      * The dropdown on page 2 is populated from that list.
      */
     public void start(String adminUserId) {
-        List<SelectOption> eligible = getEligibleGuildOptions(adminUserId);
+        List<SelectOption> eligible = scanner.eligibleGuilds(adminUserId);
         if (eligible.isEmpty()) {
             bytes.sendPrivateMessage(adminUserId,
                     """
@@ -93,14 +136,7 @@ public class MasterGuildSetup {
         var guildValues = new ArrayList<String>(eligible.size());
         eligible.forEach(opt -> { guildLabels.add(opt.getLabel()); guildValues.add(opt.getValue()); });
 
-        var chain = buildChain(
-                guildLabels,
-                guildValues,
-                List.of(), // role placeholder; replaced on guild selection
-                List.of()  // category placeholder; replaced on guild selection
-        );
-
-        bytes.startDmPagedChain(adminUserId, chain);
+        startChain(adminUserId, guildLabels, guildValues);
     }
 
     /** Keep the method for previous callers that already build the option list upstream. */
@@ -112,14 +148,29 @@ public class MasterGuildSetup {
         var guildLabels = new ArrayList<String>(eligibleGuildOptions.size());
         var guildValues = new ArrayList<String>(eligibleGuildOptions.size());
         eligibleGuildOptions.forEach(opt -> { guildLabels.add(opt.getLabel()); guildValues.add(opt.getValue()); });
-        var chain = buildChain(guildLabels, guildValues, List.of(), List.of());
-        bytes.startDmPagedChain(userId, chain);
+        startChain(userId, guildLabels, guildValues);
+    }
+
+    private void startChain(String userId, List<String> guildLabels, List<String> guildValues) {
+        var chain = buildChain(
+                guildLabels,
+                guildValues,
+                List.of(), // role placeholder; replaced on guild selection
+                List.of()  // category placeholder; replaced on guild selection
+        );
+        OptionWindow servers = OptionWindow.of(guildLabels, guildValues);
+        bytes.startDmPagedChain(userId, chain, router, ctx -> ctx.put(ID_DD_SERVER + WINDOW, servers));
     }
 
     // -------------------------- Chain Composition --------------------------
 
-    private PagedChain buildChain(List<String> guildNames, List<String> guildIds,
+    /**
+     * Visible for testing: MasterGuildSetupRenderBenchmark (same package) renders the real wizard pages
+     * through it. Not part of the wizard's API; sessions start via {@link #startChain}.
+     */
+    PagedChain buildChain(List<String> guildNames, List<String> guildIds,
                                   List<String> rolesInGuild, List<String> categoriesInGuild) {
+        OptionWindow servers = OptionWindow.of(guildNames, guildIds);
 
         // Page 1 — Welcome
         Page p0 = new Page(
@@ -133,7 +184,8 @@ public class MasterGuildSetup {
                 null
         ).withButton(0, Buttons.back())
                 .withButton(3, Buttons.next())
-                .withDropdown(Dropdowns.dropdown(ID_DD_SERVER, "Pick a Server", guildNames));
+                .withButton(5, Buttons.buildButton(ID_BTN_BULK, "Select many", ButtonStyle.SECONDARY))
+                .withDropdown(Dropdowns.dropdown(ID_DD_SERVER, "Pick a Server", servers.labels(0)));
 
         // Page 3 — Pick roles (dropdown appears only after Mods/Players/Create)
         Page p2 = new Page(
@@ -153,7 +205,8 @@ public class MasterGuildSetup {
         ).withButton(0, Buttons.back())
                 .withButton(2, Buttons.buildButton(ID_BTN_CREATE_PANEL, "Create", ButtonStyle.SECONDARY))
                 .withButton(3, Buttons.done())
-                .withDropdown(Dropdowns.dropdown(ID_DD_CATEGORY, "Pick a Category", categoriesInGuild));
+                .withDropdown(Dropdowns.dropdown(ID_DD_CATEGORY, "Pick a Category",
+                        OptionWindow.of(categoriesInGuild, categoriesInGuild).labels(0)));
 
         return new PagedChain.Builder()
                 .chainId(CHAIN_TITLE)
@@ -161,45 +214,76 @@ public class MasterGuildSetup {
                 .addPage(p1)
                 .addPage(p2)
                 .addPage(p3)
-                .wireNavigation(Buttons.ID_BACK, Buttons.ID_NEXT, Buttons.ID_DONE)
+                .build();
+    }
+
+    private ChainRouter buildRouter() {
+        return ChainRouter.builder(ROUTES)
+                .navigation(Buttons.ID_BACK, Buttons.ID_NEXT) // Done is ours (persist / bulk)
 
                 // ---------------- Handlers ----------------
 
-                // Server selection: map label -> id, refresh roles/categories, highlight selection, auto-advance
+                // Server selection: page or map label -> id, refresh roles/categories, highlight selection, auto-advance
                 .on(ID_DD_SERVER, ctx -> {
-                    String selectedLabel = ctx.interactionValue();
-                    String guildId = mapLabelToValue(selectedLabel, guildNames, guildIds);
-                    if (guildId == null) return;
+                    OptionWindow.Option server = pick(ctx, ID_DD_SERVER, OptionWindow.empty());
+                    if (server == null) return;
+                    String guildId = server.value();
+
+                    boolean bulk = Boolean.TRUE.equals(ctx.get(BULK));
+                    if (bulk && !toggleBulkGuild(ctx, server)) {
+                        showWindow(ctx, ID_DD_SERVER, window(ctx, ID_DD_SERVER), currentPage(ctx, ID_DD_SERVER));
+                        return; // un-picked; role/category lists stay on the last guild
+                    }
 
                     ctx.put(Keys.GUILD_ID, guildId);
                     ctx.put("guildId", guildId);      // keep both for convenience
-                    ctx.put("guildName", selectedLabel);
+                    ctx.put("guildName", server.name());
 
                     // highlight selection
-                    ctx.put(ID_DD_SERVER + ".selected", selectedLabel);
+                    ctx.put(ID_DD_SERVER + ".selected", server.label());
 
-                    // refresh roles/categories from JDA and override the dropdowns
+                    // fresh role/category windows for this guild (from the entity index)
                     try {
-                        var data = fetchGuildData(guildId);
-                        Dropdowns.overrideOptions(ctx, ID_DD_ROLES, data.roles());
-                        Dropdowns.overrideOptions(ctx, ID_DD_CATEGORY, data.categories());
+                        long id = Long.parseLong(guildId);
+                        showWindow(ctx, ID_DD_ROLES, entityWindow(id, GuildEntityIndex.Kind.ROLE), 0);
+                        showWindow(ctx, ID_DD_CATEGORY, entityWindow(id, GuildEntityIndex.Kind.CATEGORY), 0);
                     } catch (Exception e) {
                         logger.warn("⚠️ Failed to refresh guild data for " + guildId + ": " + e.getMessage(), getClass().getName());
                     }
 
+                    if (bulk) {
+                        ctx.put(ID_DD_SERVER + ".selected", MARK + server.label());
+                        showWindow(ctx, ID_DD_SERVER, window(ctx, ID_DD_SERVER), currentPage(ctx, ID_DD_SERVER)); // refresh ✅ marks
+                        return; // keep picking; Next moves on
+                    }
                     // Optional UX: auto-advance to the next page after picking the server
                     PagedChain.advancePage(ctx, +1);
                 })
 
+                // Bulk toggle: the current server pick (if any) seeds the selection
+                .on(ID_BTN_BULK, ctx -> {
+                    boolean bulk = !Boolean.TRUE.equals(ctx.get(BULK));
+                    ctx.put(BULK, bulk);
+                    Map<String, String> selected = new LinkedHashMap<>();
+                    String guildId = ctx.getString("guildId");
+                    if (bulk && guildId != null && !guildId.isBlank()) {
+                        selected.put(guildId, String.valueOf(ctx.getOrDefault("guildName", guildId)));
+                    }
+                    ctx.put(BULK_GUILDS, selected);
+                    ctx.put(ID_DD_SERVER + MARKED, Set.copyOf(selected.keySet()));
+                    showWindow(ctx, ID_DD_SERVER, window(ctx, ID_DD_SERVER), currentPage(ctx, ID_DD_SERVER));
+                })
+
                 // Role selection (respects active mode "mods" | "players") + highlight + auto-advance
                 .on(ID_DD_ROLES, ctx -> {
+                    OptionWindow.Option role = pick(ctx, ID_DD_ROLES, OptionWindow.empty());
+                    if (role == null) return;
                     String mode = String.valueOf(ctx.getOrDefault("roleMode", "mods"));
-                    String roleName = ctx.interactionValue();
-                    if ("mods".equalsIgnoreCase(mode)) ctx.put("modsRole", roleName);
-                    else ctx.put("playersRole", roleName);
+                    if ("mods".equalsIgnoreCase(mode)) ctx.put("modsRole", role.name());
+                    else ctx.put("playersRole", role.name());
 
                     // highlight in dropdown
-                    ctx.put(ID_DD_ROLES + ".selected", roleName);
+                    ctx.put(ID_DD_ROLES + ".selected", role.label());
 
                     // move forward automatically
                     PagedChain.advancePage(ctx, +1);
@@ -207,9 +291,10 @@ public class MasterGuildSetup {
 
                 // Category selection and highlight (we don't auto-next here; final page uses Done)
                 .on(ID_DD_CATEGORY, ctx -> {
-                    String catName = ctx.interactionValue();
-                    ctx.put("adminCategory", catName);
-                    ctx.put(ID_DD_CATEGORY + ".selected", catName);
+                    OptionWindow.Option category = pick(ctx, ID_DD_CATEGORY, OptionWindow.empty());
+                    if (category == null) return;
+                    ctx.put("adminCategory", category.name());
+                    ctx.put(ID_DD_CATEGORY + ".selected", category.label());
                 })
 
                 // Mode buttons — clicking Mods/Players makes the role dropdown appear (dynamic populate)
@@ -224,6 +309,7 @@ public class MasterGuildSetup {
 
                 // Create roles in guild if missing; then refresh role dropdown and inject if needed
                 .on(ID_BTN_CREATE_ROLES, ctx -> {
+                    if (Boolean.TRUE.equals(ctx.get(BULK))) return; // bulk: created in every guild on Done
                     String guildId = ctx.getString("guildId");
                     if (guildId == null || guildId.isBlank()) {
                         logger.warn("⚠️ CreateRoles clicked but guildId is missing in context", getClass().getName());
@@ -236,19 +322,19 @@ public class MasterGuildSetup {
                         String desiredModsName    = String.valueOf(ctx.getOrDefault("modsRole", "Mods"));
                         String desiredPlayersName = String.valueOf(ctx.getOrDefault("playersRole", "Players"));
 
+                        long blockingStart = System.nanoTime();
                         Role mods    = ensureRole(guild, desiredModsName);
                         Role players = ensureRole(guild, desiredPlayersName);
+                        tracer.record(ctx, InteractionTracer.Stage.BLOCKING, System.nanoTime() - blockingStart);
 
                         ctx.put("modsRole", mods.getName());
                         ctx.put("playersRole", players.getName());
 
-                        // refresh dropdown immediately
-                        List<String> roleNames = guild.getRoles().stream()
-                                .filter(r -> !r.isManaged())
-                                .map(Role::getName)
-                                .collect(Collectors.toList());
-                        Dropdowns.overrideOptions(ctx, ID_DD_ROLES, roleNames);
-                        injectRoleDropdownIfMissing(ctx);
+                        // index them now (the RoleCreate events may still be in flight), then refresh the dropdown
+                        entities.put(mods);
+                        entities.put(players);
+                        showWindow(ctx, ID_DD_ROLES, entityWindow(guild.getIdLong(), GuildEntityIndex.Kind.ROLE),
+                                currentPage(ctx, ID_DD_ROLES));
 
                         logger.info("✅ Ensured roles in guild " + guild.getName() +
                                 " | mods='" + mods.getName() + "', players='" + players.getName() + "'", getClass().getName());
@@ -259,6 +345,7 @@ public class MasterGuildSetup {
 
                 // Create a category if missing; then refresh the category dropdown
                 .on(ID_BTN_CREATE_PANEL, ctx -> {
+                    if (Boolean.TRUE.equals(ctx.get(BULK))) return; // bulk: created in every guild on Done
                     String guildId = ctx.getString("guildId");
                     if (guildId == null || guildId.isBlank()) {
                         logger.warn("⚠️ CreateAdminPanel clicked but guildId is missing in context", getClass().getName());
@@ -269,14 +356,15 @@ public class MasterGuildSetup {
 
                     try {
                         String desiredName = String.valueOf(ctx.getOrDefault("adminCategory", "Admin Panel"));
+                        long blockingStart = System.nanoTime();
                         Category cat = ensureCategory(guild, desiredName);
+                        tracer.record(ctx, InteractionTracer.Stage.BLOCKING, System.nanoTime() - blockingStart);
                         ctx.put("adminCategory", cat.getName());
 
-                        // refresh dropdown immediately
-                        List<String> categories = guild.getCategories().stream()
-                                .map(Category::getName)
-                                .collect(Collectors.toList());
-                        Dropdowns.overrideOptions(ctx, ID_DD_CATEGORY, categories);
+                        // index it now (the ChannelCreate event may still be in flight), then refresh the dropdown
+                        entities.put(cat);
+                        showWindow(ctx, ID_DD_CATEGORY, entityWindow(guild.getIdLong(), GuildEntityIndex.Kind.CATEGORY),
+                                currentPage(ctx, ID_DD_CATEGORY));
 
                         logger.info("✅ Ensured admin category in guild " + guild.getName() +
                                 " | '" + cat.getName() + "'", getClass().getName());
@@ -286,7 +374,10 @@ public class MasterGuildSetup {
                 })
 
                 // Done -> persist to YAML then complete
-                .on(Buttons.ID_DONE, this::persistAndComplete)
+                .on(Buttons.ID_DONE, ctx -> {
+                    if (bulkGuilds(ctx).isEmpty()) persistAndComplete(ctx);
+                    else startBulk(ctx);
+                })
                 .build();
     }
 
@@ -301,13 +392,130 @@ public class MasterGuildSetup {
         // Nothing to do here for structure since Page is static; the renderer already
         // looks up dynamic options by ID. We just ensure options are present.
         String guildId = ctx.getString("guildId");
-        Guild guild = guildId != null ? getGuild(guildId) : null;
-        if (guild == null) return;
-        List<String> roleNames = guild.getRoles().stream()
-                .filter(r -> !r.isManaged())
-                .map(Role::getName)
-                .collect(Collectors.toList());
-        Dropdowns.overrideOptions(ctx, ID_DD_ROLES, roleNames);
+        if (guildId == null || guildId.isBlank()) return;
+        OptionWindow roles = ctx.get(ID_DD_ROLES + WINDOW) instanceof OptionWindow w
+                ? w : entityWindow(Long.parseLong(guildId), GuildEntityIndex.Kind.ROLE);
+        showWindow(ctx, ID_DD_ROLES, roles, currentPage(ctx, ID_DD_ROLES));
+    }
+
+    // -------------------------- Option windows --------------------------
+
+    private OptionWindow entityWindow(long guildId, GuildEntityIndex.Kind kind) {
+        List<GuildEntityIndex.Entry> all = entities.window(guildId, kind, 0, Integer.MAX_VALUE);
+        return OptionWindow.of(all.stream().map(GuildEntityIndex.Entry::name).toList(),
+                all.stream().map(e -> String.valueOf(e.id())).toList());
+    }
+
+    /** Stores the window for this session and renders its {@code page} into the dropdown. */
+    private static void showWindow(ComponentContext ctx, String dropdownId, OptionWindow window, int page) {
+        int p = window.clampPage(page);
+        ctx.put(dropdownId + WINDOW, window);
+        ctx.put(dropdownId + WINDOW_PAGE, p);
+        List<String> labels = window.labels(p);
+        if (ctx.get(dropdownId + MARKED) instanceof Set<?> marked && !marked.isEmpty()) {
+            labels = labels.stream().map(label -> {
+                OptionWindow.Option o = window.option(label);
+                return o != null && marked.contains(o.value()) ? MARK + label : label;
+            }).toList();
+        }
+        Dropdowns.overrideOptions(ctx, dropdownId, labels);
+    }
+
+    /** The session's window of a dropdown (empty before the first one is shown). */
+    private static OptionWindow window(ComponentContext ctx, String dropdownId) {
+        return ctx.get(dropdownId + WINDOW) instanceof OptionWindow w ? w : OptionWindow.empty();
+    }
+
+    private static int currentPage(ComponentContext ctx, String dropdownId) {
+        return ctx.get(dropdownId + WINDOW_PAGE) instanceof Integer p ? p : 0;
+    }
+
+    /**
+     * Resolves the picked label of a windowed dropdown. Paging entries move the window and return null,
+     * as do labels that aren't in the window.
+     */
+    private static OptionWindow.Option pick(ComponentContext ctx, String dropdownId, OptionWindow initial) {
+        OptionWindow window = ctx.get(dropdownId + WINDOW) instanceof OptionWindow w ? w : initial;
+        String label = ctx.interactionValue();
+        if (label != null && label.startsWith(MARK) && window.option(label) == null) label = label.substring(MARK.length());
+        int target = window.navigate(label, currentPage(ctx, dropdownId));
+        if (target >= 0) {
+            showWindow(ctx, dropdownId, window, target);
+            // a paging entry is not a selection: keep highlighting the last real pick
+            ctx.put(dropdownId + ".selected", String.valueOf(ctx.getOrDefault(dropdownId + PICKED, "")));
+            return null;
+        }
+        OptionWindow.Option option = window.option(label);
+        if (option != null) ctx.put(dropdownId + PICKED, option.label());
+        return option;
+    }
+
+    // -------------------------- Bulk mode --------------------------
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> bulkGuilds(ComponentContext ctx) {
+        return Boolean.TRUE.equals(ctx.get(BULK)) && ctx.get(BULK_GUILDS) instanceof Map<?, ?> m
+                ? (Map<String, String>) m : Map.of();
+    }
+
+    /** Adds or removes a guild from the bulk selection; true if it is now selected. */
+    private static boolean toggleBulkGuild(ComponentContext ctx, OptionWindow.Option server) {
+        Map<String, String> selected = new LinkedHashMap<>(bulkGuilds(ctx));
+        boolean added = selected.remove(server.value()) == null;
+        if (added) selected.put(server.value(), server.name());
+        ctx.put(BULK_GUILDS, selected);
+        ctx.put(ID_DD_SERVER + MARKED, Set.copyOf(selected.keySet()));
+        return added;
+    }
+
+    /** Hands the selection to the provisioner; this message becomes its live progress report. */
+    private void startBulk(ComponentContext ctx) {
+        Map<String, String> guilds = new LinkedHashMap<>(bulkGuilds(ctx));
+        var template = new GuildProvisioner.Template(
+                String.valueOf(ctx.getOrDefault("modsRole", "Mods")),
+                String.valueOf(ctx.getOrDefault("playersRole", "Players")),
+                String.valueOf(ctx.getOrDefault("adminCategory", "Admin Panel")));
+        try {
+            // the reports replace the wizard's "complete" edit, so they wait for it to land
+            provisioner.provision(guilds, template, bytes.completionShown(ctx),
+                    progress -> bytes.editSessionMessage(ctx, progressEmbed(progress)));
+            logger.info("✅ Bulk setup queued for " + guilds.size() + " guilds by user=" + ctx.userId(), getClass().getName());
+        } catch (Exception e) {
+            logger.error("❌ Failed to start bulk setup: " + e.getMessage(), getClass().getName(), e);
+        } finally {
+            ctx.complete();
+        }
+    }
+
+    static MessageEmbed progressEmbed(GuildProvisioner.Progress progress) {
+        int total = progress.guilds().size();
+        long done = progress.count(GuildProvisioner.Status.DONE);
+        long failed = progress.count(GuildProvisioner.Status.FAILED);
+
+        StringBuilder body = new StringBuilder();
+        int shown = 0;
+        for (GuildProvisioner.GuildStatus g : progress.guilds()) {
+            String icon = switch (g.status()) {
+                case QUEUED -> "▫️ ";
+                case RUNNING -> "⏳ ";
+                case DONE -> "✅ ";
+                case FAILED -> "❌ ";
+            };
+            String line = icon + g.guildName() + (g.detail() != null ? " — " + g.detail() : "") + "\n";
+            if (body.length() + line.length() > MessageEmbed.DESCRIPTION_MAX_LENGTH - 32) {
+                body.append("… and ").append(total - shown).append(" more");
+                break;
+            }
+            body.append(line);
+            shown++;
+        }
+
+        EmbedBuilder embed = new EmbedBuilder()
+                .setTitle((progress.finished() ? "✅ Bulk setup finished" : "⏳ Bulk setup running")
+                        + " — " + (done + failed) + "/" + total)
+                .setDescription(body.isEmpty() ? "-" : body);
+        if (progress.finished() && failed > 0) embed.setFooter(failed + " failed — run the wizard again for those servers");
+        return embed.build();
     }
 
     // -------------------------- Persist --------------------------
@@ -342,24 +550,6 @@ public class MasterGuildSetup {
 
     // -------------------------- Guild data helpers --------------------------
 
-    private record GuildData(List<String> roles, List<String> categories) {}
-
-    private GuildData fetchGuildData(String guildId) {
-        Guild guild = getGuild(guildId);
-        if (guild == null) return new GuildData(List.of(), List.of());
-
-        List<String> roles = guild.getRoles().stream()
-                .filter(r -> !r.isManaged())
-                .map(Role::getName)
-                .collect(Collectors.toList());
-
-        List<String> categories = guild.getCategories().stream()
-                .map(Category::getName)
-                .collect(Collectors.toList());
-
-        return new GuildData(roles, categories);
-    }
-
     private Guild getGuild(String guildId) {
         JDA jda = jdaRef.get();
         if (jda == null) {
@@ -376,11 +566,8 @@ public class MasterGuildSetup {
     /** Ensure a role with the given name exists in the guild; create it if missing (blocking). */
     private Role ensureRole(Guild guild, String name) {
         if (name == null || name.isBlank()) name = "Role";
-        String finalName = name;
-        Role existing = guild.getRoles().stream()
-                .filter(r -> r.getName().equalsIgnoreCase(finalName))
-                .findFirst()
-                .orElse(null);
+        GuildEntityIndex.Entry known = entities.find(guild.getIdLong(), GuildEntityIndex.Kind.ROLE, name);
+        Role existing = known != null ? guild.getRoleById(known.id()) : null;
         if (existing != null) return existing;
         return guild.createRole()
                 .setName(name)
@@ -390,49 +577,9 @@ public class MasterGuildSetup {
     /** Ensure a category with the given name exists in the guild; create it if missing (blocking). */
     private Category ensureCategory(Guild guild, String name) {
         if (name == null || name.isBlank()) name = "Admin Panel";
-        String finalName = name;
-        Category existing = guild.getCategories().stream()
-                .filter(c -> c.getName().equalsIgnoreCase(finalName))
-                .findFirst()
-                .orElse(null);
+        GuildEntityIndex.Entry known = entities.find(guild.getIdLong(), GuildEntityIndex.Kind.CATEGORY, name);
+        Category existing = known != null ? guild.getCategoryById(known.id()) : null;
         if (existing != null) return existing;
         return guild.createCategory(name).complete(); // blocking; acceptable within deferred flow
     }
-
-    private String mapLabelToValue(String selectedLabel, List<String> labels, List<String> values) {
-        if (selectedLabel == null) return null;
-        for (int i = 0; i < labels.size() && i < values.size(); i++) {
-            if (selectedLabel.equals(labels.get(i))) return values.get(i);
-        }
-        return null;
-    }
-
-    // -------------------------- Eligibility (real guilds for this admin) --------------------------
-
-    /**
-     * Returns guild options where the bot is present AND the admin is Owner or has ADMINISTRATOR.
-     */
-    private List<SelectOption> getEligibleGuildOptions(String adminId) {
-        JDA jda = jdaRef.get();
-        if (jda == null) return List.of();
-        List<SelectOption> out = new ArrayList<>();
-
-        for (Guild guild : jda.getGuilds()) {
-            try {
-                // fast-path: owner
-                if (adminId.equals(guild.getOwnerId())) {
-                    out.add(SelectOption.of(guild.getName(), guild.getId()));
-                    continue;
-                }
-                // try fetch member and check ADMINISTRATOR
-                Member m = guild.retrieveMemberById(adminId).submit().get();
-                if (m != null && (m.isOwner() || m.hasPermission(Permission.ADMINISTRATOR))) {
-                    out.add(SelectOption.of(guild.getName(), guild.getId()));
-                }
-            } catch (Exception ignored) {
-                // If fetch fails (no member or missing intent), we skip that guild
-            }
-        }
-        return out;
-    }
 }
@@ -0,0 +1,118 @@
+package com.darkmatterservers.eclipsebot.service.discord.chains;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Virtualized option list for a select menu with more entries than Discord's 25-option limit.
+ * <p>
+ * The full list is stored once (per wizard session) and rendered a window at a time:
+ *  - up to {@link #MAX_OPTIONS} entries fit on one page with no paging controls
+ *  - larger lists show {@link #PER_PAGE} entries plus "previous" / "next" entries that move the window
+ * <p>
+ * Select menus report the picked label, so labels are made unique (duplicates get their value appended,
+ * with the name shortened as needed to stay within Discord's {@value #MAX_LABEL}-character label limit)
+ * and resolved through a label → option hash index instead of a scan. Immutable; the current page
+ * number lives in the session context.
+ */
+public final class OptionWindow {
+
+    public static final int MAX_OPTIONS = 25;
+    public static final int PER_PAGE = MAX_OPTIONS - 2;
+    public static final int MAX_LABEL = 100;
+
+    /** One entry: stable value (an ID), the plain name, and the unique label shown in the menu. */
+    public record Option(String value, String name, String label) {}
+
+    private final List<Option> options;
+    private final Map<String, Option> byLabel;
+
+    private OptionWindow(List<Option> options, Map<String, Option> byLabel) {
+        this.options = options;
+        this.byLabel = byLabel;
+    }
+
+    /** Pairs {@code names[i]} with {@code values[i]}; extra elements of the longer list are ignored. */
+    public static OptionWindow of(List<String> names, List<String> values) {
+        int n = Math.min(names.size(), values.size());
+        List<Option> options = new ArrayList<>(n);
+        Map<String, Option> byLabel = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            String name = names.get(i);
+            String value = values.get(i);
+            String label = fit(name, "");
+            if (byLabel.containsKey(label) || isControl(label)) label = fit(name, " (" + value + ")");
+            Option option = new Option(value, name, label);
+            if (byLabel.putIfAbsent(label, option) != null) continue; // same name and value twice
+            options.add(option);
+        }
+        return new OptionWindow(Collections.unmodifiableList(options), byLabel);
+    }
+
+    public static OptionWindow empty() {
+        return new OptionWindow(List.of(), Map.of());
+    }
+
+    public int size() {
+        return options.size();
+    }
+
+    public int pageCount() {
+        return options.size() <= MAX_OPTIONS ? 1 : (options.size() + PER_PAGE - 1) / PER_PAGE;
+    }
+
+    public int clampPage(int page) {
+        return Math.max(0, Math.min(page, pageCount() - 1));
+    }
+
+    /** Labels to render for {@code page}: its entries plus the paging controls that apply. */
+    public List<String> labels(int page) {
+        if (pageCount() == 1) return options.stream().map(Option::label).toList();
+        int p = clampPage(page);
+        int from = p * PER_PAGE;
+        int to = Math.min(options.size(), from + PER_PAGE);
+        List<String> out = new ArrayList<>(to - from + 2);
+        if (p > 0) out.add(previousLabel(p));
+        for (int i = from; i < to; i++) out.add(options.get(i).label());
+        if (p < pageCount() - 1) out.add(nextLabel(p));
+        return out;
+    }
+
+    /** The option behind a picked label, or null for unknown labels and paging controls. */
+    public Option option(String label) {
+        return label == null ? null : byLabel.get(label);
+    }
+
+    /** Target page if {@code label} is one of {@code page}'s paging controls, otherwise -1. */
+    public int navigate(String label, int page) {
+        if (label == null || pageCount() == 1) return -1;
+        int p = clampPage(page);
+        if (p > 0 && label.equals(previousLabel(p))) return p - 1;
+        if (p < pageCount() - 1 && label.equals(nextLabel(p))) return p + 1;
+        return -1;
+    }
+
+    private String previousLabel(int page) {
+        return "◀ Previous (page " + page + " of " + pageCount() + ")";
+    }
+
+    private String nextLabel(int page) {
+        return "Next ▶ (page " + (page + 2) + " of " + pageCount() + ")";
+    }
+
+    /** {@code name + suffix}, with {@code name} cut (and marked with "…") so the whole label fits. */
+    private static String fit(String name, String suffix) {
+        int room = MAX_LABEL - suffix.length();
+        if (name.length() <= room) return name + suffix;
+        int cut = Math.max(0, room - 1);
+        if (cut > 0 && Character.isHighSurrogate(name.charAt(cut - 1))) cut--; // don't split a surrogate pair
+        return name.substring(0, cut) + "…" + suffix;
+    }
+
+    private static boolean isControl(String label) {
+        return label.startsWith("◀ Previous (page ") || label.startsWith("Next ▶ (page ");
+    }
+}
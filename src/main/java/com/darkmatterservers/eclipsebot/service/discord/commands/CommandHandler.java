@@ -0,0 +1,32 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+
+import java.util.List;
+
+/**
+ * A slash command implementation; pair it with {@link SlashCommand} on the class.
+ * <p>
+ * {@link #handle} and {@link #autocomplete} run on a virtual thread (never the gateway thread), so
+ * blocking REST calls are fine; acknowledge within 3 seconds (reply or defer) before slow work.
+ */
+public interface CommandHandler {
+
+    /** Adds options/subcommands to the definition built from the annotation. */
+    default SlashCommandData configure(SlashCommandData data) {
+        return data;
+    }
+
+    void handle(SlashCommandInteractionEvent event);
+
+    /**
+     * Answer autocomplete from in-memory data only (Discord drops answers after 3 seconds), on the
+     * interaction lane. This default skips the lanes: Discord only asks for options declared with
+     * autocomplete, so a handler without an override never gets here.
+     */
+    default void autocomplete(CommandAutoCompleteInteractionEvent event) {
+        event.replyChoices(List.of()).queue();
+    }
+}
@@ -0,0 +1,160 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import jakarta.annotation.PreDestroy;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.InteractionContextType;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.build.CommandData;
+import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Slash command subsystem.
+ * <p>
+ * Startup (once, in the constructor):
+ *  - every {@link CommandHandler} bean annotated with {@link SlashCommand} is collected
+ *  - its definition is built (annotation + {@link CommandHandler#configure})
+ *  - the name → handler dispatch table is frozen with {@link Map#copyOf}
+ * <p>
+ * On ReadyEvent the definitions are compared with what Discord already has
+ * ({@code retrieveCommands}); {@code updateCommands} is only sent when something changed, so
+ * restarts don't re-upload (and rate-limit) an unchanged command set. These two calls go to JDA directly:
+ * they run once per login, before any interaction can arrive, and must not be dropped the way stale
+ * background work is.
+ * <p>
+ * Dispatch: one map lookup on the gateway thread, then the handler runs on a virtual thread. The registry's
+ * own replies use the {@link OutboundScheduler} lanes, like the handlers' (interaction, or render for an
+ * edit of a deferred reply).
+ */
+@Component
+public class CommandRegistry extends ListenerAdapter {
+
+    private final LoggerService logger;
+    private final OutboundScheduler outbound;
+    private final Map<String, CommandHandler> handlers;
+    private final List<SlashCommandData> definitions;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CommandRegistry(LoggerService logger, OutboundScheduler outbound, List<CommandHandler> beans) {
+        this.logger = logger;
+        this.outbound = outbound;
+
+        Map<String, CommandHandler> byName = new HashMap<>();
+        List<SlashCommandData> defs = new ArrayList<>();
+        for (CommandHandler handler : beans) {
+            SlashCommand meta = AnnotationUtils.findAnnotation(AopUtils.getTargetClass(handler), SlashCommand.class);
+            if (meta == null) {
+                logger.warn("⚠️ CommandHandler " + handler.getClass().getName() + " has no @SlashCommand — ignored", getClass().getName());
+                continue;
+            }
+            if (byName.putIfAbsent(meta.name(), handler) != null) {
+                throw new IllegalStateException("Duplicate slash command /" + meta.name());
+            }
+            SlashCommandData data = Commands.slash(meta.name(), meta.description());
+            if (meta.guildOnly()) data.setContexts(InteractionContextType.GUILD);
+            defs.add(handler.configure(data));
+        }
+        this.handlers = Map.copyOf(byName);
+        this.definitions = List.copyOf(defs);
+    }
+
+    /** Registered command names (for diagnostics). */
+    public List<String> commandNames() {
+        return definitions.stream().map(CommandData::getName).sorted().toList();
+    }
+
+    // ========================= Registration =========================
+
+    @Override
+    public void onReady(@NotNull ReadyEvent event) {
+        JDA jda = event.getJDA();
+        jda.retrieveCommands().queue(
+                existing -> {
+                    if (sameCommands(existing, definitions)) {
+                        logger.info("✅ Slash commands up to date (" + definitions.size() + ")", getClass().getName());
+                        return;
+                    }
+                    jda.updateCommands().addCommands(definitions).queue(
+                            ok -> logger.info("🔄 Uploaded " + ok.size() + " slash commands " + commandNames(), getClass().getName()),
+                            err -> logger.error("❌ Slash command upload failed: " + err.getMessage(), getClass().getName())
+                    );
+                },
+                err -> logger.error("❌ Could not fetch registered slash commands: " + err.getMessage(), getClass().getName())
+        );
+    }
+
+    /**
+     * Compares Discord's registered commands with ours through JDA's own serializer, so both sides
+     * carry the same defaults. Any difference (or doubt) means "upload".
+     */
+    static boolean sameCommands(List<Command> existing, List<SlashCommandData> desired) {
+        if (existing.size() != desired.size()) return false;
+        Map<String, Map<String, Object>> remote = new HashMap<>();
+        for (Command c : existing) remote.put(c.getName(), CommandData.fromCommand(c).toData().toMap());
+        for (SlashCommandData d : desired) {
+            if (!Objects.equals(remote.get(d.getName()), d.toData().toMap())) return false;
+        }
+        return true;
+    }
+
+    // ========================= Dispatch =========================
+
+    @Override
+    public void onSlashCommandInteraction(@NotNull SlashCommandInteractionEvent event) {
+        CommandHandler handler = handlers.get(event.getName());
+        if (handler == null) {
+            outbound.submit(Lane.INTERACTION, event.reply("❓ Unknown command `/" + event.getName() + "`").setEphemeral(true));
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                handler.handle(event);
+            } catch (Exception e) {
+                logger.error("❌ /" + event.getFullCommandName() + " failed: " + e.getMessage(), getClass().getName(), e);
+                String msg = "❌ Something went wrong running this command.";
+                if (event.isAcknowledged()) outbound.submit(Lane.RENDER, event.getHook().editOriginal(msg));
+                else outbound.submit(Lane.INTERACTION, event.reply(msg).setEphemeral(true));
+            }
+        });
+    }
+
+    @Override
+    public void onCommandAutoCompleteInteraction(@NotNull CommandAutoCompleteInteractionEvent event) {
+        CommandHandler handler = handlers.get(event.getName());
+        if (handler == null) {
+            outbound.submit(Lane.INTERACTION, event.replyChoices(List.of()));
+            return;
+        }
+        workers.execute(() -> {
+            try {
+                handler.autocomplete(event);
+            } catch (Exception e) {
+                logger.error("Autocomplete for /" + event.getFullCommandName() + " failed: " + e.getMessage(), getClass().getName(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,83 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable case-insensitive prefix index for autocomplete.
+ * <p>
+ * Keys are lowercased and sorted once at build time; a lookup is a binary search for the first
+ * key ≥ prefix (a lower bound, so duplicate keys are all found) followed by a walk over the matching run,
+ * so answering never scans every item.
+ * An item may be reachable under several keys (e.g. name and ID); results are de-duplicated.
+ */
+public final class PrefixIndex<T> {
+
+    private static final PrefixIndex<?> EMPTY = new PrefixIndex<>(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] items;
+
+    private PrefixIndex(String[] keys, Object[] items) {
+        this.keys = keys;
+        this.items = items;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PrefixIndex<T> empty() {
+        return (PrefixIndex<T>) EMPTY;
+    }
+
+    public static <T> PrefixIndex<T> of(Collection<T> source, Function<T, Collection<String>> keysOf) {
+        List<Map.Entry<String, T>> entries = new ArrayList<>();
+        for (T item : source) {
+            for (String key : keysOf.apply(item)) {
+                if (key != null && !key.isBlank()) entries.add(Map.entry(key.toLowerCase(Locale.ROOT), item));
+            }
+        }
+        entries.sort(Map.Entry.comparingByKey(Comparator.naturalOrder()));
+
+        String[] keys = new String[entries.size()];
+        Object[] items = new Object[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).getKey();
+            items[i] = entries.get(i).getValue();
+        }
+        return new PrefixIndex<>(keys, items);
+    }
+
+    /** Up to {@code limit} items with a key starting with {@code prefix} (empty prefix = first items). */
+    @SuppressWarnings("unchecked")
+    public List<T> search(String prefix, int limit) {
+        String p = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        int i = lowerBound(keys, p);
+
+        Map<Object, Boolean> seen = new IdentityHashMap<>();
+        List<T> out = new ArrayList<>(Math.min(limit, 25));
+        for (; i < keys.length && out.size() < limit && keys[i].startsWith(p); i++) {
+            if (seen.put(items[i], Boolean.TRUE) == null) out.add((T) items[i]);
+        }
+        return out;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /** Index of the first key ≥ {@code p}. Unlike Arrays.binarySearch, never lands in the middle of a run of equal keys. */
+    private static int lowerBound(String[] keys, String p) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(p) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,211 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import com.darkmatterservers.eclipsebot.service.archipelago.ArchipelagoService;
+import com.darkmatterservers.eclipsebot.service.archipelago.ConsoleBuffer;
+import com.darkmatterservers.eclipsebot.service.archipelago.Room;
+import com.darkmatterservers.eclipsebot.service.archipelago.RoomState;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import net.dv8tion.jda.api.events.interaction.command.CommandAutoCompleteInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.interactions.commands.Command;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import net.dv8tion.jda.api.interactions.commands.OptionType;
+import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
+import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * /room open|close|list|console — player-facing room hosting on top of {@link ArchipelagoService}.
+ * <p>
+ * Room options autocomplete from a {@link PrefixIndex} over the live room registry (by name or ID);
+ * the index is rebuilt only when the registry's version changes. Replies go out on the interaction lane,
+ * edits of a deferred reply on the render lane of the {@link OutboundScheduler}.
+ */
+@SlashCommand(name = "room", description = "Host and manage multiworld rooms")
+public class RoomCommand implements CommandHandler {
+
+    private static final int CONSOLE_LINES = 15;
+    private static final int MAX_CHOICES = 25; // Discord's autocomplete limit
+
+    private final ArchipelagoService archipelagoService;
+    private final YamlService yamlService;
+    private final OutboundScheduler outbound;
+
+    private volatile Snapshot snapshot = new Snapshot(-1, PrefixIndex.empty());
+
+    private record Snapshot(long version, PrefixIndex<Room> index) {}
+
+    public RoomCommand(ArchipelagoService archipelagoService, @Lazy YamlService yamlService, OutboundScheduler outbound) {
+        this.archipelagoService = archipelagoService;
+        this.yamlService = yamlService;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public SlashCommandData configure(SlashCommandData data) {
+        return data.addSubcommands(
+                new SubcommandData("open", "Open a new room")
+                        .addOption(OptionType.STRING, "name", "Room name", true),
+                new SubcommandData("close", "Close one of your rooms")
+                        .addOption(OptionType.STRING, "room", "Room to close", true, true),
+                new SubcommandData("list", "List your rooms"),
+                new SubcommandData("console", "Show the last lines of a room's server console")
+                        .addOption(OptionType.STRING, "room", "Room", true, true)
+        );
+    }
+
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
+        String sub = event.getSubcommandName();
+        if (sub == null) {
+            reply(event, "Use `/room open`, `/room close`, `/room list` or `/room console`.");
+            return;
+        }
+        switch (sub) {
+            case "open" -> open(event);
+            case "close" -> close(event);
+            case "list" -> list(event);
+            case "console" -> console(event);
+            default -> reply(event, "❓ Unknown subcommand");
+        }
+    }
+
+    private void open(SlashCommandInteractionEvent event) {
+        String name = event.getOption("name", "room", OptionMapping::getAsString).trim();
+        outbound.submit(Lane.INTERACTION, event.deferReply()); // a cold start can take longer than the 3s ack window
+
+        Room room;
+        try {
+            room = archipelagoService.openRoom(event.getUser().getId(), name);
+        } catch (IllegalStateException e) {
+            editReply(event, "❌ No room slots free right now — try again later.");
+            return;
+        }
+        if (room.state() == RoomState.RUNNING) {
+            editReply(event, "🎮 Room **" + room.name() + "** (#" + room.id() + ") is up: `"
+                    + archipelagoService.address(room) + "`");
+        } else {
+            editReply(event, "❌ Room failed to start"
+                    + (room.failureReason() != null ? ": " + room.failureReason() : ""));
+        }
+    }
+
+    private void close(SlashCommandInteractionEvent event) {
+        Room room = resolve(event);
+        if (room == null) return;
+        boolean stopped = archipelagoService.stopRoom(room.id());
+        reply(event, stopped ? "⏹ Closed **" + room.name() + "** (#" + room.id() + ")" : "Room already closed.");
+    }
+
+    private void list(SlashCommandInteractionEvent event) {
+        String userId = event.getUser().getId();
+        StringBuilder sb = new StringBuilder();
+        for (Room room : archipelagoService.getRooms()) {
+            if (!canManage(userId, room)) continue;
+            sb.append("• **").append(room.name()).append("** #").append(room.id())
+                    .append(" — ").append(room.state().name().toLowerCase(Locale.ROOT))
+                    .append(" — `").append(archipelagoService.address(room)).append("`\n");
+        }
+        reply(event, sb.isEmpty() ? "You have no open rooms." : sb.toString());
+    }
+
+    private void console(SlashCommandInteractionEvent event) {
+        Room room = resolve(event);
+        if (room == null) return;
+        ConsoleBuffer console = archipelagoService.console(room.id());
+        if (console == null) {
+            reply(event, "No console output is captured for this room.");
+            return;
+        }
+        StringBuilder sb = new StringBuilder("```\n");
+        long from = Math.max(0, console.lastSeq() - CONSOLE_LINES);
+        for (ConsoleBuffer.Line line : console.since(from, CONSOLE_LINES)) {
+            String text = line.text().replace("```", "`\u200b``");
+            if (sb.length() + text.length() + 5 > 1990) break;
+            sb.append(text).append('\n');
+        }
+        reply(event, sb.append("```").toString());
+    }
+
+    /**
+     * Reads the "room" option (an ID from autocomplete) and checks the caller may manage it.
+     * A typed name must pick out one of the caller's rooms: an exact (case-insensitive) name match wins,
+     * otherwise the name must be the prefix of exactly one. Several candidates are rejected, never guessed.
+     */
+    private Room resolve(SlashCommandInteractionEvent event) {
+        String raw = event.getOption("room", "", OptionMapping::getAsString).trim();
+        Room room = null;
+        try {
+            room = archipelagoService.getRoom(Long.parseLong(raw.startsWith("#") ? raw.substring(1) : raw));
+        } catch (NumberFormatException ignored) {
+            // typed a name instead of picking a suggestion
+            String userId = event.getUser().getId();
+            List<Room> candidates = index().search(raw, Integer.MAX_VALUE).stream()
+                    .filter(r -> canManage(userId, r))
+                    .toList();
+            List<Room> exact = candidates.stream().filter(r -> r.name().equalsIgnoreCase(raw)).toList();
+            List<Room> matches = exact.isEmpty() ? candidates : exact;
+            if (matches.size() > 1) {
+                reply(event, "❓ " + matches.size() + " of your rooms match **" + raw
+                        + "** — pick one from the suggestions or use its #ID.");
+                return null;
+            }
+            if (matches.size() == 1) room = matches.get(0);
+        }
+        if (room == null) {
+            reply(event, "❓ No such room.");
+            return null;
+        }
+        if (!canManage(event.getUser().getId(), room)) {
+            reply(event, "⛔ That isn't your room.");
+            return null;
+        }
+        return room;
+    }
+
+    // ========================= Autocomplete =========================
+
+    @Override
+    public void autocomplete(CommandAutoCompleteInteractionEvent event) {
+        if (!"room".equals(event.getFocusedOption().getName())) {
+            outbound.submit(Lane.INTERACTION, event.replyChoices(List.of()));
+            return;
+        }
+        String userId = event.getUser().getId();
+        List<Command.Choice> choices = index().search(event.getFocusedOption().getValue(), MAX_CHOICES * 4).stream()
+                .filter(room -> canManage(userId, room))
+                .limit(MAX_CHOICES)
+                .map(room -> new Command.Choice(room.name() + " #" + room.id() + " (" + room.state().name().toLowerCase(Locale.ROOT) + ")",
+                        String.valueOf(room.id())))
+                .toList();
+        outbound.submit(Lane.INTERACTION, event.replyChoices(choices));
+    }
+
+    private PrefixIndex<Room> index() {
+        Snapshot s = snapshot;
+        long v = archipelagoService.version();
+        if (s.version() != v) {
+            s = new Snapshot(v, PrefixIndex.of(archipelagoService.getRooms(),
+                    room -> List.of(room.name(), String.valueOf(room.id()))));
+            snapshot = s;
+        }
+        return s.index();
+    }
+
+    private void reply(SlashCommandInteractionEvent event, String content) {
+        outbound.submit(Lane.INTERACTION, event.reply(content).setEphemeral(true));
+    }
+
+    private void editReply(SlashCommandInteractionEvent event, String content) {
+        outbound.submit(Lane.RENDER, event.getHook().editOriginal(content));
+    }
+
+    private boolean canManage(String userId, Room room) {
+        return userId.equals(room.ownerId()) || userId.equals(yamlService.getString("discord.adminId"));
+    }
+}
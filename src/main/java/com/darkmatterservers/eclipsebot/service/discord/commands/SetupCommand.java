@@ -0,0 +1,48 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.MessagingService;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * /setup — (re)starts the guild setup wizard in the admin's DMs.
+ * Only the configured {@code discord.adminId} may run it.
+ */
+@SlashCommand(name = "setup", description = "Run the EclipseBot setup wizard in your DMs")
+public class SetupCommand implements CommandHandler {
+
+    private final MessagingService messagingService;
+    private final YamlService yamlService;
+    private final OutboundScheduler outbound;
+
+    public SetupCommand(MessagingService messagingService, @Lazy YamlService yamlService, OutboundScheduler outbound) {
+        this.messagingService = messagingService;
+        this.yamlService = yamlService;
+        this.outbound = outbound;
+    }
+
+    @Override
+    public void handle(SlashCommandInteractionEvent event) {
+        String adminId = yamlService.getString("discord.adminId");
+        String userId = event.getUser().getId();
+
+        if (adminId == null || adminId.isBlank()) {
+            reply(event, "⚠️ No admin is configured yet — set `discord.adminId` in the web panel or config.yaml first.");
+            return;
+        }
+        if (!adminId.equals(userId)) {
+            reply(event, "⛔ Only the bot admin can run setup.");
+            return;
+        }
+
+        reply(event, "📨 Check your DMs — the setup wizard is on its way.");
+        messagingService.greetAdminOnStartup(userId); // eligibility check blocks briefly; we're on a worker thread
+    }
+
+    private void reply(SlashCommandInteractionEvent event, String content) {
+        outbound.submit(Lane.INTERACTION, event.reply(content).setEphemeral(true));
+    }
+}
@@ -0,0 +1,34 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link CommandHandler} as a top-level slash command.
+ * Annotated classes are Spring components, so {@link CommandRegistry} discovers them automatically.
+ */
+@Documented
+@Component
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SlashCommand {
+
+    /** Command name as typed in Discord (lowercase, 1–32 chars). */
+    String name();
+
+    /** Description shown in the Discord command picker (1–100 chars). */
+    String description();
+
+    /** Register as guild-only (not usable in DMs). */
+    boolean guildOnly() default false;
+
+    /** Optional Spring bean name; defaults to the class name. */
+    @AliasFor(annotation = Component.class, attribute = "value")
+    String value() default "";
+}
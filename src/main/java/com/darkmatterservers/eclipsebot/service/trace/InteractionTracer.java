@@ -0,0 +1,173 @@
+package com.darkmatterservers.eclipsebot.service.trace;
+
+import com.darkmatterservers.context.ComponentContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lightweight span tracing for component interactions (buttons / dropdowns).
+ * <p>
+ * Flow:
+ *  - DebugListener calls {@link #begin} when an interaction arrives and hands the trace ID to Bytes
+ *  - Bytes stores the ID in the session's ComponentContext ({@link #CTX_KEY}) so chain handlers can report too
+ *  - Each stage adds its elapsed nanos ({@link System#nanoTime()}) via {@link #record}
+ *  - The final REST edit (or a short-circuit) calls {@link #finish}
+ * <p>
+ * Traces live in a fixed ring of pre-allocated slots, so the hot path never allocates:
+ * a newer trace simply overwrites the oldest slot. Readers ({@link #recent}, {@link #slowest})
+ * copy the slots into immutable views and are only used by the /traces page.
+ */
+@Component
+public class InteractionTracer {
+
+    /** ComponentContext key carrying the active trace ID (a Long). */
+    public static final String CTX_KEY = "traceId";
+
+    /** Returned when tracing is not available; every method ignores it. */
+    public static final long NO_TRACE = 0L;
+
+    public enum Stage {
+        /** Listener entry -> Bytes entry (logging, session lookup). */
+        DISPATCH,
+        /** InteractionRouter.handle, including the chain handler itself. */
+        ROUTE,
+        /** Blocking REST calls (.complete()) issued from inside a handler. */
+        BLOCKING,
+        /** PageRenderer.render. */
+        RENDER,
+        /** deferEdit / reply acknowledgement round-trip. */
+        ACK,
+        /** editMessage / sendMessage round-trip for the re-rendered page. */
+        EDIT
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final int CAPACITY = 256; // power of two
+    private static final int MASK = CAPACITY - 1;
+
+    private final Slot[] ring = new Slot[CAPACITY];
+    private final AtomicLong sequence = new AtomicLong();
+
+    public InteractionTracer() {
+        for (int i = 0; i < CAPACITY; i++) ring[i] = new Slot();
+    }
+
+    // ---------------------------------------------------------------------
+    // Hot path
+    // ---------------------------------------------------------------------
+
+    /**
+     * Starts a new trace and returns its ID.
+     *
+     * @param kind        "button" / "dropdown"
+     * @param componentId the raw component ID that was clicked
+     * @param userId      the clicking user's snowflake
+     * @param gatewayMs   Discord-created -> received lag in ms (wall clock; -1 if unknown)
+     */
+    public long begin(String kind, String componentId, long userId, long gatewayMs) {
+        long id = sequence.incrementAndGet();
+        Slot slot = ring[(int) (id & MASK)];
+        synchronized (slot) {
+            slot.traceId = NO_TRACE; // invalidate while resetting
+            for (int i = 0; i < STAGES.length; i++) slot.stageNanos.set(i, 0L);
+            slot.kind = kind;
+            slot.componentId = componentId;
+            slot.userId = userId;
+            slot.gatewayMs = gatewayMs;
+            slot.totalNanos = -1L;
+            slot.startNanos = System.nanoTime();
+            slot.traceId = id;
+        }
+        return id;
+    }
+
+    /** Adds {@code nanos} to the given stage. Stages may be recorded more than once (they accumulate). */
+    public void record(long traceId, Stage stage, long nanos) {
+        if (traceId == NO_TRACE) return;
+        Slot slot = ring[(int) (traceId & MASK)];
+        if (slot.traceId != traceId) return; // overwritten by a newer trace
+        slot.stageNanos.addAndGet(stage.ordinal(), nanos);
+    }
+
+    /** Convenience for handlers that only have the ComponentContext. */
+    public void record(ComponentContext ctx, Stage stage, long nanos) {
+        record(traceId(ctx), stage, nanos);
+    }
+
+    /** Marks the trace complete; total time is measured from {@link #begin}. Only the first call counts. */
+    public void finish(long traceId) {
+        if (traceId == NO_TRACE) return;
+        Slot slot = ring[(int) (traceId & MASK)];
+        if (slot.traceId != traceId || slot.totalNanos >= 0) return;
+        slot.totalNanos = System.nanoTime() - slot.startNanos;
+    }
+
+    /** Reads the trace ID Bytes stored in the context (or {@link #NO_TRACE}). */
+    public static long traceId(ComponentContext ctx) {
+        if (ctx == null) return NO_TRACE;
+        Object v = ctx.getOrDefault(CTX_KEY, null);
+        return (v instanceof Long l) ? l : NO_TRACE;
+    }
+
+    // ---------------------------------------------------------------------
+    // Read side (/traces)
+    // ---------------------------------------------------------------------
+
+    /** Most recent traces first. */
+    public List<TraceView> recent(int limit) {
+        long newest = sequence.get();
+        List<TraceView> out = new ArrayList<>(Math.min(limit, CAPACITY));
+        for (long id = newest; id > 0 && id > newest - CAPACITY && out.size() < limit; id--) {
+            TraceView view = snapshot(id);
+            if (view != null) out.add(view);
+        }
+        return out;
+    }
+
+    /** The {@code n} slowest completed traces still held in the ring. */
+    public List<TraceView> slowest(int n) {
+        return recent(CAPACITY).stream()
+                .filter(TraceView::complete)
+                .sorted(Comparator.comparingLong(TraceView::totalNanos).reversed())
+                .limit(n)
+                .toList();
+    }
+
+    private TraceView snapshot(long id) {
+        Slot slot = ring[(int) (id & MASK)];
+        synchronized (slot) {
+            if (slot.traceId != id) return null;
+            long[] stages = new long[STAGES.length];
+            for (int i = 0; i < stages.length; i++) stages[i] = slot.stageNanos.get(i);
+            return new TraceView(id, slot.kind, slot.componentId, slot.userId, slot.gatewayMs, stages, slot.totalNanos);
+        }
+    }
+
+    /** Immutable copy of a trace for rendering. */
+    public record TraceView(long traceId, String kind, String componentId, long userId,
+                            long gatewayMs, long[] stageNanos, long totalNanos) {
+        public boolean complete() {
+            return totalNanos >= 0;
+        }
+
+        public long stage(Stage stage) {
+            return stageNanos[stage.ordinal()];
+        }
+    }
+
+    private static final class Slot {
+        volatile long traceId;
+        final AtomicLongArray stageNanos = new AtomicLongArray(STAGES.length);
+        volatile long startNanos;
+        volatile long totalNanos = -1L;
+        volatile String kind;
+        volatile String componentId;
+        volatile long userId;
+        volatile long gatewayMs;
+    }
+}
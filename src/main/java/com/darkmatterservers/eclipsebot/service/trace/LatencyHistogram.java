@@ -0,0 +1,48 @@
+package com.darkmatterservers.eclipsebot.service.trace;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allocation-free latency histogram with power-of-two microsecond buckets;
+ * percentiles report the bucket's upper bound, which is plenty for dashboards ("sub-second or not",
+ * "queued for microseconds or for seconds").
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 40;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private volatile long maxNanos;
+
+    public void record(long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        total.increment();
+        if (nanos > maxNanos) maxNanos = nanos; // racy max is fine for a dashboard
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long percentileMicros(double p) {
+        long n = total.sum();
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts.get(b);
+            if (seen >= rank) return 2L << b;
+        }
+        return maxNanos / 1_000;
+    }
+
+    public long percentileMs(double p) {
+        return percentileMicros(p) / 1_000;
+    }
+
+    public long maxMs() {
+        return maxNanos / 1_000_000;
+    }
+}
@@ -0,0 +1,79 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsoleRelayTest {
+
+	private static final long FLUSH = TimeUnit.SECONDS.toNanos(2);
+	private static final long WINDOW = TimeUnit.SECONDS.toNanos(5);
+
+	@Test
+	void holdsLinesUntilFlushIntervalThenBatchesThem() {
+		ConsoleRelay.Outbox box = new ConsoleRelay.Outbox("c", 100, FLUSH, 4, WINDOW);
+		long t = 1_000_000_000L;
+		box.offer("[room#1] hello", t);
+		box.offer("[room#1] world", t + 10);
+
+		assertNull(box.nextMessage(t + FLUSH - 1));
+		assertEquals("```\n[room#1] hello\n[room#1] world\n```", box.nextMessage(t + FLUSH));
+		assertNull(box.nextMessage(t + FLUSH));
+	}
+
+	@Test
+	void fullBatchesGoOutImmediatelyAndStayUnderTheLimit() {
+		ConsoleRelay.Outbox box = new ConsoleRelay.Outbox("c", 1_000, FLUSH, 10, WINDOW);
+		String line = "x".repeat(99);
+		for (int i = 0; i < 50; i++) box.offer(line, 0);
+
+		String first = box.nextMessage(0);
+		assertNotNull(first);
+		assertTrue(first.length() <= ConsoleRelay.Outbox.MESSAGE_LIMIT, "length " + first.length());
+		assertTrue(first.startsWith("```\n") && first.endsWith("```"));
+		assertEquals(50 - 19, box.pendingLines()); // 19 lines of 100 chars fit in one message
+	}
+
+	@Test
+	void overlongLinesAreTruncatedToFitOneMessage() {
+		ConsoleRelay.Outbox box = new ConsoleRelay.Outbox("c", 10, 0, 1, WINDOW);
+		box.offer("y".repeat(5_000), 0);
+
+		String msg = box.nextMessage(0);
+		assertEquals(ConsoleRelay.Outbox.MESSAGE_LIMIT, msg.length());
+		assertEquals(0, box.pendingLines());
+	}
+
+	@Test
+	void tokenBucketLimitsMessagesPerChannel() {
+		ConsoleRelay.Outbox box = new ConsoleRelay.Outbox("c", 1_000, 0, 2, WINDOW);
+		long t = System.nanoTime();
+		for (int i = 0; i < 100; i++) box.offer("z".repeat(500), t);
+
+		assertNotNull(box.nextMessage(t));
+		assertNotNull(box.nextMessage(t));
+		assertNull(box.nextMessage(t)); // bucket empty
+		assertNotNull(box.nextMessage(t + WINDOW / 2)); // one token back after half a window
+	}
+
+	@Test
+	void dropsOldestLinesWhenOverloadedAndSaysSo() {
+		ConsoleRelay.Outbox box = new ConsoleRelay.Outbox("c", 3, 0, 1, WINDOW);
+		for (int i = 1; i <= 5; i++) box.offer("line " + i, 0);
+
+		String msg = box.nextMessage(0);
+		assertEquals("```\n… 2 lines dropped (relay overloaded)\nline 3\nline 4\nline 5\n```", msg);
+		assertEquals(2, box.droppedTotal());
+	}
+
+	@Test
+	void codeFencesInsideLinesAreDefused() {
+		ConsoleRelay.Outbox box = new ConsoleRelay.Outbox("c", 10, 0, 1, WINDOW);
+		box.offer("evil ``` line", 0);
+
+		String msg = box.nextMessage(0);
+		assertEquals(2, msg.split("```", -1).length - 1); // only the wrapping fence
+	}
+}
@@ -0,0 +1,273 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DockerEngineClientTest {
+
+	@TempDir
+	Path dir;
+
+	private StubDaemon daemon;
+	private DockerEngineClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		daemon = new StubDaemon(dir.resolve("docker.sock"));
+		client = new DockerEngineClient(dir.resolve("docker.sock"), 2, 5_000);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		client.close();
+		daemon.close();
+	}
+
+	@Test
+	void reusesOneKeepAliveConnection() throws IOException {
+		daemon.handler = req -> StubDaemon.text(200, "OK");
+
+		for (int i = 0; i < 5; i++) assertTrue(client.ping());
+
+		assertEquals(5, daemon.requests.size());
+		assertEquals(1, daemon.accepted.get());
+	}
+
+	@Test
+	void createPublishesTheRoomPort() throws IOException {
+		daemon.handler = req -> StubDaemon.json(201, "{\"Id\":\"abc123\",\"Warnings\":[]}");
+
+		String id = client.createContainer(new DockerEngineClient.ContainerSpec(
+				"eclipsebot-room-7", "archipelago-server:latest", List.of("--port", "38281"),
+				Map.of(DockerRoomRunner.ROOM_LABEL, "7"), 5007, 38281, 256L << 20, 500_000_000L));
+
+		assertEquals("abc123", id);
+		StubDaemon.Request req = daemon.requests.get(0);
+		assertEquals("POST /containers/create?name=eclipsebot-room-7", req.line());
+		JsonNode body = new ObjectMapper().readTree(req.body());
+		assertEquals("5007", body.at("/HostConfig/PortBindings/38281~1tcp/0/HostPort").asText());
+		assertEquals(256L << 20, body.at("/HostConfig/Memory").asLong());
+		assertEquals("7", body.at("/Labels/" + DockerRoomRunner.ROOM_LABEL).asText());
+	}
+
+	@Test
+	void inspectParsesChunkedBodiesAndMapsMissingToNull() throws IOException {
+		daemon.handler = req -> req.line().contains("/missing/")
+				? StubDaemon.json(404, "{\"message\":\"No such container: missing\"}")
+				: StubDaemon.chunked(200, "{\"Id\":\"abc\",\"State\":{\"Running\":true,\"Status\":\"running\",\"ExitCode\":0}}");
+
+		DockerEngineClient.ContainerState state = client.inspectContainer("abc");
+		assertTrue(state.running());
+		assertEquals("running", state.status());
+		assertNull(client.inspectContainer("missing"));
+		assertEquals(1, daemon.accepted.get());
+	}
+
+	@Test
+	void errorsCarryStatusAndDaemonMessage() {
+		daemon.handler = req -> StubDaemon.json(409, "{\"message\":\"Conflict. The container name is already in use\"}");
+
+		DockerEngineClient.DockerException e = assertThrows(DockerEngineClient.DockerException.class,
+				() -> client.startContainer("abc"));
+		assertEquals(409, e.status());
+		assertTrue(e.getMessage().contains("already in use"));
+	}
+
+	@Test
+	void retriesOnceWhenPooledConnectionWasClosed() throws IOException {
+		daemon.handler = req -> StubDaemon.text(200, "OK");
+		assertTrue(client.ping());
+
+		daemon.dropOpenConnections(); // daemon drops the idle connection
+		assertTrue(client.ping());
+
+		assertEquals(2, daemon.accepted.get());
+	}
+
+	@Test
+	void neverResendsAPostTheDaemonMayHaveActedOn() throws IOException {
+		daemon.handler = req -> StubDaemon.text(200, "OK");
+		assertTrue(client.ping()); // pools the connection
+
+		// The daemon reads the whole request, then the connection dies before any answer
+		daemon.handler = req -> null;
+		assertThrows(IOException.class, () -> client.startContainer("abc"));
+
+		assertEquals(List.of("GET /_ping", "POST /containers/abc/start"),
+				daemon.requests.stream().map(StubDaemon.Request::line).toList());
+		assertEquals(1, daemon.accepted.get());
+	}
+
+	@Test
+	void retriesAGetThatFailedOnAReusedConnection() throws IOException {
+		daemon.handler = req -> StubDaemon.text(200, "OK");
+		assertTrue(client.ping());
+
+		AtomicInteger inspects = new AtomicInteger();
+		daemon.handler = req -> inspects.getAndIncrement() == 0 ? null
+				: StubDaemon.json(200, "{\"Id\":\"abc\",\"State\":{\"Running\":true,\"Status\":\"running\",\"ExitCode\":0}}");
+		assertTrue(client.inspectContainer("abc").running());
+
+		assertEquals(2, inspects.get());
+		assertEquals(2, daemon.accepted.get());
+	}
+
+	@Test
+	void demultiplexesLogFrames() {
+		byte[] out = frame(1, "2024-01-01T00:00:00.1Z hello\n2024-01-01T00:00:00.2Z world\n");
+		byte[] err = frame(2, "2024-01-01T00:00:00.3Z oops\n");
+		byte[] raw = new byte[out.length + err.length];
+		System.arraycopy(out, 0, raw, 0, out.length);
+		System.arraycopy(err, 0, raw, out.length, err.length);
+
+		List<DockerEngineClient.LogLine> lines = DockerEngineClient.demux(raw);
+
+		assertEquals(3, lines.size());
+		assertFalse(lines.get(1).stderr());
+		assertTrue(lines.get(2).stderr());
+		assertEquals("2024-01-01T00:00:00.3Z oops", lines.get(2).text());
+	}
+
+	private static byte[] frame(int stream, String payload) {
+		byte[] p = payload.getBytes(StandardCharsets.UTF_8);
+		byte[] f = new byte[8 + p.length];
+		f[0] = (byte) stream;
+		f[4] = (byte) (p.length >>> 24);
+		f[5] = (byte) (p.length >>> 16);
+		f[6] = (byte) (p.length >>> 8);
+		f[7] = (byte) p.length;
+		System.arraycopy(p, 0, f, 8, p.length);
+		return f;
+	}
+
+	/** Tiny HTTP/1.1 server on a Unix socket, one thread per connection. */
+	static final class StubDaemon implements AutoCloseable {
+
+		record Request(String line, String body) {}
+
+		final List<Request> requests = new CopyOnWriteArrayList<>();
+		final AtomicInteger accepted = new AtomicInteger();
+		final List<SocketChannel> open = new CopyOnWriteArrayList<>();
+		/** Returns the raw response, or null to close the connection after reading the request. */
+		volatile Function<Request, byte[]> handler = req -> text(404, "not found");
+
+		private final ServerSocketChannel server;
+
+		StubDaemon(Path socket) throws IOException {
+			server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+			server.bind(UnixDomainSocketAddress.of(socket));
+			Thread t = new Thread(this::acceptLoop, "stub-docker");
+			t.setDaemon(true);
+			t.start();
+		}
+
+		static byte[] text(int status, String body) {
+			return response(status, "text/plain", body);
+		}
+
+		static byte[] json(int status, String body) {
+			return response(status, "application/json", body);
+		}
+
+		static byte[] chunked(int status, String body) {
+			int half = body.length() / 2;
+			String head = "HTTP/1.1 " + status + " X\r\nContent-Type: application/json\r\nTransfer-Encoding: chunked\r\n\r\n";
+			String chunks = Integer.toHexString(half) + "\r\n" + body.substring(0, half) + "\r\n"
+					+ Integer.toHexString(body.length() - half) + ";ext=1\r\n" + body.substring(half) + "\r\n0\r\n\r\n";
+			return (head + chunks).getBytes(StandardCharsets.UTF_8);
+		}
+
+		private static byte[] response(int status, String type, String body) {
+			byte[] b = body.getBytes(StandardCharsets.UTF_8);
+			String head = "HTTP/1.1 " + status + " X\r\nContent-Type: " + type + "\r\nContent-Length: " + b.length + "\r\n\r\n";
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			out.writeBytes(head.getBytes(StandardCharsets.US_ASCII));
+			out.writeBytes(b);
+			return out.toByteArray();
+		}
+
+		void dropOpenConnections() throws IOException {
+			for (SocketChannel ch : open) ch.close();
+			open.clear();
+		}
+
+		private void acceptLoop() {
+			try {
+				while (true) {
+					SocketChannel ch = server.accept();
+					accepted.incrementAndGet();
+					open.add(ch);
+					Thread t = new Thread(() -> serve(ch), "stub-docker-conn");
+					t.setDaemon(true);
+					t.start();
+				}
+			} catch (IOException closed) {
+				// server closed
+			}
+		}
+
+		private void serve(SocketChannel ch) {
+			try (ch; InputStream in = new BufferedInputStream(Channels.newInputStream(ch));
+			     OutputStream out = Channels.newOutputStream(ch)) {
+				while (true) {
+					String line = readLine(in);
+					if (line == null) return;
+					int length = 0;
+					for (String h = readLine(in); h != null && !h.isEmpty(); h = readLine(in)) {
+						if (h.toLowerCase().startsWith("content-length:")) length = Integer.parseInt(h.substring(15).trim());
+					}
+					String body = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+					String[] parts = line.split(" ");
+					Request req = new Request(parts[0] + " " + parts[1], body);
+					requests.add(req);
+					byte[] response = handler.apply(req);
+					if (response == null) return; // drop the connection without answering
+					out.write(response);
+					out.flush();
+				}
+			} catch (IOException ignored) {
+				// client went away
+			}
+		}
+
+		private static String readLine(InputStream in) throws IOException {
+			StringBuilder sb = new StringBuilder();
+			int b;
+			while ((b = in.read()) != -1) {
+				if (b == '\n') return sb.toString().replace("\r", "");
+				sb.append((char) b);
+			}
+			return sb.isEmpty() ? null : sb.toString();
+		}
+
+		@Override
+		public void close() throws IOException {
+			server.close();
+			dropOpenConnections();
+		}
+	}
+}
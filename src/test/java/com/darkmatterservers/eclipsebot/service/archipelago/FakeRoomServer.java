@@ -0,0 +1,42 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+
+/**
+ * Stand-in for a room server binary: binds the given port, prints a few lines on
+ * stdout/stderr and either idles until killed or exits after {@code --crash-after-ms}.
+ * <p>
+ * Usage: FakeRoomServer &lt;port&gt; [--crash-after-ms N] [--exit-code C]
+ */
+public final class FakeRoomServer {
+
+	public static void main(String[] args) throws Exception {
+		int port = Integer.parseInt(args[0]);
+		long crashAfterMs = -1;
+		int exitCode = 1;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "--crash-after-ms" -> crashAfterMs = Long.parseLong(args[i + 1]);
+				case "--exit-code" -> exitCode = Integer.parseInt(args[i + 1]);
+				default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+
+		try (ServerSocket socket = new ServerSocket()) {
+			socket.setReuseAddress(true);
+			socket.bind(new InetSocketAddress(port));
+			System.out.println("listening on " + port);
+			System.out.print("partial line without newline");
+			System.out.flush();
+			System.err.println("warning: this is a fake server");
+
+			if (crashAfterMs >= 0) {
+				Thread.sleep(crashAfterMs);
+				System.err.println("crashing with " + exitCode);
+				System.exit(exitCode);
+			}
+			Thread.sleep(Long.MAX_VALUE);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortAllocatorTest {
+
+	private static final long TTL = TimeUnit.MINUTES.toNanos(5);
+
+	@Test
+	void allocatesEveryPortExactlyOnceThenRunsDry() {
+		PortAllocator pool = new PortAllocator(5000, 5100, false);
+		Set<Integer> seen = new HashSet<>();
+		for (int i = 0; i < 101; i++) {
+			int port = pool.allocate("r" + i, TTL);
+			assertTrue(port >= 5000 && port <= 5100, "out of range: " + port);
+			assertTrue(seen.add(port), "handed out twice: " + port);
+		}
+		assertEquals(0, pool.freeCount());
+		assertEquals(-1, pool.allocate("late", TTL));
+	}
+
+	@Test
+	void releaseRequiresHolderAndMakesPortReusable() {
+		PortAllocator pool = new PortAllocator(6000, 6000, false);
+		int port = pool.allocate("a", TTL);
+		assertEquals(6000, port);
+
+		assertFalse(pool.release(port, "b"));
+		assertTrue(pool.isTaken(port));
+
+		assertTrue(pool.release(port, "a"));
+		assertFalse(pool.isTaken(port));
+		assertEquals(6000, pool.allocate("b", TTL));
+		assertEquals("b", pool.lease(6000).holder());
+	}
+
+	@Test
+	void reserveRejectsTakenPorts() {
+		PortAllocator pool = new PortAllocator(5000, 5010, false);
+		assertTrue(pool.reserve(5000, "web-panel", TTL));
+		assertFalse(pool.reserve(5000, "room-1", TTL));
+		assertFalse(pool.reserve(4999, "room-1", TTL));
+		for (int i = 0; i < 10; i++) assertNotEquals(5000, pool.allocate("room-" + i, TTL));
+	}
+
+	@Test
+	void expiredLeasesAreReclaimedAndRenewedOnesKept() {
+		PortAllocator pool = new PortAllocator(5000, 5001, false);
+		int crashed = pool.allocate("crashed", 0);
+		int alive = pool.allocate("alive", 0);
+		assertTrue(pool.renew(alive, "alive", TTL));
+
+		List<PortAllocator.Lease> reclaimed = pool.reclaimExpired();
+
+		assertEquals(1, reclaimed.size());
+		assertEquals(crashed, reclaimed.get(0).port());
+		assertFalse(pool.isTaken(crashed));
+		assertTrue(pool.isTaken(alive));
+		assertFalse(pool.renew(crashed, "crashed", TTL));
+	}
+
+	@Test
+	void concurrentAllocationNeverDuplicates() throws Exception {
+		PortAllocator pool = new PortAllocator(20000, 21023, false);
+		Set<Integer> ports = ConcurrentHashMap.newKeySet();
+		int threads = 8;
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService exec = Executors.newFixedThreadPool(threads);
+		try {
+			for (int t = 0; t < threads; t++) {
+				int id = t;
+				exec.submit(() -> {
+					go.await();
+					for (int i = 0; i < 200; i++) {
+						int port = pool.allocate("t" + id + "-" + i, TTL);
+						if (port < 0) break;
+						assertTrue(ports.add(port), "duplicate " + port);
+						if (i % 3 == 0) {
+							ports.remove(port);
+							assertTrue(pool.release(port, "t" + id + "-" + i));
+						}
+					}
+					return null;
+				});
+			}
+			go.countDown();
+			exec.shutdown();
+			assertTrue(exec.awaitTermination(30, TimeUnit.SECONDS));
+		} finally {
+			exec.shutdownNow();
+		}
+		assertEquals(pool.capacity() - ports.size(), pool.freeCount());
+	}
+}
@@ -0,0 +1,129 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessRoomRunnerTest {
+
+	@TempDir
+	Path workDir;
+
+	private ProcessRoomRunner runner;
+
+	@AfterEach
+	void tearDown() {
+		if (runner != null) runner.shutdown();
+	}
+
+	@Test
+	void capturesBothStreamsAndStopsCleanly() throws Exception {
+		runner = ProcessRoomRunner.withSettings(new LoggerService(null), settings(3, fakeServer()));
+		Room room = room(1);
+
+		runner.start(room);
+		ConsoleBuffer console = runner.console(room);
+		await(() -> text(console).contains("STDERR warning: this is a fake server"));
+		assertTrue(text(console).contains("STDOUT listening on " + room.port()));
+		assertTrue(runner.isAlive(room));
+		long pid = runner.pid(room.id());
+		assertTrue(pid > 0);
+
+		runner.stop(room);
+
+		assertFalse(runner.isAlive(room));
+		assertFalse(ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false));
+		// The unterminated line is flushed on exit
+		assertTrue(text(console).contains("STDOUT partial line without newline"));
+	}
+
+	@Test
+	void restartsCrashedServerWithBackoffThenGivesUp() throws Exception {
+		runner = ProcessRoomRunner.withSettings(new LoggerService(null), settings(2, fakeServer("--crash-after-ms", "100", "--exit-code", "3")));
+		Room room = room(2);
+
+		runner.start(room);
+		ConsoleBuffer console = runner.console(room);
+		await(() -> !runner.isAlive(room));
+
+		String out = text(console);
+		assertTrue(out.contains("Server exited with 3; restarting in 50 ms"), out);
+		assertTrue(out.contains("restarting in 100 ms"), out);
+		assertTrue(out.contains("giving up after 2 restarts"), out);
+		assertEquals(2, runner.restarts(room.id()));
+	}
+
+	@Test
+	void cpuLimitIsACgroupThrottleNotACpuTimeBudget() throws Exception {
+		// A plain directory stands in for a delegated cgroup v2 tree: the runner only writes interface files
+		Path cgroups = workDir.resolve("cgroup");
+		Files.createDirectories(cgroups);
+		ProcessRoomRunner.Settings s = new ProcessRoomRunner.Settings(fakeServer(), workDir, 100, 0, 50, 1_000, 0, 0.5, cgroups);
+		runner = ProcessRoomRunner.withSettings(new LoggerService(null), s);
+		Room room = room(4);
+
+		runner.start(room);
+		Path group = cgroups.resolve("room-4");
+		assertEquals("50000 100000", Files.readString(group.resolve("cpu.max")));
+		assertEquals(String.valueOf(runner.pid(room.id())), Files.readString(group.resolve("cgroup.procs")));
+		runner.stop(room);
+	}
+
+	@Test
+	void missingCommandFailsTheStart() throws Exception {
+		runner = ProcessRoomRunner.withSettings(new LoggerService(null), settings(0, List.of()));
+		assertThrows(IllegalStateException.class, () -> runner.start(room(3)));
+	}
+
+	// ===== helpers =====
+
+	private ProcessRoomRunner.Settings settings(int maxRestarts, List<String> command) {
+		return new ProcessRoomRunner.Settings(command, workDir, 100, maxRestarts, 50, 1_000, 0, 0, null);
+	}
+
+	private static List<String> fakeServer(String... extra) throws Exception {
+		// FakeRoomServer only needs the JDK, so its own class directory is the whole classpath
+		String classes = Path.of(FakeRoomServer.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+		List<String> cmd = new ArrayList<>(List.of(
+				ProcessHandle.current().info().command().orElse("java"),
+				"-cp", classes,
+				FakeRoomServer.class.getName(), "{port}"));
+		cmd.addAll(List.of(extra));
+		return cmd;
+	}
+
+	private static Room room(long id) throws Exception {
+		int port;
+		try (ServerSocket s = new ServerSocket(0)) {
+			port = s.getLocalPort();
+		}
+		long now = System.currentTimeMillis();
+		return new Room(id, "test-" + id, "owner", port, now, now + 60_000);
+	}
+
+	private static String text(ConsoleBuffer console) {
+		StringBuilder sb = new StringBuilder();
+		for (ConsoleBuffer.Line line : console.since(0, console.capacity())) {
+			sb.append(line.stream()).append(' ').append(line.text()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 20_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) fail("condition not met in time");
+			Thread.sleep(20);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.darkmatterservers.eclipsebot.service.archipelago;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmRoomPoolTest {
+
+	/** Runner whose start takes a noticeable time, like a real server boot. */
+	static final class SlowRunner implements RoomRunner {
+		final Set<Long> alive = ConcurrentHashMap.newKeySet();
+		final Map<Long, String> startedAs = new ConcurrentHashMap<>();
+
+		@Override
+		public String name() {
+			return "slow";
+		}
+
+		@Override
+		public void start(Room room) throws InterruptedException {
+			Thread.sleep(300);
+			startedAs.put(room.id(), room.serverName());
+			alive.add(room.id());
+		}
+
+		@Override
+		public void stop(Room room) {
+			alive.remove(room.id());
+		}
+
+		@Override
+		public boolean isAlive(Room room) {
+			return alive.contains(room.id());
+		}
+	}
+
+	private final SlowRunner runner = new SlowRunner();
+	private ArchipelagoService service;
+
+	@BeforeEach
+	void setUp() {
+		LoggerService logger = new LoggerService(null);
+		YamlService yaml = new YamlService(logger);
+		yaml.set("portRange.start", 47000);
+		yaml.set("portRange.end", 47009);
+		yaml.set("fqdn", "rooms.test");
+		yaml.set("archipelago.runner", "slow");
+		yaml.set("archipelago.probePorts", false);
+		yaml.set("archipelago.warmPool.minIdle", 2);
+		yaml.set("archipelago.warmPool.highWater", 3);
+		service = new ArchipelagoService(logger, yaml, List.of(runner), 5000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void warmRoomsAreHandedOutWithoutWaitingForAStart() throws Exception {
+		assertEquals(10, service.freePorts()); // first use builds the pool and starts the refill
+		await(() -> service.warmPoolStats().idle() == 2);
+
+		long t0 = System.nanoTime();
+		Room room = service.openRoom("123", "My room");
+		long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+		assertEquals(RoomState.RUNNING, room.state());
+		assertEquals("123", room.ownerId());
+		assertEquals("My room", room.name());
+		// The server was started before the claim and keeps the name it was started with
+		assertEquals("room-" + room.id(), room.serverName());
+		assertEquals(room.serverName(), runner.startedAs.get(room.id()));
+		assertEquals("rooms.test:" + room.port(), service.address(room));
+		assertTrue(elapsedMs < 250, "warm hand-out took " + elapsedMs + " ms");
+		assertEquals(1, service.warmPoolStats().hits());
+
+		await(() -> service.warmPoolStats().idle() == 2); // refilled in the background
+	}
+
+	@Test
+	void missesColdStartAndGrowThePoolUpToHighWater() throws Exception {
+		service.freePorts();
+		await(() -> service.warmPoolStats().idle() == 2);
+
+		for (int i = 0; i < 3; i++) assertEquals(RoomState.RUNNING, service.openRoom("u" + i, "r" + i).state());
+
+		WarmRoomPool.Stats stats = service.warmPoolStats();
+		assertEquals(2, stats.hits());
+		assertEquals(1, stats.misses());
+		assertEquals(3, stats.target());
+		await(() -> service.warmPoolStats().idle() == 3);
+		assertEquals(10 - 3 - 3, service.freePorts());
+	}
+
+	@Test
+	void crashedWarmRoomsAreNotHandedOut() throws Exception {
+		service.freePorts();
+		await(() -> service.warmPoolStats().idle() == 2);
+
+		runner.alive.clear(); // every warm server dies
+		service.sweep();
+
+		Room room = service.openRoom("123", "after crash");
+		assertEquals(RoomState.RUNNING, room.state());
+		assertTrue(runner.isAlive(room));
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) fail("condition not met in time");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.darkmatterservers.eclipsebot.service.collect;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectHashMapTest {
+
+	@Test
+	void matchesHashMapUnderRandomChurn() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+		Map<Long, String> reference = new HashMap<>();
+		Random random = new Random(42);
+		long base = 1_100_000_000_000_000_000L; // snowflake-sized keys with a few small ones mixed in
+
+		for (int op = 0; op < 200_000; op++) {
+			long key = random.nextInt(10) == 0 ? random.nextInt(4) : base + random.nextInt(5_000);
+			switch (random.nextInt(4)) {
+				case 0, 1 -> assertEquals(reference.put(key, "v" + op), map.put(key, "v" + op));
+				case 2 -> assertEquals(reference.remove(key), map.remove(key));
+				default -> assertEquals(reference.get(key), map.get(key));
+			}
+		}
+
+		assertEquals(reference.size(), map.size());
+		reference.forEach((k, v) -> assertEquals(v, map.get(k)));
+		int[] visited = {0};
+		map.forEach((k, v) -> {
+			assertEquals(reference.get(k), v);
+			visited[0]++;
+		});
+		assertEquals(reference.size(), visited[0]);
+	}
+
+	@Test
+	void computeAndConditionalRemove() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>(2);
+		assertEquals("built-7", map.computeIfAbsent(7, k -> "built-" + k));
+		assertEquals("built-7", map.computeIfAbsent(7, k -> fail("already present")));
+		assertNull(map.computeIfAbsent(8, k -> null));
+		assertFalse(map.containsKey(8));
+
+		assertEquals("built-7!", map.computeIfPresent(7, (k, v) -> v + "!"));
+		assertNull(map.computeIfPresent(9, (k, v) -> fail("absent")));
+
+		assertFalse(map.remove(7, "other"));
+		assertTrue(map.remove(7, "built-7!"));
+		assertTrue(map.isEmpty());
+
+		map.put(0, "zero");
+		map.put(1, null); // null values are never stored
+		assertEquals(1, map.size());
+		assertEquals(List.of("zero"), map.values());
+		map.clear();
+		assertNull(map.get(0));
+	}
+}
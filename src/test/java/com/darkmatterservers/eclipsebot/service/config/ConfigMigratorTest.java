@@ -0,0 +1,113 @@
+package com.darkmatterservers.eclipsebot.service.config;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.ConfigMigrator.Migration;
+import com.darkmatterservers.eclipsebot.service.config.ConfigMigrator.Outcome;
+import com.darkmatterservers.eclipsebot.service.config.builders.InitYaml;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.Yaml;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigMigratorTest {
+
+	@TempDir
+	Path dir;
+
+	private final LoggerService logger = new LoggerService(null);
+	private final ConfigMigrator migrator = new ConfigMigrator(logger, new YamlService(logger), new InitYaml());
+	private final Map<String, Object> defaults = new InitYaml().getDefaultConfig();
+
+	@Test
+	void createsThenSkipsMergeAndWriteOnceCurrent() throws Exception {
+		Path file = dir.resolve("config.yaml");
+
+		assertEquals(Outcome.WRITTEN, migrator.migrate(file, new LinkedHashMap<>(), defaults));
+		Map<String, Object> created = load(file);
+		assertEquals(ConfigMigrator.CURRENT_VERSION, created.get(ConfigMigrator.VERSION_KEY));
+		assertEquals("your-token-here", ((Map<?, ?>) created.get("discord")).get("token"));
+
+		long modified = Files.getLastModifiedTime(file).toMillis();
+		assertEquals(Outcome.CURRENT, migrator.migrate(file, created, defaults));
+		assertEquals(modified, Files.getLastModifiedTime(file).toMillis());
+
+		// A hand edit that keeps every field is verified once, without rewriting the file
+		Files.writeString(file, Files.readString(file) + "# edited\n");
+		assertEquals(Outcome.VERIFIED, migrator.migrate(file, load(file), defaults));
+		assertTrue(Files.readString(file).endsWith("# edited\n"));
+		assertEquals(Outcome.CURRENT, migrator.migrate(file, load(file), defaults));
+	}
+
+	@Test
+	void migratesAnUnversionedConfigAndKeepsItsValues() throws Exception {
+		Path file = dir.resolve("config.yaml");
+		Files.writeString(file, """
+				discord:
+				  token: real-token
+				setup:
+				  progressMs: 900
+				""");
+
+		assertEquals(Outcome.WRITTEN, migrator.migrate(file, load(file), defaults));
+		Map<String, Object> migrated = load(file);
+		Map<?, ?> discord = (Map<?, ?>) migrated.get("discord");
+		Map<?, ?> setup = (Map<?, ?>) migrated.get("setup");
+
+		assertEquals(ConfigMigrator.BASE_VERSION, migrated.get(ConfigMigrator.VERSION_KEY));
+		assertEquals("real-token", discord.get("token"));
+		assertEquals("your-bot-id-here", discord.get("botId"));
+		assertEquals(900, setup.get("progressMs"));
+
+		// New defaults invalidate the stamp and get filled in on the next boot
+		Map<String, Object> newer = new LinkedHashMap<>(defaults);
+		newer.put("newKey", "x");
+		assertEquals(Outcome.WRITTEN, migrator.migrate(file, migrated, newer));
+		assertEquals("x", load(file).get("newKey"));
+	}
+
+	@Test
+	void appliesTheStepsAfterTheStoredVersionInOrder() throws Exception {
+		List<Migration> steps = List.of(
+				new Migration(2, "a -> b", config -> config.put("b", config.remove("a"))),
+				new Migration(3, "b -> c", config -> config.put("c", "from " + config.remove("b"))));
+
+		Path unversioned = dir.resolve("config.yaml");
+		Files.writeString(unversioned, "a: 1\n");
+		assertEquals(Outcome.WRITTEN, migrator.migrate(unversioned, load(unversioned), defaults, steps));
+		Map<String, Object> migrated = load(unversioned);
+		assertEquals(3, migrated.get(ConfigMigrator.VERSION_KEY));
+		assertEquals("from 1", migrated.get("c"));
+		assertFalse(migrated.containsKey("a") || migrated.containsKey("b"));
+
+		Path atV2 = dir.resolve("v2.yaml");
+		Files.writeString(atV2, "schemaVersion: 2\na: untouched\nb: 2\n");
+		assertEquals(Outcome.WRITTEN, migrator.migrate(atV2, load(atV2), defaults, steps));
+		assertEquals("untouched", load(atV2).get("a")); // step 2 already applied: skipped
+		assertEquals("from 2", load(atV2).get("c"));
+
+		assertEquals(Outcome.CURRENT, migrator.migrate(atV2, load(atV2), defaults, steps));
+	}
+
+	@Test
+	void leavesConfigsFromNewerBuildsAlone() throws Exception {
+		Path file = dir.resolve("config.yaml");
+		String content = ConfigMigrator.VERSION_KEY + ": 3\n";
+		Files.writeString(file, content);
+
+		List<Migration> steps = List.of(new Migration(2, "no-op", config -> {}));
+		assertEquals(Outcome.SKIPPED, migrator.migrate(file, load(file), defaults, steps));
+		assertEquals(content, Files.readString(file));
+		assertFalse(Files.exists(ConfigMigrator.stampFile(file)));
+	}
+
+	private static Map<String, Object> load(Path file) throws Exception {
+		return new Yaml().load(Files.readString(file));
+	}
+}
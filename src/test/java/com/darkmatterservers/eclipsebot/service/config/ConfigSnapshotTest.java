@@ -0,0 +1,93 @@
+package com.darkmatterservers.eclipsebot.service.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.Yaml;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigSnapshotTest {
+
+	@TempDir
+	Path dir;
+
+	private static final String YAML = """
+			schemaVersion: 1
+			discord:
+			  token: "tök€n"
+			  botId: 123456789012345678
+			portRange: {start: 5000, end: 5100}
+			ratio: 0.5
+			bootstrapped: true
+			empty: null
+			huge: 123456789012345678901234567890
+			guilds:
+			  1100000000000000001: {guildName: Guild, roles: [Mods, Players]}
+			""";
+
+	@Test
+	void roundTripsTheParsedTreeInFileOrder() throws Exception {
+		Path file = write(YAML);
+		Map<String, Object> parsed = new Yaml().load(YAML);
+
+		ConfigSnapshot.write(file, snapshotOf(file, parsed));
+		ConfigSnapshot.Loaded snapshot = ConfigSnapshot.read(file);
+		Map<String, Object> loaded = snapshot.tree();
+
+		assertEquals(parsed, loaded);
+		assertEquals(List.copyOf(parsed.keySet()), List.copyOf(loaded.keySet()));
+		assertInstanceOf(LinkedHashMap.class, loaded.get("discord")); // mutable, like SnakeYAML's maps
+		assertEquals(123456789012345678L, ((Map<?, ?>) loaded.get("discord")).get("botId"));
+		// The verified hash comes along, so config.yaml isn't hashed twice at boot
+		assertArrayEquals(ConfigSnapshot.sha256(Files.readAllBytes(file)), snapshot.yaml().sha256());
+	}
+
+	@Test
+	void staleOrDamagedSnapshotsAreIgnored() throws Exception {
+		Path file = write(YAML);
+		Map<String, Object> parsed = new Yaml().load(YAML);
+		byte[] snapshot = snapshotOf(file, parsed);
+		ConfigSnapshot.write(file, snapshot);
+		assertNotNull(ConfigSnapshot.read(file));
+
+		// Same size and mtime, different content: only the hash catches it
+		FileTime mtime = Files.getLastModifiedTime(file);
+		Files.writeString(file, YAML.replace("5100", "5200"));
+		Files.setLastModifiedTime(file, mtime);
+		assertNull(ConfigSnapshot.read(file));
+
+		Files.writeString(file, YAML);
+		Files.setLastModifiedTime(file, mtime);
+		assertNotNull(ConfigSnapshot.read(file));
+
+		Files.write(ConfigSnapshot.pathFor(file), Arrays.copyOf(snapshot, snapshot.length - 3));
+		assertNull(ConfigSnapshot.read(file));
+		Files.delete(ConfigSnapshot.pathFor(file));
+		assertNull(ConfigSnapshot.read(file));
+	}
+
+	@Test
+	void unsupportedValuesAreNotSnapshotted() throws Exception {
+		Path file = write("when: 2024-01-01\n");
+		assertNull(snapshotOf(file, new Yaml().load("when: 2024-01-01\n")));
+	}
+
+	private Path write(String yaml) throws Exception {
+		Path file = dir.resolve("config.yaml");
+		Files.writeString(file, yaml);
+		return file;
+	}
+
+	private static byte[] snapshotOf(Path file, Map<String, Object> tree) throws Exception {
+		return ConfigSnapshot.encode(tree,
+				ConfigSnapshot.YamlFile.of(Files.readAllBytes(file), Files.getLastModifiedTime(file).toMillis()));
+	}
+}
@@ -0,0 +1,71 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.RateLimitTelemetry.RateLimitHit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private final List<CompletableFuture<String>> running = new ArrayList<>();
+
+	private CompletableFuture<String> task() {
+		CompletableFuture<String> f = new CompletableFuture<>();
+		running.add(f);
+		return f;
+	}
+
+	@Test
+	void runsAtMostTheLimitAndGrowsAdditively() {
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.withLimits(2, 1, 4, 0);
+		List<CompletableFuture<String>> results = new ArrayList<>();
+		for (int i = 0; i < 10; i++) results.add(limiter.submit(this::task));
+
+		assertEquals(2, running.size());
+		assertEquals(8, limiter.stats().queued());
+
+		running.get(0).complete("a"); // 2 + 1/2 = 2.5 → still 2 slots
+		assertEquals(3, running.size());
+		running.get(1).complete("b"); // 2.9 → 2 slots
+		running.get(2).complete("c"); // 3.24 → 3 slots
+		assertEquals(6, running.size());
+		assertEquals("a", results.getFirst().join());
+		assertEquals(3, limiter.stats().inFlight());
+	}
+
+	@Test
+	void rateLimitsCutTheLimitOncePerCooldownAndSharedScopeIsIgnored() {
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.withLimits(8, 1, 16, 60_000);
+
+		limiter.onRateLimited(new RateLimitHit("POST guilds/{id}/roles", false, "shared", 1_000));
+		assertEquals(8.0, limiter.stats().limit());
+
+		limiter.onRateLimited(new RateLimitHit("POST guilds/{id}/roles", false, "user", 1_000));
+		limiter.onRateLimited(new RateLimitHit("POST guilds/{id}/roles", false, "user", 1_000)); // same burst
+		assertEquals(4.0, limiter.stats().limit());
+		assertEquals(1, limiter.stats().decreases());
+
+		AdaptiveConcurrencyLimiter floor = AdaptiveConcurrencyLimiter.withLimits(1, 1, 16, 0);
+		floor.onRateLimited(new RateLimitHit("x", true, "global", 0));
+		assertEquals(1.0, floor.stats().limit());
+	}
+
+	@Test
+	void failuresReleaseTheSlotWithoutGrowing() {
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.withLimits(1, 1, 4, 0);
+		CompletableFuture<String> first = limiter.submit(this::task);
+		CompletableFuture<String> thrown = limiter.submit(() -> { throw new IllegalStateException("boom"); });
+
+		running.getFirst().completeExceptionally(new IllegalStateException("nope"));
+
+		assertTrue(first.isCompletedExceptionally());
+		assertTrue(thrown.isCompletedExceptionally());
+		assertEquals(1.0, limiter.stats().limit());
+		assertEquals(0, limiter.stats().inFlight());
+		assertEquals(2, limiter.stats().completed());
+	}
+}
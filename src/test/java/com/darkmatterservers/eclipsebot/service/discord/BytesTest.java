@@ -0,0 +1,149 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.builder.Buttons;
+import com.darkmatterservers.chain.Page;
+import com.darkmatterservers.chain.PagedChain;
+import com.darkmatterservers.chain.PagedChain.Keys;
+import com.darkmatterservers.context.ComponentContext;
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import com.darkmatterservers.eclipsebot.sim.FakeDiscord;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.interactions.components.ActionComponent;
+import net.dv8tion.jda.api.interactions.components.ActionRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BytesTest {
+
+	private static final long USER_ID = 100_000_000_000_000_000L;
+	private static final String USER = String.valueOf(USER_ID);
+
+	private final FakeDiscord fake = new FakeDiscord(FakeDiscord.Config.inline());
+	private final AtomicReference<JDA> jdaRef = new AtomicReference<>(fake.jda());
+	private final OutboundScheduler outbound = new OutboundScheduler(null, null);
+	private final StatelessChainCodec codec = StatelessChainCodec.withKey(new byte[32]);
+	private final Bytes bytes = new Bytes(jdaRef, new LoggerService(null), new InteractionTracer(),
+			new PrivateChannelCache(jdaRef, outbound), outbound, codec);
+
+	@AfterEach
+	void close() {
+		fake.close();
+	}
+
+	@Test
+	void aSessionKeepsOneValuePerPickAndNoEvent() {
+		ChainRouter router = ChainRouter.builder("test").navigation("back", "next").on("pick", ctx -> {}).build();
+		AtomicReference<ComponentContext> session = new AtomicReference<>();
+		bytes.startChannelPagedChain(String.valueOf(USER_ID), fake.channel(USER_ID), chain("Test"), router, session::set);
+
+		bytes.handleDropdownInteraction(fake.select(USER_ID, router.qualify("pick"), "guild-1"));
+		bytes.handleButtonInteraction(fake.button(USER_ID, router.qualify("next")));
+
+		ComponentContext ctx = session.get();
+		assertNull(ctx.get("rawEvent")); // the event isn't kept until the next click
+		assertNull(ctx.get("value"));
+		assertEquals("guild-1", ctx.interactionValue());
+		assertEquals("guild-1", ctx.get("pick.selected"));
+		assertEquals(1, ctx.get(Keys.PAGE_INDEX));
+	}
+
+	@Test
+	void navigationPastTheLastPageIsClamped() {
+		ChainRouter router = ChainRouter.builder("test").navigation("back", "next").build();
+		AtomicReference<ComponentContext> session = new AtomicReference<>();
+		bytes.startChannelPagedChain(String.valueOf(USER_ID), fake.channel(USER_ID), chain("Test"), router, session::set);
+
+		for (int i = 0; i < 5; i++) bytes.handleButtonInteraction(fake.button(USER_ID, router.qualify("next")));
+		assertEquals(2, session.get().get(Keys.PAGE_INDEX));
+
+		bytes.handleButtonInteraction(fake.button(USER_ID, router.qualify("back")));
+		assertEquals(1, session.get().get(Keys.PAGE_INDEX));
+	}
+
+	// ---------------------------------------------------------------------
+	// Stateless chains
+	// ---------------------------------------------------------------------
+
+	@Test
+	void aStatelessClickMovesThePageWithoutASession() {
+		ChainRouter router = ChainRouter.builder("quiz").navigation("back", "next").build();
+		bytes.registerStatelessChain(chain("Quiz"), router); // and no session for USER at all
+
+		bytes.handleButtonInteraction(fake.button(USER_ID, codec.encode(USER, "Quiz", "next", 0, "s1")));
+
+		// one REST call: the page edit is the acknowledgement
+		assertEquals(Map.of("interaction:deferEdit", 1L), fake.callsByRoute());
+		StatelessChainCodec.Decoded next = decodeFirst(fake.lastComponents("interaction:deferEdit"));
+		assertEquals(new StatelessChainCodec.Decoded("Quiz", "back", 1, "s1"), next); // re-signed for page 1
+	}
+
+	@Test
+	void aStatelessChainUsesItsOwnRouterElseTheGlobalOne() {
+		ChainRouter router = ChainRouter.builder("jumps").on("jump", ctx -> ctx.put(Keys.PAGE_INDEX, 2)).build();
+		bytes.registerStatelessChain(chain("Jumps"), router);
+		bytes.registerStatelessChain(new PagedChain.Builder()
+				.chainId("Global")
+				.addPage(new Page("First", "first page"))
+				.addPage(new Page("Second", "second page"))
+				.wireNavigation(Buttons.ID_BACK, Buttons.ID_NEXT, Buttons.ID_DONE)
+				.build(), null);
+
+		bytes.handleButtonInteraction(fake.button(USER_ID, codec.encode(USER, "Jumps", "jump", 0, "")));
+		assertEquals(2, decodeFirst(fake.lastComponents("interaction:deferEdit")).pageIndex());
+
+		bytes.handleButtonInteraction(fake.button(USER_ID, codec.encode(USER, "Global", Buttons.ID_NEXT, 0, "")));
+		assertEquals(1, decodeFirst(fake.lastComponents("interaction:deferEdit")).pageIndex());
+	}
+
+	@Test
+	void forgedOrForeignIdsGetTheExpiredReply() {
+		bytes.registerStatelessChain(chain("Quiz"), ChainRouter.builder("quiz").navigation("back", "next").build());
+		String valid = codec.encode(USER, "Quiz", "next", 0, "s1");
+
+		bytes.handleButtonInteraction(fake.button(USER_ID, codec.encode("7", "Quiz", "next", 0, "s1"))); // another user's
+		bytes.handleButtonInteraction(fake.button(USER_ID, valid.replace("|s1|", "|s2|")));               // edited state
+		bytes.handleButtonInteraction(fake.button(USER_ID,
+				StatelessChainCodec.withKey(new byte[]{1}).encode(USER, "Quiz", "next", 0, "s1")));       // other key
+
+		assertEquals(Map.of("interaction:reply", 3L), fake.callsByRoute());
+		assertNull(fake.lastComponents("interaction:deferEdit"));
+	}
+
+	@Test
+	void aStateThatNoLongerFitsIsRejectedAtEncodeTime() {
+		String tooLong = "x".repeat(StatelessChainCodec.MAX_CUSTOM_ID);
+		ChainRouter router = ChainRouter.builder("grow")
+				.on("grow", ctx -> ctx.put(Bytes.STATELESS_STATE_KEY, tooLong))
+				.build();
+
+		bytes.startStatelessChain(USER, fake.channel(USER_ID), chain("Grow"), router, tooLong);
+		assertNull(fake.callsByRoute().get("channels/messages:post")); // nothing sent
+
+		bytes.handleButtonInteraction(fake.button(USER_ID, codec.encode(USER, "Grow", "grow", 0, "")));
+		// the click is still acknowledged, but the page isn't replaced with IDs Discord would refuse
+		assertEquals(Map.of("interaction:deferEdit", 1L), fake.callsByRoute());
+		assertNull(fake.lastComponents("interaction:deferEdit"));
+	}
+
+	private StatelessChainCodec.Decoded decodeFirst(List<?> rows) {
+		assertNotNull(rows, "the edit carried no components");
+		String id = ((ActionComponent) ((ActionRow) rows.getFirst()).getComponents().getFirst()).getId();
+		return codec.decode(USER, id);
+	}
+
+	private static PagedChain chain(String chainId) {
+		return new PagedChain.Builder()
+				.chainId(chainId)
+				.addPage(new Page("First", "first page"))
+				.addPage(new Page("Second", "second page"))
+				.addPage(new Page("Third", "third page"))
+				.build();
+	}
+}
@@ -0,0 +1,74 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.chain.PagedChain.Keys;
+import com.darkmatterservers.context.ComponentContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChainRouterTest {
+
+	@Test
+	void chainsWithTheSameIdsKeepTheirOwnHandlers() {
+		List<String> calls = new ArrayList<>();
+		ChainRouter setup = ChainRouter.builder("setup").on("done", ctx -> calls.add("setup")).build();
+		ChainRouter rooms = ChainRouter.builder("rooms").on("done", ctx -> calls.add("rooms")).build();
+		ComponentContext ctx = new ComponentContext("1");
+
+		assertTrue(setup.dispatch(setup.qualify("done"), ctx));
+		assertTrue(rooms.dispatch("done", ctx)); // bare IDs from messages sent before namespacing
+		assertFalse(setup.dispatch("rooms:done", ctx));
+		assertEquals(List.of("setup", "rooms"), calls);
+	}
+
+	@Test
+	void decodesTheNamespacePrefix() {
+		ChainRouter router = ChainRouter.builder("setup").navigation("back", "next", "done").build();
+
+		assertEquals("setup:next", router.qualify("next"));
+		assertEquals("next", router.localId("setup:next"));
+		assertEquals("noop.placeholder", router.localId("noop.placeholder"));
+		assertEquals("unrouted", router.localId("setup:unrouted"));
+		assertNull(router.localId("rooms:next"));
+		assertNull(router.localId("setupx:next"));
+
+		ComponentContext ctx = new ComponentContext("1");
+		ctx.put(Keys.PAGE_INDEX, 0);
+		router.dispatch("setup:next", ctx);
+		assertEquals(1, ctx.get(Keys.PAGE_INDEX));
+		router.dispatch("done", ctx);
+		assertTrue(ctx.isComplete());
+	}
+
+	@Test
+	void countsInvocationsAndErrorsPerHandler() {
+		ChainRouter router = ChainRouter.builder("setup")
+				.on("ok", ctx -> {})
+				.on("boom", ctx -> { throw new IllegalStateException("boom"); })
+				.build();
+		ComponentContext ctx = new ComponentContext("1");
+
+		router.dispatch("ok", ctx);
+		router.dispatch("setup:ok", ctx);
+		assertThrows(IllegalStateException.class, () -> router.dispatch("boom", ctx));
+
+		ChainRouter.HandlerStats ok = router.stats().get(0);
+		ChainRouter.HandlerStats boom = router.stats().get(1);
+		assertEquals("ok", ok.componentId());
+		assertEquals(2, ok.invocations());
+		assertEquals(0, ok.errors());
+		assertEquals(1, boom.invocations());
+		assertEquals(1, boom.errors());
+	}
+
+	@Test
+	void rejectsDuplicateAndAmbiguousIds() {
+		ChainRouter.Builder builder = ChainRouter.builder("setup").on("next", ctx -> {});
+		assertThrows(IllegalStateException.class, () -> builder.on("next", ctx -> {}));
+		assertThrows(IllegalArgumentException.class, () -> builder.on("a:b", ctx -> {}));
+		assertThrows(IllegalArgumentException.class, () -> ChainRouter.builder("set:up"));
+	}
+}
@@ -0,0 +1,84 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.sim.FakeDiscord;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.StatusChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiscordStatusFeedTest {
+
+	private final FakeDiscord fake = new FakeDiscord(FakeDiscord.Config.inline());
+	private final JDA jda = fake.jda();
+	private final DiscordStatusFeed feed = new DiscordStatusFeed();
+
+	@AfterEach
+	void close() {
+		fake.close();
+	}
+
+	@Test
+	void lateLoginEventsDoNotMoveReadyBackwards() throws Exception {
+		BlockingQueue<String> events = new LinkedBlockingQueue<>();
+		feed.subscribe(events::add);
+		assertTrue(next(events).contains("\"state\":\"stopped\""));
+
+		feed.connecting();
+		feed.onStatusChange(new StatusChangeEvent(jda, JDA.Status.LOADING_SUBSYSTEMS, JDA.Status.IDENTIFYING_SESSION));
+		feed.ready(jda);
+		// JDA's CONNECTED event racing DiscordService's READY
+		feed.onStatusChange(new StatusChangeEvent(jda, JDA.Status.CONNECTED, JDA.Status.LOADING_SUBSYSTEMS));
+
+		assertTrue(next(events).contains("\"state\":\"connecting\""));
+		assertTrue(next(events).contains("\"status\":\"LOADING_SUBSYSTEMS\""));
+		assertTrue(next(events).contains("\"state\":\"ready\""));
+		assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+		assertEquals(DiscordStatusFeed.State.READY, feed.latestState());
+
+		// A real disconnect still leaves READY, and the reconnect sequence is reported again
+		feed.onStatusChange(new StatusChangeEvent(jda, JDA.Status.DISCONNECTED, JDA.Status.CONNECTED));
+		feed.onStatusChange(new StatusChangeEvent(jda, JDA.Status.IDENTIFYING_SESSION, JDA.Status.DISCONNECTED));
+		assertTrue(next(events).contains("\"status\":\"DISCONNECTED\""));
+		assertTrue(next(events).contains("\"status\":\"IDENTIFYING_SESSION\""));
+		assertEquals(DiscordStatusFeed.State.CONNECTING, feed.latestState());
+	}
+
+	@Test
+	void slowSubscribersDoNotBlockPublishers() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingQueue<String> fast = new LinkedBlockingQueue<>();
+		feed.subscribe(json -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		feed.subscribe(fast::add);
+
+		long start = System.nanoTime();
+		feed.connecting();
+		feed.failed("Invalid Discord token");
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+		assertEquals(DiscordStatusFeed.State.FAILED, feed.latestState());
+		assertEquals("Invalid Discord token", feed.latestReason());
+
+		release.countDown();
+		assertTrue(next(fast).contains("\"state\":\"stopped\""));
+		assertTrue(next(fast).contains("\"state\":\"connecting\""));
+		assertTrue(next(fast).contains("\"reason\":\"Invalid Discord token\""));
+	}
+
+	private static String next(BlockingQueue<String> events) throws InterruptedException {
+		String json = events.poll(5, TimeUnit.SECONDS);
+		assertNotNull(json, "expected another status event");
+		return json;
+	}
+}
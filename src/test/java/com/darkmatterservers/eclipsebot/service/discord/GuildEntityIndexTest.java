@@ -0,0 +1,65 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.GuildEntityIndex.Entry;
+import com.darkmatterservers.eclipsebot.service.discord.GuildEntityIndex.NameIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuildEntityIndexTest {
+
+	private static NameIndex roles() {
+		NameIndex idx = new NameIndex(true);
+		idx.put(1, "Mods", 5);
+		idx.put(2, "Players", 4);
+		idx.put(3, "Archipelago Players", 3);
+		idx.put(4, "moderators", 2);
+		return idx;
+	}
+
+	@Test
+	void prefixMatchesComeBeforeSubstringMatches() {
+		NameIndex idx = roles();
+		assertEquals(List.of(new Entry(4, "moderators"), new Entry(1, "Mods")), idx.search("MOD", 25));
+		assertEquals(List.of(new Entry(2, "Players"), new Entry(3, "Archipelago Players")), idx.search("play", 25));
+		assertEquals(List.of(new Entry(3, "Archipelago Players")), idx.search("pelago", 25));
+		assertTrue(idx.search("zzz", 25).isEmpty());
+		assertEquals(1, idx.search("play", 1).size());
+	}
+
+	@Test
+	void shortQueriesOnlyMatchPrefixes() {
+		assertEquals(List.of(new Entry(2, "Players")), roles().search("pl", 25));
+	}
+
+	@Test
+	void renamesAndDeletesUpdateEveryStructure() {
+		NameIndex idx = roles();
+		idx.put(2, "Spectators", 4);
+		idx.remove(3);
+
+		assertTrue(idx.search("play", 25).isEmpty());
+		assertEquals(List.of(new Entry(2, "Spectators")), idx.search("tat", 25));
+		assertNull(idx.find("Players"));
+		assertEquals(new Entry(1, "Mods"), idx.find("mods"));
+		assertEquals(3, idx.size());
+	}
+
+	@Test
+	void windowsFollowDisplayOrder() {
+		NameIndex rolesIdx = roles();
+		assertEquals(List.of("Mods", "Players", "Archipelago Players", "moderators"), rolesIdx.names());
+		rolesIdx.put(4, "moderators", 9); // moved to the top
+		assertEquals(List.of(new Entry(4, "moderators"), new Entry(1, "Mods")), rolesIdx.window(0, 2));
+		assertEquals(List.of(new Entry(3, "Archipelago Players")), rolesIdx.window(3, 2));
+		assertTrue(rolesIdx.window(10, 2).isEmpty());
+
+		NameIndex categories = new NameIndex(false);
+		categories.put(20, "Text", 1);
+		categories.put(10, "Admin Panel", 0);
+		assertEquals(List.of("Admin Panel", "Text"), categories.names());
+		assertEquals(categories.names(), categories.search(" ", 25).stream().map(Entry::name).toList());
+	}
+}
@@ -0,0 +1,127 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.LaneStats;
+import net.dv8tion.jda.api.requests.RestAction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundSchedulerTest {
+
+	/** RestActions that record when JDA would have received them and complete only when told to. */
+	private final List<String> started = new ArrayList<>();
+	private final List<Consumer<Object>> completions = new ArrayList<>();
+
+	@SuppressWarnings("unchecked")
+	private RestAction<Object> action(String name) {
+		return (RestAction<Object>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{RestAction.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("queue") && args != null && args.length == 2) {
+						started.add(name);
+						completions.add((Consumer<Object>) args[0]);
+						return null;
+					}
+					if (method.getName().equals("toString")) return name;
+					throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	private void completeNext() {
+		completions.removeFirst().accept(null);
+	}
+
+	private static LaneStats stats(OutboundScheduler scheduler, Lane lane) {
+		return scheduler.stats().get(lane.ordinal());
+	}
+
+	@Test
+	void interactionsNeverWaitBehindRendersOrBulkWork() {
+		// Budget 3, one slot reserved for interactions: DM and background stop at 2 in flight
+		OutboundScheduler scheduler = OutboundScheduler.withLimits(3, 1, new int[]{0, 0, 5, 5}, new long[]{0, 0, 0, 0});
+
+		scheduler.submit(Lane.RENDER, action("edit"));
+		scheduler.submit(Lane.RENDER, action("edit-2"));
+		scheduler.submit(Lane.BACKGROUND, action("log"));
+		scheduler.submit(Lane.DM, action("dm"));
+		scheduler.submit(Lane.INTERACTION, action("ack"));
+		scheduler.submit(Lane.INTERACTION, action("ack-2")); // the user-facing lanes have no cap by default
+
+		assertEquals(List.of("edit", "edit-2", "ack", "ack-2"), started);
+		assertEquals(0, stats(scheduler, Lane.INTERACTION).queued());
+		completeNext(); // edit
+		completeNext(); // edit-2
+		assertEquals(4, started.size()); // 2 in flight: still the reserved share
+		completeNext(); // ack
+		assertEquals(List.of("edit", "edit-2", "ack", "ack-2", "dm"), started); // DM outranks the older log line
+		completeNext(); // ack-2
+		assertEquals(List.of("edit", "edit-2", "ack", "ack-2", "dm", "log"), started);
+		assertEquals(1, stats(scheduler, Lane.BACKGROUND).submitted());
+	}
+
+	@Test
+	void laneCapLimitsInFlightWork() {
+		OutboundScheduler scheduler = OutboundScheduler.withLimits(10, 0, new int[]{5, 5, 5, 2}, new long[]{0, 0, 0, 0});
+		for (int i = 0; i < 5; i++) scheduler.submit(Lane.BACKGROUND, action("log-" + i));
+		scheduler.submit(Lane.DM, action("dm"));
+
+		assertEquals(List.of("log-0", "log-1", "dm"), started);
+		LaneStats background = stats(scheduler, Lane.BACKGROUND);
+		assertEquals(2, background.inFlight());
+		assertEquals(3, background.queued());
+
+		completeNext();
+		assertEquals("log-2", started.getLast());
+	}
+
+	@Test
+	void staleWorkIsDroppedWithAStaleRequestException() throws Exception {
+		OutboundScheduler scheduler = OutboundScheduler.withLimits(1, 0, new int[]{1, 1, 1, 1}, new long[]{0, 0, 0, 1});
+		scheduler.submit(Lane.DM, action("dm"));
+
+		AtomicReference<Throwable> dropped = new AtomicReference<>();
+		scheduler.submit(Lane.BACKGROUND, action("log"), ok -> fail("should not send"), dropped::set);
+		Thread.sleep(20);
+		completeNext(); // dm frees the shared slot; the log line is past its deadline by now
+
+		assertInstanceOf(OutboundScheduler.StaleRequestException.class, dropped.get());
+		assertEquals(List.of("dm"), started);
+		LaneStats background = stats(scheduler, Lane.BACKGROUND);
+		assertEquals(1, background.dropped());
+		assertEquals(0, background.queued());
+	}
+
+	@Test
+	void synchronousCompletionDrainsWithoutRecursion() {
+		OutboundScheduler scheduler = OutboundScheduler.withLimits(1, 0, new int[]{1, 1, 1, 1}, new long[]{0, 0, 0, 0});
+		int[] sent = {0};
+		@SuppressWarnings("unchecked")
+		RestAction<Object> immediate = (RestAction<Object>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{RestAction.class}, (proxy, method, args) -> {
+					if (method.getName().equals("queue") && args != null && args.length == 2) {
+						sent[0]++;
+						((Consumer<Object>) args[0]).accept(null);
+						return null;
+					}
+					throw new UnsupportedOperationException(method.getName());
+				});
+
+		scheduler.submit(Lane.RENDER, action("hold"));
+		for (int i = 0; i < 50_000; i++) scheduler.submit(Lane.RENDER, immediate);
+		assertEquals(0, sent[0]);
+
+		completeNext(); // the whole backlog now completes on this thread, one after the other
+
+		assertEquals(50_000, sent[0]);
+		LaneStats render = stats(scheduler, Lane.RENDER);
+		assertEquals(0, render.inFlight());
+		assertEquals(0, render.queued());
+		assertEquals(50_001, render.submitted());
+	}
+}
@@ -0,0 +1,76 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler.Lane;
+import com.darkmatterservers.eclipsebot.sim.FakeDiscord;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrivateChannelCacheTest {
+
+	private final FakeDiscord fake = new FakeDiscord(
+			new FakeDiscord.Config(20, 20, Integer.MAX_VALUE, 1, FakeDiscord.RateLimitMode.NONE, false, 1, 1, 1));
+	private final AtomicReference<JDA> jdaRef = new AtomicReference<>(fake.jda());
+	private final OutboundScheduler outbound = new OutboundScheduler(null, null);
+
+	@AfterEach
+	void close() {
+		fake.close();
+	}
+
+	@Test
+	void concurrentMissesShareOneResolveAndLaterSendsSkipIt() throws Exception {
+		PrivateChannelCache cache = new PrivateChannelCache(jdaRef, outbound);
+
+		List<CompletableFuture<PrivateChannel>> pending = new ArrayList<>();
+		for (int i = 0; i < 10; i++) pending.add(cache.channel("42", Lane.DM));
+		PrivateChannel channel = pending.getFirst().get(5, TimeUnit.SECONDS);
+		for (CompletableFuture<PrivateChannel> f : pending) assertSame(channel, f.get(5, TimeUnit.SECONDS));
+		assertEquals(1L, fake.callsByRoute().get("users:@me/channels"));
+
+		CompletableFuture<Object> sent = new CompletableFuture<>();
+		cache.send("42", Lane.DM, ch -> ch.sendMessage("hi"), sent::complete, sent::completeExceptionally);
+		sent.get(5, TimeUnit.SECONDS);
+
+		assertEquals(1L, fake.callsByRoute().get("users:@me/channels"));
+		assertNull(fake.callsByRoute().get("users:get"));
+		assertEquals(1L, fake.callsByRoute().get("channels/messages:post"));
+		PrivateChannelCache.Stats stats = cache.stats();
+		assertEquals(1, stats.resolves());
+		assertEquals(9, stats.joined());
+		assertEquals(1, stats.hits());
+	}
+
+	@Test
+	void expiredAndEvictedEntriesResolveAgain() throws Exception {
+		PrivateChannelCache expiring = PrivateChannelCache.withLimits(jdaRef, outbound, 10, 0);
+		expiring.channel("1", Lane.DM).get(5, TimeUnit.SECONDS);
+		expiring.channel("1", Lane.DM).get(5, TimeUnit.SECONDS);
+		assertEquals(2, expiring.stats().resolves());
+
+		PrivateChannelCache tiny = PrivateChannelCache.withLimits(jdaRef, outbound, 1, TimeUnit.HOURS.toNanos(1));
+		tiny.channel("1", Lane.DM).get(5, TimeUnit.SECONDS);
+		tiny.channel("2", Lane.DM).get(5, TimeUnit.SECONDS);
+		tiny.channel("1", Lane.DM).get(5, TimeUnit.SECONDS);
+		assertEquals(3, tiny.stats().resolves());
+		assertEquals(1, tiny.stats().size());
+	}
+
+	@Test
+	void failuresReachTheCallerWithoutCaching() throws Exception {
+		PrivateChannelCache cache = new PrivateChannelCache(new AtomicReference<>(), outbound);
+		CompletableFuture<Throwable> failed = new CompletableFuture<>();
+		cache.send("7", Lane.DM, ch -> ch.sendMessage("hi"), ok -> fail("should not send"), failed::complete);
+		assertInstanceOf(IllegalStateException.class, failed.get(5, TimeUnit.SECONDS));
+		assertEquals(0, cache.stats().size());
+	}
+}
@@ -0,0 +1,62 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.RateLimitTelemetry.RateLimitHit;
+import com.darkmatterservers.eclipsebot.service.discord.RateLimitTelemetry.RouteView;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTelemetryTest {
+
+	@Test
+	void routesFoldIdsTokensAndEmojis() {
+		assertEquals("POST channels/{id}/messages", RateLimitTelemetry.route("POST", "/api/v10/channels/123456789012345678/messages"));
+		assertEquals("PATCH channels/{id}/messages/{id}",
+				RateLimitTelemetry.route("PATCH", "/api/v10/channels/123456789012345678/messages/223456789012345678"));
+		assertEquals("POST interactions/{id}/{token}/callback",
+				RateLimitTelemetry.route("POST", "/api/v10/interactions/123456789012345678/aW50ZXJhY3Rpb24/callback"));
+		assertEquals("PUT channels/{id}/messages/{id}/reactions/{emoji}/@me",
+				RateLimitTelemetry.route("PUT", "/api/v10/channels/123456789012345678/messages/223456789012345678/reactions/%F0%9F%91%8D/@me"));
+		assertEquals("POST users/@me/channels", RateLimitTelemetry.route("POST", "/api/v10/users/@me/channels"));
+	}
+
+	@Test
+	void bucketHeadersAndRateLimitsAreRecordedPerRoute() {
+		RateLimitTelemetry telemetry = new RateLimitTelemetry();
+		List<RateLimitHit> hits = new ArrayList<>();
+		telemetry.onRateLimited(hits::add);
+
+		String path = "/api/v10/channels/123456789012345678/messages";
+		telemetry.observe("POST", path, 200, Map.of(
+				"X-RateLimit-Bucket", "abcd",
+				"X-RateLimit-Limit", "5",
+				"X-RateLimit-Remaining", "1",
+				"X-RateLimit-Reset-After", "2.5")::get);
+		telemetry.observe("POST", path, 429, Map.of(
+				"X-RateLimit-Bucket", "abcd",
+				"X-RateLimit-Limit", "5",
+				"X-RateLimit-Remaining", "0",
+				"Retry-After", "1.25",
+				"X-RateLimit-Scope", "user")::get);
+		telemetry.observe("GET", "/api/v10/gateway/bot", 200, Map.<String, String>of()::get);
+
+		RouteView row = telemetry.snapshot().getFirst();
+		assertEquals("POST channels/{id}/messages", row.route());
+		assertEquals("abcd", row.bucket());
+		assertEquals(5, row.limit());
+		assertEquals(0, row.remaining());
+		assertTrue(row.resetInMs() > 0 && row.resetInMs() <= 2_500);
+		assertEquals(2, row.requests());
+		assertEquals(1, row.rateLimited());
+		assertEquals(1_250, row.lastRetryAfterMs());
+		assertEquals("user", row.lastScope());
+
+		assertEquals(List.of(new RateLimitHit("POST channels/{id}/messages", false, "user", 1_250)), hits);
+		assertEquals(new RateLimitTelemetry.Totals(3, 1, 0), telemetry.totals());
+		assertEquals(-1, telemetry.snapshot().get(1).limit()); // no bucket headers seen yet
+	}
+}
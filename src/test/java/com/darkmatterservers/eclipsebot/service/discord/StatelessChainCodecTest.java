@@ -0,0 +1,41 @@
+package com.darkmatterservers.eclipsebot.service.discord;
+
+import com.darkmatterservers.eclipsebot.service.discord.StatelessChainCodec.Decoded;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatelessChainCodecTest {
+
+	private static final String USER = "112233445566778899";
+	private final StatelessChainCodec codec = StatelessChainCodec.withKey("0123456789abcdef0123456789abcdef".getBytes());
+
+	@Test
+	void roundTripsWithinDiscordsLimit() {
+		String id = codec.encode(USER, "room-wizard", "room.next", 37, "g=3;r=1");
+		assertTrue(StatelessChainCodec.isStateless(id));
+		assertTrue(id.length() <= StatelessChainCodec.MAX_CUSTOM_ID);
+
+		assertEquals(new Decoded("room-wizard", "room.next", 37, "g=3;r=1"), codec.decode(USER, id));
+		assertEquals(new Decoded("c", "b", 0, ""), codec.decode(USER, codec.encode(USER, "c", "b", 0, null)));
+		assertNull(codec.decode(USER, "room.next")); // plain component IDs aren't stateless
+	}
+
+	@Test
+	void rejectsTamperingOtherUsersAndOtherKeys() {
+		String id = codec.encode(USER, "room-wizard", "room.next", 2, "g=3");
+
+		assertNull(codec.decode(USER, id.replace("|2|", "|3|")));
+		assertNull(codec.decode(USER, id.replace("g=3", "g=4")));
+		assertNull(codec.decode("998877665544332211", id));
+		assertNull(StatelessChainCodec.withKey(new byte[32]).decode(USER, id));
+		assertNull(codec.decode(USER, "~1|"));
+		assertNull(codec.decode(USER, "~1|a|b|zz|s|!!!"));
+	}
+
+	@Test
+	void refusesFieldsThatDoNotFit() {
+		assertThrows(IllegalArgumentException.class, () -> codec.encode(USER, "chain", "id", 0, "a|b"));
+		assertThrows(IllegalArgumentException.class, () -> codec.encode(USER, "chain", "id", 0, "x".repeat(80)));
+	}
+}
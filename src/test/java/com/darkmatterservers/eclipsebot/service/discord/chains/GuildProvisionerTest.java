@@ -0,0 +1,86 @@
+package com.darkmatterservers.eclipsebot.service.discord.chains;
+
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.AdaptiveConcurrencyLimiter;
+import com.darkmatterservers.eclipsebot.service.discord.GuildEntityIndex;
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner.GuildStatus;
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner.Progress;
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner.Status;
+import net.dv8tion.jda.api.JDA;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuildProvisionerTest {
+
+	private final LoggerService logger = new LoggerService(null);
+	private final AtomicReference<JDA> jdaRef = new AtomicReference<>(); // not logged in: every guild fails at once
+	private final GuildProvisioner provisioner = new GuildProvisioner(logger, new YamlService(logger), jdaRef,
+			new GuildEntityIndex(jdaRef), AdaptiveConcurrencyLimiter.withLimits(4, 1, 4, 0));
+	private final GuildProvisioner.Template template = new GuildProvisioner.Template("Mods", "Players", "Admin Panel");
+	private final List<Progress> reports = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		provisioner.shutdown();
+	}
+
+	@Test
+	void reportsWaitUntilTheCompletionEditHasLanded() throws Exception {
+		Map<String, String> guilds = new LinkedHashMap<>();
+		guilds.put("1", "Alpha");
+		guilds.put("2", "Beta");
+		CompletableFuture<Void> completionShown = new CompletableFuture<>();
+
+		List<GuildStatus> result = provisioner.provision(guilds, template, completionShown, this::deliver)
+				.get(5, TimeUnit.SECONDS);
+
+		// Finished before the wizard's edit landed: the final report is held back, not raced against it
+		assertTrue(result.stream().allMatch(g -> g.status() == Status.FAILED));
+		Thread.sleep(100);
+		assertTrue(reports.isEmpty());
+
+		completionShown.complete(null);
+		await(() -> reports.size() == 1);
+		assertTrue(reports.getFirst().finished());
+		assertEquals(2, reports.getFirst().count(Status.FAILED));
+	}
+
+	@Test
+	void anEmptyRunStillReportsAfterTheCompletionEdit() throws Exception {
+		CompletableFuture<Void> completionShown = new CompletableFuture<>();
+
+		assertTrue(provisioner.provision(Map.of(), template, completionShown, this::deliver)
+				.get(5, TimeUnit.SECONDS).isEmpty());
+		Thread.sleep(100);
+		assertTrue(reports.isEmpty());
+
+		completionShown.completeExceptionally(new IllegalStateException("edit failed")); // counts as landed
+		await(() -> reports.size() == 1);
+		assertTrue(reports.getFirst().finished());
+	}
+
+	private CompletableFuture<Void> deliver(Progress progress) {
+		reports.add(progress);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean()) {
+			if (System.currentTimeMillis() > deadline) fail("condition not met in time");
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.darkmatterservers.eclipsebot.service.discord.chains;
+
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner.GuildStatus;
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner.Progress;
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner.Status;
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MasterGuildSetupProgressTest {
+
+	@Test
+	void reportsCountsAndPerGuildState() {
+		Progress progress = new Progress(List.of(
+				new GuildStatus("1", "Alpha", Status.DONE, "Mods / Players / Admin Panel"),
+				new GuildStatus("2", "Beta", Status.FAILED, "Missing permission MANAGE_ROLES"),
+				new GuildStatus("3", "Gamma", Status.RUNNING, null)), false);
+
+		MessageEmbed embed = MasterGuildSetup.progressEmbed(progress);
+		assertEquals("⏳ Bulk setup running — 2/3", embed.getTitle());
+		assertTrue(embed.getDescription().contains("❌ Beta — Missing permission MANAGE_ROLES"));
+		assertTrue(embed.getDescription().contains("⏳ Gamma"));
+		assertNull(embed.getFooter());
+	}
+
+	@Test
+	void staysWithinTheEmbedLimitForHundredsOfGuilds() {
+		List<GuildStatus> guilds = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			guilds.add(new GuildStatus(String.valueOf(i), "Guild number " + i, Status.FAILED, "Unknown error while creating roles"));
+		}
+		MessageEmbed embed = MasterGuildSetup.progressEmbed(new Progress(guilds, true));
+
+		assertTrue(embed.getDescription().length() <= MessageEmbed.DESCRIPTION_MAX_LENGTH);
+		assertTrue(embed.getDescription().endsWith(" more"));
+		assertEquals("✅ Bulk setup finished — 500/500", embed.getTitle());
+		assertNotNull(embed.getFooter());
+	}
+}
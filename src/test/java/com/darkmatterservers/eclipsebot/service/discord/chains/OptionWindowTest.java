@@ -0,0 +1,74 @@
+package com.darkmatterservers.eclipsebot.service.discord.chains;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptionWindowTest {
+
+	private static OptionWindow guilds(int n) {
+		List<String> names = new ArrayList<>();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			names.add("Guild " + i);
+			ids.add(String.valueOf(1000 + i));
+		}
+		return OptionWindow.of(names, ids);
+	}
+
+	@Test
+	void smallListsFitOnOnePageWithoutControls() {
+		OptionWindow w = guilds(OptionWindow.MAX_OPTIONS);
+		assertEquals(1, w.pageCount());
+		assertEquals(OptionWindow.MAX_OPTIONS, w.labels(0).size());
+		assertEquals(-1, w.navigate("Guild 3", 0));
+	}
+
+	@Test
+	void largeListsArePagedWithinTheOptionLimit() {
+		OptionWindow w = guilds(300);
+		assertEquals(14, w.pageCount());
+		for (int p = 0; p < w.pageCount(); p++) assertTrue(w.labels(p).size() <= OptionWindow.MAX_OPTIONS);
+
+		List<String> first = w.labels(0);
+		assertEquals("Guild 0", first.getFirst());
+		String next = first.getLast();
+		assertEquals(1, w.navigate(next, 0));
+		assertNull(w.option(next));
+
+		List<String> second = w.labels(1);
+		assertEquals(0, w.navigate(second.getFirst(), 1));
+		assertEquals("Guild " + OptionWindow.PER_PAGE, second.get(1));
+
+		List<String> last = w.labels(13);
+		assertEquals("Guild 299", last.getLast());
+		assertEquals(-1, w.navigate(next, 13)); // stale control from another page
+	}
+
+	@Test
+	void picksResolveToStableValuesAndDuplicateNamesStayDistinct() {
+		OptionWindow w = OptionWindow.of(List.of("Home", "Home", "Lab"), List.of("1", "2", "3"));
+		assertEquals(List.of("Home", "Home (2)", "Lab"), w.labels(0));
+		assertEquals(new OptionWindow.Option("2", "Home", "Home (2)"), w.option("Home (2)"));
+		assertEquals("1", w.option("Home").value());
+		assertNull(w.option("Nowhere"));
+	}
+
+	@Test
+	void duplicateLabelsStayWithinDiscordsLabelLimit() {
+		String longName = "G".repeat(OptionWindow.MAX_LABEL); // longest guild name Discord allows
+		String snowflake = "1234567890123456789";
+		OptionWindow w = OptionWindow.of(List.of(longName, longName), List.of("1", snowflake));
+
+		List<String> labels = w.labels(0);
+		assertEquals(longName, labels.get(0));
+		String twin = labels.get(1);
+		assertEquals(OptionWindow.MAX_LABEL, twin.length());
+		assertTrue(twin.endsWith("… (" + snowflake + ")"), twin);
+		assertEquals(snowflake, w.option(twin).value());
+		assertEquals(longName, w.option(twin).name());
+	}
+}
@@ -0,0 +1,53 @@
+package com.darkmatterservers.eclipsebot.service.discord.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefixIndexTest {
+
+	record Item(long id, String name) {}
+
+	private final List<Item> items = List.of(
+			new Item(1, "Alpha Seed"),
+			new Item(2, "alpine"),
+			new Item(3, "Beta"),
+			new Item(12, "Gamma"));
+
+	private final PrefixIndex<Item> index = PrefixIndex.of(items, i -> List.of(i.name(), String.valueOf(i.id())));
+
+	@Test
+	void matchesPrefixCaseInsensitively() {
+		assertEquals(List.of(items.get(0), items.get(1)), index.search("ALP", 25));
+		assertEquals(List.of(items.get(1)), index.search("alpi", 25));
+		assertTrue(index.search("delta", 25).isEmpty());
+	}
+
+	@Test
+	void findsItemsByAnyKeyWithoutDuplicates() {
+		assertEquals(List.of(items.get(0), items.get(3)), index.search("1", 25));
+		assertEquals(4, index.search("", 25).size());
+	}
+
+	@Test
+	void findsEveryItemSharingAKey() {
+		// Enough equal keys that a plain binary search would land inside the run and skip its start
+		List<Item> twins = List.of(
+				new Item(20, "Lobby"), new Item(21, "lobby"), new Item(22, "LOBBY"),
+				new Item(23, "Lobby"), new Item(24, "Lobby"), new Item(25, "Lobby"), new Item(26, "Lobby"),
+				new Item(27, "lobbyist"), new Item(28, "Zeta"));
+		PrefixIndex<Item> dupes = PrefixIndex.of(twins, i -> List.of(i.name()));
+
+		assertEquals(7, dupes.search("lobby", 25).stream().filter(i -> i.name().equalsIgnoreCase("lobby")).count());
+		assertEquals(8, dupes.search("lob", 25).size());
+		assertEquals(twins.subList(0, 7), dupes.search("LOBBY", 7));
+	}
+
+	@Test
+	void respectsLimit() {
+		assertEquals(2, index.search("", 2).size());
+		assertTrue(PrefixIndex.<Item>empty().search("a", 25).isEmpty());
+	}
+}
@@ -0,0 +1,70 @@
+package com.darkmatterservers.eclipsebot.service.trace;
+
+import com.darkmatterservers.context.ComponentContext;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer.Stage;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer.TraceView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InteractionTracerTest {
+
+	@Test
+	void recordsStagesInPipelineOrderAndTheGatewayLag() {
+		InteractionTracer tracer = new InteractionTracer();
+		long id = tracer.begin("button", "setup:next", 42L, 85L);
+
+		// Listener → router → render → ack → edit, as Bytes reports them; ROUTE is reported twice
+		tracer.record(id, Stage.DISPATCH, 1_000);
+		tracer.record(id, Stage.ROUTE, 2_000);
+		tracer.record(id, Stage.ROUTE, 500);
+		tracer.record(id, Stage.RENDER, 3_000);
+		tracer.record(id, Stage.ACK, 4_000);
+		tracer.record(id, Stage.EDIT, 5_000);
+		assertFalse(tracer.recent(1).get(0).complete());
+		tracer.finish(id);
+		tracer.finish(id); // only the first finish counts
+
+		TraceView view = tracer.recent(1).get(0);
+		assertEquals(List.of(Stage.DISPATCH, Stage.ROUTE, Stage.BLOCKING, Stage.RENDER, Stage.ACK, Stage.EDIT),
+				List.of(Stage.values()));
+		assertArrayEquals(new long[]{1_000, 2_500, 0, 3_000, 4_000, 5_000}, view.stageNanos());
+		assertEquals(2_500, view.stage(Stage.ROUTE));
+		assertEquals("button", view.kind());
+		assertEquals("setup:next", view.componentId());
+		assertEquals(42L, view.userId());
+		assertEquals(85L, view.gatewayMs());
+		assertTrue(view.complete());
+		assertTrue(view.totalNanos() >= 0);
+	}
+
+	@Test
+	void newTracesEvictTheOldestSlot() {
+		InteractionTracer tracer = new InteractionTracer();
+		long first = tracer.begin("button", "first", 1L, -1L);
+		for (int i = 0; i < 256; i++) tracer.begin("dropdown", "c" + i, 2L, 10L);
+
+		// The first trace's slot was reused: late reports for it are ignored
+		tracer.record(first, Stage.EDIT, 9_999);
+		tracer.finish(first);
+
+		List<TraceView> recent = tracer.recent(1_000);
+		assertEquals(256, recent.size());
+		assertEquals(first + 256, recent.get(0).traceId()); // newest first
+		assertEquals(first + 1, recent.get(recent.size() - 1).traceId());
+		assertTrue(recent.stream().noneMatch(v -> v.traceId() == first));
+		assertTrue(recent.stream().allMatch(v -> v.stage(Stage.EDIT) == 0 && !v.complete()));
+		assertTrue(tracer.slowest(5).isEmpty());
+	}
+
+	@Test
+	void readsTheTraceIdFromTheContext() {
+		ComponentContext ctx = new ComponentContext("1");
+		assertEquals(InteractionTracer.NO_TRACE, InteractionTracer.traceId(ctx));
+		ctx.put(InteractionTracer.CTX_KEY, 7L);
+		assertEquals(7L, InteractionTracer.traceId(ctx));
+		assertEquals(InteractionTracer.NO_TRACE, InteractionTracer.traceId(null));
+	}
+}
@@ -0,0 +1,433 @@
+package com.darkmatterservers.eclipsebot.sim;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.SelfUser;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.concrete.Category;
+import net.dv8tion.jda.api.entities.channel.concrete.PrivateChannel;
+import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
+import net.dv8tion.jda.api.events.interaction.component.StringSelectInteractionEvent;
+import net.dv8tion.jda.api.interactions.components.buttons.ButtonInteraction;
+import net.dv8tion.jda.api.interactions.components.selections.StringSelectInteraction;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.utils.TimeUtil;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-process fake of the Discord gateway + REST surface that Bytes, DebugListener and
+ * MasterGuildSetup touch. No network; every entity is a dynamic proxy.
+ * <p>
+ * REST behaviour:
+ *  - Each queued/completed RestAction counts as one REST call (per route as well)
+ *  - Completion is delayed by a random latency in [minLatencyMs, maxLatencyMs]
+ *  - Message routes are rate limited per channel (bucketSize per bucketWindowMs); a limited call
+ *    either retries after the bucket resets (JDA's behaviour, counted as an extra call) or fails
+ *  - {@link Config#inline()} completes everything inline, for benchmarks
+ *  - The components last set on an action are kept per route ({@link #lastComponents})
+ * <p>
+ * Gateway behaviour: {@link #button} / {@link #select} build real JDA event objects around proxied
+ * interactions, so they can be fed straight into DebugListener.
+ */
+public final class FakeDiscord implements AutoCloseable {
+
+    public enum RateLimitMode { NONE, RETRY, FAIL }
+
+    public record Config(long minLatencyMs, long maxLatencyMs,
+                         int bucketSize, long bucketWindowMs,
+                         RateLimitMode rateLimitMode, boolean synchronous,
+                         int guilds, int rolesPerGuild, int categoriesPerGuild) {
+
+        /** Inline completion, no latency, no rate limits. */
+        public static Config inline() {
+            return new Config(0, 0, Integer.MAX_VALUE, 1, RateLimitMode.NONE, true, 5, 10, 5);
+        }
+
+        /** Roughly what a healthy bot sees: 40–120 ms REST, 5 messages / 5 s per channel. */
+        public static Config realistic() {
+            return new Config(40, 120, 5, 5_000, RateLimitMode.RETRY, false, 5, 10, 5);
+        }
+    }
+
+    /** Raised (via the failure callback) when a call is rate limited in FAIL mode. */
+    public static final class RateLimitedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public RateLimitedException(String route, long retryAfterMs) {
+            super("429 Too Many Requests on " + route + " (retry after " + retryAfterMs + " ms)");
+        }
+    }
+
+    private static final long CHANNEL_OFFSET = 1_000_000L;
+    private static final long FIRST_GUILD_ID = 900_000_000_000_000_000L;
+
+    private final Config config;
+    private final ScheduledExecutorService rest;
+    private final LongAdder restCalls = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final Map<String, LongAdder> callsByRoute = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, List<?>> componentsByRoute = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Long>> renderSignals = new ConcurrentHashMap<>();
+    private final Map<Long, Object> channels = new ConcurrentHashMap<>();
+    private final AtomicLong messageIds = new AtomicLong(3_000L);
+    private final List<Guild> guilds;
+    private final JDA jda;
+
+    public FakeDiscord(Config config) {
+        this.config = config;
+        this.rest = config.synchronous() ? null : Executors.newScheduledThreadPool(4, r -> {
+            Thread t = new Thread(r, "fake-discord-rest");
+            t.setDaemon(true);
+            return t;
+        });
+        this.guilds = buildGuilds();
+        this.jda = buildJda();
+    }
+
+    // ---------------------------------------------------------------------
+    // Public surface
+    // ---------------------------------------------------------------------
+
+    public JDA jda() {
+        return jda;
+    }
+
+    public List<Guild> guilds() {
+        return guilds;
+    }
+
+    /** The DM channel the fake opens for {@code userId} (stable per user). */
+    @SuppressWarnings("unchecked")
+    public <T> T channel(long userId) {
+        return (T) channels.computeIfAbsent(userId + CHANNEL_OFFSET, this::buildChannel);
+    }
+
+    public ButtonInteractionEvent button(long userId, String componentId) {
+        ButtonInteraction interaction = stub(new Class<?>[]{ButtonInteraction.class}, Map.of(
+                "getComponentId", componentId,
+                "getUser", user(userId),
+                "getChannel", channel(userId),
+                "getIdLong", snowflakeNow(),
+                "deferEdit", action("interaction:deferEdit", null, () -> null),
+                "deferReply", action("interaction:reply", null, () -> null) // reply(..) builds on deferReply()
+        ));
+        return new ButtonInteractionEvent(jda, 0L, interaction);
+    }
+
+    public StringSelectInteractionEvent select(long userId, String componentId, String value) {
+        StringSelectInteraction interaction = stub(new Class<?>[]{StringSelectInteraction.class}, Map.of(
+                "getComponentId", componentId,
+                "getValues", List.of(value),
+                "getUser", user(userId),
+                "getChannel", channel(userId),
+                "getIdLong", snowflakeNow(),
+                "deferEdit", action("interaction:deferEdit", null, () -> null),
+                "deferReply", action("interaction:reply", null, () -> null)
+        ));
+        return new StringSelectInteractionEvent(jda, 0L, interaction);
+    }
+
+    /**
+     * Completes with the completion time (nanoTime) of the next message send/edit that lands in the
+     * user's channel. Register before firing the interaction.
+     */
+    public CompletableFuture<Long> nextRender(long userId) {
+        CompletableFuture<Long> f = new CompletableFuture<>();
+        renderSignals.put(userId + CHANNEL_OFFSET, f);
+        return f;
+    }
+
+    public long restCalls() {
+        return restCalls.sum();
+    }
+
+    public long rateLimitedCalls() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * The components most recently set on an action of {@code route}, or null if none were. Interaction
+     * edits ({@code event.editMessageEmbeds(..)}) are built on {@code deferEdit()}, so they show up under
+     * {@code interaction:deferEdit}.
+     */
+    public List<?> lastComponents(String route) {
+        return componentsByRoute.get(route);
+    }
+
+    public Map<String, Long> callsByRoute() {
+        Map<String, Long> out = new TreeMap<>();
+        callsByRoute.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    @Override
+    public void close() {
+        if (rest != null) rest.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------------
+    // REST dispatch
+    // ---------------------------------------------------------------------
+
+    private void dispatch(String route, String bucketKey, Runnable onSuccess, Consumer<Throwable> onFailure) {
+        restCalls.increment();
+        callsByRoute.computeIfAbsent(route, k -> new LongAdder()).increment();
+
+        if (config.synchronous()) {
+            onSuccess.run();
+            return;
+        }
+
+        long wait = config.rateLimitMode() == RateLimitMode.NONE || bucketKey == null
+                ? 0
+                : buckets.computeIfAbsent(bucketKey, k -> new Bucket()).tryAcquire(System.currentTimeMillis());
+        if (wait > 0) {
+            rateLimited.increment();
+            if (config.rateLimitMode() == RateLimitMode.FAIL) {
+                rest.schedule(() -> onFailure.accept(new RateLimitedException(route, wait)), latency(), TimeUnit.MILLISECONDS);
+            } else {
+                rest.schedule(() -> dispatch(route, bucketKey, onSuccess, onFailure), wait, TimeUnit.MILLISECONDS);
+            }
+            return;
+        }
+        rest.schedule(onSuccess, latency(), TimeUnit.MILLISECONDS);
+    }
+
+    private long latency() {
+        if (config.maxLatencyMs() <= config.minLatencyMs()) return config.minLatencyMs();
+        return ThreadLocalRandom.current().nextLong(config.minLatencyMs(), config.maxLatencyMs() + 1);
+    }
+
+    /** Fixed-window limiter, the same shape as Discord's per-channel message buckets. */
+    private final class Bucket {
+        private long windowStart;
+        private int used;
+
+        synchronized long tryAcquire(long now) {
+            if (now - windowStart >= config.bucketWindowMs()) {
+                windowStart = now;
+                used = 0;
+            }
+            if (used < config.bucketSize()) {
+                used++;
+                return 0;
+            }
+            return Math.max(1, windowStart + config.bucketWindowMs() - now);
+        }
+    }
+
+    private void signalRender(long channelId) {
+        CompletableFuture<Long> f = renderSignals.remove(channelId);
+        if (f != null) f.complete(System.nanoTime());
+    }
+
+    // ---------------------------------------------------------------------
+    // Entities
+    // ---------------------------------------------------------------------
+
+    private JDA buildJda() {
+        SelfUser self = stub(new Class<?>[]{SelfUser.class}, Map.of(
+                "getId", "1", "getIdLong", 1L, "getName", "EclipseBot", "getAsTag", "EclipseBot#0000", "isBot", true));
+        return stub(new Class<?>[]{JDA.class}, Map.of(
+                "getGuilds", guilds,
+                "getGuildById", (Answer) args -> guildById(Long.parseLong(String.valueOf(args[0]))),
+                "retrieveUserById", (Answer) args -> action("users:get", null,
+                        () -> user(Long.parseLong(String.valueOf(args[0])))),
+                "openPrivateChannelById", (Answer) args -> action("users:@me/channels", null,
+                        () -> channel(Long.parseLong(String.valueOf(args[0])))),
+                "getPrivateChannelById", (Answer) args -> channels.get(Long.parseLong(String.valueOf(args[0]))),
+                "getSelfUser", self,
+                "getStatus", JDA.Status.CONNECTED
+        ));
+    }
+
+    private User user(long userId) {
+        return stub(new Class<?>[]{User.class}, Map.of(
+                "getId", String.valueOf(userId),
+                "getIdLong", userId,
+                "isBot", false,
+                "getName", "user" + userId,
+                "getAsTag", "user" + userId + "#0000",
+                "openPrivateChannel", action("users:@me/channels", null, () -> channel(userId))
+        ));
+    }
+
+    private Object buildChannel(long channelId) {
+        Answer send = args -> action("channels/messages:post", "messages:" + channelId, () -> message(), () -> signalRender(channelId));
+        Answer edit = args -> action("channels/messages:patch", "messages:" + channelId, () -> message(), () -> signalRender(channelId));
+        return stub(new Class<?>[]{MessageChannelUnion.class, PrivateChannel.class}, Map.of(
+                "getId", String.valueOf(channelId),
+                "getIdLong", channelId,
+                "getName", "dm-" + channelId,
+                "sendMessage", send,
+                "sendMessageEmbeds", send,
+                "editMessageById", edit,
+                "editMessageEmbedsById", edit
+        ));
+    }
+
+    private Message message() {
+        long id = messageIds.incrementAndGet();
+        return stub(new Class<?>[]{Message.class}, Map.of("getId", String.valueOf(id), "getIdLong", id));
+    }
+
+    private List<Guild> buildGuilds() {
+        List<Guild> out = new ArrayList<>(config.guilds());
+        for (int g = 0; g < config.guilds(); g++) {
+            long guildId = FIRST_GUILD_ID + g;
+            List<Role> roles = new ArrayList<>();
+            for (int r = 0; r < config.rolesPerGuild(); r++) {
+                String name = r == 0 ? "Mods" : r == 1 ? "Players" : "Role " + r;
+                roles.add(stub(new Class<?>[]{Role.class}, Map.of("getName", name, "isManaged", false, "getIdLong", guildId + 10_000L + r)));
+            }
+            List<Category> categories = new ArrayList<>();
+            for (int c = 0; c < config.categoriesPerGuild(); c++) {
+                String name = c == 0 ? "Admin Panel" : "Category " + c;
+                categories.add(stub(new Class<?>[]{Category.class}, Map.of("getName", name, "getIdLong", guildId + 20_000L + c)));
+            }
+            Member admin = stub(new Class<?>[]{Member.class}, Map.of("isOwner", false, "hasPermission", (Answer) args -> true));
+            out.add(stub(new Class<?>[]{Guild.class}, Map.of(
+                    "getId", String.valueOf(guildId),
+                    "getIdLong", guildId,
+                    "getName", "Guild " + g,
+                    "getOwnerId", "0",
+                    "getRoles", roles,
+                    "getCategories", categories,
+                    "retrieveMemberById", action("guilds/members:get", null, () -> admin)
+            )));
+        }
+        return List.copyOf(out);
+    }
+
+    private Guild guildById(long id) {
+        int idx = (int) (id - FIRST_GUILD_ID);
+        return idx >= 0 && idx < guilds.size() ? guilds.get(idx) : null;
+    }
+
+    private static long snowflakeNow() {
+        return (System.currentTimeMillis() - TimeUtil.DISCORD_EPOCH) << TimeUtil.TIMESTAMP_OFFSET;
+    }
+
+    // ---------------------------------------------------------------------
+    // Proxy plumbing
+    // ---------------------------------------------------------------------
+
+    /** Computes an answer from the call's arguments. */
+    @FunctionalInterface
+    private interface Answer {
+        Object apply(Object[] args);
+    }
+
+    /** Marker: build a RestAction of whatever type the invoked method declares. */
+    private record Action(String route, String bucketKey, Supplier<Object> result, Runnable afterSuccess) {}
+
+    private static Action action(String route, String bucketKey, Supplier<Object> result) {
+        return new Action(route, bucketKey, result, null);
+    }
+
+    private static Action action(String route, String bucketKey, Supplier<Object> result, Runnable afterSuccess) {
+        return new Action(route, bucketKey, result, afterSuccess);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T stub(Class<?>[] types, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(FakeDiscord.class.getClassLoader(), types, (proxy, method, args) -> {
+            String name = method.getName();
+            Class<?> rt = method.getReturnType();
+            switch (name) {
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "Fake(" + types[0].getSimpleName() + ")"; }
+            }
+
+            Object answer = answers.get(name);
+            if (answer instanceof Answer a) answer = a.apply(args == null ? new Object[0] : args);
+            if (answer instanceof Action a) return restAction(rt, a);
+            if (answer != null) return answer;
+
+            if (rt.isInstance(proxy)) return proxy; // fluent setters
+            if (rt.isPrimitive()) return zero(rt);
+            if (List.class.isAssignableFrom(rt)) return List.of();
+            if (rt.isInterface()) return stub(new Class<?>[]{rt}, Map.of());
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object restAction(Class<?> declared, Action action) {
+        Class<?> type = RestAction.class.isAssignableFrom(declared) ? declared : RestAction.class;
+        return Proxy.newProxyInstance(FakeDiscord.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            String name = method.getName();
+            Class<?> rt = method.getReturnType();
+            switch (name) {
+                case "queue" -> {
+                    Consumer<Object> success = args != null && args.length > 0 ? (Consumer<Object>) args[0] : null;
+                    Consumer<Throwable> failure = args != null && args.length > 1 ? (Consumer<Throwable>) args[1] : null;
+                    dispatch(action.route(), action.bucketKey(),
+                            () -> {
+                                Object result = action.result().get();
+                                if (action.afterSuccess() != null) action.afterSuccess().run();
+                                if (success != null) success.accept(result);
+                            },
+                            err -> { if (failure != null) failure.accept(err); });
+                    return null;
+                }
+                case "submit" -> {
+                    CompletableFuture<Object> f = new CompletableFuture<>();
+                    dispatch(action.route(), action.bucketKey(),
+                            () -> {
+                                Object result = action.result().get();
+                                if (action.afterSuccess() != null) action.afterSuccess().run();
+                                f.complete(result);
+                            },
+                            f::completeExceptionally);
+                    return f;
+                }
+                case "complete" -> {
+                    CompletableFuture<Object> f = new CompletableFuture<>();
+                    dispatch(action.route(), action.bucketKey(),
+                            () -> f.complete(action.result().get()),
+                            f::completeExceptionally);
+                    try {
+                        return f.get();
+                    } catch (ExecutionException e) {
+                        throw e.getCause();
+                    }
+                }
+                case "setComponents" -> {
+                    componentsByRoute.put(action.route(), args[0] instanceof Object[] a ? List.of(a) : List.copyOf((Collection<?>) args[0]));
+                    return proxy;
+                }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "FakeAction(" + action.route() + ")"; }
+            }
+            if (rt.isInstance(proxy)) return proxy;
+            return rt.isPrimitive() ? zero(rt) : null;
+        });
+    }
+
+    private static Object zero(Class<?> primitive) {
+        if (primitive == void.class) return null;
+        if (primitive == boolean.class) return false;
+        if (primitive == long.class) return 0L;
+        if (primitive == int.class) return 0;
+        if (primitive == double.class) return 0d;
+        if (primitive == float.class) return 0f;
+        if (primitive == short.class) return (short) 0;
+        if (primitive == byte.class) return (byte) 0;
+        return '\0';
+    }
+}
@@ -0,0 +1,205 @@
+package com.darkmatterservers.eclipsebot.sim;
+
+import com.darkmatterservers.builder.Buttons;
+import com.darkmatterservers.eclipsebot.service.LoggerService;
+import com.darkmatterservers.eclipsebot.service.config.YamlService;
+import com.darkmatterservers.eclipsebot.service.discord.AdaptiveConcurrencyLimiter;
+import com.darkmatterservers.eclipsebot.service.discord.AdminGuildScanner;
+import com.darkmatterservers.eclipsebot.service.discord.Bytes;
+import com.darkmatterservers.eclipsebot.service.discord.DebugListener;
+import com.darkmatterservers.eclipsebot.service.discord.GuildEntityIndex;
+import com.darkmatterservers.eclipsebot.service.discord.OutboundScheduler;
+import com.darkmatterservers.eclipsebot.service.discord.PrivateChannelCache;
+import com.darkmatterservers.eclipsebot.service.discord.RateLimitTelemetry;
+import com.darkmatterservers.eclipsebot.service.discord.StatelessChainCodec;
+import com.darkmatterservers.eclipsebot.service.discord.chains.GuildProvisioner;
+import com.darkmatterservers.eclipsebot.service.discord.chains.MasterGuildSetup;
+import com.darkmatterservers.eclipsebot.service.trace.InteractionTracer;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.interactions.components.selections.SelectOption;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Offline load generator: N simulated admins walk the MasterGuildSetup wizard concurrently,
+ * every click going through DebugListener -> Bytes -> InteractionRouter against {@link FakeDiscord}.
+ * <p>
+ * Walk per user: start -> Next -> pick server -> Mods -> pick role -> pick category -> Done.
+ * Each step is timed from the gateway event to the completion of the resulting message edit.
+ * <p>
+ * Usage (via Gradle): ./gradlew simulate -Psim.users=5000 -Psim.latencyMs=40-120 -Psim.rateLimit=retry
+ * System properties: sim.users, sim.latencyMs ("min-max" or a single value), sim.rateLimit (none|retry|fail),
+ * sim.bucket (messages per window), sim.windowMs, sim.gatewayThreads, sim.timeoutSec, sim.verbose.
+ */
+public final class LoadDriver {
+
+    private static final int STEPS = 7;
+
+    private final FakeDiscord fake;
+    private final DebugListener listener;
+    private final MasterGuildSetup setup;
+    private final List<SelectOption> options;
+    private final ExecutorService gateway;
+    private final long[] latencies;
+    private final AtomicInteger latencyCount = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private LoadDriver(FakeDiscord fake, int users, int gatewayThreads) {
+        this.fake = fake;
+        this.gateway = Executors.newFixedThreadPool(gatewayThreads, r -> {
+            Thread t = new Thread(r, "fake-gateway");
+            t.setDaemon(true);
+            return t;
+        });
+        this.latencies = new long[users * STEPS];
+
+        LoggerService logger = new LoggerService(null);
+        YamlService yamlService = new YamlService(logger);
+        AtomicReference<JDA> jdaRef = new AtomicReference<>(fake.jda());
+        InteractionTracer tracer = new InteractionTracer();
+        OutboundScheduler outbound = new OutboundScheduler(null, logger);
+        Bytes bytes = new Bytes(jdaRef, logger, tracer, new PrivateChannelCache(jdaRef, outbound), outbound,
+                StatelessChainCodec.withKey(new byte[32]));
+        GuildEntityIndex entities = new GuildEntityIndex(jdaRef);
+        AdaptiveConcurrencyLimiter bulkLimiter = new AdaptiveConcurrencyLimiter(null, new RateLimitTelemetry());
+        bulkLimiter.init();
+        GuildProvisioner provisioner = new GuildProvisioner(logger, yamlService, jdaRef, entities, bulkLimiter);
+        this.setup = new MasterGuildSetup(bytes, yamlService, logger, jdaRef, tracer, entities, provisioner,
+                new AdminGuildScanner(jdaRef, bulkLimiter));
+        this.listener = new DebugListener(bytes, logger, tracer);
+
+        List<SelectOption> opts = new ArrayList<>();
+        for (Guild g : fake.guilds()) opts.add(SelectOption.of(g.getName(), g.getId()));
+        this.options = List.copyOf(opts);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users          = Integer.getInteger("sim.users", 2_000);
+        int gatewayThreads = Integer.getInteger("sim.gatewayThreads", 1); // JDA dispatches events on one thread
+        long timeoutSec    = Long.getLong("sim.timeoutSec", 600);
+        boolean verbose    = Boolean.getBoolean("sim.verbose");
+
+        String[] latency = System.getProperty("sim.latencyMs", "40-120").split("-");
+        long minLatency = Long.parseLong(latency[0].trim());
+        long maxLatency = latency.length > 1 ? Long.parseLong(latency[1].trim()) : minLatency;
+        FakeDiscord.RateLimitMode mode = FakeDiscord.RateLimitMode.valueOf(
+                System.getProperty("sim.rateLimit", "retry").toUpperCase());
+        FakeDiscord.Config config = new FakeDiscord.Config(
+                minLatency, maxLatency,
+                Integer.getInteger("sim.bucket", 5), Long.getLong("sim.windowMs", 5_000L),
+                mode, false, 5, 10, 5);
+
+        PrintStream out = System.out;
+        if (!verbose) System.setOut(new PrintStream(OutputStream.nullOutputStream(), false));
+
+        try (FakeDiscord fake = new FakeDiscord(config)) {
+            LoadDriver driver = new LoadDriver(fake, users, gatewayThreads);
+            out.println(driver.run(users, timeoutSec));
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private String run(int users, long timeoutSec) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long callsBefore = fake.restCalls();
+
+        CountDownLatch done = new CountDownLatch(users);
+        long start = System.nanoTime();
+        for (int u = 0; u < users; u++) {
+            long userId = 100_000_000_000_000_000L + u;
+            walk(userId, u, done);
+        }
+        boolean finished = done.await(timeoutSec, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        // Heap while every finished session has been dropped but the service graph is still alive
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        gateway.shutdownNow();
+
+        int n = latencyCount.get();
+        long[] sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        long interactions = (long) users * (STEPS - 1); // the start step isn't a user interaction
+        long calls = fake.restCalls() - callsBefore;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== EclipseBot offline load test ===\n");
+        sb.append(String.format("users=%d completed=%s failures=%d elapsed=%.2fs%n",
+                users, finished ? "all" : (users - done.getCount()), failures.get(), elapsedNanos / 1e9));
+        sb.append(String.format("throughput=%.1f interactions/s%n", n / (elapsedNanos / 1e9)));
+        sb.append(String.format("latency p50=%.1fms p99=%.1fms max=%.1fms (n=%d)%n",
+                pct(sorted, 0.50), pct(sorted, 0.99), n == 0 ? 0 : sorted[n - 1] / 1e6, n));
+        sb.append(String.format("rest calls=%d (%.2f per interaction), rate-limited=%d%n",
+                calls, calls / (double) Math.max(1, interactions), fake.rateLimitedCalls()));
+        for (Map.Entry<String, Long> e : fake.callsByRoute().entrySet()) {
+            sb.append("  ").append(e.getKey()).append(" = ").append(e.getValue()).append('\n');
+        }
+        sb.append(String.format("heap growth=%.1f MiB (%.0f bytes/user)%n",
+                (heapAfter - heapBefore) / 1048576.0, (heapAfter - heapBefore) / (double) users));
+        return sb.toString();
+    }
+
+    /** Chains the seven steps for one user without blocking a thread between them. */
+    private void walk(long userId, int index, CountDownLatch done) {
+        String uid = String.valueOf(userId);
+        String guildName = options.get(index % options.size()).getLabel();
+
+        List<Consumer<Void>> steps = List.of(
+                v -> setup.start(uid, options),
+                v -> listener.onButtonInteraction(fake.button(userId, Buttons.ID_NEXT)),
+                v -> listener.onStringSelectInteraction(fake.select(userId, MasterGuildSetup.ID_DD_SERVER, guildName)),
+                v -> listener.onButtonInteraction(fake.button(userId, MasterGuildSetup.ID_BTN_MODS)),
+                v -> listener.onStringSelectInteraction(fake.select(userId, MasterGuildSetup.ID_DD_ROLES, "Mods")),
+                v -> listener.onStringSelectInteraction(fake.select(userId, MasterGuildSetup.ID_DD_CATEGORY, "Admin Panel")),
+                v -> listener.onButtonInteraction(fake.button(userId, Buttons.ID_DONE))
+        );
+        step(userId, steps, 0, done);
+    }
+
+    private void step(long userId, List<Consumer<Void>> steps, int i, CountDownLatch done) {
+        if (i >= steps.size()) {
+            done.countDown();
+            return;
+        }
+        CompletableFuture<Long> rendered = fake.nextRender(userId);
+        long fired = System.nanoTime();
+        gateway.execute(() -> {
+            try {
+                steps.get(i).accept(null);
+            } catch (Throwable t) {
+                rendered.completeExceptionally(t);
+            }
+        });
+        rendered.orTimeout(30, TimeUnit.SECONDS).whenComplete((at, err) -> {
+            if (err != null) {
+                failures.incrementAndGet();
+                done.countDown();
+                return;
+            }
+            if (i > 0) latencies[latencyCount.getAndIncrement()] = at - fired;
+            step(userId, steps, i + 1, done);
+        });
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, idx)] / 1e6;
+    }
+}